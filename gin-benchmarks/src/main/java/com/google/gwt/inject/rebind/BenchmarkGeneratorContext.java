@@ -0,0 +1,148 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind;
+
+import com.google.gwt.core.ext.BadPropertyValueException;
+import com.google.gwt.core.ext.CachedGeneratorResult;
+import com.google.gwt.core.ext.ConfigurationProperty;
+import com.google.gwt.core.ext.DefaultConfigurationProperty;
+import com.google.gwt.core.ext.GeneratorContext;
+import com.google.gwt.core.ext.PropertyOracle;
+import com.google.gwt.core.ext.SelectionProperty;
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.core.ext.UnableToCompleteException;
+import com.google.gwt.core.ext.linker.Artifact;
+import com.google.gwt.core.ext.linker.GeneratedResource;
+import com.google.gwt.core.ext.typeinfo.TypeOracle;
+import com.google.gwt.dev.resource.ResourceOracle;
+
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal generator context for running the Gin generator outside of a GWT
+ * compile.  Generated sources are counted and discarded, no rebind rules are
+ * available and only the configuration properties passed to the constructor
+ * are defined.
+ */
+public class BenchmarkGeneratorContext implements GeneratorContext {
+
+  private final Map<String, List<String>> configurationProperties;
+
+  private long sourceChars;
+
+  public BenchmarkGeneratorContext(Map<String, List<String>> configurationProperties) {
+    this.configurationProperties =
+        new LinkedHashMap<String, List<String>>(configurationProperties);
+  }
+
+  /**
+   * Returns the number of characters written to all sources created through
+   * this context.
+   */
+  public synchronized long getSourceChars() {
+    return sourceChars;
+  }
+
+  private synchronized void addSourceChars(int count) {
+    sourceChars += count;
+  }
+
+  public boolean checkRebindRuleAvailable(String sourceTypeName) {
+    return false;
+  }
+
+  public PrintWriter tryCreate(TreeLogger logger, String packageName, String simpleName) {
+    return new PrintWriter(new Writer() {
+      @Override
+      public void write(char[] buffer, int offset, int length) {
+        addSourceChars(length);
+      }
+
+      @Override
+      public void flush() {
+      }
+
+      @Override
+      public void close() {
+      }
+    });
+  }
+
+  public void commit(TreeLogger logger, PrintWriter pw) {
+    pw.close();
+  }
+
+  public void commitArtifact(TreeLogger logger, Artifact<?> artifact)
+      throws UnableToCompleteException {
+  }
+
+  public GeneratedResource commitResource(TreeLogger logger, OutputStream os)
+      throws UnableToCompleteException {
+    throw new UnsupportedOperationException("Resources are not supported in benchmarks");
+  }
+
+  public OutputStream tryCreateResource(TreeLogger logger, String partialPath)
+      throws UnableToCompleteException {
+    return null;
+  }
+
+  public CachedGeneratorResult getCachedGeneratorResult() {
+    return null;
+  }
+
+  public PropertyOracle getPropertyOracle() {
+    return new PropertyOracle() {
+      public ConfigurationProperty getConfigurationProperty(String propertyName)
+          throws BadPropertyValueException {
+        List<String> values = configurationProperties.get(propertyName);
+        if (values == null) {
+          throw new BadPropertyValueException(propertyName);
+        }
+        return new DefaultConfigurationProperty(propertyName, values);
+      }
+
+      public SelectionProperty getSelectionProperty(TreeLogger logger, String propertyName)
+          throws BadPropertyValueException {
+        throw new BadPropertyValueException(propertyName);
+      }
+    };
+  }
+
+  public ResourceOracle getResourcesOracle() {
+    return null;
+  }
+
+  public TypeOracle getTypeOracle() {
+    return null;
+  }
+
+  public boolean isGeneratorResultCachingEnabled() {
+    return false;
+  }
+
+  public boolean isProdMode() {
+    return true;
+  }
+
+  public boolean tryReuseTypeFromCache(String typeName) {
+    return false;
+  }
+}
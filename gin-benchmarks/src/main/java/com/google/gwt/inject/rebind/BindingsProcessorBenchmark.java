@@ -0,0 +1,65 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind;
+
+import com.google.gwt.core.ext.UnableToCompleteException;
+import com.google.inject.Injector;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks processing the bindings of a synthetic ginjector, i.e. visiting
+ * its modules and resolving its implicit bindings (dependency exploration,
+ * validation, positioning and installation), as well as the whole generator
+ * run including output.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BindingsProcessorBenchmark extends SyntheticGinjectorBenchmark {
+
+  private BenchmarkGeneratorContext context;
+  private Injector injector;
+
+  @Setup(Level.Invocation)
+  public void createInjector() {
+    context = createContext();
+    injector = createGeneratorInjector(context);
+  }
+
+  @Benchmark
+  public GinjectorBindings process() throws UnableToCompleteException {
+    return SyntheticGinjector.process(injector);
+  }
+
+  @Benchmark
+  public long generate() throws UnableToCompleteException {
+    injector.getInstance(GinjectorGeneratorImpl.class).generate();
+    return context.getSourceChars();
+  }
+}
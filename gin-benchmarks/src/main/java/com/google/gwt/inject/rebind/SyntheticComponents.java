@@ -0,0 +1,149 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+/**
+ * Creates the {@code Component} types that synthetic ginjectors bind, one per
+ * package.  Gin splits its output by the package of the bound types, so the
+ * number of packages is part of the ginjector's shape and can't be limited to
+ * a fixed set of classes.
+ *
+ * <p>The types of package {@code i} are
+ * {@code com.google.gwt.inject.rebind.benchmark.p<i>.Component}, which has an
+ * {@code @Inject} constructor and method, and the {@code Dependency} both of
+ * them inject.  They are compiled with the system Java compiler the first
+ * time they are needed, and shared by all ginjectors of the process.
+ */
+final class SyntheticComponents {
+
+  private static final String PACKAGE_PREFIX = "com.google.gwt.inject.rebind.benchmark.p";
+
+  private static final List<Class<?>> components = new ArrayList<Class<?>>();
+
+  private SyntheticComponents() {
+  }
+
+  /**
+   * Returns the {@code Component} types of the given number of packages.
+   */
+  static synchronized List<Class<?>> get(int packages) {
+    if (components.size() < packages) {
+      compile(components.size(), packages);
+    }
+    return new ArrayList<Class<?>>(components.subList(0, packages));
+  }
+
+  /**
+   * Compiles the components of the packages from {@code first} (inclusive)
+   * to {@code end} (exclusive) and loads them in a new class loader.
+   */
+  private static void compile(int first, int end) {
+    try {
+      File directory = Files.createTempDirectory("synthetic-components").toFile();
+      List<String> arguments = new ArrayList<String>();
+      arguments.add("-nowarn");
+      arguments.add("-d");
+      arguments.add(directory.getPath());
+      arguments.add("-classpath");
+      arguments.add(System.getProperty("java.class.path"));
+      for (int i = first; i < end; i++) {
+        File packageDirectory = new File(directory, "p" + i);
+        if (!packageDirectory.mkdir()) {
+          throw new IOException("Unable to create " + packageDirectory);
+        }
+        arguments.add(write(packageDirectory, "Component", componentSource(i)));
+        arguments.add(write(packageDirectory, "Dependency", dependencySource(i)));
+      }
+
+      JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+      if (compiler == null) {
+        throw new IllegalStateException("Synthetic components need a JDK to be compiled");
+      }
+      if (compiler.run(null, null, null, arguments.toArray(new String[arguments.size()])) != 0) {
+        throw new IllegalStateException("Unable to compile synthetic components");
+      }
+
+      ClassLoader loader = new URLClassLoader(new URL[] {directory.toURI().toURL()},
+          SyntheticComponents.class.getClassLoader());
+      for (int i = first; i < end; i++) {
+        components.add(loader.loadClass(PACKAGE_PREFIX + i + ".Component"));
+      }
+    } catch (MalformedURLException e) {
+      throw new IllegalStateException(e);
+    } catch (IOException e) {
+      throw new IllegalStateException("Unable to write synthetic components", e);
+    } catch (ClassNotFoundException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static String write(File directory, String simpleName, String source)
+      throws IOException {
+    File file = new File(directory, simpleName + ".java");
+    Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8);
+    try {
+      writer.write(source);
+    } finally {
+      writer.close();
+    }
+    return file.getPath();
+  }
+
+  private static String componentSource(int index) {
+    return "package " + PACKAGE_PREFIX + index + ";\n"
+        + "\n"
+        + "import com.google.inject.Inject;\n"
+        + "import com.google.inject.Provider;\n"
+        + "\n"
+        + "public class Component {\n"
+        + "\n"
+        + "  @Inject\n"
+        + "  public Component(Dependency dependency, Provider<Dependency> dependencyProvider) {\n"
+        + "  }\n"
+        + "\n"
+        + "  @Inject\n"
+        + "  void setDependency(Dependency dependency) {\n"
+        + "  }\n"
+        + "}\n";
+  }
+
+  private static String dependencySource(int index) {
+    return "package " + PACKAGE_PREFIX + index + ";\n"
+        + "\n"
+        + "import com.google.inject.Inject;\n"
+        + "\n"
+        + "public class Dependency {\n"
+        + "\n"
+        + "  @Inject\n"
+        + "  public Dependency() {\n"
+        + "  }\n"
+        + "}\n";
+  }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind;
+
+import com.google.gwt.core.ext.GeneratorContext;
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.core.ext.UnableToCompleteException;
+import com.google.gwt.inject.client.AbstractGinModule;
+import com.google.gwt.inject.client.GinModule;
+import com.google.gwt.inject.client.Ginjector;
+import com.google.gwt.inject.client.PrivateGinModule;
+import com.google.gwt.inject.client.binder.GinBinder;
+import com.google.gwt.inject.client.binder.PrivateGinBinder;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.name.Names;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Describes a synthetic ginjector and creates the injector that Gin's
+ * generator uses internally to process it.
+ *
+ * <p>The ginjector's root module binds {@code keys} keys and installs
+ * {@code fanOut} private modules, each of which binds {@code keys} keys and
+ * installs {@code fanOut} private modules of its own, down to {@code depth}
+ * levels of private modules.  Every key is an eager singleton, so that all of
+ * them are output, and is bound to a {@code Component} type from one of
+ * {@code packages} packages, which determines the number of injector fragments,
+ * see {@link SyntheticComponents}.
+ * Each private module exposes its first key to its parent.
+ */
+public final class SyntheticGinjector {
+
+  /**
+   * The shape of the ginjector being generated.  Gin instantiates modules by
+   * class, so the root module can't be configured through its constructor.
+   */
+  private static SyntheticGinjector current;
+
+  private final int keys;
+  private final int depth;
+  private final int fanOut;
+  private final List<Class<?>> components;
+
+  public SyntheticGinjector(int keys, int depth, int fanOut, int packages) {
+    if (packages < 1) {
+      throw new IllegalArgumentException("At least one package is required, got " + packages);
+    }
+    this.keys = keys;
+    this.depth = depth;
+    this.fanOut = fanOut;
+    this.components = SyntheticComponents.get(packages);
+  }
+
+  /**
+   * Creates the injector used by the generator to process this ginjector.  Its
+   * {@link BindingsProcessor} and {@link GinjectorGeneratorImpl} may only be
+   * used once.
+   */
+  public Injector createGeneratorInjector(GeneratorContext context) {
+    current = this;
+    Set<Class<? extends GinModule>> moduleClasses =
+        Collections.<Class<? extends GinModule>>singleton(RootModule.class);
+    return Guice.createInjector(new GinjectorGeneratorModule(TreeLogger.NULL, context,
+        SyntheticGinjectorInterface.class, moduleClasses));
+  }
+
+  /**
+   * Processes the bindings of the ginjector with the given generator injector,
+   * returning the resolved root bindings, ready to be output.
+   */
+  public static GinjectorBindings process(Injector generatorInjector)
+      throws UnableToCompleteException {
+    generatorInjector.getInstance(BindingsProcessor.class).process();
+    return generatorInjector.getInstance(Key.get(GinjectorBindings.class, RootBindings.class));
+  }
+
+  /**
+   * Binds the keys of the module at the given path, returning the first one.
+   */
+  private Key<?> bindKeys(GinBinder binder, String path) {
+    Key<?> first = null;
+    for (int i = 0; i < keys; i++) {
+      Key<?> key = bindKey(binder, components.get(i % components.size()), path + "_" + i);
+      if (first == null) {
+        first = key;
+      }
+    }
+    return first;
+  }
+
+  private static <T> Key<T> bindKey(GinBinder binder, Class<T> type, String name) {
+    Key<T> key = Key.get(type, Names.named(name));
+    binder.bind(key).to(type).asEagerSingleton();
+    return key;
+  }
+
+  private void installChildren(GinBinder binder, String path, int level) {
+    if (level > depth) {
+      return;
+    }
+
+    for (int i = 0; i < fanOut; i++) {
+      binder.install(new ChildModule(this, path + "_" + i, level));
+    }
+  }
+
+  /**
+   * Interface of the synthetic ginjector.  All keys are made reachable through
+   * eager singletons.
+   */
+  interface SyntheticGinjectorInterface extends Ginjector {
+  }
+
+  static class RootModule extends AbstractGinModule {
+    @Override
+    protected void configure() {
+      current.bindKeys(binder(), "root");
+      current.installChildren(binder(), "child", 1);
+    }
+  }
+
+  static class ChildModule extends PrivateGinModule {
+    private final SyntheticGinjector ginjector;
+    private final String path;
+    private final int level;
+
+    ChildModule(SyntheticGinjector ginjector, String path, int level) {
+      this.ginjector = ginjector;
+      this.path = path;
+      this.level = level;
+    }
+
+    @Override
+    protected void configure() {
+      PrivateGinBinder binder = binder();
+      Key<?> first = ginjector.bindKeys(binder, path);
+      if (first != null) {
+        binder.expose(first);
+      }
+      ginjector.installChildren(binder, path, level + 1);
+    }
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind;
+
+import com.google.gwt.inject.rebind.util.GinProperties;
+import com.google.inject.Injector;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Base class of the benchmarks that run parts of the generator on a
+ * {@link SyntheticGinjector}, holding the parameters describing its shape.
+ */
+@State(Scope.Thread)
+public abstract class SyntheticGinjectorBenchmark {
+
+  /**
+   * Number of keys bound in each module.
+   */
+  @Param({"100", "1000"})
+  public int keys;
+
+  /**
+   * Levels of nested private modules below the root module.
+   */
+  @Param({"0", "2"})
+  public int depth;
+
+  /**
+   * Number of private modules installed by each module above the maximum
+   * depth.
+   */
+  @Param({"3"})
+  public int fanOut;
+
+  /**
+   * Number of packages the bound types are spread over.
+   */
+  @Param({"1", "4"})
+  public int packages;
+
+  /**
+   * Whether to enable {@link GinProperties#PARALLEL_RESOLUTION} and
+   * {@link GinProperties#PARALLEL_OUTPUT}.
+   */
+  @Param({"false"})
+  public boolean parallel;
+
+  /**
+   * Returns a fresh context to generate the synthetic ginjector in.
+   */
+  protected BenchmarkGeneratorContext createContext() {
+    Map<String, List<String>> properties = new LinkedHashMap<String, List<String>>();
+    List<String> value = Collections.singletonList(String.valueOf(parallel));
+    for (String property : Arrays.asList(GinProperties.PARALLEL_RESOLUTION,
+        GinProperties.PARALLEL_OUTPUT)) {
+      properties.put(property, value);
+    }
+    return new BenchmarkGeneratorContext(properties);
+  }
+
+  /**
+   * Returns a fresh generator injector for the synthetic ginjector, see
+   * {@link SyntheticGinjector#createGeneratorInjector}.
+   */
+  protected Injector createGeneratorInjector(BenchmarkGeneratorContext context) {
+    return new SyntheticGinjector(keys, depth, fanOut, packages)
+        .createGeneratorInjector(context);
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind.output;
+
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.core.ext.UnableToCompleteException;
+import com.google.gwt.inject.rebind.BenchmarkGeneratorContext;
+import com.google.gwt.inject.rebind.GinjectorBindings;
+import com.google.gwt.inject.rebind.SyntheticGinjector;
+import com.google.gwt.inject.rebind.SyntheticGinjectorBenchmark;
+import com.google.gwt.inject.rebind.util.GinProperties;
+import com.google.gwt.inject.rebind.util.GuiceUtil;
+import com.google.gwt.inject.rebind.util.MemberCollector;
+import com.google.gwt.inject.rebind.util.RebindTimings;
+import com.google.inject.Injector;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the output of a synthetic ginjector whose bindings have already
+ * been processed: the reachability analysis on its own, and writing the
+ * source of all injectors and fragments (which includes the reachability
+ * analysis).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OutputBenchmark extends SyntheticGinjectorBenchmark {
+
+  private BenchmarkGeneratorContext context;
+  private Injector injector;
+  private GinjectorBindings rootBindings;
+
+  @Setup(Level.Invocation)
+  public void processBindings() throws UnableToCompleteException {
+    context = createContext();
+    injector = createGeneratorInjector(context);
+    rootBindings = SyntheticGinjector.process(injector);
+  }
+
+  @Benchmark
+  public ReachabilityAnalyzer reachability() {
+    // The analyzer is private to the output module, so it is created directly.
+    ReachabilityAnalyzer analyzer = new ReachabilityAnalyzer(
+        injector.getInstance(GuiceUtil.class), injector.getProvider(MemberCollector.class),
+        rootBindings, TreeLogger.NULL, injector.getInstance(RebindTimings.class),
+        injector.getInstance(GinProperties.class));
+    analyzer.analyze();
+    return analyzer;
+  }
+
+  @Benchmark
+  public long write() throws UnableToCompleteException {
+    injector.getInstance(GinjectorImplOutputter.class).write("com.google.gwt.inject.rebind",
+        "SyntheticGinjectorImpl",
+        context.tryCreate(TreeLogger.NULL, "com.google.gwt.inject.rebind", "SyntheticGinjectorImpl"),
+        rootBindings);
+    return context.getSourceChars();
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind.util;
+
+import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
+import com.google.inject.name.Names;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks naming the getters, singleton fields and member inject methods of
+ * many keys with a fresh {@link NameGenerator}, as done for every ginjector.
+ * The keys have long generic types and annotation values, and half of them
+ * share their type with another key.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NameGeneratorBenchmark {
+
+  @Param({"1000", "10000"})
+  public int keys;
+
+  /**
+   * Whether to use {@link GinProperties#VERBOSE_NAMES}.
+   */
+  @Param({"false", "true"})
+  public boolean verbose;
+
+  private final List<Key<?>> keyList = new ArrayList<Key<?>>();
+
+  @Setup
+  public void createKeys() {
+    keyList.clear();
+    TypeLiteral<Map<String, List<Map<Integer, String>>>> type =
+        new TypeLiteral<Map<String, List<Map<Integer, String>>>>() {};
+    for (int i = 0; i < keys; i++) {
+      String name = "a.fairly.long.configuration.value." + (i / 2);
+      keyList.add(i % 2 == 0 ? Key.get(type, Names.named(name)) : Key.get(String.class,
+          Names.named(name)));
+    }
+  }
+
+  @Benchmark
+  public void nameKeys(Blackhole blackhole) {
+    NameGenerator nameGenerator = new NameGenerator(verbose);
+    for (Key<?> key : keyList) {
+      blackhole.consume(nameGenerator.getGetterMethodName(key));
+      blackhole.consume(nameGenerator.getSingletonFieldName(key));
+      blackhole.consume(nameGenerator.getMemberInjectMethodName(key.getTypeLiteral()));
+    }
+  }
+}
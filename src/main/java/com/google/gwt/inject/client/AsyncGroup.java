@@ -0,0 +1,65 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.client;
+
+import com.google.inject.BindingAnnotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Places the code loaded by an {@link AsyncProvider} in a split point shared by
+ * all providers of the same group, so that the first request for any of them
+ * downloads the code of all of them.
+ *
+ * <p>The annotation can be put on a type, which groups every
+ * {@code AsyncProvider} of that type, or on the injection point of an
+ * {@code AsyncProvider} (including a Ginjector method), which only groups that
+ * provider and takes precedence over an annotation on the provided type.
+ *
+ * <p>On a {@link PrivateGinModule}, the annotation loads the whole child
+ * injector of the module behind the split point of the group.  The keys the
+ * module exposes can then only be injected as {@code AsyncProvider}s or
+ * {@code PrefetchableAsyncProvider}s of that group, and the module cannot
+ * bind eager singletons or request static injection.
+ *
+ * <p>The group is named by a class, which also names the shared
+ * {@code GWT.runAsync} split point, for example in the
+ * {@code compiler.splitpoint.initial.sequence} configuration property.  The
+ * class must be visible from its own package.
+ *
+ * <p>Example:
+ * <pre>  &#64;AsyncGroup(AdminScreens.class)
+ *  public class UserEditor {
+ *    // ...
+ *  }
+ *
+ *  public class AdminPresenter {
+ *    &#64;Inject
+ *    AdminPresenter(AsyncProvider&lt;UserEditor&gt; editor,
+ *        &#64;AsyncGroup(AdminScreens.class) AsyncProvider&lt;AuditLog&gt; auditLog) {
+ *      // ...
+ *    }
+ *  }</pre>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.PARAMETER, ElementType.METHOD, ElementType.TYPE})
+@BindingAnnotation
+public @interface AsyncGroup {
+  Class<?> value();
+}
@@ -36,6 +36,10 @@ import com.google.gwt.user.client.rpc.AsyncCallback;
  *      }
  *  </pre>
  *
+ * <p>Requests made while the code of T is being loaded share one pass through
+ * the split point.  Inject a {@link PrefetchableAsyncProvider} to load the
+ * code ahead of time.
+ *
  * @param <T> type
  */
 public interface AsyncProvider<T> {
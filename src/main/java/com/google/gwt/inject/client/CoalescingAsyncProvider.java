@@ -0,0 +1,93 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.client;
+
+import com.google.gwt.user.client.rpc.AsyncCallback;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * For internal Gin use only.
+ *
+ * Base class of the generated {@link AsyncProvider}s.  While the code of the
+ * provided type is being loaded, further requests are queued instead of
+ * entering the split point again, and are all served when loading finishes.
+ *
+ * @param <T> type
+ */
+public abstract class CoalescingAsyncProvider<T> implements PrefetchableAsyncProvider<T> {
+
+  /**
+   * The requests waiting for the code to be loaded, or {@code null} if it is
+   * not being loaded.
+   */
+  private List<AsyncCallback<? super T>> pendingCallbacks;
+
+  private boolean loaded;
+
+  /**
+   * Enters the split point of the provided type, or of its {@link AsyncGroup}.
+   * The callback passed to {@code GWT.runAsync} must be created by the
+   * generated code, so that the compiler only attributes the code of the
+   * provided types to that split point, and must serve the requests through
+   * {@link #onLoaded} and {@link #onLoadFailure}.
+   */
+  protected abstract void load();
+
+  public void get(AsyncCallback<? super T> callback) {
+    boolean loading = pendingCallbacks != null;
+    if (!loading) {
+      pendingCallbacks = new ArrayList<AsyncCallback<? super T>>();
+    }
+    pendingCallbacks.add(callback);
+    if (!loading) {
+      load();
+    }
+  }
+
+  public void prefetch() {
+    if (!loaded && pendingCallbacks == null) {
+      pendingCallbacks = new ArrayList<AsyncCallback<? super T>>();
+      load();
+    }
+  }
+
+  /**
+   * Records that the code of the provided type was loaded and returns the
+   * requests waiting for it, each of which must be passed a new instance.
+   */
+  public final List<AsyncCallback<? super T>> onLoaded() {
+    loaded = true;
+    return takePendingCallbacks();
+  }
+
+  /**
+   * Fails all requests waiting for the code of the provided type.
+   */
+  public final void onLoadFailure(Throwable reason) {
+    for (AsyncCallback<? super T> callback : takePendingCallbacks()) {
+      callback.onFailure(reason);
+    }
+  }
+
+  private List<AsyncCallback<? super T>> takePendingCallbacks() {
+    List<AsyncCallback<? super T>> callbacks = pendingCallbacks;
+    pendingCallbacks = null;
+    return callbacks != null ? callbacks : Collections.<AsyncCallback<? super T>>emptyList();
+  }
+}
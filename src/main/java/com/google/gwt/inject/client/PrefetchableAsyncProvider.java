@@ -0,0 +1,35 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.client;
+
+/**
+ * An {@link AsyncProvider} that can load the code of the instances it
+ * provides ahead of time, e.g. while the user is about to navigate to the
+ * part of the application that needs them.  Gin binds
+ * {@code PrefetchableAsyncProvider<T>} implicitly, like {@code AsyncProvider<T>}.
+ *
+ * @param <T> type
+ */
+public interface PrefetchableAsyncProvider<T> extends AsyncProvider<T> {
+
+  /**
+   * Starts loading the code needed to create an instance of T, without
+   * creating one.  Does nothing if the code is already loaded or being
+   * loaded.  If loading fails, the next call of {@link #get} or
+   * {@code prefetch()} tries again.
+   */
+  void prefetch();
+}
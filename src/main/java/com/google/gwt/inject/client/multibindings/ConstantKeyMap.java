@@ -0,0 +1,125 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.client.multibindings;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * For internal Gin use only.
+ *
+ * Immutable map of compile-time constant keys whose values are only created
+ * when they are first looked up.  Generated subclasses dispatch from a key to
+ * its index with a {@code switch} and create the value of an index by calling
+ * the getter of the contribution bound to it, so neither building the map nor
+ * looking up one of its keys touches the other entries.
+ *
+ * @param <K> type of key for map
+ * @param <V> type of value for map
+ */
+public abstract class ConstantKeyMap<K, V> extends AbstractMap<K, V> {
+
+  private final int size;
+  private final Object[] values;
+  private final boolean[] created;
+  private Set<Entry<K, V>> entrySet;
+
+  protected ConstantKeyMap(int size) {
+    this.size = size;
+    this.values = new Object[size];
+    this.created = new boolean[size];
+  }
+
+  /**
+   * Returns the index of the passed key, or {@code -1} if it is not a key of
+   * this map.
+   */
+  protected abstract int indexOf(Object key);
+
+  /**
+   * Returns the key at the passed index.
+   */
+  protected abstract K keyAt(int index);
+
+  /**
+   * Creates the value of the key at the passed index.
+   */
+  protected abstract V create(int index);
+
+  @Override
+  public V get(Object key) {
+    int index = indexOf(key);
+    return index < 0 ? null : valueAt(index);
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return indexOf(key) >= 0;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public Set<Entry<K, V>> entrySet() {
+    if (entrySet == null) {
+      entrySet = new AbstractSet<Entry<K, V>>() {
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+          return new Iterator<Entry<K, V>>() {
+            private int next = 0;
+
+            public boolean hasNext() {
+              return next < size;
+            }
+
+            public Entry<K, V> next() {
+              if (next >= size) {
+                throw new NoSuchElementException();
+              }
+              int index = next++;
+              return new SimpleImmutableEntry<K, V>(keyAt(index), valueAt(index));
+            }
+
+            public void remove() {
+              throw new UnsupportedOperationException();
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return size;
+        }
+      };
+    }
+    return entrySet;
+  }
+
+  @SuppressWarnings("unchecked")
+  private V valueAt(int index) {
+    if (!created[index]) {
+      values[index] = create(index);
+      created[index] = true;
+    }
+    return (V) values[index];
+  }
+}
@@ -23,10 +23,20 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
 /**
- * A binding annotation to differentiate internal multibinding bindings from
- * external ones.
+ * A binding annotation that tells apart the bindings of the elements (and map
+ * keys) contributed to a multibinding.  Every contribution is bound with its
+ * own {@link #uniqueId()}, so contributions never collide with each other or
+ * with regular bindings of the same type.
  */
 @BindingAnnotation
 @Retention(RetentionPolicy.RUNTIME)
-@Target({ElementType.PARAMETER, ElementType.FIELD})
-@interface Internal { }
+@Target({ElementType.PARAMETER, ElementType.FIELD, ElementType.METHOD})
+@interface Element {
+
+  /**
+   * Description of the key of the multibinding the element belongs to.
+   */
+  String multibinding();
+
+  int uniqueId();
+}
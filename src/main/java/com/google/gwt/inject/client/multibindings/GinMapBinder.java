@@ -16,16 +16,11 @@
 package com.google.gwt.inject.client.multibindings;
 
 import static com.google.gwt.inject.client.multibindings.TypeLiterals.mapOf;
-import static com.google.gwt.inject.client.multibindings.TypeLiterals.providerOf;
-import static com.google.gwt.inject.client.multibindings.TypeLiterals.setOf;
 
 import com.google.gwt.inject.client.binder.GinBinder;
+import com.google.gwt.inject.client.binder.GinConstantBindingBuilder;
 import com.google.gwt.inject.client.binder.GinLinkedBindingBuilder;
-import com.google.gwt.inject.client.binder.GinScopedBindingBuilder;
-import com.google.gwt.inject.client.multibindings.InternalModule.SingletonInternalModule;
 import com.google.inject.Key;
-import com.google.inject.Provider;
-import com.google.inject.Singleton;
 import com.google.inject.TypeLiteral;
 
 import java.lang.annotation.Annotation;
@@ -92,7 +87,7 @@ public final class GinMapBinder<K, V> {
    */
   public static <K, V> GinMapBinder<K, V> newMapBinder(
       GinBinder binder, TypeLiteral<K> keyType, TypeLiteral<V> valueType) {
-    return newMapBinder(binder, keyType, valueType, Key.get(entryOf(keyType, valueType)));
+    return newMapBinder(binder, keyType, valueType, Key.get(mapOf(keyType, valueType)));
   }
 
   /**
@@ -111,7 +106,7 @@ public final class GinMapBinder<K, V> {
   public static <K, V> GinMapBinder<K, V> newMapBinder(
       GinBinder binder, TypeLiteral<K> keyType, TypeLiteral<V> valueType, Annotation annotation) {
     return newMapBinder(
-        binder, keyType, valueType, Key.get(entryOf(keyType, valueType), annotation));
+        binder, keyType, valueType, Key.get(mapOf(keyType, valueType), annotation));
   }
 
   /**
@@ -130,7 +125,7 @@ public final class GinMapBinder<K, V> {
   public static <K, V> GinMapBinder<K, V> newMapBinder(GinBinder binder, TypeLiteral<K> keyType,
       TypeLiteral<V> valueType, Class<? extends Annotation> annotationType) {
     return newMapBinder(
-        binder, keyType, valueType, Key.get(entryOf(keyType, valueType), annotationType));
+        binder, keyType, valueType, Key.get(mapOf(keyType, valueType), annotationType));
   }
 
   /**
@@ -144,8 +139,8 @@ public final class GinMapBinder<K, V> {
   }
 
   private static <K, V> GinMapBinder<K, V> newMapBinder(GinBinder binder, TypeLiteral<K> keyType,
-      TypeLiteral<V> valueType, Key<MapEntry<K, V>> registryKey) {
-    GinMapBinder<K, V> mapBinder = new GinMapBinder<K, V>(binder, keyType, valueType, registryKey);
+      TypeLiteral<V> valueType, Key<Map<K, V>> mapKey) {
+    GinMapBinder<K, V> mapBinder = new GinMapBinder<K, V>(binder, keyType, valueType, mapKey);
     mapBinder.install();
     return mapBinder;
   }
@@ -153,19 +148,18 @@ public final class GinMapBinder<K, V> {
   private final GinBinder ginBinder;
   private final TypeLiteral<K> keyType;
   private final TypeLiteral<V> valueType;
-  private final Key<MapEntry<K, V>> multibindingKey;
+  private final Key<Map<K, V>> mapKey;
 
   private GinMapBinder(GinBinder ginBinder, TypeLiteral<K> keyType, TypeLiteral<V> valueType,
-      Key<MapEntry<K, V>> keyForMultibinding) {
+      Key<Map<K, V>> mapKey) {
     this.ginBinder = ginBinder;
     this.keyType = keyType;
     this.valueType = valueType;
-    this.multibindingKey = keyForMultibinding;
+    this.mapKey = mapKey;
   }
 
   private void install() {
-    ginBinder.install(new RuntimeBindingsRegistryModule<MapEntry<K, V>>(multibindingKey));
-    ginBinder.install(new MapModule());
+    ginBinder.install(MultibindingModule.declaration(mapKey));
   }
 
   /**
@@ -183,8 +177,24 @@ public final class GinMapBinder<K, V> {
    * @return this map binder
    */
   public GinMapBinder<K, V> permitDuplicates() {
-    ginBinder.install(new PermitDuplicatesModule<MapEntry<K, V>>(multibindingKey));
-    ginBinder.install(new MultimapModule());
+    ginBinder.install(MultibindingModule.permitDuplicates(mapKey));
+    return this;
+  }
+
+  /**
+   * Configures the {@code MapBinder} to create each value of the {@code Map<K, V>} and
+   * {@code Map<K, Provider<V>>} maps only when its key is first looked up, instead of creating
+   * all values whenever the map is injected. Lookups dispatch directly to the binding of the
+   * requested key, so injecting the map and getting one value is independent of the number of
+   * entries. Once created, a value is kept by the map instance.
+   * <p>
+   * This only applies to maps with {@code String} or enum keys that were all added with
+   * {@link #addBinding(Object)} and contain no duplicates. Other maps are built as usual.
+   *
+   * @return this map binder
+   */
+  public GinMapBinder<K, V> createValuesOnLookup() {
+    ginBinder.install(MultibindingModule.createValuesOnLookup(mapKey));
     return this;
   }
 
@@ -199,32 +209,37 @@ public final class GinMapBinder<K, V> {
    * scope.
    */
   public GinLinkedBindingBuilder<V> addBinding(K key) {
-    BindingRecorder recorder = createRecorder();
+    Element keyElement = RealElement.create(mapKey);
+    GinConstantBindingBuilder keyBinder = ginBinder.bindConstant().annotatedWith(keyElement);
     if (key instanceof String) {
-      recorder.bindConstant().to((String) key);
+      keyBinder.to((String) key);
     } else if (key instanceof Enum<?>) {
-      recorder.bindConstant().to((Enum) key);
+      keyBinder.to((Enum) key);
     } else if (key instanceof Integer) {
-      recorder.bindConstant().to((Integer) key);
+      keyBinder.to((Integer) key);
     } else if (key instanceof Long) {
-      recorder.bindConstant().to((Long) key);
+      keyBinder.to((Long) key);
     } else if (key instanceof Float) {
-      recorder.bindConstant().to((Float) key);
+      keyBinder.to((Float) key);
     } else if (key instanceof Double) {
-      recorder.bindConstant().to((Double) key);
+      keyBinder.to((Double) key);
     } else if (key instanceof Short) {
-      recorder.bindConstant().to((Short) key);
+      keyBinder.to((Short) key);
     } else if (key instanceof Boolean) {
-      recorder.bindConstant().to((Boolean) key);
+      keyBinder.to((Boolean) key);
     } else if (key instanceof Character) {
-      recorder.bindConstant().to((Character) key);
+      keyBinder.to((Character) key);
     } else if (key instanceof Class<?>) {
-      recorder.bindConstant().to((Class<?>) key);
+      keyBinder.to((Class<?>) key);
     } else {
       throw new IllegalArgumentException(
           "Key type " + keyType + " is non-constant and can only be added using providers");
     }
-    return recorder.bind(valueType);
+
+    // Constants are bound with the type of their value, enum constants with their enum type.
+    Class<?> constantType =
+        key instanceof Enum<?> ? ((Enum<?>) key).getDeclaringClass() : key.getClass();
+    return addEntry(Key.get(constantType, keyElement));
   }
 
   /**
@@ -254,78 +269,14 @@ public final class GinMapBinder<K, V> {
    */
   public GinLinkedBindingBuilder<V> addBinding(
       TypeLiteral<? extends javax.inject.Provider<? extends K>> keyProvider) {
-    BindingRecorder recorder = createRecorder();
-    recorder.bind(keyType).toProvider(Key.get(keyProvider));
-    return recorder.bind(valueType);
-  }
-
-  private BindingRecorder createRecorder() {
-    BindingRecorder recorder = new BindingRecorder(ginBinder, multibindingKey);
-    // binds @Internal MapEntry<K, V> to MapEntry
-    recorder.bind(multibindingKey.getTypeLiteral()).to(multibindingKey.getTypeLiteral());
-    return recorder;
-  }
-
-  // TODO(user): not private due to http://code.google.com/p/google-gin/issues/detail?id=184
-  final class MapModule extends AbstractMapModule {
-    @Override
-    protected void configure() {
-      bindInternalBindingsRegistry();
-      bindMap(valueType, providerForMapOf(keyType, valueType));
-      bindMap(providerOf(valueType), providerForProviderMapOf(keyType, valueType))
-          .in(Singleton.class);
-    }
-  }
-
-  // TODO(user): not private due to http://code.google.com/p/google-gin/issues/detail?id=184
-  final class MultimapModule extends AbstractMapModule {
-    @Override
-    protected void configure() {
-      bindInternalBindingsRegistry();
-      bindMap(setOf(valueType), providerForMultiMapOf(keyType, valueType));
-      bindMap(setOf(providerOf(valueType)), providerForProviderMultiMapOf(keyType, valueType))
-          .in(Singleton.class);
-    }
-  }
-
-  private abstract class AbstractMapModule extends SingletonInternalModule<MapEntry<K, V>> {
-    AbstractMapModule() {
-      super(multibindingKey);
-    }
-
-    protected <V> GinScopedBindingBuilder bindMap(
-        TypeLiteral<V> valueType, TypeLiteral<? extends Provider<Map<K, V>>> providerType) {
-      return bindAndExpose(mapOf(keyType, valueType)).toProvider(Key.get(providerType));
-    }
-  }
-
-  @SuppressWarnings("unchecked")
-  private static <K, V> TypeLiteral<MapEntry<K, V>> entryOf(
-      TypeLiteral<K> keyType, TypeLiteral<V> valueType) {
-    return TypeLiterals.newParameterizedType(MapEntry.class, keyType, valueType);
-  }
-
-  @SuppressWarnings("unchecked")
-  private static <K, V> TypeLiteral<ProviderForMap<K, V>> providerForMapOf(TypeLiteral<K> keyType,
-      TypeLiteral<V> valueType) {
-    return TypeLiterals.newParameterizedType(ProviderForMap.class, keyType, valueType);
-  }
-
-  @SuppressWarnings("unchecked")
-  private static <K, V> TypeLiteral<ProviderForMultiMap<K, V>> providerForMultiMapOf(
-      TypeLiteral<K> keyType, TypeLiteral<V> valueType) {
-    return TypeLiterals.newParameterizedType(ProviderForMultiMap.class, keyType, valueType);
-  }
-
-  @SuppressWarnings("unchecked")
-  private static <K, V> TypeLiteral<ProviderForProviderMap<K, V>> providerForProviderMapOf(
-      TypeLiteral<K> keyType, TypeLiteral<V> valueType) {
-    return TypeLiterals.newParameterizedType(ProviderForProviderMap.class, keyType, valueType);
+    Key<K> entryKey = Key.get(keyType, RealElement.create(mapKey));
+    ginBinder.bind(entryKey).toProvider(Key.get(keyProvider));
+    return addEntry(entryKey);
   }
 
-  @SuppressWarnings("unchecked")
-  private static <K, V> TypeLiteral<ProviderForProviderMultiMap<K, V>>
-      providerForProviderMultiMapOf(TypeLiteral<K> keyType, TypeLiteral<V> valueType) {
-    return TypeLiterals.newParameterizedType(ProviderForProviderMultiMap.class, keyType, valueType);
+  private GinLinkedBindingBuilder<V> addEntry(Key<?> entryKey) {
+    Key<V> valueKey = Key.get(valueType, RealElement.create(mapKey));
+    ginBinder.install(MultibindingModule.entry(mapKey, entryKey, valueKey));
+    return ginBinder.bind(valueKey);
   }
 }
@@ -20,12 +20,12 @@ import static com.google.gwt.inject.client.multibindings.TypeLiterals.setOf;
 
 import com.google.gwt.inject.client.binder.GinBinder;
 import com.google.gwt.inject.client.binder.GinLinkedBindingBuilder;
-import com.google.gwt.inject.client.multibindings.InternalModule.SingletonInternalModule;
 import com.google.inject.Key;
 import com.google.inject.Provider;
 import com.google.inject.TypeLiteral;
 
 import java.lang.annotation.Annotation;
+import java.util.Set;
 
 /**
  * A utility that mimics the behavior and API of Guice Multibinder for GIN.
@@ -112,18 +112,17 @@ public final class GinMultibinder<T> {
 
   private final GinBinder ginBinder;
   private final TypeLiteral<T> elementType;
-  private final Key<Provider<T>> multibindingKey;
+  private final Key<Set<T>> setKey;
 
   public GinMultibinder(
       GinBinder ginBinder, TypeLiteral<T> elementType, Key<Provider<T>> keyForMultibinding) {
     this.ginBinder = ginBinder;
     this.elementType = elementType;
-    this.multibindingKey = keyForMultibinding;
+    this.setKey = keyForMultibinding.ofType(setOf(elementType));
   }
 
   private void install() {
-    ginBinder.install(new RuntimeBindingsRegistryModule<Provider<T>>(multibindingKey));
-    ginBinder.install(new SetModule());
+    ginBinder.install(MultibindingModule.declaration(setKey));
   }
 
   /**
@@ -132,7 +131,7 @@ public final class GinMultibinder<T> {
    * the set, this configuration option impacts all of them.
    */
   public GinMultibinder<T> permitDuplicates() {
-    ginBinder.install(new PermitDuplicatesModule<Provider<T>>(multibindingKey));
+    ginBinder.install(MultibindingModule.permitDuplicates(setKey));
     return this;
   }
 
@@ -147,25 +146,8 @@ public final class GinMultibinder<T> {
    * scope.
    */
   public GinLinkedBindingBuilder<T> addBinding() {
-    return new BindingRecorder(ginBinder, multibindingKey).bind(elementType);
-  }
-
-  // TODO(user): not private due to http://code.google.com/p/google-gin/issues/detail?id=184
-  final class SetModule extends SingletonInternalModule<Provider<T>> {
-
-    SetModule() {
-      super(multibindingKey);
-    }
-
-    @Override
-    protected void configure() {
-      bindInternalBindingsRegistry();
-      bindAndExpose(setOf(elementType)).toProvider(Key.get(providerForSetOf(elementType)));
-    }
-  }
-
-  @SuppressWarnings("unchecked")
-  private static <T> TypeLiteral<ProviderForSet<T>> providerForSetOf(TypeLiteral<T> type) {
-    return TypeLiterals.newParameterizedType(ProviderForSet.class, type);
+    Key<T> elementKey = Key.get(elementType, RealElement.create(setKey));
+    ginBinder.install(MultibindingModule.element(setKey, elementKey));
+    return ginBinder.bind(elementKey);
   }
 }
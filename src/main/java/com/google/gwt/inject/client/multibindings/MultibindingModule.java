@@ -0,0 +1,153 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.client.multibindings;
+
+import com.google.gwt.inject.client.GinModule;
+import com.google.gwt.inject.client.binder.GinBinder;
+import com.google.inject.Key;
+
+/**
+ * For internal Gin use only.
+ *
+ * Fake module that transports multibinding information from user-defined
+ * modules to the bindings processor, which binds the multibound {@code Set} or
+ * {@code Map} itself.  Every instance declares the multibinding bound to
+ * {@link #getMultibindingKey()} and may additionally contribute an element or
+ * map entry to it, permit duplicates in it or, for maps, ask for values that
+ * are created on lookup.
+ */
+public class MultibindingModule implements GinModule {
+
+  private final Key<?> multibindingKey;
+  private final Key<?> mapKey;
+  private final Key<?> valueKey;
+  private final boolean permitDuplicates;
+  private final boolean createValuesOnLookup;
+  private final String source;
+
+  /**
+   * Declares the (possibly empty) multibinding bound to the passed key.
+   */
+  static MultibindingModule declaration(Key<?> multibindingKey) {
+    return new MultibindingModule(multibindingKey, null, null, false, false);
+  }
+
+  /**
+   * Contributes the value bound to {@code valueKey} to the passed set binding.
+   */
+  static MultibindingModule element(Key<?> setKey, Key<?> valueKey) {
+    return new MultibindingModule(setKey, null, valueKey, false, false);
+  }
+
+  /**
+   * Contributes an entry with the key bound to {@code mapKey} and the value
+   * bound to {@code valueKey} to the passed map binding.
+   */
+  static MultibindingModule entry(Key<?> mapBindingKey, Key<?> mapKey, Key<?> valueKey) {
+    return new MultibindingModule(mapBindingKey, mapKey, valueKey, false, false);
+  }
+
+  /**
+   * Permits duplicate elements or keys in the passed multibinding.
+   */
+  static MultibindingModule permitDuplicates(Key<?> multibindingKey) {
+    return new MultibindingModule(multibindingKey, null, null, true, false);
+  }
+
+  /**
+   * Asks for the values of the passed map binding to be created when their
+   * keys are looked up instead of when the map is injected.
+   */
+  static MultibindingModule createValuesOnLookup(Key<?> mapBindingKey) {
+    return new MultibindingModule(mapBindingKey, null, null, false, true);
+  }
+
+  /**
+   * Restarts the ids of the {@link Element} annotations created by the
+   * multibinders on the current thread.  Must be called before the modules of
+   * a ginjector are configured, so that the keys of the contributions to its
+   * multibindings don't depend on the ginjectors configured before.
+   */
+  public static void resetElementIds() {
+    RealElement.resetUniqueIds();
+  }
+
+  private MultibindingModule(Key<?> multibindingKey, Key<?> mapKey, Key<?> valueKey,
+      boolean permitDuplicates, boolean createValuesOnLookup) {
+    this.multibindingKey = multibindingKey;
+    this.mapKey = mapKey;
+    this.valueKey = valueKey;
+    this.permitDuplicates = permitDuplicates;
+    this.createValuesOnLookup = createValuesOnLookup;
+    this.source = findCaller();
+  }
+
+  /**
+   * Returns the key of the multibinding, either a {@code Set<T>} or a
+   * {@code Map<K, V>} key.
+   */
+  public Key<?> getMultibindingKey() {
+    return multibindingKey;
+  }
+
+  /**
+   * Returns the key bound to the map key of the contributed entry, or
+   * {@code null} if this module doesn't contribute a map entry.
+   */
+  public Key<?> getMapKey() {
+    return mapKey;
+  }
+
+  /**
+   * Returns the key bound to the contributed set element or map value, or
+   * {@code null} if this module doesn't contribute to the multibinding.
+   */
+  public Key<?> getValueKey() {
+    return valueKey;
+  }
+
+  public boolean isPermitDuplicates() {
+    return permitDuplicates;
+  }
+
+  public boolean isCreateValuesOnLookup() {
+    return createValuesOnLookup;
+  }
+
+  /**
+   * Returns the source location of the multibinding call.
+   */
+  public String getSource() {
+    return source;
+  }
+
+  public void configure(GinBinder binder) { }
+
+  private String findCaller() {
+    Throwable dummyThrowableForStackTrace = new Throwable();
+
+    for (StackTraceElement element : dummyThrowableForStackTrace.getStackTrace()) {
+      String className = element.getClassName();
+      if (!className.equals(MultibindingModule.class.getName())
+          && !className.equals(GinMultibinder.class.getName())
+          && !className.equals(GinMapBinder.class.getName())) {
+        return element.toString();
+      }
+    }
+
+    return "definition of multibinding " + multibindingKey;
+  }
+}
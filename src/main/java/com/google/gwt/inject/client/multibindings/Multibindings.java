@@ -0,0 +1,61 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.client.multibindings;
+
+import static com.google.gwt.inject.client.multibindings.Preconditions.checkState;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * For internal Gin use only.
+ *
+ * Helpers called by the generated getters of multibound sets and maps.
+ */
+public final class Multibindings {
+
+  private Multibindings() { }
+
+  public static <T> void addElement(Set<T> set, T element, boolean permitDuplicates) {
+    checkState(element != null, "Set injection failed due to null element");
+    checkState(set.add(element) || permitDuplicates,
+        "Set injection failed due to duplicated element: ", element);
+  }
+
+  public static <K, V> void putEntry(Map<K, V> map, K key, V value, boolean permitDuplicates) {
+    V previous = map.put(key, value);
+    checkState(previous == null || permitDuplicates,
+        "Map injection failed due to duplicated key: ", key);
+  }
+
+  public static <K, V> void putMultimapEntry(Map<K, Set<V>> map, K key, V value) {
+    Set<V> set = map.get(key);
+    if (set == null) {
+      set = new LinkedHashSet<V>();
+      map.put(key, set);
+    }
+    set.add(value);
+  }
+
+  public static <K, V> Map<K, Set<V>> unmodifiableMultimap(Map<K, Set<V>> map) {
+    for (Map.Entry<K, Set<V>> entry : map.entrySet()) {
+      entry.setValue(Collections.unmodifiableSet(entry.getValue()));
+    }
+    return Collections.unmodifiableMap(map);
+  }
+}
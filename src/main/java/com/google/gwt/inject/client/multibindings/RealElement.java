@@ -0,0 +1,103 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.client.multibindings;
+
+import com.google.inject.Key;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * Implementation of the {@link Element} annotation.
+ */
+class RealElement implements Element {
+
+  /**
+   * The id of the next element created on each thread.  All modules of a
+   * ginjector are configured on one thread, after the ids have been restarted
+   * through {@link MultibindingModule#resetElementIds}, so every ginjector
+   * numbers its elements the same way in every compile.
+   */
+  private static final ThreadLocal<Integer> nextUniqueId = new ThreadLocal<Integer>() {
+    @Override
+    protected Integer initialValue() {
+      return 1;
+    }
+  };
+
+  private final String multibinding;
+  private final int uniqueId;
+
+  /**
+   * Returns a new, unique element annotation for a contribution to the
+   * multibinding bound to the passed key.
+   */
+  static Element create(Key<?> multibindingKey) {
+    int uniqueId = nextUniqueId.get();
+    nextUniqueId.set(uniqueId + 1);
+    return new RealElement(multibindingKey.toString(), uniqueId);
+  }
+
+  /**
+   * Restarts the ids of the elements created on the current thread.
+   */
+  static void resetUniqueIds() {
+    nextUniqueId.remove();
+  }
+
+  private RealElement(String multibinding, int uniqueId) {
+    this.multibinding = multibinding;
+    this.uniqueId = uniqueId;
+  }
+
+  public String multibinding() {
+    return multibinding;
+  }
+
+  public int uniqueId() {
+    return uniqueId;
+  }
+
+  public Class<? extends Annotation> annotationType() {
+    return Element.class;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (!(obj instanceof Element)) {
+      return false;
+    }
+    Element other = (Element) obj;
+    return multibinding.equals(other.multibinding()) && uniqueId == other.uniqueId();
+  }
+
+  @Override
+  public int hashCode() {
+    // As specified by java.lang.annotation.Annotation.
+    return ((127 * "multibinding".hashCode()) ^ multibinding.hashCode())
+        + ((127 * "uniqueId".hashCode()) ^ uniqueId);
+  }
+
+  /**
+   * Leaves out the unique id: it depends on how many elements were created
+   * before in the ginjector's modules, and the generator derives member names
+   * from the string form of keys, which would otherwise change whenever a
+   * contribution is added to or removed from an earlier module.
+   */
+  @Override
+  public String toString() {
+    return "@" + Element.class.getName() + "(multibinding=" + multibinding + ")";
+  }
+}
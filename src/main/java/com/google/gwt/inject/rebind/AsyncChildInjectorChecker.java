@@ -0,0 +1,146 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind;
+
+import com.google.gwt.inject.client.AsyncGroup;
+import com.google.gwt.inject.rebind.binding.AsyncProviderBinding;
+import com.google.gwt.inject.rebind.binding.Binding;
+import com.google.gwt.inject.rebind.binding.Dependency;
+import com.google.gwt.inject.rebind.binding.ParentBinding;
+import com.google.gwt.inject.rebind.reflect.MethodLiteral;
+import com.google.gwt.inject.rebind.util.GuiceUtil;
+import com.google.gwt.inject.rebind.util.MemberCollector;
+import com.google.inject.Inject;
+import com.google.inject.Key;
+import com.google.inject.Provider;
+import com.google.inject.spi.InjectionPoint;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+
+/**
+ * Validates the use of asynchronously loaded child injectors, whose private
+ * module is annotated with {@link AsyncGroup}.
+ *
+ * <p>The code of such an injector is only loaded behind the split point of its
+ * group.  The keys it exposes can therefore only be injected through the
+ * {@code AsyncProvider}s bound to that group, and it cannot contain eager
+ * singletons or static injections, which are initialized together with the
+ * root injector.
+ */
+public class AsyncChildInjectorChecker {
+
+  private final ErrorManager errorManager;
+  private final GuiceUtil guiceUtil;
+  private final MemberCollector memberCollector;
+
+  @Inject
+  public AsyncChildInjectorChecker(ErrorManager errorManager, GuiceUtil guiceUtil,
+      Provider<MemberCollector> memberCollectorProvider) {
+    this.errorManager = errorManager;
+    this.guiceUtil = guiceUtil;
+    this.memberCollector = memberCollectorProvider.get();
+    this.memberCollector.setMethodFilter(MemberCollector.ALL_METHOD_FILTER);
+  }
+
+  public void checkBindings(GinjectorBindings rootBindings) {
+    for (MethodLiteral<?, Method> method
+        : memberCollector.getMethods(rootBindings.getGinjectorInterface())) {
+      Key<?> key = guiceUtil.getKey(method);
+      if (guiceUtil.isMemberInject(method)) {
+        for (Dependency dependency
+            : guiceUtil.getMemberInjectionDependencies(key, key.getTypeLiteral())) {
+          checkDependency(rootBindings, null, dependency.getTarget(), method);
+        }
+      } else {
+        checkDependency(rootBindings, null, key, method);
+      }
+    }
+
+    checkInjector(rootBindings);
+  }
+
+  private void checkInjector(GinjectorBindings bindings) {
+    Class<?> group = bindings.getAsyncGroup();
+    if (group != null) {
+      if (bindings.hasEagerSingletonBindingInSubtree()
+          || bindings.hasStaticInjectionRequestInSubtree()) {
+        errorManager.logError("The asynchronously loaded module %s cannot contain eager singletons"
+            + " or static injections.", bindings.getModule());
+      }
+
+      try {
+        AsyncProviderBinding.getGroupPackageName(group);
+      } catch (IllegalArgumentException e) {
+        errorManager.logError("The async group %s of %s must be visible from its own package.",
+            group, bindings.getModule());
+      }
+    }
+
+    for (Map.Entry<Key<?>, Binding> entry : bindings.getBindings()) {
+      Binding binding = entry.getValue();
+      for (Dependency dependency : binding.getDependencies()) {
+        if (dependency.getSource().equals(entry.getKey())) {
+          checkDependency(bindings, binding, dependency.getTarget(), binding.getContext());
+        }
+      }
+    }
+
+    for (Class<?> type : bindings.getStaticInjectionRequests()) {
+      for (InjectionPoint injectionPoint : InjectionPoint.forStaticMethodsAndFields(type)) {
+        for (com.google.inject.spi.Dependency<?> dependency : injectionPoint.getDependencies()) {
+          checkDependency(bindings, null, dependency.getKey(), injectionPoint);
+        }
+      }
+    }
+
+    for (GinjectorBindings child : bindings.getChildren()) {
+      checkInjector(child);
+    }
+  }
+
+  /**
+   * Checks that the given dependent may inject the given key in the given
+   * injector.
+   *
+   * @param dependent the binding that injects the key, or {@code null} if the
+   *     key is injected by the Ginjector interface or a static injection
+   * @param context where the key is injected, for error messages
+   */
+  private void checkDependency(GinjectorBindings bindings, Binding dependent, Key<?> key,
+      Object context) {
+    Binding binding = bindings.getBinding(key);
+    while (binding instanceof ParentBinding) {
+      bindings = ((ParentBinding) binding).getParentBindings();
+      binding = bindings.getBinding(key);
+    }
+
+    GinjectorBindings asyncChild = bindings.getAsyncChildExposing(key);
+    if (asyncChild == null) {
+      return;
+    }
+
+    Class<?> group = asyncChild.getAsyncGroup();
+    if (dependent instanceof AsyncProviderBinding
+        && group.equals(((AsyncProviderBinding) dependent).getGroup())) {
+      return;
+    }
+
+    errorManager.logError("%s is exposed by the asynchronously loaded module %s and can only be"
+        + " injected as an AsyncProvider of the async group %s, but is required by %s.",
+        key, asyncChild.getModule(), group, context);
+  }
+}
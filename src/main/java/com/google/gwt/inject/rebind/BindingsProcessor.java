@@ -20,27 +20,39 @@ import com.google.gwt.inject.client.GinModule;
 import com.google.gwt.inject.client.Ginjector;
 import com.google.gwt.inject.client.PrivateGinModule;
 import com.google.gwt.inject.client.assistedinject.FactoryModule;
+import com.google.gwt.inject.client.multibindings.MultibindingModule;
 import com.google.gwt.inject.rebind.adapter.GinModuleAdapter;
 import com.google.gwt.inject.rebind.adapter.PrivateGinModuleAdapter;
+import com.google.gwt.inject.rebind.binding.BindConstantBinding;
+import com.google.gwt.inject.rebind.binding.Binding;
 import com.google.gwt.inject.rebind.binding.BindingFactory;
 import com.google.gwt.inject.rebind.binding.Context;
 import com.google.gwt.inject.rebind.binding.FactoryBinding;
+import com.google.gwt.inject.rebind.binding.MultibindingMapBinding;
 import com.google.gwt.inject.rebind.reflect.MethodLiteral;
 import com.google.gwt.inject.rebind.reflect.ReflectUtil;
+import com.google.gwt.inject.rebind.resolution.ImplicitBindingPrefetcher;
+import com.google.gwt.inject.rebind.util.GinProperties;
 import com.google.gwt.inject.rebind.util.MemberCollector;
+import com.google.gwt.inject.rebind.util.RebindTimings;
 import com.google.inject.ConfigurationException;
 import com.google.inject.Inject;
 import com.google.inject.Key;
 import com.google.inject.Module;
 import com.google.inject.Singleton;
 import com.google.inject.TypeLiteral;
+import com.google.inject.spi.Element;
 import com.google.inject.spi.Elements;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import javax.inject.Provider;
@@ -72,6 +84,16 @@ class BindingsProcessor {
 
   private DoubleBindingChecker doubleBindingChecker;
 
+  private final AsyncChildInjectorChecker asyncChildInjectorChecker;
+
+  private final GinjectorTypeDependencies typeDependencies;
+
+  private final GinProperties properties;
+
+  private final ImplicitBindingPrefetcher prefetcher;
+
+  private final RebindTimings timings;
+
   @Inject
   BindingsProcessor(Provider<MemberCollector> collectorProvider,
       @GinjectorInterfaceType Class<? extends Ginjector> ginjectorInterface,
@@ -80,7 +102,12 @@ class BindingsProcessor {
       GuiceElementVisitor.GuiceElementVisitorFactory guiceElementVisitorFactory,
       BindingFactory bindingFactory,
       @ModuleClasses Set<Class<? extends GinModule>> moduleClasses,
-      DoubleBindingChecker doubleBindingChecker) {
+      DoubleBindingChecker doubleBindingChecker,
+      AsyncChildInjectorChecker asyncChildInjectorChecker,
+      GinjectorTypeDependencies typeDependencies,
+      GinProperties properties,
+      ImplicitBindingPrefetcher prefetcher,
+      RebindTimings timings) {
     this.bindingFactory = bindingFactory;
     this.moduleClasses = moduleClasses;
     this.ginjectorInterface = TypeLiteral.get(ginjectorInterface);
@@ -88,6 +115,11 @@ class BindingsProcessor {
     this.rootGinjectorBindings = rootGinjectorBindings;
     this.guiceElementVisitorFactory = guiceElementVisitorFactory;
     this.doubleBindingChecker = doubleBindingChecker;
+    this.asyncChildInjectorChecker = asyncChildInjectorChecker;
+    this.typeDependencies = typeDependencies;
+    this.properties = properties;
+    this.prefetcher = prefetcher;
+    this.timings = timings;
 
     completeCollector = collectorProvider.get();
     completeCollector.setMethodFilter(MemberCollector.ALL_METHOD_FILTER);
@@ -99,14 +131,32 @@ class BindingsProcessor {
     rootGinjectorBindings.addUnresolvedEntriesForInjectorInterface();
     registerGinjectorBinding();
 
-    createBindingsForModules(instantiateModules());
+    long start = timings.start();
+    List<Module> modules = instantiateModules();
+    MultibindingModule.resetElementIds();
+    List<Element> elements = Elements.getElements(modules);
+    start = timings.stop(RebindTimings.Phase.MODULE_INSTANTIATION, start);
+
+    createBindingsForModules(elements);
+    timings.stop(RebindTimings.Phase.ELEMENT_VISITING, start);
     errorManager.checkForError();
     
-    resolveAllUnresolvedBindings(rootGinjectorBindings);
+    if (properties.isEnabled(GinProperties.PARALLEL_RESOLUTION)) {
+      prefetcher.prefetch(rootGinjectorBindings);
+    }
+    try {
+      resolveAllUnresolvedBindings(rootGinjectorBindings);
+    } finally {
+      prefetcher.clear();
+    }
     errorManager.checkForError();
+    countKeys(rootGinjectorBindings);
 
     doubleBindingChecker.checkBindings(rootGinjectorBindings);
     errorManager.checkForError();
+
+    asyncChildInjectorChecker.checkBindings(rootGinjectorBindings);
+    errorManager.checkForError();
   }
   
   /**
@@ -135,6 +185,7 @@ class BindingsProcessor {
     // Create known/explicit bindings before descending into children.  This ensures that they are
     // available to any children that may need to depend on them.
     createBindingsForFactories(collection);
+    createBindingsForMultibindings(collection);
     
     // Visit all children and resolve bindings as appropriate.  This visitation may add implicit
     // bindings (and dependencies) to this ginjector
@@ -143,9 +194,18 @@ class BindingsProcessor {
     }
     
     // Resolve bindings within this ginjector and validate that everything looks OK.
+    typeDependencies.addDependencies(collection.getDependencies());
     collection.resolveBindings();
   }
 
+  private void countKeys(GinjectorBindings bindings) {
+    timings.add(RebindTimings.Counter.KEYS, bindings.getBindingCount());
+
+    for (GinjectorBindings child : bindings.getChildren()) {
+      countKeys(child);
+    }
+  }
+
   private void createBindingsForFactories(GinjectorBindings bindings) {
     for (final FactoryModule<?> factoryModule : bindings.getFactoryModules()) {
       FactoryBinding binding;
@@ -163,6 +223,111 @@ class BindingsProcessor {
     }
   }
 
+  /**
+   * Binds the sets and maps configured with GinMultibinder and GinMapBinder in
+   * the passed ginjector.  Each of them is built directly from the getters of
+   * its contributions, which the multibinders bound under unique keys.
+   */
+  private void createBindingsForMultibindings(GinjectorBindings bindings) {
+    Map<Key<?>, List<MultibindingModule>> multibindings =
+        new LinkedHashMap<Key<?>, List<MultibindingModule>>();
+    for (MultibindingModule multibindingModule : bindings.getMultibindingModules()) {
+      List<MultibindingModule> modules = multibindings.get(multibindingModule.getMultibindingKey());
+      if (modules == null) {
+        modules = new ArrayList<MultibindingModule>();
+        multibindings.put(multibindingModule.getMultibindingKey(), modules);
+      }
+      modules.add(multibindingModule);
+    }
+
+    for (Map.Entry<Key<?>, List<MultibindingModule>> multibinding : multibindings.entrySet()) {
+      Key<?> key = multibinding.getKey();
+      Context context = Context.forText(multibinding.getValue().get(0).getSource());
+
+      boolean permitDuplicates = false;
+      boolean createValuesOnLookup = false;
+      List<Key<?>> elementKeys = new ArrayList<Key<?>>();
+      Map<Key<?>, Key<?>> entries = new LinkedHashMap<Key<?>, Key<?>>();
+      for (MultibindingModule multibindingModule : multibinding.getValue()) {
+        permitDuplicates |= multibindingModule.isPermitDuplicates();
+        createValuesOnLookup |= multibindingModule.isCreateValuesOnLookup();
+        if (multibindingModule.getMapKey() != null) {
+          entries.put(multibindingModule.getMapKey(), multibindingModule.getValueKey());
+        } else if (multibindingModule.getValueKey() != null) {
+          elementKeys.add(multibindingModule.getValueKey());
+        }
+      }
+
+      if (key.getTypeLiteral().getRawType() == Set.class) {
+        bindings.addBinding(key, bindingFactory.getMultibindingSetBinding(
+            key, elementKeys, permitDuplicates, context));
+        continue;
+      }
+
+      List<Object> constantKeys = createValuesOnLookup && !permitDuplicates
+          ? getDistinctConstantKeys(bindings, MultibindingMapBinding.getMapKeyType(key),
+              entries.keySet())
+          : null;
+
+      // Maps of providers don't change, so they are shared like in Guice.
+      Key<?> providerMapKey = MultibindingMapBinding.getProviderMapKey(key);
+      if (constantKeys != null) {
+        bindings.addBinding(key, bindingFactory.getConstantKeyMultibindingMapBinding(
+            key, entries, constantKeys, false, context));
+        bindings.addBinding(providerMapKey, bindingFactory.getConstantKeyMultibindingMapBinding(
+            providerMapKey, entries, constantKeys, true, context));
+      } else {
+        bindings.addBinding(key, bindingFactory.getMultibindingMapBinding(
+            key, entries, false, false, permitDuplicates, context));
+        bindings.addBinding(providerMapKey, bindingFactory.getMultibindingMapBinding(
+            providerMapKey, entries, true, false, permitDuplicates, context));
+      }
+      bindings.putScope(providerMapKey, GinScope.SINGLETON);
+
+      if (permitDuplicates) {
+        Key<?> multimapKey = MultibindingMapBinding.getMultimapKey(key);
+        bindings.addBinding(multimapKey, bindingFactory.getMultibindingMapBinding(
+            multimapKey, entries, false, true, true, context));
+
+        Key<?> providerMultimapKey = MultibindingMapBinding.getProviderMultimapKey(key);
+        bindings.addBinding(providerMultimapKey, bindingFactory.getMultibindingMapBinding(
+            providerMultimapKey, entries, true, true, true, context));
+        bindings.putScope(providerMultimapKey, GinScope.SINGLETON);
+      }
+    }
+  }
+
+  /**
+   * Returns the values of the passed map keys if all of them are distinct
+   * constants bound in the passed ginjector and the key type of the map is
+   * {@code String} or an enum, or {@code null} otherwise.
+   */
+  private List<Object> getDistinctConstantKeys(GinjectorBindings bindings,
+      TypeLiteral<?> keyType, Collection<Key<?>> mapKeys) {
+    if (keyType.getType() != String.class && !keyType.getRawType().isEnum()) {
+      return null;
+    }
+
+    List<Object> constantKeys = new ArrayList<Object>();
+    Set<Object> seen = new HashSet<Object>();
+    for (Key<?> mapKey : mapKeys) {
+      Binding binding = bindings.getBinding(mapKey);
+      if (!(binding instanceof BindConstantBinding)) {
+        return null;
+      }
+
+      Object constantKey = ((BindConstantBinding<?>) binding).getInstance();
+      Class<?> constantType = constantKey instanceof Enum<?>
+          ? ((Enum<?>) constantKey).getDeclaringClass()
+          : constantKey.getClass();
+      if (constantType != keyType.getType() || !seen.add(constantKey)) {
+        return null;
+      }
+      constantKeys.add(constantKey);
+    }
+    return constantKeys;
+  }
+
   private void validateMethods() throws UnableToCompleteException {
     for (MethodLiteral<?, Method> method : completeCollector.getMethods(ginjectorInterface)) {
       List<TypeLiteral<?>> parameters = method.getParameterTypes();
@@ -196,9 +361,11 @@ class BindingsProcessor {
     errorManager.checkForError();
   }
 
-  private void createBindingsForModules(List<Module> modules) {
+  private void createBindingsForModules(List<Element> elements) {
+    typeDependencies.addElementSources(elements);
+
     GuiceElementVisitor visitor = guiceElementVisitorFactory.create(rootGinjectorBindings);
-    visitor.visitElementsAndReportErrors(Elements.getElements(modules));
+    visitor.visitElementsAndReportErrors(elements);
   }
 
   private List<Module> instantiateModules() {
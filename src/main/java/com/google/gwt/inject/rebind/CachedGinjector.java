@@ -0,0 +1,167 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind;
+
+import com.google.gwt.core.ext.CachedGeneratorResult;
+import com.google.gwt.core.ext.GeneratorContext;
+import com.google.gwt.core.ext.RebindResult;
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.dev.javac.CompiledClass;
+
+import java.io.PrintWriter;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The output of a ginjector generation together with everything needed to
+ * decide whether it can be reused: the generator version, the configured
+ * module classes, a {@link GinjectorFingerprint} of the types the output was
+ * derived from, the outcome of all rebind rule checks and the values of all
+ * deferred binding properties consulted (see {@link ConsultedProperties}).
+ *
+ * <p>Instances only hold JRE types so they can be serialized to disk. When
+ * stored with GWT's own generator result cache, the generated sources are
+ * left out since GWT keeps track of those itself.
+ */
+final class CachedGinjector implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  // Client data keys used when stored with GWT's generator result cache.
+  private static final String MODULES_KEY = "gin.modules";
+  private static final String FINGERPRINT_KEY = "gin.fingerprint";
+  private static final String REBIND_RULES_KEY = "gin.rebindRules";
+  private static final String PROPERTIES_KEY = "gin.properties";
+
+  private final long versionId;
+  private final String resultTypeName;
+  private final ArrayList<String> moduleClassNames;
+  private final Serializable fingerprint;
+  private final LinkedHashMap<String, Boolean> rebindRuleChecks;
+  private final ConsultedProperties properties;
+  private final LinkedHashMap<String, String> sources;
+
+  CachedGinjector(long versionId, String resultTypeName, List<String> moduleClassNames,
+      GinjectorFingerprint fingerprint, Map<String, Boolean> rebindRuleChecks,
+      ConsultedProperties properties, Map<String, String> sources) {
+    this.versionId = versionId;
+    this.resultTypeName = resultTypeName;
+    this.moduleClassNames = new ArrayList<String>(moduleClassNames);
+    this.fingerprint = fingerprint.toClientData();
+    this.rebindRuleChecks = new LinkedHashMap<String, Boolean>(rebindRuleChecks);
+    this.properties = properties;
+    this.sources = new LinkedHashMap<String, String>(sources);
+  }
+
+  /**
+   * Restores the validation data stored with a cached generator result by
+   * {@link #putClientData}, or returns {@code null} if there is none.
+   */
+  @SuppressWarnings("unchecked") // We only store data of the types cast to.
+  static CachedGinjector fromClientData(long versionId, CachedGeneratorResult cachedResult) {
+    Object moduleClassNames = cachedResult.getClientData(MODULES_KEY);
+    GinjectorFingerprint fingerprint =
+        GinjectorFingerprint.fromClientData(cachedResult.getClientData(FINGERPRINT_KEY));
+    Object rebindRuleChecks = cachedResult.getClientData(REBIND_RULES_KEY);
+    Object properties = cachedResult.getClientData(PROPERTIES_KEY);
+    if (!(moduleClassNames instanceof List<?>) || fingerprint == null
+        || !(rebindRuleChecks instanceof Map<?, ?>)
+        || !(properties instanceof ConsultedProperties)) {
+      return null;
+    }
+
+    // GWT only hands out cached results created by the same generator version.
+    return new CachedGinjector(versionId, cachedResult.getResultTypeName(),
+        (List<String>) moduleClassNames, fingerprint, (Map<String, Boolean>) rebindRuleChecks,
+        (ConsultedProperties) properties, Collections.<String, String>emptyMap());
+  }
+
+  /**
+   * Stores the validation data of this instance with the passed result, so
+   * that it is available to the next run through GWT's generator result cache.
+   */
+  void putClientData(RebindResult result) {
+    result.putClientData(MODULES_KEY, moduleClassNames);
+    result.putClientData(FINGERPRINT_KEY, fingerprint);
+    result.putClientData(REBIND_RULES_KEY, rebindRuleChecks);
+    result.putClientData(PROPERTIES_KEY, properties);
+  }
+
+  String getResultTypeName() {
+    return resultTypeName;
+  }
+
+  ConsultedProperties getProperties() {
+    return properties;
+  }
+
+  /**
+   * Returns a description of why this output can't be reused in the passed
+   * context, or {@code null} if it can be.
+   */
+  String findMismatch(long currentVersionId, List<String> currentModuleClassNames,
+      Map<String, CompiledClass> classFileMap, GeneratorContext context) {
+    if (versionId != currentVersionId) {
+      return "it was generated by a different version of Gin";
+    }
+
+    if (!moduleClassNames.equals(currentModuleClassNames)) {
+      return "the configured modules changed";
+    }
+
+    String changedType =
+        GinjectorFingerprint.fromClientData(fingerprint).findChangedType(classFileMap);
+    if (changedType != null) {
+      return "type " + changedType + " changed";
+    }
+
+    String changedProperty = properties.findChangedProperty(context.getPropertyOracle());
+    if (changedProperty != null) {
+      return "property " + changedProperty + " changed";
+    }
+
+    for (Map.Entry<String, Boolean> check : rebindRuleChecks.entrySet()) {
+      if (context.checkRebindRuleAvailable(check.getKey()) != check.getValue()) {
+        return "the rebind rules for " + check.getKey() + " changed";
+      }
+    }
+
+    return null;
+  }
+
+  /**
+   * Creates all recorded types in the passed context. Types that already exist
+   * in the context are skipped.
+   */
+  void replay(TreeLogger logger, GeneratorContext context) {
+    for (Map.Entry<String, String> source : sources.entrySet()) {
+      String typeName = source.getKey();
+      int lastDot = typeName.lastIndexOf('.');
+      String packageName = lastDot == -1 ? "" : typeName.substring(0, lastDot);
+      String simpleName = typeName.substring(lastDot + 1);
+
+      PrintWriter writer = context.tryCreate(logger, packageName, simpleName);
+      if (writer != null) {
+        writer.print(source.getValue());
+        context.commit(logger, writer);
+      }
+    }
+  }
+}
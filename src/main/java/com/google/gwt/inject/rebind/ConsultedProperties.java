@@ -0,0 +1,138 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind;
+
+import com.google.gwt.core.ext.BadPropertyValueException;
+import com.google.gwt.core.ext.ConfigurationProperty;
+import com.google.gwt.core.ext.PropertyOracle;
+import com.google.gwt.core.ext.SelectionProperty;
+import com.google.gwt.core.ext.TreeLogger;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The values of all deferred binding properties consulted while generating a
+ * ginjector. A ginjector only needs to be generated again for a different
+ * permutation if one of these values differs in that permutation.
+ *
+ * <p>Properties that were not defined are recorded with a {@code null} value.
+ */
+final class ConsultedProperties implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private final LinkedHashMap<String, ArrayList<String>> configurationProperties =
+      new LinkedHashMap<String, ArrayList<String>>();
+
+  private final LinkedHashMap<String, String> selectionProperties =
+      new LinkedHashMap<String, String>();
+
+  /**
+   * Creates a property oracle that forwards to the passed one and records
+   * every property value it returns in this instance.
+   */
+  PropertyOracle createRecordingOracle(final PropertyOracle delegate) {
+    return new PropertyOracle() {
+      public ConfigurationProperty getConfigurationProperty(String propertyName)
+          throws BadPropertyValueException {
+        try {
+          ConfigurationProperty property = delegate.getConfigurationProperty(propertyName);
+          configurationProperties.put(propertyName, new ArrayList<String>(property.getValues()));
+          return property;
+        } catch (BadPropertyValueException e) {
+          configurationProperties.put(propertyName, null);
+          throw e;
+        }
+      }
+
+      public SelectionProperty getSelectionProperty(TreeLogger logger, String propertyName)
+          throws BadPropertyValueException {
+        try {
+          SelectionProperty property = delegate.getSelectionProperty(logger, propertyName);
+          selectionProperties.put(propertyName, property.getCurrentValue());
+          return property;
+        } catch (BadPropertyValueException e) {
+          selectionProperties.put(propertyName, null);
+          throw e;
+        }
+      }
+    };
+  }
+
+  /**
+   * Returns the name of a recorded property whose value in the passed oracle
+   * differs from the recorded one, or {@code null} if there is none.
+   */
+  String findChangedProperty(PropertyOracle propertyOracle) {
+    for (Map.Entry<String, ArrayList<String>> property : configurationProperties.entrySet()) {
+      List<String> values;
+      try {
+        values = propertyOracle.getConfigurationProperty(property.getKey()).getValues();
+      } catch (BadPropertyValueException e) {
+        values = null;
+      }
+
+      if (!equal(property.getValue(), values)) {
+        return property.getKey();
+      }
+    }
+
+    for (Map.Entry<String, String> property : selectionProperties.entrySet()) {
+      String value;
+      try {
+        value = propertyOracle.getSelectionProperty(TreeLogger.NULL, property.getKey())
+            .getCurrentValue();
+      } catch (BadPropertyValueException e) {
+        value = null;
+      }
+
+      if (!equal(property.getValue(), value)) {
+        return property.getKey();
+      }
+    }
+
+    return null;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (!(obj instanceof ConsultedProperties)) {
+      return false;
+    }
+
+    ConsultedProperties other = (ConsultedProperties) obj;
+    return configurationProperties.equals(other.configurationProperties)
+        && selectionProperties.equals(other.selectionProperties);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * configurationProperties.hashCode() + selectionProperties.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return "configuration " + configurationProperties + ", selection " + selectionProperties;
+  }
+
+  private static boolean equal(Object a, Object b) {
+    return a == null ? b == null : a.equals(b);
+  }
+}
@@ -49,12 +49,13 @@ public class ErrorManager {
     logError(message, null, (Object[]) args);
   }
 
-  public void logError(String message, Throwable t, Object... args) {
+  // Synchronized since errors may be reported by concurrent output tasks.
+  public synchronized void logError(String message, Throwable t, Object... args) {
     logger.log(TreeLogger.ERROR, PrettyPrinter.format(message, args), t);
     foundError = true;
   }
 
-  public void checkForError() throws UnableToCompleteException {
+  public synchronized void checkForError() throws UnableToCompleteException {
     if (foundError) {
       throw new UnableToCompleteException();
     }
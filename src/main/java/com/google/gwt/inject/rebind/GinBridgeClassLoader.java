@@ -19,10 +19,14 @@ package com.google.gwt.inject.rebind;
 import com.google.gwt.core.ext.GeneratorContext;
 import com.google.gwt.core.ext.TreeLogger;
 import com.google.gwt.core.ext.TreeLogger.Type;
+import com.google.gwt.dev.javac.CompilationState;
 import com.google.gwt.dev.javac.CompiledClass;
 import com.google.gwt.dev.javac.StandardGeneratorContext;
 
+import java.lang.ref.WeakReference;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
@@ -45,10 +49,37 @@ import java.util.Set;
  * bytes. For now, we use reflection to access this internal state but in the long term we should
  * switch to other strategies such as running javac on source (which we'd need to reverse-engineer
  * from parsing the GWT AST).
+ *
+ * <p>Defining classes is expensive, so the loaders for a compilation state are shared by all
+ * ginjectors and permutations generated from it (see {@link #getShared}).  Since generated units
+ * are only ever added to a compilation state, classes defined earlier stay valid.  The loaders are
+ * released once generation moves on to a different compilation state, e.g. in the next Super Dev
+ * Mode recompile.
  */
 class GinBridgeClassLoader extends ClassLoader {
 
-  private final TreeLogger logger;
+  static {
+    registerAsParallelCapable();
+  }
+
+  /**
+   * Compilation state that the shared loaders were created for.
+   */
+  private static WeakReference<CompilationState> sharedCompilationState;
+
+  /**
+   * Loaders shared by all generator runs on the current compilation state,
+   * keyed by their excepted packages.
+   */
+  private static final Map<Set<String>, GinBridgeClassLoader> sharedLoaders =
+      new HashMap<Set<String>, GinBridgeClassLoader>();
+
+  /**
+   * Logger of the generator run on the current thread, see
+   * {@link #setRunLogger}.
+   */
+  private static final ThreadLocal<TreeLogger> runLogger = new ThreadLocal<TreeLogger>();
+
   private final GeneratorContext context;
 
   /**
@@ -60,14 +91,78 @@ class GinBridgeClassLoader extends ClassLoader {
   private boolean loadedClassFiles = false;
   private Map<String, CompiledClass> classFileMap;
 
-  GinBridgeClassLoader(GeneratorContext context, TreeLogger logger,
-      Collection<String> exceptedPackages) {
+  GinBridgeClassLoader(GeneratorContext context, Collection<String> exceptedPackages) {
     super(GinBridgeClassLoader.class.getClassLoader()); // Use own class loader.
     this.context = context;
-    this.logger = logger;
     this.exceptedPackages = getExceptedPackages(exceptedPackages);
   }
 
+  private GinBridgeClassLoader(Map<String, CompiledClass> classFileMap,
+      Collection<String> exceptedPackages) {
+    super(GinBridgeClassLoader.class.getClassLoader()); // Use own class loader.
+    this.context = null; // Must not keep the compilation state reachable.
+    this.exceptedPackages = exceptedPackages;
+    this.classFileMap = classFileMap;
+    this.loadedClassFiles = true;
+  }
+
+  /**
+   * Returns a loader for the given context that is shared with all other
+   * generator runs on the same compilation state and excepted packages.
+   * Contexts that don't expose a compilation state get a new loader.
+   */
+  static GinBridgeClassLoader getShared(GeneratorContext context,
+      Collection<String> exceptedPackages) {
+    CompilationState compilationState = getCompilationState(context);
+    if (compilationState == null) {
+      return new GinBridgeClassLoader(context, exceptedPackages);
+    }
+
+    Set<String> packages = new HashSet<String>(getExceptedPackages(exceptedPackages));
+    synchronized (GinBridgeClassLoader.class) {
+      if (sharedCompilationState == null || sharedCompilationState.get() != compilationState) {
+        sharedLoaders.clear();
+        sharedCompilationState = new WeakReference<CompilationState>(compilationState);
+      }
+
+      GinBridgeClassLoader loader = sharedLoaders.get(packages);
+      if (loader == null) {
+        loader = new GinBridgeClassLoader(compilationState.getClassFileMap(), packages);
+        sharedLoaders.put(packages, loader);
+      }
+      return loader;
+    }
+  }
+
+  /**
+   * Sets the logger for the warnings of all loaders about classes loaded on
+   * the current thread, or removes it if {@code logger} is {@code null}.
+   * Loaders are shared by concurrent generator runs, so the warnings have to
+   * go to the run that caused them, not to the one that got a loader last.
+   * Warnings about classes loaded on threads without a logger are dropped.
+   */
+  static void setRunLogger(TreeLogger logger) {
+    if (logger == null) {
+      runLogger.remove();
+    } else {
+      runLogger.set(logger);
+    }
+  }
+
+  private TreeLogger getLogger() {
+    TreeLogger currentRunLogger = runLogger.get();
+    return currentRunLogger == null ? TreeLogger.NULL : currentRunLogger;
+  }
+
+  /**
+   * Returns the compilation state of the given context, or {@code null} if it
+   * doesn't expose one.
+   */
+  static CompilationState getCompilationState(GeneratorContext context) {
+    return context instanceof StandardGeneratorContext
+        ? ((StandardGeneratorContext) context).getCompilationState() : null;
+  }
+
   private static Collection<String> getExceptedPackages(Collection<String> superSourceExceptions) {
     Set<String> names = new LinkedHashSet<String>();
     for (String name : superSourceExceptions) {
@@ -96,28 +191,30 @@ class GinBridgeClassLoader extends ClassLoader {
    */
   @Override
   protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
-    Class<?> clazz = findLoadedClass(name);
-    if (clazz == null) {
-      if (inExceptedPackage(name)) {
-        clazz = super.loadClass(name, false);
-      } else {
-        try {
-          clazz = findClass(name);          
-        } catch (ClassNotFoundException e) {
+    synchronized (getClassLoadingLock(name)) {
+      Class<?> clazz = findLoadedClass(name);
+      if (clazz == null) {
+        if (inExceptedPackage(name)) {
           clazz = super.loadClass(name, false);
-          if (!clazz.isAnnotation()) { // Annotations are always safe to load
-            logger.log(Type.WARN, String.format(
-                "Class %s is used in Gin, but not available in GWT client code.", name));
+        } else {
+          try {
+            clazz = findClass(name);
+          } catch (ClassNotFoundException e) {
+            clazz = super.loadClass(name, false);
+            if (!clazz.isAnnotation()) { // Annotations are always safe to load
+              getLogger().log(Type.WARN, String.format(
+                  "Class %s is used in Gin, but not available in GWT client code.", name));
+            }
           }
         }
       }
-    }
 
-    if (resolve) {
-      resolveClass(clazz);
-    }
+      if (resolve) {
+        resolveClass(clazz);
+      }
 
-    return clazz;
+      return clazz;
+    }
   }
 
   private boolean inExceptedPackage(String name) {
@@ -130,21 +227,30 @@ class GinBridgeClassLoader extends ClassLoader {
   }
 
   /**
-   * Looks up classes in GWT's compilation state.
+   * Returns the class files of GWT's compilation state, keyed by internal
+   * name, or {@code null} if they are not accessible through the generator
+   * context.
    */
-  @Override
-  protected Class<?> findClass(String name) throws ClassNotFoundException {
+  synchronized Map<String, CompiledClass> getClassFileMap() {
     if (!loadedClassFiles) {
       classFileMap = extractClassFileMap();
       loadedClassFiles = true;
     }
+    return classFileMap;
+  }
 
-    if (classFileMap == null) {
+  /**
+   * Looks up classes in GWT's compilation state.
+   */
+  @Override
+  protected Class<?> findClass(String name) throws ClassNotFoundException {
+    Map<String, CompiledClass> compiledClasses = getClassFileMap();
+    if (compiledClasses == null) {
       throw new ClassNotFoundException(name);
     }
 
     String internalName = name.replace('.', '/');
-    CompiledClass compiledClass = classFileMap.get(internalName);
+    CompiledClass compiledClass = compiledClasses.get(internalName);
     if (compiledClass == null) {
       throw new ClassNotFoundException(name);
     }
@@ -152,7 +258,11 @@ class GinBridgeClassLoader extends ClassLoader {
     // Make sure the class's package is present.
     String pkg = compiledClass.getPackageName();
     if (getPackage(pkg) == null) {
-      definePackage(pkg, null, null, null, null, null, null, null);
+      try {
+        definePackage(pkg, null, null, null, null, null, null, null);
+      } catch (IllegalArgumentException e) {
+        // Defined concurrently by another thread.
+      }
     }
 
     byte[] bytes = compiledClass.getBytes();
@@ -167,7 +277,7 @@ class GinBridgeClassLoader extends ClassLoader {
       StandardGeneratorContext standardContext = (StandardGeneratorContext) context;
       return standardContext.getCompilationState().getClassFileMap();
     } else {
-      logger.log(TreeLogger.Type.WARN,
+      getLogger().log(TreeLogger.Type.WARN,
           String.format("Could not load generated classes from GWT context, "
               + "encountered unexpected generator type %s.", context.getClass()));
       return null;
@@ -17,12 +17,21 @@ package com.google.gwt.inject.rebind;
 
 import com.google.gwt.core.ext.TreeLogger;
 import com.google.gwt.core.ext.UnableToCompleteException;
+import com.google.gwt.inject.client.AsyncGroup;
 import com.google.gwt.inject.client.Ginjector;
 import com.google.gwt.inject.client.assistedinject.FactoryModule;
+import com.google.gwt.inject.client.multibindings.MultibindingModule;
+import com.google.gwt.inject.rebind.binding.AsyncProviderBinding;
+import com.google.gwt.inject.rebind.binding.BindClassBinding;
+import com.google.gwt.inject.rebind.binding.BindConstantBinding;
 import com.google.gwt.inject.rebind.binding.Binding;
 import com.google.gwt.inject.rebind.binding.BindingIndex;
+import com.google.gwt.inject.rebind.binding.CallGwtDotCreateBinding;
 import com.google.gwt.inject.rebind.binding.Dependency;
 import com.google.gwt.inject.rebind.binding.ExposedChildBinding;
+import com.google.gwt.inject.rebind.binding.ImplicitProviderBinding;
+import com.google.gwt.inject.rebind.binding.MultibindingMapBinding;
+import com.google.gwt.inject.rebind.binding.MultibindingSetBinding;
 import com.google.gwt.inject.rebind.binding.ParentBinding;
 import com.google.gwt.inject.rebind.binding.RemoteServiceProxyBinding;
 import com.google.gwt.inject.rebind.reflect.FieldLiteral;
@@ -122,6 +131,12 @@ public class GinjectorBindings implements BindingIndex {
    */
   private final Set<FactoryModule<?>> factoryModules = new LinkedHashSet<FactoryModule<?>>();
 
+  /**
+   * All multibinding declarations and contributions configured for this
+   * ginjector, in the order in which they were configured.
+   */
+  private final List<MultibindingModule> multibindingModules = new ArrayList<MultibindingModule>();
+
   /**
    * All types for which static injection has been requested.
    * 
@@ -175,6 +190,8 @@ public class GinjectorBindings implements BindingIndex {
 
   private final BindingResolver bindingResolver;
 
+  private final ImplicitSingletonTypes implicitSingletonTypes;
+
   /**
    * The {@link GinjectorBindings} are used in two "stages" -- during binding processing 
    * (in {@link BindingsProcessor}) it is used to gather information, and during ginjector
@@ -193,7 +210,8 @@ public class GinjectorBindings implements BindingIndex {
       Provider<GinjectorBindings> ginjectorBindingsProvider,
       MemberCollector collector,
       ErrorManager errorManager,
-      BindingResolver bindingResolver) {
+      BindingResolver bindingResolver,
+      ImplicitSingletonTypes implicitSingletonTypes) {
     this.nameGenerator = nameGenerator;
     this.logger = logger;
     this.guiceUtil = guiceUtil;
@@ -201,6 +219,7 @@ public class GinjectorBindings implements BindingIndex {
     this.ginjectorInterface = TypeLiteral.get(ginjectorInterface);
     this.ginjectorBindingsProvider = ginjectorBindingsProvider;
     this.errorManager = errorManager;
+    this.implicitSingletonTypes = implicitSingletonTypes;
 
     completeCollector = collector;
     completeCollector.setMethodFilter(MemberCollector.ALL_METHOD_FILTER);
@@ -257,6 +276,10 @@ public class GinjectorBindings implements BindingIndex {
     return Collections.unmodifiableCollection(bindings.entrySet());
   }
 
+  public int getBindingCount() {
+    return bindings.size();
+  }
+
   public TypeLiteral<?> getGinjectorInterface() {
     return ginjectorInterface;
   }
@@ -328,6 +351,37 @@ public class GinjectorBindings implements BindingIndex {
     return false;
   }
 
+  /**
+   * Returns the class naming the {@link AsyncGroup} of the private module of
+   * this injector, or {@code null} if the injector is not loaded
+   * asynchronously.  The root injector is never loaded asynchronously.
+   */
+  public Class<?> getAsyncGroup() {
+    if (parent == null) {
+      return null;
+    }
+
+    AsyncGroup group = module.getAnnotation(AsyncGroup.class);
+    return group == null ? null : group.value();
+  }
+
+  /**
+   * Returns the asynchronously loaded child injector from which the given key
+   * is exposed to this injector, possibly through other child injectors, or
+   * {@code null} if the key is not exposed from an asynchronous child.
+   */
+  public GinjectorBindings getAsyncChildExposing(Key<?> key) {
+    Binding binding = getBinding(key);
+    while (binding instanceof ExposedChildBinding) {
+      GinjectorBindings child = ((ExposedChildBinding) binding).getChildBindings();
+      if (child.getAsyncGroup() != null) {
+        return child;
+      }
+      binding = child.getBinding(key);
+    }
+    return null;
+  }
+
   void putScope(Key<?> key, GinScope scope) {
     scopes.put(key, scope);
   }
@@ -361,6 +415,10 @@ public class GinjectorBindings implements BindingIndex {
     return Collections.unmodifiableCollection(factoryModules);
   }
 
+  public Iterable<MultibindingModule> getMultibindingModules() {
+    return Collections.unmodifiableCollection(multibindingModules);
+  }
+
   public NameGenerator getNameGenerator() {
     assertFinalized();
     return nameGenerator;
@@ -379,6 +437,17 @@ public class GinjectorBindings implements BindingIndex {
         // tree, we prefer to treat the binding like it's unscoped, and refer to
         // the "real" binding every time we need the value.
         scope = GinScope.NO_SCOPE; 
+      } else if (binding instanceof ImplicitProviderBinding
+          || binding instanceof AsyncProviderBinding) {
+        // Implicit providers are stateless and only delegate to the getter of
+        // the provided key, so a single instance can be shared by every
+        // injection site instead of creating a new one each time.
+        scope = GinScope.SINGLETON;
+      } else if (binding instanceof MultibindingSetBinding
+          || binding instanceof MultibindingMapBinding) {
+        // A multibound collection is immutable, so if all of its contributions
+        // are singletons or constants it can be created once and shared.
+        scope = hasOnlyConstantContributions(binding) ? GinScope.SINGLETON : GinScope.NO_SCOPE;
       } else if (raw.getAnnotation(Singleton.class) != null
           || raw.getAnnotation(javax.inject.Singleton.class) != null) {
         // Look for scope annotation as a fallback
@@ -386,6 +455,10 @@ public class GinjectorBindings implements BindingIndex {
       } else if (RemoteServiceProxyBinding.isRemoteServiceProxy(key.getTypeLiteral())) {
         // Special case for remote services
         scope = GinScope.SINGLETON;
+      } else if (binding instanceof CallGwtDotCreateBinding
+          && implicitSingletonTypes.isImplicitSingleton(raw)) {
+        // Configured stateless GWT.create() types, e.g. ClientBundles
+        scope = GinScope.SINGLETON;
       } else {
         scope = GinScope.NO_SCOPE;
       }
@@ -395,6 +468,49 @@ public class GinjectorBindings implements BindingIndex {
     return scope;
   }
 
+  private boolean hasOnlyConstantContributions(Binding binding) {
+    List<Key<?>> contributions = new ArrayList<Key<?>>();
+    if (binding instanceof MultibindingSetBinding) {
+      contributions.addAll(((MultibindingSetBinding) binding).getElementKeys());
+    } else {
+      for (Map.Entry<Key<?>, Key<?>> entry
+          : ((MultibindingMapBinding) binding).getEntries().entrySet()) {
+        contributions.add(entry.getKey());
+        contributions.add(entry.getValue());
+      }
+    }
+
+    for (Key<?> contribution : contributions) {
+      if (!isConstantValue(contribution)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns true if the getter of the given key always returns the same value,
+   * i.e. if the key is bound to a constant, scoped as a singleton or linked to
+   * such a key.
+   */
+  private boolean isConstantValue(Key<?> key) {
+    Binding binding = bindings.get(key);
+    if (binding instanceof ParentBinding) {
+      return ((ParentBinding) binding).getParentBindings().isConstantValue(key);
+    } else if (binding instanceof ExposedChildBinding) {
+      return ((ExposedChildBinding) binding).getChildBindings().isConstantValue(key);
+    } else if (binding instanceof BindConstantBinding) {
+      return true;
+    }
+
+    GinScope scope = determineScope(key);
+    if (scope == GinScope.SINGLETON || scope == GinScope.EAGER_SINGLETON) {
+      return true;
+    }
+    return binding instanceof BindClassBinding
+        && isConstantValue(((BindClassBinding) binding).getBoundClassKey());
+  }
+
   public boolean isBound(Key<?> key) {
     return bindings.containsKey(key);
   }
@@ -519,6 +635,20 @@ public class GinjectorBindings implements BindingIndex {
     addPin(install.getFactoryType());
   }
 
+  public void addMultibindingModule(MultibindingModule install) {
+    multibindingModules.add(install);
+    // The multibound collections are bound here, like any explicit binding.
+    Key<?> multibindingKey = install.getMultibindingKey();
+    addPin(multibindingKey);
+    if (multibindingKey.getTypeLiteral().getRawType() == Map.class) {
+      addPin(MultibindingMapBinding.getProviderMapKey(multibindingKey));
+      if (install.isPermitDuplicates()) {
+        addPin(MultibindingMapBinding.getMultimapKey(multibindingKey));
+        addPin(MultibindingMapBinding.getProviderMultimapKey(multibindingKey));
+      }
+    }
+  }
+
   @Override
   public String toString() {
     if (parent == null) {
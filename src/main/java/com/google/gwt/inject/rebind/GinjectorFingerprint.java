@@ -0,0 +1,173 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind;
+
+import com.google.gwt.dev.javac.CompilationUnit;
+import com.google.gwt.dev.javac.CompiledClass;
+
+import java.io.Serializable;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Content fingerprint of the client types a generated ginjector was derived
+ * from (see {@link GinjectorTypeDependencies}).
+ *
+ * <p>Every type is mapped to a digest of all class files of its compilation
+ * unit, so that changes to nested and anonymous classes (for example
+ * {@code TypeLiteral} subclasses declared inside a module) are detected as
+ * well. Types that are not part of GWT's compilation state, such as JRE or
+ * excepted library classes, are recorded with an empty digest.
+ */
+final class GinjectorFingerprint {
+
+  private static final Comparator<CompiledClass> INTERNAL_NAME_COMPARATOR =
+      new Comparator<CompiledClass>() {
+        public int compare(CompiledClass a, CompiledClass b) {
+          return a.getInternalName().compareTo(b.getInternalName());
+        }
+      };
+
+  /**
+   * Binary type name to digest, sorted by name.
+   */
+  private final Map<String, String> digests;
+
+  private GinjectorFingerprint(Map<String, String> digests) {
+    this.digests = digests;
+  }
+
+  /**
+   * Computes the fingerprint of the given types against the class files of
+   * the current compilation state.
+   */
+  static GinjectorFingerprint create(Iterable<String> typeNames,
+      Map<String, CompiledClass> classFileMap) {
+    Hasher hasher = new Hasher(classFileMap);
+    Map<String, String> digests = new TreeMap<String, String>();
+    for (String typeName : typeNames) {
+      digests.put(typeName, hasher.getDigest(typeName));
+    }
+    return new GinjectorFingerprint(digests);
+  }
+
+  /**
+   * Restores a fingerprint previously created by {@link #toClientData}, or
+   * returns {@code null} if the passed object is not such data.
+   */
+  @SuppressWarnings("unchecked") // We only ever store String -> String maps.
+  static GinjectorFingerprint fromClientData(Object data) {
+    if (!(data instanceof Map<?, ?>)) {
+      return null;
+    }
+    return new GinjectorFingerprint(new TreeMap<String, String>((Map<String, String>) data));
+  }
+
+  /**
+   * Returns a serializable form of this fingerprint, made up exclusively of
+   * JRE types so it can be stored with GWT's cached generator results.
+   */
+  Serializable toClientData() {
+    return new HashMap<String, String>(digests);
+  }
+
+  /**
+   * Returns the name of the first fingerprinted type that changed in the
+   * passed compilation state or {@code null} if none did.
+   */
+  String findChangedType(Map<String, CompiledClass> classFileMap) {
+    Hasher hasher = new Hasher(classFileMap);
+    for (Map.Entry<String, String> entry : digests.entrySet()) {
+      if (!entry.getValue().equals(hasher.getDigest(entry.getKey()))) {
+        return entry.getKey();
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return obj instanceof GinjectorFingerprint
+        && digests.equals(((GinjectorFingerprint) obj).digests);
+  }
+
+  @Override
+  public int hashCode() {
+    return digests.hashCode();
+  }
+
+  /**
+   * Computes type digests, hashing every compilation unit at most once.
+   */
+  private static final class Hasher {
+    private final Map<String, CompiledClass> classFileMap;
+    private final Map<CompilationUnit, String> unitDigests =
+        new IdentityHashMap<CompilationUnit, String>();
+
+    Hasher(Map<String, CompiledClass> classFileMap) {
+      this.classFileMap = classFileMap;
+    }
+
+    String getDigest(String typeName) {
+      CompiledClass compiledClass = classFileMap.get(typeName.replace('.', '/'));
+      if (compiledClass == null) {
+        return "";
+      }
+
+      CompilationUnit unit = compiledClass.getUnit();
+      String digest = unitDigests.get(unit);
+      if (digest == null) {
+        digest = computeDigest(unit);
+        unitDigests.put(unit, digest);
+      }
+      return digest;
+    }
+
+    private String computeDigest(CompilationUnit unit) {
+      List<CompiledClass> classes = new ArrayList<CompiledClass>(unit.getCompiledClasses());
+      Collections.sort(classes, INTERNAL_NAME_COMPARATOR);
+
+      MessageDigest md5 = getMd5();
+      for (CompiledClass compiledClass : classes) {
+        md5.update(compiledClass.getInternalName().getBytes());
+        md5.update(compiledClass.getBytes());
+      }
+
+      StringBuilder hex = new StringBuilder();
+      for (byte b : md5.digest()) {
+        hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+      }
+      return hex.toString();
+    }
+
+    private static MessageDigest getMd5() {
+      try {
+        return MessageDigest.getInstance("MD5");
+      } catch (NoSuchAlgorithmException e) {
+        // Every Java platform is required to support MD5.
+        throw new AssertionError(e);
+      }
+    }
+  }
+}
@@ -17,27 +17,86 @@
 package com.google.gwt.inject.rebind;
 
 import com.google.gwt.core.ext.BadPropertyValueException;
-import com.google.gwt.core.ext.Generator;
+import com.google.gwt.core.ext.CachedGeneratorResult;
 import com.google.gwt.core.ext.GeneratorContext;
+import com.google.gwt.core.ext.IncrementalGenerator;
 import com.google.gwt.core.ext.PropertyOracle;
+import com.google.gwt.core.ext.RebindMode;
+import com.google.gwt.core.ext.RebindResult;
 import com.google.gwt.core.ext.TreeLogger;
 import com.google.gwt.core.ext.UnableToCompleteException;
+import com.google.gwt.core.ext.linker.EmittedArtifact.Visibility;
+import com.google.gwt.core.ext.typeinfo.JClassType;
+import com.google.gwt.core.ext.typeinfo.TypeOracle;
+import com.google.gwt.dev.javac.CompiledClass;
 import com.google.gwt.inject.client.GinModule;
 import com.google.gwt.inject.client.GinModules;
 import com.google.gwt.inject.client.Ginjector;
 import com.google.gwt.inject.client.NoGinModules;
+import com.google.gwt.inject.rebind.util.GinProperties;
+import com.google.gwt.inject.rebind.util.RebindTimings;
 import com.google.inject.Guice;
+import com.google.inject.Injector;
 import com.google.inject.Module;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
  * Generator for implementations of {@link com.google.gwt.inject.client.Ginjector}.
+ *
+ * <p>When GWT enables generator result caching (for example in Super Dev Mode),
+ * a previously generated ginjector is reused as long as none of the types it
+ * was derived from changed, see {@link GinjectorFingerprint}. Generated
+ * ginjectors are also kept in GWT's work directory, so that later compiles can
+ * reuse them in the same way (see {@link PersistentGinjectorCache}).
+ *
+ * <p>Within one compiler process, a ginjector is only generated once per
+ * distinct tuple of the deferred binding property values consulted while
+ * generating it, so permutation-independent ginjectors are resolved once for
+ * all permutations (see {@link GinjectorMemo}).
+ *
+ * <p>The time spent in each phase of generating a ginjector is logged at
+ * {@code DEBUG} level, see {@link RebindTimings}.
+ *
+ * <p>Ginjectors can also be generated ahead of time, during a regular javac
+ * run, by {@link GinjectorProcessor}.
  */
-public class GinjectorGenerator extends Generator {
+public class GinjectorGenerator extends IncrementalGenerator {
+
+  /**
+   * Version of the generated output, to be increased whenever a change to Gin
+   * makes cached ginjectors from previous versions unusable.
+   */
+  private static final long VERSION_ID = 2L;
+
+  /**
+   * Configuration property that disables the cache of generated ginjectors
+   * in GWT's work directory when set to {@code false}.
+   */
+  private static final String PERSISTENT_CACHE_PROPERTY = "gin.persistentCache";
+
+  /**
+   * Configuration property that, when set to {@code true}, resolves ginjectors
+   * to implementations that were generated ahead of time by
+   * {@link GinjectorProcessor} and are part of the compilation, instead of
+   * generating them again.
+   */
+  private static final String PREGENERATED_PROPERTY = "gin.pregenerated";
+
+  /**
+   * Ginjectors generated in this process, shared by all permutations and
+   * generator instances.
+   */
+  private static final GinjectorMemo MEMO = new GinjectorMemo();
 
   // Visible for testing.
   ClassLoader classLoader;
@@ -47,43 +106,260 @@ public class GinjectorGenerator extends Generator {
   private TreeLogger logger;
 
   @Override
-  public String generate(TreeLogger logger, GeneratorContext context, String typeName)
-      throws UnableToCompleteException {
+  public long getVersionId() {
+    return VERSION_ID;
+  }
 
-    propertyOracle = context.getPropertyOracle();
+  @Override
+  public RebindResult generateIncrementally(TreeLogger logger, GeneratorContext context,
+      String typeName) throws UnableToCompleteException {
+    try {
+      return generateOrReuse(logger, context, typeName);
+    } finally {
+      release();
+    }
+  }
+
+  private RebindResult generateOrReuse(TreeLogger logger, GeneratorContext context,
+      String typeName) throws UnableToCompleteException {
+
+    // All property values consulted through this context are recorded, so
+    // that the output can be reused for permutations that agree on them.
+    RecordingGeneratorContext recordingContext = new RecordingGeneratorContext(context);
+    propertyOracle = recordingContext.getPropertyOracle();
     this.logger = logger;
-    
-    classLoader = createGinClassLoader(logger, context);
 
-    Class<? extends Ginjector> ginjectorInterface;
-    try {
-      ginjectorInterface = getGinjectorType(typeName);
-    } catch (ClassNotFoundException e) {
-      this.logger.log(TreeLogger.ERROR, String.format("Unable to load ginjector type [%s], "
-          + "maybe you haven't compiled your client java sources?", typeName), e);
-      throw new UnableToCompleteException();
-    } catch (IllegalArgumentException e) {
-      this.logger.log(TreeLogger.Type.ERROR, e.getMessage(), e);
-      throw new UnableToCompleteException();
+    if (getValuesForProperty(PREGENERATED_PROPERTY).contains("true")) {
+      String pregeneratedClassName = findPregeneratedGinjector(context, typeName);
+      if (pregeneratedClassName != null) {
+        logger.log(TreeLogger.TRACE, String.format("Using pre-generated ginjector %s for %s",
+            pregeneratedClassName, typeName));
+        return new RebindResult(RebindMode.USE_EXISTING, pregeneratedClassName);
+      }
+    }
+
+    GinBridgeClassLoader ginClassLoader = createGinClassLoader(logger, context);
+    classLoader = ginClassLoader;
+
+    Class<? extends Ginjector> ginjectorInterface = loadGinjectorType(typeName);
+    Set<Class<? extends GinModule>> moduleClasses = getModuleClasses(ginjectorInterface);
+    List<String> moduleClassNames = new ArrayList<String>();
+    for (Class<? extends GinModule> moduleClass : moduleClasses) {
+      moduleClassNames.add(moduleClass.getName());
+    }
+
+    Map<String, CompiledClass> classFileMap = ginClassLoader.getClassFileMap();
+    RebindResult cachedResult =
+        tryReuseCachedResult(logger, context, typeName, moduleClassNames, classFileMap);
+    if (cachedResult != null) {
+      return cachedResult;
+    }
+
+    CachedGinjector memoizedGinjector = classFileMap == null
+        ? null : MEMO.find(typeName, VERSION_ID, moduleClassNames, classFileMap, context);
+    if (memoizedGinjector != null) {
+      logger.log(TreeLogger.TRACE, String.format("Reusing ginjector generated for %s in this "
+          + "compile for %s", memoizedGinjector.getProperties(), typeName));
+      memoizedGinjector.replay(logger, context);
+      return createResult(context, memoizedGinjector);
+    }
+
+    PersistentGinjectorCache persistentCache = null;
+    if (classFileMap != null && isPersistentCacheEnabled()) {
+      persistentCache = PersistentGinjectorCache.forContext(context);
+    }
+
+    List<CachedGinjector> storedGinjectors = persistentCache == null
+        ? Collections.<CachedGinjector>emptyList() : persistentCache.load(logger, typeName);
+    for (CachedGinjector storedGinjector : storedGinjectors) {
+      String mismatch =
+          storedGinjector.findMismatch(VERSION_ID, moduleClassNames, classFileMap, context);
+      if (mismatch == null) {
+        logger.log(TreeLogger.TRACE, "Reusing ginjector from work directory for " + typeName);
+        MEMO.put(typeName, storedGinjector, context);
+        storedGinjector.replay(logger, context);
+        return createResult(context, storedGinjector);
+      }
+      logger.log(TreeLogger.TRACE, String.format("Can't reuse ginjector generated for %s from "
+          + "work directory for %s, %s", storedGinjector.getProperties(), typeName, mismatch));
     }
 
     // This is the Injector we use for the Generator internally,
     // it has nothing to do with user code.
-    Module module = new GinjectorGeneratorModule(logger, context, ginjectorInterface,
-        getModuleClasses(ginjectorInterface));
-    return Guice.createInjector(module).getInstance(GinjectorGeneratorImpl.class).generate();
+    Module module = new GinjectorGeneratorModule(logger, recordingContext, ginjectorInterface,
+        moduleClasses);
+    Injector injector = Guice.createInjector(module);
+    String generatedClassName = injector.getInstance(GinjectorGeneratorImpl.class).generate();
+
+    // Nothing is recorded if the implementation already existed, in which case
+    // there is nothing we could safely cache.
+    Set<String> typeNames = injector.getInstance(GinjectorTypeDependencies.class).getTypeNames();
+    if (!typeNames.isEmpty()) {
+      reportTimings(logger, context, typeName, injector.getInstance(RebindTimings.class),
+          recordingContext.getCommittedSources());
+    }
+    if (classFileMap == null || typeNames.isEmpty()) {
+      return new RebindResult(RebindMode.USE_ALL_NEW_WITH_NO_CACHING, generatedClassName);
+    }
+
+    CachedGinjector cachedGinjector = new CachedGinjector(VERSION_ID, generatedClassName,
+        moduleClassNames, GinjectorFingerprint.create(typeNames, classFileMap),
+        recordingContext.getRebindRuleChecks(), recordingContext.getConsultedProperties(),
+        recordingContext.getCommittedSources());
+    MEMO.put(typeName, cachedGinjector, context);
+    if (persistentCache != null) {
+      persistentCache.store(logger, typeName, cachedGinjector);
+    }
+    return createResult(context, cachedGinjector);
+  }
+
+  /**
+   * Generates the implementation of the given ginjector outside of a GWT
+   * compile, see {@link GinjectorProcessor}.  Classes are loaded through the
+   * passed class loader and the output is never cached.
+   *
+   * @return the name of the generated class
+   */
+  String generateStandalone(TreeLogger logger, GeneratorContext context, String typeName,
+      ClassLoader classLoader) throws UnableToCompleteException {
+    propertyOracle = context.getPropertyOracle();
+    this.logger = logger;
+    this.classLoader = classLoader;
+
+    try {
+      Class<? extends Ginjector> ginjectorInterface = loadGinjectorType(typeName);
+      Module module = new GinjectorGeneratorModule(logger, context, ginjectorInterface,
+          getModuleClasses(ginjectorInterface));
+      return Guice.createInjector(module).getInstance(GinjectorGeneratorImpl.class).generate();
+    } finally {
+      release();
+    }
+  }
+
+  /**
+   * Drops all references to the state of the last generator run.  GWT keeps
+   * generator instances around for the whole compile, so anything referenced
+   * from here (e.g. the class loader, and through the property oracle the
+   * generator context) would otherwise stay reachable.
+   */
+  private void release() {
+    classLoader = null;
+    propertyOracle = null;
+    logger = null;
+    GinBridgeClassLoader.setRunLogger(null);
+  }
+
+  /**
+   * Returns the name of the implementation of the given ginjector if it was
+   * generated ahead of time (i.e. it is already part of the compilation), or
+   * {@code null} if there is none.
+   */
+  private String findPregeneratedGinjector(GeneratorContext context, String typeName) {
+    TypeOracle typeOracle = context.getTypeOracle();
+    JClassType ginjectorType = typeOracle == null ? null : typeOracle.findType(typeName);
+    if (ginjectorType == null) {
+      return null;
+    }
+
+    // Matches the name chosen by GinjectorGeneratorImpl.
+    String packageName = ginjectorType.getPackage().getName();
+    String implClassName = ginjectorType.getQualifiedSourceName().replace(".", "_") + "Impl";
+    JClassType implType = typeOracle.findType(packageName, implClassName);
+    return implType == null ? null : implType.getQualifiedSourceName();
+  }
+
+  /**
+   * Returns a result reusing the cached output of the previous generator run
+   * for this ginjector, or {@code null} if there is no such output or anything
+   * it was derived from changed since.
+   */
+  private RebindResult tryReuseCachedResult(TreeLogger logger, GeneratorContext context,
+      String typeName, List<String> moduleClassNames, Map<String, CompiledClass> classFileMap) {
+    CachedGeneratorResult cachedResult = context.getCachedGeneratorResult();
+    if (!context.isGeneratorResultCachingEnabled() || cachedResult == null
+        || classFileMap == null) {
+      return null;
+    }
+
+    CachedGinjector cachedGinjector = CachedGinjector.fromClientData(VERSION_ID, cachedResult);
+    if (cachedGinjector == null) {
+      return null;
+    }
+
+    String mismatch =
+        cachedGinjector.findMismatch(VERSION_ID, moduleClassNames, classFileMap, context);
+    if (mismatch != null) {
+      logger.log(TreeLogger.TRACE, String.format("Can't reuse cached ginjector for %s, %s",
+          typeName, mismatch));
+      return null;
+    }
+
+    logger.log(TreeLogger.TRACE, "Reusing cached ginjector for " + typeName);
+    return new RebindResult(RebindMode.USE_ALL_CACHED, cachedResult.getResultTypeName());
+  }
+
+  private RebindResult createResult(GeneratorContext context, CachedGinjector cachedGinjector) {
+    if (!context.isGeneratorResultCachingEnabled()) {
+      return new RebindResult(RebindMode.USE_ALL_NEW_WITH_NO_CACHING,
+          cachedGinjector.getResultTypeName());
+    }
+
+    RebindResult result =
+        new RebindResult(RebindMode.USE_ALL_NEW, cachedGinjector.getResultTypeName());
+    cachedGinjector.putClientData(result);
+    return result;
   }
 
   /**
-   * Creates a new gin-specific class loader that will load GWT and non-GWT types such that there is
-   * never a conflict, especially with super source.
+   * Logs the timings collected while generating the given ginjector, and
+   * writes them to a JSON file among the compiler's private artifacts (i.e. the
+   * extra directory) if enabled through {@link GinProperties#TIMING_REPORT}.
+   */
+  private void reportTimings(TreeLogger logger, GeneratorContext context, String typeName,
+      RebindTimings timings, Map<String, String> sources) throws UnableToCompleteException {
+    long sourceBytes = 0;
+    for (String source : sources.values()) {
+      sourceBytes += source.getBytes(StandardCharsets.UTF_8).length;
+    }
+    timings.add(RebindTimings.Counter.SOURCE_BYTES, sourceBytes);
+
+    boolean writeReport = getValuesForProperty(GinProperties.TIMING_REPORT).contains("true");
+    timings.log(logger, writeReport ? TreeLogger.INFO : TreeLogger.DEBUG, typeName);
+    if (!writeReport) {
+      return;
+    }
+
+    String path = "gin-timings/" + typeName + ".json";
+    OutputStream out = context.tryCreateResource(logger, path);
+    if (out == null) {
+      // Another permutation generated a different ginjector for the same type.
+      logger.log(TreeLogger.TRACE, "Timing report " + path + " was already written");
+      return;
+    }
+
+    try {
+      out.write(timings.toJson(typeName).getBytes(StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      logger.log(TreeLogger.WARN, "Unable to write timing report " + path, e);
+    }
+    context.commitResource(logger, out).setVisibility(Visibility.Private);
+  }
+
+  private boolean isPersistentCacheEnabled() {
+    return !getValuesForProperty(PERSISTENT_CACHE_PROPERTY).contains("false");
+  }
+
+  /**
+   * Returns a gin-specific class loader that will load GWT and non-GWT types such that there is
+   * never a conflict, especially with super source.  The loader is shared with the other ginjectors
+   * generated from the same compilation state.
    *
    * @param logger logger for errors that occur during class loading
    * @param context generator context in which classes are loaded
-   * @return new gin class loader
+   * @return gin class loader
    * @see GinBridgeClassLoader
    */
-  private ClassLoader createGinClassLoader(TreeLogger logger, GeneratorContext context) {
+  private GinBridgeClassLoader createGinClassLoader(TreeLogger logger, GeneratorContext context) {
     Set<String> exceptions = new LinkedHashSet<String>();
     exceptions.add("com.google.inject"); // Need the non-super-source version during generation.
     exceptions.add("javax.inject"); // Need the non-super-source version during generation.
@@ -97,7 +373,22 @@ public class GinjectorGenerator extends Generator {
 
     // Add any excepted packages or classes registered by other developers.
     exceptions.addAll(getValuesForProperty("gin.classloading.exceptedPackages"));
-    return new GinBridgeClassLoader(context, logger, exceptions);
+    GinBridgeClassLoader.setRunLogger(logger);
+    return GinBridgeClassLoader.getShared(context, exceptions);
+  }
+
+  private Class<? extends Ginjector> loadGinjectorType(String typeName)
+      throws UnableToCompleteException {
+    try {
+      return getGinjectorType(typeName);
+    } catch (ClassNotFoundException e) {
+      logger.log(TreeLogger.ERROR, String.format("Unable to load ginjector type [%s], "
+          + "maybe you haven't compiled your client java sources?", typeName), e);
+      throw new UnableToCompleteException();
+    } catch (IllegalArgumentException e) {
+      logger.log(TreeLogger.Type.ERROR, e.getMessage(), e);
+      throw new UnableToCompleteException();
+    }
   }
 
   @SuppressWarnings("unchecked")
@@ -40,6 +40,7 @@ class GinjectorGeneratorImpl {
   private final GeneratorContext ctx;
   private final BindingsProcessor bindingsProcessor;
   private final GinjectorImplOutputter outputter;
+  private final GinjectorTypeDependencies typeDependencies;
 
   /**
    * Convenience cache of rootBindings.getGinjectorInterface().
@@ -55,13 +56,14 @@ class GinjectorGeneratorImpl {
   GinjectorGeneratorImpl(TreeLogger logger, GeneratorContext ctx,
       BindingsProcessor bindingsProcessor,
       @RootBindings GinjectorBindings rootBindings,
-      GinjectorImplOutputter outputter) {
+      GinjectorImplOutputter outputter, GinjectorTypeDependencies typeDependencies) {
     this.logger = logger;
     this.ctx = ctx;
     this.bindingsProcessor = bindingsProcessor;
     this.ginjectorInterface = rootBindings.getGinjectorInterface();
     this.outputter = outputter;
     this.rootBindings = rootBindings;
+    this.typeDependencies = typeDependencies;
   }
 
   public String generate() throws UnableToCompleteException {
@@ -78,6 +80,7 @@ class GinjectorGeneratorImpl {
     } else {
       bindingsProcessor.process();
       outputter.write(packageName, implClassName, printWriter, rootBindings);
+      typeDependencies.addGinjectorBindings(rootBindings);
     }
 
     return generatedClassName;
@@ -19,6 +19,7 @@ package com.google.gwt.inject.rebind;
 
 import com.google.gwt.core.ext.GeneratorContext;
 import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.core.ext.typeinfo.TypeOracle;
 import com.google.gwt.inject.client.GinModule;
 import com.google.gwt.inject.client.Ginjector;
 import com.google.gwt.inject.rebind.binding.BindingFactory;
@@ -32,6 +33,7 @@ import com.google.gwt.inject.rebind.resolution.ResolutionModule;
 import com.google.gwt.inject.rebind.util.GuiceUtil;
 import com.google.gwt.inject.rebind.util.MemberCollector;
 import com.google.gwt.inject.rebind.util.SourceWriteUtil;
+import com.google.gwt.inject.rebind.util.TypeOracleInjectionFilter;
 import com.google.inject.AbstractModule;
 import com.google.inject.Key;
 import com.google.inject.Provides;
@@ -110,6 +112,13 @@ class GinjectorGeneratorModule extends AbstractModule {
           }
         });
 
+    // Within a GWT compile, types without injectable members are skipped
+    // before their members are reflected upon.
+    TypeOracle typeOracle = ctx.getTypeOracle();
+    if (typeOracle != null) {
+      collector.setTypeFilter(new TypeOracleInjectionFilter(typeOracle));
+    }
+
     return collector;
   }
 }
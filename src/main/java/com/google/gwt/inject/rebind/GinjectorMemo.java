@@ -0,0 +1,115 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind;
+
+import com.google.gwt.core.ext.GeneratorContext;
+import com.google.gwt.dev.javac.CompilationState;
+import com.google.gwt.dev.javac.CompiledClass;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Process-wide memo of generated ginjectors, so that a ginjector is only
+ * resolved once per distinct tuple of the deferred binding property values it
+ * consulted, rather than once per permutation.
+ *
+ * <p>Entries are keyed by ginjector name and hold one output per tuple of
+ * {@link ConsultedProperties}. An entry is only handed out if it is still
+ * valid in the requesting context (see {@link CachedGinjector#findMismatch}).
+ *
+ * <p>All entries are dropped once generation moves on to a different
+ * compilation state, e.g. in the next Super Dev Mode recompile, so that the
+ * memo only holds the outputs of the current compile.
+ */
+final class GinjectorMemo {
+
+  private final Map<String, List<CachedGinjector>> entries =
+      new HashMap<String, List<CachedGinjector>>();
+
+  /**
+   * Compilation state that the entries were generated for.
+   */
+  private WeakReference<CompilationState> compilationState;
+
+  /**
+   * Returns an output for the given ginjector that can be reused in the
+   * passed context, or {@code null} if there is none.
+   */
+  synchronized CachedGinjector find(String ginjectorName, long versionId,
+      List<String> moduleClassNames, Map<String, CompiledClass> classFileMap,
+      GeneratorContext context) {
+    evictIfStale(context);
+    List<CachedGinjector> outputs = entries.get(ginjectorName);
+    if (outputs == null) {
+      return null;
+    }
+
+    for (CachedGinjector output : outputs) {
+      if (output.findMismatch(versionId, moduleClassNames, classFileMap, context) == null) {
+        return output;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Remembers the output for the given ginjector, generated in the passed
+   * context, replacing any output recorded for the same property values.
+   */
+  synchronized void put(String ginjectorName, CachedGinjector output,
+      GeneratorContext context) {
+    evictIfStale(context);
+    List<CachedGinjector> outputs = entries.get(ginjectorName);
+    if (outputs == null) {
+      outputs = new ArrayList<CachedGinjector>();
+      entries.put(ginjectorName, outputs);
+    }
+
+    for (Iterator<CachedGinjector> iterator = outputs.iterator(); iterator.hasNext(); ) {
+      if (iterator.next().getProperties().equals(output.getProperties())) {
+        iterator.remove();
+      }
+    }
+    outputs.add(output);
+  }
+
+  synchronized void clear() {
+    entries.clear();
+    compilationState = null;
+  }
+
+  /**
+   * Drops all entries if the given context belongs to a different compilation
+   * state than the entries.  Contexts that don't expose a compilation state
+   * keep the entries.
+   */
+  private void evictIfStale(GeneratorContext context) {
+    CompilationState current = GinBridgeClassLoader.getCompilationState(context);
+    if (current == null) {
+      return;
+    }
+
+    if (compilationState == null || compilationState.get() != current) {
+      entries.clear();
+      compilationState = new WeakReference<CompilationState>(current);
+    }
+  }
+}
@@ -65,7 +65,7 @@ public class GinjectorNameGenerator {
     return "field" + getName(bindings);
   }
   
-  private String getName(GinjectorBindings bindings) {
+  private synchronized String getName(GinjectorBindings bindings) {
     String name = nameCache.get(bindings);
     if (name != null) {
       return name;
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind;
+
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.core.ext.UnableToCompleteException;
+import com.google.gwt.inject.client.GinModules;
+import com.google.gwt.inject.client.Ginjector;
+import com.google.gwt.inject.client.NoGinModules;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+
+/**
+ * Annotation processor that generates the implementations of ginjectors
+ * during a regular javac run, so that they don't need to be generated by the
+ * GWT compiler.
+ *
+ * <p>The processor runs the same pipeline as {@link GinjectorGenerator}, which
+ * inspects ginjectors and instantiates their modules through reflection.  The
+ * client classes must therefore already be compiled and available to the
+ * processor's class loader, so the processor is meant for a separate javac
+ * run over the compiled classes, for example:
+ *
+ * <pre>
+ * javac -proc:only -processor com.google.gwt.inject.rebind.GinjectorProcessor \
+ *     -cp client-classes:gin.jar:... -s generated-sources com.example.MyGinjector
+ * </pre>
+ *
+ * <p>Every interface extending {@link Ginjector} that is annotated with
+ * {@link GinModules} or {@link NoGinModules} is generated.  Gin's
+ * configuration properties (and those named in {@link GinModules#properties})
+ * are passed as processor options, e.g. {@code -Agin.parallelOutput=true},
+ * with multiple values separated by commas.
+ *
+ * <p>To have {@code GWT.create()} use the generated sources, add them to the
+ * GWT source path and set the {@code gin.pregenerated} configuration property
+ * to {@code true}.  Note that they are generated once for all permutations,
+ * so deferred binding properties aren't available to Gin modules.
+ *
+ * <p>Rebind rules aren't known to the processor either.  Ginjectors whose
+ * bindings depend on them, e.g. because they inject an interface without a
+ * binding, are skipped with a warning and left to the GWT compiler.
+ */
+public class GinjectorProcessor extends AbstractProcessor {
+
+  @Override
+  public Set<String> getSupportedAnnotationTypes() {
+    Set<String> annotationTypes = new LinkedHashSet<String>();
+    annotationTypes.add(GinModules.class.getCanonicalName());
+    annotationTypes.add(NoGinModules.class.getCanonicalName());
+    return annotationTypes;
+  }
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    Set<Element> candidates = new LinkedHashSet<Element>();
+    candidates.addAll(roundEnv.getElementsAnnotatedWith(GinModules.class));
+    candidates.addAll(roundEnv.getElementsAnnotatedWith(NoGinModules.class));
+    for (Element element : candidates) {
+      if (isGinjector(element)) {
+        generate((TypeElement) element);
+      }
+    }
+    return false;
+  }
+
+  private boolean isGinjector(Element element) {
+    if (element.getKind() != ElementKind.INTERFACE) {
+      return false;
+    }
+
+    TypeElement ginjector =
+        processingEnv.getElementUtils().getTypeElement(Ginjector.class.getCanonicalName());
+    return ginjector != null
+        && processingEnv.getTypeUtils().isAssignable(element.asType(), ginjector.asType());
+  }
+
+  private void generate(TypeElement ginjector) {
+    String typeName = processingEnv.getElementUtils().getBinaryName(ginjector).toString();
+    TreeLogger logger = new MessagerTreeLogger(processingEnv.getMessager(), ginjector);
+    ProcessorGeneratorContext context = new ProcessorGeneratorContext(processingEnv.getFiler(),
+        processingEnv.getOptions(), ginjector);
+    try {
+      new GinjectorGenerator().generateStandalone(logger, context, typeName,
+          GinjectorProcessor.class.getClassLoader());
+      context.writeOutput(logger);
+    } catch (UnableToCompleteException e) {
+      // Errors were already reported through the messager.
+    }
+  }
+
+  /**
+   * Tree logger that reports errors, warnings and informational messages
+   * through the messager of the processing environment.
+   */
+  private static class MessagerTreeLogger extends TreeLogger {
+
+    private final Messager messager;
+    private final Element element;
+    private final String prefix;
+
+    MessagerTreeLogger(Messager messager, Element element) {
+      this(messager, element, "");
+    }
+
+    private MessagerTreeLogger(Messager messager, Element element, String prefix) {
+      this.messager = messager;
+      this.element = element;
+      this.prefix = prefix;
+    }
+
+    @Override
+    public TreeLogger branch(Type type, String msg, Throwable caught, HelpInfo helpInfo) {
+      log(type, msg, caught, helpInfo);
+      return new MessagerTreeLogger(messager, element, prefix + "  ");
+    }
+
+    @Override
+    public boolean isLoggable(Type type) {
+      return !type.isLowerPriorityThan(Type.INFO);
+    }
+
+    @Override
+    public void log(Type type, String msg, Throwable caught, HelpInfo helpInfo) {
+      if (!isLoggable(type)) {
+        return;
+      }
+
+      StringBuilder message = new StringBuilder(prefix).append(msg);
+      if (caught != null) {
+        StringWriter stackTrace = new StringWriter();
+        caught.printStackTrace(new PrintWriter(stackTrace));
+        message.append('\n').append(stackTrace);
+      }
+
+      Diagnostic.Kind kind;
+      if (type == Type.ERROR) {
+        kind = Diagnostic.Kind.ERROR;
+      } else if (type == Type.WARN) {
+        kind = Diagnostic.Kind.WARNING;
+      } else {
+        kind = Diagnostic.Kind.NOTE;
+      }
+      messager.printMessage(kind, message.toString(), element);
+    }
+  }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind;
+
+import com.google.gwt.inject.client.assistedinject.FactoryModule;
+import com.google.gwt.inject.rebind.binding.Binding;
+import com.google.gwt.inject.rebind.binding.Dependency;
+import com.google.inject.Key;
+import com.google.inject.Singleton;
+import com.google.inject.TypeLiteral;
+import com.google.inject.spi.Element;
+import com.google.inject.spi.ElementSource;
+import com.google.inject.spi.PrivateElements;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Member;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Records the client types that the output of a ginjector generation depends
+ * on: the ginjector interface, every class that declared bindings (modules and
+ * any helpers calling the binder), and all types that appear in bound keys,
+ * dependencies and injection requests, together with their supertypes.
+ *
+ * <p>The recorded names are used to fingerprint a generated ginjector (see
+ * {@link GinjectorFingerprint}), so that it can be reused as long as none of
+ * these types changed.
+ */
+@Singleton
+class GinjectorTypeDependencies {
+
+  private final Set<String> typeNames = new TreeSet<String>();
+  private final Set<Class<?>> visitedClasses = new HashSet<Class<?>>();
+
+  /**
+   * Records the classes that declared the passed module elements, descending
+   * into private modules.
+   */
+  void addElementSources(Iterable<? extends Element> elements) {
+    for (Element element : elements) {
+      Object source = element.getSource();
+      if (source instanceof ElementSource) {
+        source = ((ElementSource) source).getDeclaringSource();
+      }
+
+      if (source instanceof StackTraceElement) {
+        typeNames.add(((StackTraceElement) source).getClassName());
+      } else if (source instanceof Member) {
+        addClass(((Member) source).getDeclaringClass());
+      } else if (source instanceof Class<?>) {
+        addClass((Class<?>) source);
+      }
+
+      if (element instanceof PrivateElements) {
+        addElementSources(((PrivateElements) element).getElements());
+      }
+    }
+  }
+
+  /**
+   * Records all types referenced by the passed bindings and their children.
+   * The unresolved dependencies of the bindings are no longer available at
+   * this point, see {@link #addDependencies}.
+   */
+  void addGinjectorBindings(GinjectorBindings bindings) {
+    addClass(bindings.getModule());
+
+    for (Map.Entry<Key<?>, Binding> entry : bindings.getBindings()) {
+      addKey(entry.getKey());
+      for (Dependency dependency : entry.getValue().getDependencies()) {
+        addKey(dependency.getTarget());
+      }
+      for (TypeLiteral<?> type : entry.getValue().getMemberInjectRequests()) {
+        addType(type.getType());
+      }
+    }
+
+    for (TypeLiteral<?> type : bindings.getMemberInjectRequests()) {
+      addType(type.getType());
+    }
+
+    for (Class<?> type : bindings.getStaticInjectionRequests()) {
+      addClass(type);
+    }
+
+    for (FactoryModule<?> factoryModule : bindings.getFactoryModules()) {
+      addKey(factoryModule.getFactoryType());
+      for (TypeLiteral<?> implementation : factoryModule.getBindings().values()) {
+        addType(implementation.getType());
+      }
+    }
+
+    for (GinjectorBindings child : bindings.getChildren()) {
+      addGinjectorBindings(child);
+    }
+  }
+
+  /**
+   * Records the targets of the passed dependencies.  Used for the unresolved
+   * dependencies of a ginjector, which are only available until its bindings
+   * are resolved.
+   */
+  void addDependencies(Iterable<Dependency> dependencies) {
+    for (Dependency dependency : dependencies) {
+      addKey(dependency.getTarget());
+    }
+  }
+
+  void addKey(Key<?> key) {
+    addType(key.getTypeLiteral().getType());
+    addClass(key.getAnnotationType());
+  }
+
+  void addType(Type type) {
+    if (type instanceof Class<?>) {
+      addClass((Class<?>) type);
+    } else if (type instanceof ParameterizedType) {
+      ParameterizedType parameterizedType = (ParameterizedType) type;
+      addType(parameterizedType.getOwnerType());
+      addType(parameterizedType.getRawType());
+      for (Type argument : parameterizedType.getActualTypeArguments()) {
+        addType(argument);
+      }
+    } else if (type instanceof GenericArrayType) {
+      addType(((GenericArrayType) type).getGenericComponentType());
+    } else if (type instanceof WildcardType) {
+      for (Type bound : ((WildcardType) type).getUpperBounds()) {
+        addType(bound);
+      }
+      for (Type bound : ((WildcardType) type).getLowerBounds()) {
+        addType(bound);
+      }
+    }
+
+    // Type variables don't occur in keys and their bounds are covered by the
+    // declaring class, so they're ignored.
+  }
+
+  void addClass(Class<?> type) {
+    if (type == null || type.isPrimitive() || !visitedClasses.add(type)) {
+      return;
+    }
+
+    if (type.isArray()) {
+      addClass(type.getComponentType());
+      return;
+    }
+
+    typeNames.add(type.getName());
+    addClass(type.getSuperclass());
+    for (Class<?> iface : type.getInterfaces()) {
+      addClass(iface);
+    }
+  }
+
+  /**
+   * Returns the binary names of all recorded types, in lexicographic order.
+   */
+  Set<String> getTypeNames() {
+    return Collections.unmodifiableSet(typeNames);
+  }
+}
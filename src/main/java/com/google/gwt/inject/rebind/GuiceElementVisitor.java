@@ -16,6 +16,8 @@
 package com.google.gwt.inject.rebind;
 
 import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.inject.client.AsyncProvider;
+import com.google.gwt.inject.client.PrefetchableAsyncProvider;
 import com.google.gwt.inject.rebind.binding.BindingFactory;
 import com.google.gwt.inject.rebind.binding.Context;
 import com.google.gwt.inject.rebind.binding.ExposedChildBinding;
@@ -29,8 +31,11 @@ import com.google.inject.spi.Message;
 import com.google.inject.spi.PrivateElements;
 import com.google.inject.spi.ProviderLookup;
 import com.google.inject.spi.StaticInjectionRequest;
+import com.google.inject.util.Types;
 
+import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 
@@ -171,10 +176,31 @@ public class GuiceElementVisitor extends DefaultElementVisitor<Void> {
           childBinding);
 
       bindings.addBinding(key, childBinding);
+
+      GinjectorBindings asyncChild = bindings.getAsyncChildExposing(key);
+      if (asyncChild != null) {
+        addAsyncProviderBindings(key, asyncChild.getAsyncGroup(),
+            Context.forElement(privateElements));
+      }
     }
     return null;
   }
 
+  /**
+   * Binds the async providers of a key exposed from an asynchronously loaded
+   * child injector, which are the only way to inject it, to the group of that
+   * injector.
+   */
+  private void addAsyncProviderBindings(Key<?> key, Class<?> group, Context context) {
+    Type type = key.getTypeLiteral().getType();
+    for (Class<?> providerType : Arrays.asList(AsyncProvider.class,
+        PrefetchableAsyncProvider.class)) {
+      Key<?> providerKey = key.ofType(Types.newParameterizedType(providerType, type));
+      bindings.addBinding(providerKey,
+          bindingFactory.getAsyncProviderBinding(providerKey, group, context));
+    }
+  }
+
   public List<Message> getMessages() {
     return messages;
   }
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind;
+
+import com.google.gwt.inject.rebind.util.GinProperties;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Decides which types bound to {@code GWT.create()} are scoped as singletons
+ * even though they don't carry a scope annotation, as configured by
+ * {@link GinProperties#IMPLICIT_SINGLETON_TYPES}.
+ *
+ * <p>Each value of the property is either {@code true}, which selects the
+ * standard stateless GWT types ({@code ClientBundle}, {@code Messages} and
+ * {@code Constants}), or the fully qualified name of a type (nested types may
+ * be given by their canonical or their binary name).  A type is an
+ * implicit singleton if it is one of the selected types or a subtype of one.
+ */
+@Singleton
+public class ImplicitSingletonTypes {
+
+  /**
+   * Names of the types selected by the value {@code true}.  Resources such as a
+   * {@code CssResource} come from a {@code ClientBundle}, so they are shared
+   * along with the bundle.
+   */
+  static final List<String> STANDARD_TYPES = Collections.unmodifiableList(Arrays.asList(
+      "com.google.gwt.resources.client.ClientBundle",
+      "com.google.gwt.i18n.client.Messages",
+      "com.google.gwt.i18n.client.Constants"));
+
+  private final Set<String> typeNames = new LinkedHashSet<String>();
+
+  /**
+   * Results of {@link #isImplicitSingleton}, by type.
+   */
+  private final Map<Class<?>, Boolean> results = new HashMap<Class<?>, Boolean>();
+
+  @Inject
+  public ImplicitSingletonTypes(GinProperties properties) {
+    this(properties.getValues(GinProperties.IMPLICIT_SINGLETON_TYPES));
+  }
+
+  // Visible for testing.
+  ImplicitSingletonTypes(Collection<String> values) {
+    for (String value : values) {
+      value = value.trim();
+      if (Boolean.parseBoolean(value)) {
+        typeNames.addAll(STANDARD_TYPES);
+      } else if (value.length() > 0 && !"false".equalsIgnoreCase(value)) {
+        typeNames.add(value);
+      }
+    }
+  }
+
+  /**
+   * Returns {@code true} if values of the given type should be shared by all
+   * injection sites of an injector.
+   */
+  public synchronized boolean isImplicitSingleton(Class<?> type) {
+    if (typeNames.isEmpty()) {
+      return false;
+    }
+
+    Boolean result = results.get(type);
+    if (result == null) {
+      result = matches(type);
+      results.put(type, result);
+    }
+    return result;
+  }
+
+  /**
+   * Looks for a selected type among the type and its supertypes.  Types are
+   * compared by name, so that it doesn't matter which class loader loaded them.
+   */
+  private boolean matches(Class<?> type) {
+    if (type == null) {
+      return false;
+    }
+
+    if (typeNames.contains(type.getName()) || typeNames.contains(type.getCanonicalName())) {
+      return true;
+    }
+
+    if (matches(type.getSuperclass())) {
+      return true;
+    }
+
+    for (Class<?> implemented : type.getInterfaces()) {
+      if (matches(implemented)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind;
+
+import com.google.gwt.core.ext.GeneratorContext;
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.dev.javac.StandardGeneratorContext;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Stores {@link CachedGinjector generated ginjectors} in GWT's work directory
+ * so that later compiles, and permutations compiled in other processes, can
+ * reuse them instead of processing the ginjector's modules again.
+ *
+ * <p>There is one file per ginjector type, which holds one output per tuple of
+ * {@link ConsultedProperties}, since the properties a ginjector consults are
+ * only known once it was generated. Outputs are validated by their content
+ * fingerprint when loaded, so a stale output is simply ignored and replaced
+ * by the next one generated for the same property values. Any I/O problem
+ * disables the cache for the affected ginjector but never fails the compile.
+ *
+ * <p>Only the classes that make up a cached output are deserialized, so a
+ * tampered file in the work directory can't instantiate arbitrary classes.
+ */
+final class PersistentGinjectorCache {
+
+  private static final String CACHE_DIRECTORY = "gin-cache";
+  private static final String FILE_SUFFIX = ".ginjector";
+
+  private final File directory;
+
+  // Visible for testing.
+  PersistentGinjectorCache(File directory) {
+    this.directory = directory;
+  }
+
+  /**
+   * Returns the cache located in the work directory of the passed context, or
+   * {@code null} if the context does not expose a work directory.
+   */
+  static PersistentGinjectorCache forContext(GeneratorContext context) {
+    if (!(context instanceof StandardGeneratorContext)) {
+      return null;
+    }
+
+    StandardGeneratorContext standardContext = (StandardGeneratorContext) context;
+    if (standardContext.getCompilationState() == null) {
+      return null;
+    }
+
+    File workDir = standardContext.getCompilationState().getCompilerContext().getOptions()
+        .getWorkDir();
+    return workDir == null
+        ? null : new PersistentGinjectorCache(new File(workDir, CACHE_DIRECTORY));
+  }
+
+  /**
+   * Returns the cached outputs for the given ginjector, or an empty list if
+   * there are none or they can't be read.
+   */
+  List<CachedGinjector> load(TreeLogger logger, String ginjectorName) {
+    File file = getFile(ginjectorName);
+    if (!file.isFile()) {
+      return Collections.emptyList();
+    }
+
+    ObjectInputStream in = null;
+    try {
+      in = new CacheInputStream(new BufferedInputStream(new FileInputStream(file)));
+      List<?> outputs = (List<?>) in.readObject();
+      List<CachedGinjector> result = new ArrayList<CachedGinjector>();
+      for (Object output : outputs) {
+        result.add((CachedGinjector) output);
+      }
+      return result;
+    } catch (IOException e) {
+      logger.log(TreeLogger.DEBUG, "Unable to read cached ginjector from " + file, e);
+    } catch (ClassNotFoundException e) {
+      logger.log(TreeLogger.DEBUG, "Unable to read cached ginjector from " + file, e);
+    } catch (ClassCastException e) {
+      logger.log(TreeLogger.DEBUG, "Unable to read cached ginjector from " + file, e);
+    } finally {
+      close(in);
+    }
+    return Collections.emptyList();
+  }
+
+  /**
+   * Stores the output for the given ginjector, replacing any output stored
+   * for the same property values.
+   *
+   * <p>Concurrent compiles that store outputs for different property values
+   * may drop each other's output, which is then simply generated again.
+   */
+  void store(TreeLogger logger, String ginjectorName, CachedGinjector cachedGinjector) {
+    ArrayList<CachedGinjector> outputs =
+        new ArrayList<CachedGinjector>(load(logger, ginjectorName));
+    for (Iterator<CachedGinjector> iterator = outputs.iterator(); iterator.hasNext(); ) {
+      if (iterator.next().getProperties().equals(cachedGinjector.getProperties())) {
+        iterator.remove();
+      }
+    }
+    outputs.add(cachedGinjector);
+
+    File file = getFile(ginjectorName);
+    File tempFile = null;
+    ObjectOutputStream out = null;
+    try {
+      if (!directory.isDirectory() && !directory.mkdirs()) {
+        throw new IOException("Unable to create directory " + directory);
+      }
+
+      // Write to a temporary file first so that concurrent compiles never
+      // observe a partially written entry.
+      tempFile = File.createTempFile(ginjectorName, FILE_SUFFIX, directory);
+      out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+      out.writeObject(outputs);
+      out.close();
+      out = null;
+
+      if (!tempFile.renameTo(file) && !(file.delete() && tempFile.renameTo(file))) {
+        throw new IOException("Unable to replace " + file);
+      }
+      tempFile = null;
+    } catch (IOException e) {
+      logger.log(TreeLogger.DEBUG, "Unable to write cached ginjector to " + file, e);
+    } finally {
+      close(out);
+      if (tempFile != null) {
+        tempFile.delete();
+      }
+    }
+  }
+
+  private File getFile(String ginjectorName) {
+    return new File(directory, ginjectorName + FILE_SUFFIX);
+  }
+
+  private static void close(Closeable closeable) {
+    if (closeable != null) {
+      try {
+        closeable.close();
+      } catch (IOException e) {
+        // Nothing left to do.
+      }
+    }
+  }
+
+  /**
+   * Object input stream that refuses to resolve any class that is not part of
+   * a cached output.
+   */
+  private static final class CacheInputStream extends ObjectInputStream {
+
+    private static final Set<String> ALLOWED_CLASSES = new HashSet<String>(Arrays.asList(
+        ArrayList.class.getName(),
+        Boolean.class.getName(),
+        CachedGinjector.class.getName(),
+        ConsultedProperties.class.getName(),
+        HashMap.class.getName(),
+        LinkedHashMap.class.getName(),
+        String.class.getName()));
+
+    CacheInputStream(InputStream in) throws IOException {
+      super(in);
+    }
+
+    @Override
+    protected Class<?> resolveClass(ObjectStreamClass desc)
+        throws IOException, ClassNotFoundException {
+      if (!ALLOWED_CLASSES.contains(desc.getName())) {
+        throw new InvalidClassException(desc.getName(), "Unexpected class in cached ginjector");
+      }
+      return super.resolveClass(desc);
+    }
+
+    @Override
+    protected Class<?> resolveProxyClass(String[] interfaces) throws InvalidClassException {
+      throw new InvalidClassException("Unexpected proxy class in cached ginjector");
+    }
+  }
+}
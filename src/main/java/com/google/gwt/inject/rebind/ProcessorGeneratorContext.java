@@ -0,0 +1,262 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind;
+
+import com.google.gwt.core.ext.BadPropertyValueException;
+import com.google.gwt.core.ext.CachedGeneratorResult;
+import com.google.gwt.core.ext.ConfigurationProperty;
+import com.google.gwt.core.ext.DefaultConfigurationProperty;
+import com.google.gwt.core.ext.GeneratorContext;
+import com.google.gwt.core.ext.PropertyOracle;
+import com.google.gwt.core.ext.SelectionProperty;
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.core.ext.UnableToCompleteException;
+import com.google.gwt.core.ext.linker.Artifact;
+import com.google.gwt.core.ext.linker.GeneratedResource;
+import com.google.gwt.core.ext.linker.impl.StandardGeneratedResource;
+import com.google.gwt.core.ext.typeinfo.TypeOracle;
+import com.google.gwt.dev.resource.ResourceOracle;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.FilerException;
+import javax.lang.model.element.Element;
+import javax.tools.StandardLocation;
+
+/**
+ * Generator context that writes generated sources through the {@link Filer}
+ * of an annotation processing environment, see {@link GinjectorProcessor}.
+ *
+ * <p>Configuration properties are taken from the processor options, with
+ * multiple values separated by commas.
+ *
+ * <p>Rebind rules are not known at javac time.  Whether a type can be created
+ * with {@code GWT.create()} decides how Gin binds it though, so a ginjector
+ * whose generation consults a rebind rule can't be generated by the processor.
+ * The context therefore keeps all output in memory until
+ * {@link #writeOutput} is called, which drops it if a rebind rule was
+ * consulted and leaves the ginjector to the GWT compiler.
+ */
+class ProcessorGeneratorContext implements GeneratorContext {
+
+  private final Filer filer;
+  private final Map<String, String> options;
+  private final Element originatingElement;
+  private final Set<String> createdTypes = new LinkedHashSet<String>();
+  private final Set<String> createdResources = new LinkedHashSet<String>();
+  private final Set<String> consultedRebindRules = new LinkedHashSet<String>();
+
+  /**
+   * Names and contents of the types that were created but not committed yet.
+   */
+  private final Map<PrintWriter, String> pendingTypes =
+      new IdentityHashMap<PrintWriter, String>();
+  private final Map<PrintWriter, StringWriter> pendingSources =
+      new IdentityHashMap<PrintWriter, StringWriter>();
+
+  /**
+   * Partial paths of the resources that were created but not committed yet.
+   */
+  private final Map<OutputStream, String> pendingResources =
+      new IdentityHashMap<OutputStream, String>();
+
+  private final Map<String, String> committedSources = new LinkedHashMap<String, String>();
+  private final Map<String, byte[]> committedResources = new LinkedHashMap<String, byte[]>();
+
+  ProcessorGeneratorContext(Filer filer, Map<String, String> options,
+      Element originatingElement) {
+    this.filer = filer;
+    this.options = options;
+    this.originatingElement = originatingElement;
+  }
+
+  /**
+   * Writes the committed sources and resources through the filer, unless a
+   * rebind rule was consulted during generation.
+   *
+   * @return whether the output was written
+   */
+  synchronized boolean writeOutput(TreeLogger logger) throws UnableToCompleteException {
+    if (!consultedRebindRules.isEmpty()) {
+      logger.log(TreeLogger.WARN, "Not generated because it depends on the rebind rules of "
+          + consultedRebindRules + ", which are only known to the GWT compiler");
+      return false;
+    }
+
+    for (Map.Entry<String, String> source : committedSources.entrySet()) {
+      writeSource(logger, source.getKey(), source.getValue());
+    }
+    for (Map.Entry<String, byte[]> resource : committedResources.entrySet()) {
+      writeResource(logger, resource.getKey(), resource.getValue());
+    }
+    return true;
+  }
+
+  private void writeSource(TreeLogger logger, String typeName, String source)
+      throws UnableToCompleteException {
+    Writer writer;
+    try {
+      writer = filer.createSourceFile(typeName, originatingElement).openWriter();
+    } catch (FilerException e) {
+      // The type was already generated, e.g. for another ginjector.
+      return;
+    } catch (IOException e) {
+      logger.log(TreeLogger.ERROR, "Unable to create the source of " + typeName, e);
+      throw new UnableToCompleteException();
+    }
+
+    try {
+      writer.write(source);
+      writer.close();
+    } catch (IOException e) {
+      logger.log(TreeLogger.ERROR, "Unable to write the source of " + typeName, e);
+      throw new UnableToCompleteException();
+    }
+  }
+
+  private void writeResource(TreeLogger logger, String partialPath, byte[] bytes)
+      throws UnableToCompleteException {
+    try {
+      OutputStream out = filer.createResource(StandardLocation.CLASS_OUTPUT, "", partialPath,
+          originatingElement).openOutputStream();
+      out.write(bytes);
+      out.close();
+    } catch (IOException e) {
+      logger.log(TreeLogger.ERROR, "Unable to write resource " + partialPath, e);
+      throw new UnableToCompleteException();
+    }
+  }
+
+  /**
+   * Records the type, which is assumed to have a rebind rule so that
+   * generation can go on and report all types whose rules are consulted.
+   * Synchronized since rebind rules may be checked by concurrent resolution
+   * tasks.
+   */
+  public synchronized boolean checkRebindRuleAvailable(String sourceTypeName) {
+    consultedRebindRules.add(sourceTypeName);
+    return true;
+  }
+
+  public PrintWriter tryCreate(TreeLogger logger, String packageName, String simpleName) {
+    String typeName = packageName.length() == 0 ? simpleName : packageName + "." + simpleName;
+    if (!createdTypes.add(typeName)) {
+      return null;
+    }
+
+    StringWriter source = new StringWriter();
+    PrintWriter pw = new PrintWriter(source);
+    pendingTypes.put(pw, typeName);
+    pendingSources.put(pw, source);
+    return pw;
+  }
+
+  public void commit(TreeLogger logger, PrintWriter pw) {
+    String typeName = pendingTypes.remove(pw);
+    StringWriter source = pendingSources.remove(pw);
+    pw.close();
+    if (typeName == null) {
+      throw new IllegalStateException("Unexpected writer " + pw
+          + ", sources must be created through tryCreate()");
+    }
+    committedSources.put(typeName, source.toString());
+  }
+
+  public void commitArtifact(TreeLogger logger, Artifact<?> artifact)
+      throws UnableToCompleteException {
+  }
+
+  public GeneratedResource commitResource(TreeLogger logger, OutputStream os)
+      throws UnableToCompleteException {
+    String partialPath = pendingResources.remove(os);
+    if (partialPath == null) {
+      logger.log(TreeLogger.ERROR, "Unexpected output stream " + os
+          + ", resources must be created through tryCreateResource()");
+      throw new UnableToCompleteException();
+    }
+
+    byte[] bytes = ((ByteArrayOutputStream) os).toByteArray();
+    committedResources.put(partialPath, bytes);
+    return new StandardGeneratedResource(partialPath, bytes);
+  }
+
+  public OutputStream tryCreateResource(TreeLogger logger, String partialPath)
+      throws UnableToCompleteException {
+    if (!createdResources.add(partialPath)) {
+      return null;
+    }
+
+    OutputStream os = new ByteArrayOutputStream();
+    pendingResources.put(os, partialPath);
+    return os;
+  }
+
+  public CachedGeneratorResult getCachedGeneratorResult() {
+    return null;
+  }
+
+  public PropertyOracle getPropertyOracle() {
+    return new PropertyOracle() {
+      public ConfigurationProperty getConfigurationProperty(String propertyName)
+          throws BadPropertyValueException {
+        String value = options.get(propertyName);
+        if (value == null) {
+          throw new BadPropertyValueException(propertyName);
+        }
+        List<String> values = Arrays.asList(value.split(","));
+        return new DefaultConfigurationProperty(propertyName, values);
+      }
+
+      public SelectionProperty getSelectionProperty(TreeLogger logger, String propertyName)
+          throws BadPropertyValueException {
+        throw new BadPropertyValueException(propertyName);
+      }
+    };
+  }
+
+  public ResourceOracle getResourcesOracle() {
+    return null;
+  }
+
+  public TypeOracle getTypeOracle() {
+    return null;
+  }
+
+  public boolean isGeneratorResultCachingEnabled() {
+    return false;
+  }
+
+  public boolean isProdMode() {
+    return true;
+  }
+
+  public boolean tryReuseTypeFromCache(String typeName) {
+    return false;
+  }
+}
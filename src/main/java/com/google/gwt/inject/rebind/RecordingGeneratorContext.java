@@ -0,0 +1,187 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind;
+
+import com.google.gwt.core.ext.CachedGeneratorResult;
+import com.google.gwt.core.ext.GeneratorContext;
+import com.google.gwt.core.ext.PropertyOracle;
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.core.ext.UnableToCompleteException;
+import com.google.gwt.core.ext.linker.Artifact;
+import com.google.gwt.core.ext.linker.GeneratedResource;
+import com.google.gwt.core.ext.typeinfo.TypeOracle;
+import com.google.gwt.dev.resource.ResourceOracle;
+
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Generator context that forwards to another context and records the source
+ * of all types committed through it, as well as the outcome of all rebind rule
+ * checks and the values of all deferred binding properties consulted. This
+ * allows the output of a ginjector generation to be replayed
+ * later on (see {@link CachedGinjector}).
+ */
+class RecordingGeneratorContext implements GeneratorContext {
+
+  private final GeneratorContext delegate;
+
+  private final Map<PrintWriter, PendingType> pendingTypes =
+      new IdentityHashMap<PrintWriter, PendingType>();
+
+  private final Map<String, String> committedSources = new LinkedHashMap<String, String>();
+
+  private final Map<String, Boolean> rebindRuleChecks = new LinkedHashMap<String, Boolean>();
+
+  private final ConsultedProperties consultedProperties = new ConsultedProperties();
+
+  private final PropertyOracle propertyOracle;
+
+  RecordingGeneratorContext(GeneratorContext delegate) {
+    this.delegate = delegate;
+    this.propertyOracle = consultedProperties.createRecordingOracle(delegate.getPropertyOracle());
+  }
+
+  /**
+   * Returns the sources of all committed types, keyed by type name, in commit
+   * order.
+   */
+  Map<String, String> getCommittedSources() {
+    return Collections.unmodifiableMap(committedSources);
+  }
+
+  /**
+   * Returns the result of every rebind rule check, keyed by type name.
+   */
+  Map<String, Boolean> getRebindRuleChecks() {
+    return Collections.unmodifiableMap(rebindRuleChecks);
+  }
+
+  /**
+   * Returns the values of all properties consulted through
+   * {@link #getPropertyOracle}.
+   */
+  ConsultedProperties getConsultedProperties() {
+    return consultedProperties;
+  }
+
+  // Synchronized since rebind rules may be checked by concurrent resolution
+  // tasks.
+  public synchronized boolean checkRebindRuleAvailable(String sourceTypeName) {
+    boolean available = delegate.checkRebindRuleAvailable(sourceTypeName);
+    rebindRuleChecks.put(sourceTypeName, available);
+    return available;
+  }
+
+  public PrintWriter tryCreate(TreeLogger logger, String packageName, String simpleName) {
+    PrintWriter delegateWriter = delegate.tryCreate(logger, packageName, simpleName);
+    if (delegateWriter == null) {
+      return null;
+    }
+
+    String typeName = packageName.length() == 0 ? simpleName : packageName + "." + simpleName;
+    PendingType pendingType = new PendingType(typeName, delegateWriter);
+    pendingTypes.put(pendingType.writer, pendingType);
+    return pendingType.writer;
+  }
+
+  public void commit(TreeLogger logger, PrintWriter pw) {
+    PendingType pendingType = pendingTypes.remove(pw);
+    if (pendingType == null) {
+      delegate.commit(logger, pw);
+      return;
+    }
+
+    pw.flush();
+    String source = pendingType.buffer.toString();
+    pendingType.delegateWriter.print(source);
+    delegate.commit(logger, pendingType.delegateWriter);
+    committedSources.put(pendingType.typeName, source);
+  }
+
+  public void commitArtifact(TreeLogger logger, Artifact<?> artifact)
+      throws UnableToCompleteException {
+    delegate.commitArtifact(logger, artifact);
+  }
+
+  public GeneratedResource commitResource(TreeLogger logger, OutputStream os)
+      throws UnableToCompleteException {
+    return delegate.commitResource(logger, os);
+  }
+
+  public CachedGeneratorResult getCachedGeneratorResult() {
+    return delegate.getCachedGeneratorResult();
+  }
+
+  public PropertyOracle getPropertyOracle() {
+    return propertyOracle;
+  }
+
+  public ResourceOracle getResourcesOracle() {
+    return delegate.getResourcesOracle();
+  }
+
+  public TypeOracle getTypeOracle() {
+    return delegate.getTypeOracle();
+  }
+
+  public boolean isGeneratorResultCachingEnabled() {
+    return delegate.isGeneratorResultCachingEnabled();
+  }
+
+  public boolean isProdMode() {
+    return delegate.isProdMode();
+  }
+
+  public OutputStream tryCreateResource(TreeLogger logger, String partialPath)
+      throws UnableToCompleteException {
+    return delegate.tryCreateResource(logger, partialPath);
+  }
+
+  public boolean tryReuseTypeFromCache(String typeName) {
+    return delegate.tryReuseTypeFromCache(typeName);
+  }
+
+  /**
+   * A type created through this context that has not been committed yet.
+   * Its source is buffered until it is committed.
+   */
+  private static final class PendingType {
+    private final String typeName;
+    private final PrintWriter delegateWriter;
+    private final StringWriter buffer = new StringWriter();
+    private final PrintWriter writer = new PrintWriter(buffer) {
+      /**
+       * Overridden to use unix-style line endings, like the writers of GWT's
+       * generator context.
+       */
+      @Override
+      public void println() {
+        print('\n');
+      }
+    };
+
+    PendingType(String typeName, PrintWriter delegateWriter) {
+      this.typeName = typeName;
+      this.delegateWriter = delegateWriter;
+    }
+  }
+}
@@ -22,6 +22,7 @@ import com.google.gwt.inject.client.binder.GinAnnotatedBindingBuilder;
 import com.google.gwt.inject.client.binder.GinAnnotatedConstantBindingBuilder;
 import com.google.gwt.inject.client.binder.GinBinder;
 import com.google.gwt.inject.client.binder.GinLinkedBindingBuilder;
+import com.google.gwt.inject.client.multibindings.MultibindingModule;
 import com.google.gwt.inject.rebind.GinjectorBindings;
 import com.google.inject.Binder;
 import com.google.inject.Key;
@@ -55,11 +56,15 @@ class BinderAdapter implements GinBinder {
 
   public void install(GinModule install) {
 
-    // Filtering out fake factory modules.
+    // Filtering out fake factory and multibinding modules.
     if (install instanceof FactoryModule) {
       if (bindings != null) {
         bindings.addFactoryModule((FactoryModule<?>) install);
       }
+    } else if (install instanceof MultibindingModule) {
+      if (bindings != null) {
+        bindings.addMultibindingModule((MultibindingModule) install);
+      }
     } else {
       // Here we need to take care to ensure that PrivateGinModule uses the appropriate
       // type of adapter, and also get the corresponding Guice private binder.
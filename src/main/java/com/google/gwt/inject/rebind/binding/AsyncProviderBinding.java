@@ -16,6 +16,7 @@
 
 package com.google.gwt.inject.rebind.binding;
 
+import com.google.gwt.inject.client.AsyncGroup;
 import com.google.gwt.inject.rebind.reflect.NoSourceNameException;
 import com.google.gwt.inject.rebind.reflect.ReflectUtil;
 import com.google.gwt.inject.rebind.util.InjectorMethod;
@@ -25,6 +26,7 @@ import com.google.gwt.inject.rebind.util.SourceSnippet;
 import com.google.gwt.inject.rebind.util.SourceSnippetBuilder;
 import com.google.gwt.inject.rebind.util.SourceSnippets;
 import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
 
 import java.lang.reflect.ParameterizedType;
 import java.util.Collection;
@@ -32,41 +34,124 @@ import java.util.Collections;
 import java.util.List;
 
 /**
- * Binding implementation for {@code AsyncProvider<T>}. It generates
- * the following code for the provider:
+ * Binding implementation for {@code AsyncProvider<T>} and
+ * {@code PrefetchableAsyncProvider<T>}. It generates the following code for
+ * the provider:
  * 
  * <pre style=code>
- *   return new %provider_name% () {
- *      public void get(final AsyncCallback<%object_to_create%> callback) {
- *        GWT.runAsync(new RunAsyncCallback() {
+ *   return new CoalescingAsyncProvider<%object_to_create%>() {
+ *      protected void load() {
+ *        GWT.runAsync(%object_to_create%.class, new RunAsyncCallback() {
  *          public void onSuccess() {
- *            callback.onSuccess(%provider_of_object_to_create%.get());
+ *            for (AsyncCallback<? super %object_to_create%> callback : onLoaded()) {
+ *              callback.onSuccess(%provider_of_object_to_create%.get());
+ *            }
  *          }
  *          public void onFailure(Throwable ex) {
- *            callback.onFailure(ex);
+ *            onLoadFailure(ex);
  *          }
- *        }
+ *        });
  *      }
  *   }
  * 
  * </pre>
+ *
+ * <p>{@link com.google.gwt.inject.client.CoalescingAsyncProvider} enters the
+ * split point once for all requests made while the code is being loaded.  The
+ * callback is created at the {@code GWT.runAsync} call so that the compiler
+ * attributes only the code of the provided type to the split point.
+ *
+ * <p>If the provider belongs to an {@link AsyncGroup}, {@code load()} instead
+ * calls the loader method of the group, which the injector writes once for all
+ * of its members and which enters the split point named after the group.  Its
+ * callback serves the requests of each member through a helper method created
+ * by the member's binding:
+ *
+ * <pre style=code>
+ *   public void %member_method%(Throwable ex) {
+ *     CoalescingAsyncProvider<%object_to_create%> provider = %this_provider%;
+ *     if (ex != null) {
+ *       provider.onLoadFailure(ex);
+ *       return;
+ *     }
+ *     for (AsyncCallback<? super %object_to_create%> callback : provider.onLoaded()) {
+ *       callback.onSuccess(%provider_of_object_to_create%.get());
+ *     }
+ *   }
+ * </pre>
  */
 public class AsyncProviderBinding extends AbstractBinding implements Binding {
 
   private ParameterizedType providerType;
   private final Key<?> providerKey;
   private final Key<?> targetKey;
+  private final Class<?> group;
 
-  private AsyncProviderBinding(Key<?> providerKey, Key<?> targetKey) {
-    super(Context.format("Implicit injection of %s", providerKey), targetKey);
+  private AsyncProviderBinding(Context context, Key<?> providerKey, Key<?> targetKey,
+      Class<?> group) {
+    super(context, targetKey);
 
     this.providerKey = Preconditions.checkNotNull(providerKey);
     providerType = (ParameterizedType) providerKey.getTypeLiteral().getType();
     this.targetKey = targetKey;
+    this.group = group;
   }
 
   AsyncProviderBinding(Key<?> providerKey) {
-    this(providerKey, ReflectUtil.getProvidedKey(providerKey));
+    this(Context.format("Implicit injection of %s", providerKey), providerKey,
+        getTargetKey(providerKey), getGroup(providerKey));
+  }
+
+  /**
+   * Creates a binding for an {@code AsyncProvider} that belongs to the given
+   * group, whatever the annotations of its key and provided type.
+   */
+  AsyncProviderBinding(Key<?> providerKey, Class<?> group, Context context) {
+    this(context, providerKey, ReflectUtil.getProvidedKey(providerKey),
+        Preconditions.checkNotNull(group));
+  }
+
+  /**
+   * Returns the key created by the given provider key.  An {@link AsyncGroup}
+   * on the injection point only selects the group of the provider, so it is
+   * not part of the created key.
+   */
+  private static Key<?> getTargetKey(Key<?> providerKey) {
+    Key<?> providedKey = ReflectUtil.getProvidedKey(providerKey);
+    if (providerKey.getAnnotation() instanceof AsyncGroup) {
+      return Key.get(providedKey.getTypeLiteral());
+    }
+    return providedKey;
+  }
+
+  /**
+   * Returns the group selected by the given provider key, either on the
+   * injection point or on the provided type, or {@code null} if there is none.
+   */
+  private static Class<?> getGroup(Key<?> providerKey) {
+    if (providerKey.getAnnotation() instanceof AsyncGroup) {
+      return ((AsyncGroup) providerKey.getAnnotation()).value();
+    }
+
+    AsyncGroup typeGroup = ReflectUtil.getProvidedKey(providerKey).getTypeLiteral().getRawType()
+        .getAnnotation(AsyncGroup.class);
+    return typeGroup == null ? null : typeGroup.value();
+  }
+
+  /**
+   * Returns the class naming the {@link AsyncGroup} of this provider, or
+   * {@code null} if it has a split point of its own.
+   */
+  public Class<?> getGroup() {
+    return group;
+  }
+
+  /**
+   * Returns the package in which the loader method of the given group is
+   * written, from which the class naming the group is visible.
+   */
+  public static String getGroupPackageName(Class<?> group) {
+    return ReflectUtil.getUserPackageName(TypeLiteral.get(group));
   }
 
   public SourceSnippet getCreationStatements(NameGenerator nameGenerator,
@@ -74,24 +159,65 @@ public class AsyncProviderBinding extends AbstractBinding implements Binding {
     String providerTypeName = ReflectUtil.getSourceName(providerType);
     String targetKeyName = ReflectUtil.getSourceName(targetKey.getTypeLiteral());
 
+    if (group != null) {
+      return getGroupMemberCreationStatements(nameGenerator, methodsOutput, providerTypeName,
+          targetKeyName);
+    }
+
     return new SourceSnippetBuilder()
         .append(providerTypeName).append(" result = new ")
-        .append(providerTypeName).append("() { \n")
-        .append("    public void get(")
-        .append("final com.google.gwt.user.client.rpc.AsyncCallback<? super ")
-        .append(targetKeyName).append("> callback) { \n")
+        .append("com.google.gwt.inject.client.CoalescingAsyncProvider<")
+        .append(targetKeyName).append(">() { \n")
+        .append("    protected void load() { \n")
         .append("      com.google.gwt.core.client.GWT.runAsync(")
         .append(targetKey.getTypeLiteral().getRawType().getCanonicalName())
-        .append(".class,")
-        .append("new com.google.gwt.core.client.RunAsyncCallback() { \n")
+        .append(".class, new com.google.gwt.core.client.RunAsyncCallback() { \n")
         .append("        public void onSuccess() { \n")
-        .append("          callback.onSuccess(")
-        .append(SourceSnippets.callGetter(targetKey)).append(");\n")
+        .append("          for (com.google.gwt.user.client.rpc.AsyncCallback<? super ")
+        .append(targetKeyName).append("> callback : onLoaded()) { \n")
+        .append("            callback.onSuccess(").append(SourceSnippets.callGetter(targetKey))
+        .append(");\n")
+        .append("          }\n")
+        .append("        }\n")
+        .append("        public void onFailure(Throwable ex) { \n")
+        .append("          onLoadFailure(ex);\n")
         .append("        }\n")
-        .append("        public void onFailure(Throwable ex) { \n ")
-        .append("          callback.onFailure(ex); \n")
-        .append("        } \n")
-        .append("    }); \n")
+        .append("      });\n")
+        .append("    }\n")
+        .append(" };\n")
+        .build();
+  }
+
+  private SourceSnippet getGroupMemberCreationStatements(NameGenerator nameGenerator,
+      List<InjectorMethod> methodsOutput, String providerTypeName, String targetKeyName) {
+    String coalescingTypeName =
+        "com.google.gwt.inject.client.CoalescingAsyncProvider<" + targetKeyName + ">";
+
+    SourceSnippet memberBody = new SourceSnippetBuilder()
+        .append(coalescingTypeName).append(" provider = (").append(coalescingTypeName).append(") ")
+        .append(SourceSnippets.callGetter(providerKey)).append(";\n")
+        .append("if (ex != null) {\n")
+        .append("  provider.onLoadFailure(ex);\n")
+        .append("  return;\n")
+        .append("}\n")
+        .append("for (com.google.gwt.user.client.rpc.AsyncCallback<? super ")
+        .append(targetKeyName).append("> callback : provider.onLoaded()) {\n")
+        .append("  callback.onSuccess(").append(SourceSnippets.callGetter(targetKey))
+        .append(");\n")
+        .append("}")
+        .build();
+    methodsOutput.add(SourceSnippets.asMethod(false,
+        "public void " + nameGenerator.getAsyncGroupMemberMethodName(providerKey)
+            + "(Throwable ex)",
+        getGetterMethodPackage(), memberBody));
+
+    return new SourceSnippetBuilder()
+        .append(providerTypeName).append(" result = new ")
+        .append(coalescingTypeName).append("() { \n")
+        .append("    protected void load() { \n")
+        .append("      ").append(SourceSnippets.callMethod(
+            nameGenerator.getAsyncGroupLoaderMethodName(group), getGroupPackageName(group),
+            Collections.<String>emptyList())).append(";\n")
         .append("    }\n")
         .append(" };\n")
         .build();
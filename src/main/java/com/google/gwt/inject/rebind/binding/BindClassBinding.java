@@ -63,6 +63,13 @@ public class BindClassBinding extends AbstractBinding implements Binding {
     this.sourceClassKey = Preconditions.checkNotNull(sourceClassKey);
   }
 
+  /**
+   * Returns the key whose getter supplies the bound value.
+   */
+  public Key<?> getBoundClassKey() {
+    return boundClassKey;
+  }
+
   public SourceSnippet getCreationStatements(NameGenerator nameGenerator,
       List<InjectorMethod> methodsOutput) throws NoSourceNameException {
 
@@ -37,6 +37,7 @@ import java.util.List;
  */
 public class BindConstantBinding<T> extends AbstractBinding implements Binding {
 
+  private final T instance;
   private final String valueToOutput;
   private final Key<?> key;
 
@@ -64,7 +65,15 @@ public class BindConstantBinding<T> extends AbstractBinding implements Binding {
     super(context, key);
 
     this.key = Preconditions.checkNotNull(key);
-    this.valueToOutput = getValueToOutput(key, Preconditions.checkNotNull(instance));
+    this.instance = Preconditions.checkNotNull(instance);
+    this.valueToOutput = getValueToOutput(key, instance);
+  }
+
+  /**
+   * Returns the constant value of this binding.
+   */
+  public T getInstance() {
+    return instance;
   }
 
   private static <T> String getValueToOutput(Key<T> key, T instance) {
@@ -24,6 +24,7 @@ import com.google.inject.assistedinject.Assisted;
 import com.google.inject.internal.ProviderMethod;
 
 import java.lang.reflect.Constructor;
+import java.util.List;
 import java.util.Map;
 
 import javax.inject.Provider;
@@ -38,6 +39,9 @@ public interface BindingFactory {
 
   AsyncProviderBinding getAsyncProviderBinding(Key<?> providerKey);
 
+  AsyncProviderBinding getAsyncProviderBinding(Key<?> providerKey, Class<?> group,
+      Context context);
+
   BindClassBinding getBindClassBinding(Key<?> boundClassKey, Key<?> sourceClassKey,
       Context context);
 
@@ -50,6 +54,9 @@ public interface BindingFactory {
 
   CallGwtDotCreateBinding getCallGwtDotCreateBinding(TypeLiteral<?> type);
 
+  MultibindingMapBinding getConstantKeyMultibindingMapBinding(Key<?> boundKey,
+      Map<Key<?>, Key<?>> entries, List<?> constantKeys, boolean providerValues, Context context);
+
   ExposedChildBinding getExposedChildBinding(Key<?> key, GinjectorBindings childBindings,
       Context context);
 
@@ -58,6 +65,12 @@ public interface BindingFactory {
 
   ImplicitProviderBinding getImplicitProviderBinding(Key<?> providerKey);
 
+  MultibindingMapBinding getMultibindingMapBinding(Key<?> boundKey, Map<Key<?>, Key<?>> entries,
+      boolean providerValues, boolean multimap, boolean permitDuplicates, Context context);
+
+  MultibindingSetBinding getMultibindingSetBinding(Key<?> setKey, List<Key<?>> elementKeys,
+      boolean permitDuplicates, Context context);
+
   ParentBinding getParentBinding(Key<?> key, GinjectorBindings parentBindings, Context context);
 
   ProviderMethodBinding getProviderMethodBinding(ProviderMethod<?> providerMethod, Context context);
@@ -29,6 +29,7 @@ import com.google.inject.TypeLiteral;
 import com.google.inject.internal.ProviderMethod;
 
 import java.lang.reflect.Constructor;
+import java.util.List;
 import java.util.Map;
 
 import javax.inject.Provider;
@@ -60,6 +61,11 @@ public class BindingFactoryImpl implements BindingFactory {
     return new AsyncProviderBinding(providerKey);
   }
 
+  public AsyncProviderBinding getAsyncProviderBinding(Key<?> providerKey, Class<?> group,
+      Context context) {
+    return new AsyncProviderBinding(providerKey, group, context);
+  }
+
   public BindClassBinding getBindClassBinding(Key<?> boundClassKey, Key<?> sourceClassKey,
       Context context) {
     return new BindClassBinding(boundClassKey, sourceClassKey, context);
@@ -84,6 +90,12 @@ public class BindingFactoryImpl implements BindingFactory {
         Context.forText("Implicit GWT.create binding for " + type));
   }
   
+  public MultibindingMapBinding getConstantKeyMultibindingMapBinding(Key<?> boundKey,
+      Map<Key<?>, Key<?>> entries, List<?> constantKeys, boolean providerValues,
+      Context context) {
+    return new MultibindingMapBinding(boundKey, entries, constantKeys, providerValues, context);
+  }
+
   public ExposedChildBinding getExposedChildBinding(Key<?> key, GinjectorBindings childBindings,
       Context context) {
     return new ExposedChildBinding(errorManager, key, childBindings, context);
@@ -101,6 +113,18 @@ public class BindingFactoryImpl implements BindingFactory {
   public ImplicitProviderBinding getImplicitProviderBinding(Key<?> providerKey) {
     return new ImplicitProviderBinding(providerKey);
   }
+
+  public MultibindingMapBinding getMultibindingMapBinding(Key<?> boundKey,
+      Map<Key<?>, Key<?>> entries, boolean providerValues, boolean multimap,
+      boolean permitDuplicates, Context context) {
+    return new MultibindingMapBinding(
+        boundKey, entries, providerValues, multimap, permitDuplicates, context);
+  }
+
+  public MultibindingSetBinding getMultibindingSetBinding(Key<?> setKey, List<Key<?>> elementKeys,
+      boolean permitDuplicates, Context context) {
+    return new MultibindingSetBinding(setKey, elementKeys, permitDuplicates, context);
+  }
   
   public ParentBinding getParentBinding(Key<?> key, GinjectorBindings parentBindings,
       Context context) {
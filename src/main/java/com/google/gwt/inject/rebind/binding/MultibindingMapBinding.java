@@ -0,0 +1,267 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind.binding;
+
+import com.google.gwt.core.ext.Generator;
+import com.google.gwt.inject.client.multibindings.TypeLiterals;
+import com.google.gwt.inject.rebind.reflect.NoSourceNameException;
+import com.google.gwt.inject.rebind.reflect.ReflectUtil;
+import com.google.gwt.inject.rebind.util.InjectorMethod;
+import com.google.gwt.inject.rebind.util.NameGenerator;
+import com.google.gwt.inject.rebind.util.Preconditions;
+import com.google.gwt.inject.rebind.util.SourceSnippet;
+import com.google.gwt.inject.rebind.util.SourceSnippetBuilder;
+import com.google.gwt.inject.rebind.util.SourceSnippets;
+import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binding for one of the maps bound with
+ * {@link com.google.gwt.inject.client.multibindings.GinMapBinder}: the map of
+ * values ({@code Map<K, V>}), of value providers ({@code Map<K, Provider<V>>})
+ * or, if duplicates are permitted, the corresponding multimaps
+ * ({@code Map<K, Set<V>>} and {@code Map<K, Set<Provider<V>>>}).  The map is
+ * built directly from the getters of the keys its entries are bound to.
+ *
+ * <p>If the constant values of all map keys are passed, the map is instead
+ * created as a {@link com.google.gwt.inject.client.multibindings.ConstantKeyMap}
+ * that switches over those values to create only the values that are looked
+ * up.
+ */
+public class MultibindingMapBinding extends AbstractBinding implements Binding {
+
+  private final Key<?> boundKey;
+  private final Map<Key<?>, Key<?>> entries;
+  private final boolean providerValues;
+  private final boolean multimap;
+  private final boolean permitDuplicates;
+  private final List<?> constantKeys;
+
+  /**
+   * @param boundKey the key of the map this binding creates
+   * @param entries the keys of the map keys of all entries, mapped to the keys
+   *     of the corresponding values, in the order the entries were added
+   * @param providerValues whether the map contains providers of the values
+   *     instead of the values
+   * @param multimap whether the map contains a set of all values for each key
+   * @param permitDuplicates whether keys may be contributed more than once
+   */
+  MultibindingMapBinding(Key<?> boundKey, Map<Key<?>, Key<?>> entries, boolean providerValues,
+      boolean multimap, boolean permitDuplicates, Context context) {
+    this(boundKey, entries, providerValues, multimap, permitDuplicates, null, context);
+  }
+
+  /**
+   * @param boundKey the key of the map this binding creates
+   * @param entries the keys of the map keys of all entries, mapped to the keys
+   *     of the corresponding values, in the order the entries were added
+   * @param constantKeys the distinct {@code String} or enum values of the map
+   *     keys of all entries, in the same order
+   * @param providerValues whether the map contains providers of the values
+   *     instead of the values
+   */
+  MultibindingMapBinding(Key<?> boundKey, Map<Key<?>, Key<?>> entries, List<?> constantKeys,
+      boolean providerValues, Context context) {
+    this(boundKey, entries, providerValues, false, false,
+        Preconditions.checkNotNull(constantKeys), context);
+  }
+
+  private MultibindingMapBinding(Key<?> boundKey, Map<Key<?>, Key<?>> entries,
+      boolean providerValues, boolean multimap, boolean permitDuplicates, List<?> constantKeys,
+      Context context) {
+    super(context, boundKey);
+
+    this.boundKey = Preconditions.checkNotNull(boundKey);
+    this.entries = Preconditions.checkNotNull(entries);
+    this.providerValues = providerValues;
+    this.multimap = multimap;
+    this.permitDuplicates = permitDuplicates;
+    this.constantKeys = constantKeys;
+  }
+
+  /**
+   * Returns the key of the {@code Map<K, Provider<V>>} bound along with the
+   * passed {@code Map<K, V>} key.
+   */
+  public static Key<?> getProviderMapKey(Key<?> mapKey) {
+    return mapKey.ofType(TypeLiterals.mapOf(getMapKeyType(mapKey),
+        TypeLiterals.providerOf(getMapValueType(mapKey))));
+  }
+
+  /**
+   * Returns the key of the {@code Map<K, Set<V>>} bound along with the passed
+   * {@code Map<K, V>} key if duplicates are permitted.
+   */
+  public static Key<?> getMultimapKey(Key<?> mapKey) {
+    return mapKey.ofType(TypeLiterals.mapOf(getMapKeyType(mapKey),
+        TypeLiterals.setOf(getMapValueType(mapKey))));
+  }
+
+  /**
+   * Returns the key of the {@code Map<K, Set<Provider<V>>>} bound along with
+   * the passed {@code Map<K, V>} key if duplicates are permitted.
+   */
+  public static Key<?> getProviderMultimapKey(Key<?> mapKey) {
+    return mapKey.ofType(TypeLiterals.mapOf(getMapKeyType(mapKey),
+        TypeLiterals.setOf(TypeLiterals.providerOf(getMapValueType(mapKey)))));
+  }
+
+  /**
+   * Returns the type of the keys of the map bound to the passed key.
+   */
+  public static TypeLiteral<?> getMapKeyType(Key<?> mapKey) {
+    return TypeLiteral.get(getTypeArguments(mapKey)[0]);
+  }
+
+  private static TypeLiteral<?> getMapValueType(Key<?> mapKey) {
+    return TypeLiteral.get(getTypeArguments(mapKey)[1]);
+  }
+
+  private static Type[] getTypeArguments(Key<?> key) {
+    return ((ParameterizedType) key.getTypeLiteral().getType()).getActualTypeArguments();
+  }
+
+  /**
+   * Returns the keys of the map keys of all entries, mapped to the keys of the
+   * corresponding values.
+   */
+  public Map<Key<?>, Key<?>> getEntries() {
+    return Collections.unmodifiableMap(entries);
+  }
+
+  public SourceSnippet getCreationStatements(NameGenerator nameGenerator,
+      List<InjectorMethod> methodsOutput) throws NoSourceNameException {
+    Type[] typeArguments = getTypeArguments(boundKey);
+    String mapTypeName = ReflectUtil.getSourceName(boundKey.getTypeLiteral());
+    String keyTypeName = ReflectUtil.getSourceName(typeArguments[0]);
+    String valueTypeName = ReflectUtil.getSourceName(typeArguments[1]);
+
+    if (constantKeys != null) {
+      return getConstantKeyMapCreationStatements(mapTypeName, keyTypeName, valueTypeName);
+    }
+
+    SourceSnippetBuilder builder = new SourceSnippetBuilder()
+        .append(mapTypeName).append(" result = new java.util.LinkedHashMap<")
+        .append(keyTypeName).append(", ").append(valueTypeName).append(">();\n");
+    for (Map.Entry<Key<?>, Key<?>> entry : entries.entrySet()) {
+      builder.append("com.google.gwt.inject.client.multibindings.Multibindings.")
+          .append(multimap ? "putMultimapEntry" : "putEntry").append("(result, ")
+          .append(SourceSnippets.callGetter(entry.getKey())).append(", ")
+          .append(SourceSnippets.callGetter(getValueGetterKey(entry.getValue())));
+      if (!multimap) {
+        builder.append(", ").append(String.valueOf(permitDuplicates));
+      }
+      builder.append(");\n");
+    }
+
+    if (multimap) {
+      builder.append(
+          "result = com.google.gwt.inject.client.multibindings.Multibindings"
+              + ".unmodifiableMultimap(result);");
+    } else {
+      builder.append("result = java.util.Collections.unmodifiableMap(result);");
+    }
+    return builder.build();
+  }
+
+  private SourceSnippet getConstantKeyMapCreationStatements(String mapTypeName,
+      String keyTypeName, String valueTypeName) {
+    String mapClassName = "com.google.gwt.inject.client.multibindings.ConstantKeyMap<"
+        + keyTypeName + ", " + valueTypeName + ">";
+    boolean enumKeys = !constantKeys.isEmpty() && constantKeys.get(0) instanceof Enum<?>;
+
+    SourceSnippetBuilder builder = new SourceSnippetBuilder()
+        .append(mapTypeName).append(" result = new ").append(mapClassName)
+        .append("(").append(String.valueOf(entries.size())).append(") { \n")
+        .append("  protected int indexOf(Object key) { \n")
+        .append("    if (!(key instanceof ").append(keyTypeName).append(")) {\n")
+        .append("      return -1;\n")
+        .append("    }\n")
+        .append("    switch (").append(enumKeys
+            ? "((" + keyTypeName + ") key).ordinal()"
+            : "(" + keyTypeName + ") key").append(") {\n");
+    for (int i = 0; i < constantKeys.size(); i++) {
+      builder.append("      case ").append(toCaseLabel(constantKeys.get(i)))
+          .append(": return ").append(String.valueOf(i)).append(";\n");
+    }
+    builder.append("      default: return -1;\n")
+        .append("    }\n")
+        .append("  }\n")
+        .append("  protected ").append(keyTypeName).append(" keyAt(int index) { \n")
+        .append("    switch (index) {\n");
+    int index = 0;
+    for (Key<?> entryKey : entries.keySet()) {
+      builder.append("      case ").append(String.valueOf(index++)).append(": return ")
+          .append(SourceSnippets.callGetter(entryKey)).append(";\n");
+    }
+    builder.append("      default: throw new IndexOutOfBoundsException();\n")
+        .append("    }\n")
+        .append("  }\n")
+        .append("  protected ").append(valueTypeName).append(" create(int index) { \n")
+        .append("    switch (index) {\n");
+    index = 0;
+    for (Key<?> valueKey : entries.values()) {
+      builder.append("      case ").append(String.valueOf(index++)).append(": return ")
+          .append(SourceSnippets.callGetter(getValueGetterKey(valueKey))).append(";\n");
+    }
+    return builder.append("      default: throw new IndexOutOfBoundsException();\n")
+        .append("    }\n")
+        .append("  }\n")
+        .append("};")
+        .build();
+  }
+
+  /**
+   * Returns the {@code case} label that matches the passed map key: the
+   * ordinal of an enum constant or the literal of a string.
+   */
+  private static String toCaseLabel(Object constantKey) {
+    if (constantKey instanceof Enum<?>) {
+      return String.valueOf(((Enum<?>) constantKey).ordinal());
+    }
+    return "\"" + Generator.escape((String) constantKey) + "\"";
+  }
+
+  public Collection<Dependency> getDependencies() {
+    Context context = getContext();
+
+    Collection<Dependency> dependencies = new ArrayList<Dependency>();
+    dependencies.add(new Dependency(Dependency.GINJECTOR, boundKey, context));
+    for (Map.Entry<Key<?>, Key<?>> entry : entries.entrySet()) {
+      dependencies.add(new Dependency(boundKey, entry.getKey(), context));
+      dependencies.add(new Dependency(boundKey, getValueGetterKey(entry.getValue()), context));
+    }
+    return dependencies;
+  }
+
+  /**
+   * Returns the key whose getter supplies the map value for the passed value
+   * key: the key itself or the key of its provider.
+   */
+  private Key<?> getValueGetterKey(Key<?> valueKey) {
+    return providerValues
+        ? valueKey.ofType(TypeLiterals.providerOf(valueKey.getTypeLiteral()))
+        : valueKey;
+  }
+}
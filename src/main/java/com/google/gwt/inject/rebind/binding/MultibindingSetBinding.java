@@ -0,0 +1,88 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind.binding;
+
+import com.google.gwt.inject.rebind.reflect.NoSourceNameException;
+import com.google.gwt.inject.rebind.reflect.ReflectUtil;
+import com.google.gwt.inject.rebind.util.InjectorMethod;
+import com.google.gwt.inject.rebind.util.NameGenerator;
+import com.google.gwt.inject.rebind.util.Preconditions;
+import com.google.gwt.inject.rebind.util.SourceSnippet;
+import com.google.gwt.inject.rebind.util.SourceSnippetBuilder;
+import com.google.gwt.inject.rebind.util.SourceSnippets;
+import com.google.inject.Key;
+
+import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Binding for a set bound with
+ * {@link com.google.gwt.inject.client.multibindings.GinMultibinder}.  The set
+ * is built directly from the getters of the keys its elements are bound to.
+ */
+public class MultibindingSetBinding extends AbstractBinding implements Binding {
+
+  private final Key<?> setKey;
+  private final List<Key<?>> elementKeys;
+  private final boolean permitDuplicates;
+
+  MultibindingSetBinding(Key<?> setKey, List<Key<?>> elementKeys, boolean permitDuplicates,
+      Context context) {
+    super(context, setKey);
+
+    this.setKey = Preconditions.checkNotNull(setKey);
+    this.elementKeys = Preconditions.checkNotNull(elementKeys);
+    this.permitDuplicates = permitDuplicates;
+  }
+
+  /**
+   * Returns the keys the elements of the set are bound to.
+   */
+  public List<Key<?>> getElementKeys() {
+    return Collections.unmodifiableList(elementKeys);
+  }
+
+  public SourceSnippet getCreationStatements(NameGenerator nameGenerator,
+      List<InjectorMethod> methodsOutput) throws NoSourceNameException {
+    String setTypeName = ReflectUtil.getSourceName(setKey.getTypeLiteral());
+    String elementTypeName = ReflectUtil.getSourceName(
+        ((ParameterizedType) setKey.getTypeLiteral().getType()).getActualTypeArguments()[0]);
+
+    SourceSnippetBuilder builder = new SourceSnippetBuilder()
+        .append(setTypeName).append(" result = new java.util.LinkedHashSet<")
+        .append(elementTypeName).append(">();\n");
+    for (Key<?> elementKey : elementKeys) {
+      builder.append("com.google.gwt.inject.client.multibindings.Multibindings.addElement(result, ")
+          .append(SourceSnippets.callGetter(elementKey)).append(", ")
+          .append(String.valueOf(permitDuplicates)).append(");\n");
+    }
+    return builder.append("result = java.util.Collections.unmodifiableSet(result);").build();
+  }
+
+  public Collection<Dependency> getDependencies() {
+    Context context = getContext();
+
+    Collection<Dependency> dependencies = new ArrayList<Dependency>();
+    dependencies.add(new Dependency(Dependency.GINJECTOR, setKey, context));
+    for (Key<?> elementKey : elementKeys) {
+      dependencies.add(new Dependency(setKey, elementKey, context));
+    }
+    return dependencies;
+  }
+}
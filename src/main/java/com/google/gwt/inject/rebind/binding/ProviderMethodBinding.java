@@ -30,14 +30,16 @@ import com.google.inject.TypeLiteral;
 import com.google.inject.internal.ProviderMethod;
 
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.Collection;
 import java.util.List;
 
 /**
- * A binding that calls a provider method. This binding depends on
- * the {@code GinModule}'s key, meaning that it will cause the module
- * itself to be instantiated at runtime so it can call the provider
- * method.
+ * A binding that calls a provider method.  Instance methods are invoked on a
+ * single instance of the {@code GinModule}, which the injector creates at
+ * runtime the first time one of the module's provider methods is called, and
+ * then shares between all of them.  Static methods are invoked directly and
+ * don't need a module instance.
  */
 public class ProviderMethodBinding extends AbstractBinding implements Binding {
   private final GuiceUtil guiceUtil;
@@ -45,6 +47,7 @@ public class ProviderMethodBinding extends AbstractBinding implements Binding {
   private MethodLiteral<?, Method> providerMethod;
   private final MethodCallUtil methodCallUtil;
   private final Class<?> moduleType;
+  private final boolean isStatic;
   private final Key<?> targetKey;
   
   ProviderMethodBinding(ErrorManager errorManager, GuiceUtil guiceUtil,
@@ -57,9 +60,10 @@ public class ProviderMethodBinding extends AbstractBinding implements Binding {
     this.moduleType = providerMethod.getInstance().getClass();
     Method method = providerMethod.getMethod();
     this.providerMethod = MethodLiteral.get(method, TypeLiteral.get(method.getDeclaringClass()));
+    this.isStatic = Modifier.isStatic(method.getModifiers());
     this.targetKey = providerMethod.getKey();
 
-    if (!ReflectUtil.hasAccessibleDefaultConstructor(method.getDeclaringClass())) {
+    if (!isStatic && !ReflectUtil.hasAccessibleDefaultConstructor(method.getDeclaringClass())) {
       errorManager.logError(
           "Cannot invoke a @Provides method on a module without a default constructor.  "
               + "Gin must be able to create the module at runtime in order to invoke an instance "
@@ -68,19 +72,26 @@ public class ProviderMethodBinding extends AbstractBinding implements Binding {
     }
   }
   
-  // TODO(schmitt): This implementation creates a new module instance for
-  // every provider method invocation. Instead we should likely create just a
-  // single instance of the module, invoke it repeatedly and share it between
-  // provider methods.
+  /**
+   * Returns the type of the module whose instance the provider method is
+   * invoked on, or {@code null} if the provider method is static.  The getter
+   * for the module instance is named by
+   * {@link NameGenerator#getModuleInstanceGetterMethodName} and must be
+   * written to the same fragment as the getter of this binding.
+   */
+  public Class<?> getModuleInstanceType() {
+    return isStatic ? null : moduleType;
+  }
+
   public SourceSnippet getCreationStatements(NameGenerator nameGenerator,
       List<InjectorMethod> methodsOutput) throws NoSourceNameException {
-    String moduleSourceName = ReflectUtil.getSourceName(moduleType);
-    String createModule = "new " + moduleSourceName + "()";
+    String moduleInstance = isStatic
+        ? null : nameGenerator.getModuleInstanceGetterMethodName(moduleType) + "()";
     String type = ReflectUtil.getSourceName(targetKey.getTypeLiteral());
 
     return new SourceSnippetBuilder()
         .append(type).append(" result = ")
-        .append(methodCallUtil.createMethodCallWithInjection(providerMethod, createModule,
+        .append(methodCallUtil.createMethodCallWithInjection(providerMethod, moduleInstance,
             nameGenerator, methodsOutput))
         .build();
   }
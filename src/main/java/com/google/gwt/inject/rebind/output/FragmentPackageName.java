@@ -33,10 +33,15 @@ import com.google.inject.assistedinject.Assisted;
  * parts of those packages).  Since it doesn't matter where those methods go, we
  * arbitrarily put them in the fragment corresponding to the ginjector
  * interface.
+ *
+ * <p>A package may have additional fragments for the bindings that are only
+ * reachable through a group of {@code AsyncProvider} split points, which are
+ * distinguished by their split point group.
  */
 public class FragmentPackageName {
 
   private final String name;
+  private final int splitPointGroup;
 
   private static final String[] prohibitedPackageNames = new String[] {
     "java.lang",
@@ -48,6 +53,31 @@ public class FragmentPackageName {
       @Assisted String requestedName) {
 
     name = sanitizePackageName(ginjectorInterface, requestedName);
+    splitPointGroup = 0;
+  }
+
+  private FragmentPackageName(String name, int splitPointGroup) {
+    this.name = name;
+    this.splitPointGroup = splitPointGroup;
+  }
+
+  /**
+   * Returns the name of the fragment in the same package that holds the
+   * bindings of the given split point group, or of the package's main
+   * fragment for group {@code 0}.
+   */
+  public FragmentPackageName forSplitPointGroup(int splitPointGroup) {
+    return splitPointGroup == this.splitPointGroup
+        ? this
+        : new FragmentPackageName(name, splitPointGroup);
+  }
+
+  /**
+   * Returns the split point group of this fragment, or {@code 0} for the main
+   * fragment of the package.
+   */
+  public int getSplitPointGroup() {
+    return splitPointGroup;
   }
 
   private static String sanitizePackageName(Class<?> ginjectorInterface, String packageName) {
@@ -70,13 +100,17 @@ public class FragmentPackageName {
       return false;
     }
 
-    return name.equals(((FragmentPackageName) obj).name);
+    FragmentPackageName other = (FragmentPackageName) obj;
+    return name.equals(other.name) && splitPointGroup == other.splitPointGroup;
   }
 
   public int hashCode() {
-    return name.hashCode();
+    return name.hashCode() * 31 + splitPointGroup;
   }
 
+  /**
+   * Returns the name of the package of this fragment.
+   */
   public String toString() {
     return name;
   }
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind.output;
+
+import com.google.gwt.inject.rebind.binding.Binding;
+import com.google.inject.Inject;
+
+/**
+ * Determines the fragment that holds the getter of a binding.  That is
+ * normally the fragment of the binding's getter method package, or the
+ * fragment for its split point group in the same package if the binding is
+ * only reachable through {@code AsyncProvider} split points (see
+ * {@link ReachabilityAnalyzer#getSplitPointGroup}).
+ */
+class FragmentPartitioner {
+
+  private final FragmentPackageName.Factory fragmentPackageNameFactory;
+  private final ReachabilityAnalyzer reachabilityAnalyzer;
+
+  @Inject
+  FragmentPartitioner(FragmentPackageName.Factory fragmentPackageNameFactory,
+      ReachabilityAnalyzer reachabilityAnalyzer) {
+    this.fragmentPackageNameFactory = fragmentPackageNameFactory;
+    this.reachabilityAnalyzer = reachabilityAnalyzer;
+  }
+
+  /**
+   * Returns the name of the fragment in which the getter of the given binding
+   * is written.
+   */
+  FragmentPackageName getFragmentPackageName(Binding binding) {
+    return fragmentPackageNameFactory.create(binding.getGetterMethodPackage())
+        .forSplitPointGroup(reachabilityAnalyzer.getSplitPointGroup(binding));
+  }
+}
@@ -18,18 +18,26 @@ package com.google.gwt.inject.rebind.output;
 import com.google.gwt.core.ext.GeneratorContext;
 import com.google.gwt.core.ext.TreeLogger;
 import com.google.gwt.core.ext.UnableToCompleteException;
+import com.google.gwt.inject.client.AsyncGroup;
 import com.google.gwt.inject.rebind.ErrorManager;
 import com.google.gwt.inject.rebind.GinjectorBindings;
 import com.google.gwt.inject.rebind.GinjectorNameGenerator;
+import com.google.gwt.inject.rebind.binding.AsyncProviderBinding;
 import com.google.gwt.inject.rebind.binding.Binding;
+import com.google.gwt.inject.rebind.binding.ExposedChildBinding;
 import com.google.gwt.inject.rebind.binding.GinjectorBinding;
+import com.google.gwt.inject.rebind.binding.ParentBinding;
+import com.google.gwt.inject.rebind.binding.ProviderMethodBinding;
 import com.google.gwt.inject.rebind.reflect.FieldLiteral;
 import com.google.gwt.inject.rebind.reflect.MethodLiteral;
 import com.google.gwt.inject.rebind.reflect.NoSourceNameException;
 import com.google.gwt.inject.rebind.reflect.ReflectUtil;
+import com.google.gwt.inject.rebind.util.GinProperties;
 import com.google.gwt.inject.rebind.util.InjectorMethod;
 import com.google.gwt.inject.rebind.util.MethodCallUtil;
 import com.google.gwt.inject.rebind.util.NameGenerator;
+import com.google.gwt.inject.rebind.util.RebindTimings;
+import com.google.gwt.inject.rebind.util.SourceSnippet;
 import com.google.gwt.inject.rebind.util.SourceSnippetBuilder;
 import com.google.gwt.inject.rebind.util.SourceSnippets;
 import com.google.gwt.inject.rebind.util.SourceWriteUtil;
@@ -46,9 +54,14 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 /**
  * Outputs the generated classes for one or more {@link GinjectorBindings}.
@@ -60,32 +73,41 @@ class GinjectorBindingsOutputter {
   private final ErrorManager errorManager;
   private final GinjectorFragmentOutputter.Factory fragmentOutputterFactory;
   private final FragmentPackageName.Factory fragmentPackageNameFactory;
+  private final FragmentPartitioner fragmentPartitioner;
   private final GinjectorNameGenerator ginjectorNameGenerator;
   private final TreeLogger logger;
   private final MethodCallUtil methodCallUtil;
   private final ReachabilityAnalyzer reachabilityAnalyzer;
   private final SourceWriteUtil.Factory sourceWriteUtilFactory;
+  private final GinProperties properties;
+  private final RebindTimings timings;
 
   @Inject
   GinjectorBindingsOutputter(GeneratorContext ctx,
       ErrorManager errorManager,
       GinjectorFragmentOutputter.Factory fragmentOutputterFactory,
       FragmentPackageName.Factory fragmentPackageNameFactory,
+      FragmentPartitioner fragmentPartitioner,
       GinjectorNameGenerator ginjectorNameGenerator,
       TreeLogger logger,
       MethodCallUtil methodCallUtil,
       ReachabilityAnalyzer reachabilityAnalyzer,
-      SourceWriteUtil.Factory sourceWriteUtilFactory) {
+      SourceWriteUtil.Factory sourceWriteUtilFactory,
+      GinProperties properties,
+      RebindTimings timings) {
 
     this.ctx = ctx;
     this.errorManager = errorManager;
     this.fragmentOutputterFactory = fragmentOutputterFactory;
     this.fragmentPackageNameFactory = fragmentPackageNameFactory;
+    this.fragmentPartitioner = fragmentPartitioner;
     this.ginjectorNameGenerator = ginjectorNameGenerator;
     this.logger = logger;
     this.methodCallUtil = methodCallUtil;
     this.reachabilityAnalyzer = reachabilityAnalyzer;
     this.sourceWriteUtilFactory = sourceWriteUtilFactory;
+    this.properties = properties;
+    this.timings = timings;
   }
 
   /**
@@ -116,12 +138,110 @@ class GinjectorBindingsOutputter {
         fragmentOutputterFactory);
 
     outputBindings(bindings, fragments, writer);
+    timings.add(RebindTimings.Counter.FRAGMENTS, fragments.getFragments().size());
+    renderFragments(fragments);
     errorManager.checkForError();
 
     fragments.commitAll();
     writer.commit(logger);
   }
 
+  /**
+   * Renders the source of all fragments, concurrently if enabled through
+   * {@link GinProperties#PARALLEL_OUTPUT}.  Only the rendering happens
+   * concurrently: all names were assigned by {@link #assignNames} before, and
+   * the fragments are created and committed on the calling thread.
+   */
+  private void renderFragments(FragmentMap fragments) {
+    List<GinjectorFragmentOutputter> fragmentList = fragments.getFragments();
+    if (fragmentList.size() < 2 || !properties.isEnabled(GinProperties.PARALLEL_OUTPUT)) {
+      for (GinjectorFragmentOutputter fragment : fragmentList) {
+        fragment.render();
+      }
+      return;
+    }
+
+    List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+    for (final GinjectorFragmentOutputter fragment : fragmentList) {
+      tasks.add(new Callable<Void>() {
+        public Void call() {
+          fragment.render();
+          return null;
+        }
+      });
+    }
+
+    // The common pool is shared by all injectors and permutations, so that
+    // generating many ginjectors doesn't start a set of threads for each.
+    try {
+      for (Future<Void> result : ForkJoinPool.commonPool().invokeAll(tasks)) {
+        result.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while rendering injector fragments", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      } else if (e.getCause() instanceof Error) {
+        throw (Error) e.getCause();
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  /**
+   * Assigns all names of the given bindings and its children that are
+   * requested while their fragments are rendered: the getters, including
+   * those that fragments call on their parent and child injectors, the
+   * member-inject methods, the module instances of provider methods and the
+   * methods of async groups.  This has to happen before any fragment of the
+   * hierarchy is rendered, and ensures that the names don't depend on the
+   * order in which fragments are rendered.
+   */
+  void assignNames(GinjectorBindings bindings) {
+    NameGenerator nameGenerator = bindings.getNameGenerator();
+    for (Map.Entry<Key<?>, Binding> entry : bindings.getBindings()) {
+      Binding binding = entry.getValue();
+      if (!reachabilityAnalyzer.isReachable(binding)) {
+        continue;
+      }
+
+      Key<?> key = entry.getKey();
+      nameGenerator.getGetterMethodName(key);
+
+      if (binding instanceof ParentBinding) {
+        ((ParentBinding) binding).getParentBindings().getNameGenerator()
+            .getGetterMethodName(key);
+      } else if (binding instanceof ExposedChildBinding) {
+        ((ExposedChildBinding) binding).getChildBindings().getNameGenerator()
+            .getGetterMethodName(key);
+      } else if (binding instanceof ProviderMethodBinding) {
+        Class<?> moduleType = ((ProviderMethodBinding) binding).getModuleInstanceType();
+        if (moduleType != null) {
+          nameGenerator.getModuleInstanceFieldName(moduleType);
+          nameGenerator.getModuleInstanceGetterMethodName(moduleType);
+        }
+      } else if (binding instanceof AsyncProviderBinding) {
+        Class<?> group = ((AsyncProviderBinding) binding).getGroup();
+        if (group != null) {
+          nameGenerator.getAsyncGroupLoaderMethodName(group);
+          nameGenerator.getAsyncGroupMemberMethodName(key);
+        }
+      }
+    }
+
+    for (TypeLiteral<?> type : bindings.getMemberInjectRequests()) {
+      if (reachabilityAnalyzer.isReachableMemberInject(bindings, type)) {
+        nameGenerator.getMemberInjectMethodName(type);
+      }
+    }
+
+    for (GinjectorBindings child : bindings.getChildren()) {
+      assignNames(child);
+    }
+  }
+
   /**
    * Outputs the top-level injector for the given {@link GinjectorBindings},
    * along with all of its fragments.
@@ -194,15 +314,24 @@ class GinjectorBindingsOutputter {
       }
 
       FragmentPackageName fragmentPackageName =
-          fragmentPackageNameFactory.create(binding.getGetterMethodPackage());
+          fragmentPartitioner.getFragmentPackageName(binding);
       Key<?> key = entry.getKey();
 
+      GinjectorFragmentOutputter fragment = fragments.get(fragmentPackageName);
+      if (binding instanceof ProviderMethodBinding) {
+        Class<?> moduleType = ((ProviderMethodBinding) binding).getModuleInstanceType();
+        if (moduleType != null) {
+          fragment.writeModuleInstanceGetter(moduleType);
+        }
+      }
+
       List<InjectorMethod> helperMethods = new ArrayList();
-      fragments.get(fragmentPackageName)
-          .writeBindingGetter(key, binding, bindings.determineScope(key), helperMethods);
+      fragment.writeBindingGetter(key, binding, bindings.determineScope(key), helperMethods);
       outputMethods(helperMethods, fragments);
     }
 
+    outputAsyncGroups(bindings, fragments);
+
     // Output the fragment members.
     outputFragments(bindings, fragments, initializeEagerSingletonsBody,
         initializeStaticInjectionsBody, sourceWriteUtil, writer);
@@ -367,6 +496,63 @@ class GinjectorBindingsOutputter {
     fragment.invokeInInitializeStaticInjections(methodName);
   }
 
+  /**
+   * Outputs the loader method of each {@link AsyncGroup} of the reachable
+   * async providers of the given bindings.  The loader is the only split point
+   * of its group, and its callback calls each member directly, so that the
+   * compiler attributes the code of all members to that split point.
+   */
+  private void outputAsyncGroups(GinjectorBindings bindings, FragmentMap fragments) {
+    Map<Class<?>, List<Key<?>>> groupMembers = new LinkedHashMap<Class<?>, List<Key<?>>>();
+    for (Map.Entry<Key<?>, Binding> entry : bindings.getBindings()) {
+      Binding binding = entry.getValue();
+      if (!(binding instanceof AsyncProviderBinding)
+          || !reachabilityAnalyzer.isReachable(binding)) {
+        continue;
+      }
+
+      Class<?> group = ((AsyncProviderBinding) binding).getGroup();
+      if (group != null) {
+        List<Key<?>> members = groupMembers.get(group);
+        if (members == null) {
+          members = new ArrayList<Key<?>>();
+          groupMembers.put(group, members);
+        }
+        members.add(entry.getKey());
+      }
+    }
+
+    NameGenerator nameGenerator = bindings.getNameGenerator();
+    for (Map.Entry<Class<?>, List<Key<?>>> entry : groupMembers.entrySet()) {
+      Class<?> group = entry.getKey();
+      SourceSnippetBuilder onSuccess = new SourceSnippetBuilder();
+      SourceSnippetBuilder onFailure = new SourceSnippetBuilder();
+      for (Key<?> providerKey : entry.getValue()) {
+        String memberMethodName = nameGenerator.getAsyncGroupMemberMethodName(providerKey);
+        String memberPackageName = bindings.getBinding(providerKey).getGetterMethodPackage();
+        onSuccess.append("    ").append(SourceSnippets.callMethod(memberMethodName,
+            memberPackageName, Collections.singletonList("null"))).append(";\n");
+        onFailure.append("    ").append(SourceSnippets.callMethod(memberMethodName,
+            memberPackageName, Collections.singletonList("ex"))).append(";\n");
+      }
+
+      SourceSnippet body = new SourceSnippetBuilder()
+          .append("com.google.gwt.core.client.GWT.runAsync(").append(group.getCanonicalName())
+          .append(".class, new com.google.gwt.core.client.RunAsyncCallback() {\n")
+          .append("  public void onSuccess() {\n").append(onSuccess.build()).append("  }\n")
+          .append("  public void onFailure(Throwable ex) {\n").append(onFailure.build())
+          .append("  }\n")
+          .append("});")
+          .build();
+
+      String packageName = AsyncProviderBinding.getGroupPackageName(group);
+      InjectorMethod method = SourceSnippets.asMethod(false,
+          "public void " + nameGenerator.getAsyncGroupLoaderMethodName(group) + "()",
+          packageName, body);
+      fragments.get(fragmentPackageNameFactory.create(packageName)).outputMethod(method);
+    }
+  }
+
   /**
    * Outputs some methods to the fragments they belong to.
    */
@@ -530,6 +716,13 @@ class GinjectorBindingsOutputter {
       return fragments.keySet();
     }
 
+    /**
+     * Gets the fragments that were created by this map.
+     */
+    List<GinjectorFragmentOutputter> getFragments() {
+      return new ArrayList<GinjectorFragmentOutputter>(fragments.values());
+    }
+
     /**
      * Commits all the fragments that were created by this map.
      */
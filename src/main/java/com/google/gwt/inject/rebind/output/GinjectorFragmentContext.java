@@ -37,6 +37,7 @@ class GinjectorFragmentContext implements InjectorWriteContext {
   private final ErrorManager errorManager;
   private final FragmentPackageName fragmentPackageName;
   private final FragmentPackageName.Factory fragmentPackageNameFactory;
+  private final FragmentPartitioner fragmentPartitioner;
   private final GinjectorNameGenerator ginjectorNameGenerator;
   private final SourceWriteUtil sourceWriteUtil;
   private final SourceWriter sourceWriter;
@@ -45,6 +46,7 @@ class GinjectorFragmentContext implements InjectorWriteContext {
   GinjectorFragmentContext(
       ErrorManager errorManager,
       FragmentPackageName.Factory fragmentPackageNameFactory,
+      FragmentPartitioner fragmentPartitioner,
       GinjectorNameGenerator ginjectorNameGenerator,
       SourceWriteUtil.Factory sourceWriteUtilFactory,
       @Assisted GinjectorBindings bindings,
@@ -55,6 +57,7 @@ class GinjectorFragmentContext implements InjectorWriteContext {
     this.errorManager = errorManager;
     this.fragmentPackageName = fragmentPackageName;
     this.fragmentPackageNameFactory = fragmentPackageNameFactory;
+    this.fragmentPartitioner = fragmentPartitioner;
     this.ginjectorNameGenerator = ginjectorNameGenerator;
     this.sourceWriteUtil = sourceWriteUtilFactory.create(bindings);
     this.sourceWriter = sourceWriter;
@@ -66,8 +69,7 @@ class GinjectorFragmentContext implements InjectorWriteContext {
       errorManager.logError("No binding found for %s in %s", key, bindings);
       return "null /* No binding found */";
     }
-    FragmentPackageName keyPackageName =
-        fragmentPackageNameFactory.create(keyBinding.getGetterMethodPackage());
+    FragmentPackageName keyPackageName = fragmentPartitioner.getFragmentPackageName(keyBinding);
 
     String getterCall = bindings.getNameGenerator().getGetterMethodName(key) + "()";
 
@@ -88,7 +90,7 @@ class GinjectorFragmentContext implements InjectorWriteContext {
       return "null /* No binding found */";
     }
     FragmentPackageName childKeyPackageName =
-        fragmentPackageNameFactory.create(childKeyBinding.getGetterMethodPackage());
+        fragmentPartitioner.getFragmentPackageName(childKeyBinding);
 
     NameGenerator nameGenerator = bindings.getNameGenerator();
     NameGenerator childNameGenerator = childBindings.getNameGenerator();
@@ -119,7 +121,17 @@ class GinjectorFragmentContext implements InjectorWriteContext {
   }
 
   public String callMemberInject(TypeLiteral<?> type, String input) {
-    String memberInjectMethodName = bindings.getNameGenerator().getMemberInjectMethodName(type);
+    NameGenerator nameGenerator = bindings.getNameGenerator();
+    String memberInjectMethodName = nameGenerator.getMemberInjectMethodName(type);
+
+    // Member injection methods are written to the main fragment of their
+    // package, so split point fragments have to go through it.
+    if (fragmentPackageName.getSplitPointGroup() != 0) {
+      String fragmentGetter = nameGenerator.getFragmentGetterMethodName(
+          fragmentPackageName.forSplitPointGroup(0));
+      return String.format("injector.%s().%s(%s);", fragmentGetter, memberInjectMethodName,
+          input);
+    }
 
     return String.format("%s(%s);", memberInjectMethodName, input);
   }
@@ -130,8 +142,8 @@ class GinjectorFragmentContext implements InjectorWriteContext {
       errorManager.logError("No binding found for %s in %s", key, parentBindings);
       return "null /* No binding found */";
     }
-    FragmentPackageName parentKeyPackageName = fragmentPackageNameFactory.create(
-        parentKeyBinding.getGetterMethodPackage());
+    FragmentPackageName parentKeyPackageName =
+        fragmentPartitioner.getFragmentPackageName(parentKeyBinding);
 
     StringBuilder result = new StringBuilder().append("injector");
     // Walk up the injector hierarchy until we hit the requested parent.
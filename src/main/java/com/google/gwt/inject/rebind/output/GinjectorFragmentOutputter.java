@@ -39,7 +39,10 @@ import com.google.inject.Key;
 import com.google.inject.assistedinject.Assisted;
 
 import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Writes the definition of a single fragment of the Ginjector.  A Ginjector
@@ -47,6 +50,12 @@ import java.util.List;
  * belong to a particular package, exposing only methods to create objects that
  * are not package-private.
  *
+ * <p>Writing a fragment happens in two steps.  All methods that decide what the
+ * fragment contains (and thus which names get assigned) only queue the code to
+ * write.  {@link #render} then produces the source text, which only depends on
+ * the state of this fragment and can therefore happen concurrently with the
+ * rendering of other fragments.
+ *
  * <p>Visible for testing, so it can be returned from a mock factory.
  */
 class GinjectorFragmentOutputter {
@@ -77,6 +86,16 @@ class GinjectorFragmentOutputter {
    */
   private final SourceWriter writer;
 
+  /**
+   * Writes queued for {@link #render}, in order.
+   */
+  private final List<PendingWrite> pendingWrites = new ArrayList<PendingWrite>();
+
+  /**
+   * Module types whose shared instance is held by this fragment.
+   */
+  private final Set<Class<?>> moduleInstanceTypes = new LinkedHashSet<Class<?>>();
+
   private boolean committed = false;
 
   @Inject
@@ -156,9 +175,9 @@ class GinjectorFragmentOutputter {
    * other code necessary to support it.  Produces a list of helper methods that
    * still need to be written.
    */
-  void writeBindingGetter(Key<?> key, Binding binding, GinScope scope,
+  void writeBindingGetter(final Key<?> key, Binding binding, GinScope scope,
       List<InjectorMethod> helperMethodsOutput) {
-    Context bindingContext = binding.getContext();
+    final Context bindingContext = binding.getContext();
 
     SourceSnippetBuilder getterBuilder = new SourceSnippetBuilder();
     SourceSnippet creationStatements;
@@ -187,8 +206,13 @@ class GinjectorFragmentOutputter {
         //CHECKSTYLE_OFF
       case SINGLETON:
         //CHECKSTYLE_OFF
-        writer.println("private " + typeName + " " + field + " = null;");
-        writer.println();
+        final String fieldDeclaration = "private " + typeName + " " + field + " = null;";
+        pendingWrites.add(new PendingWrite() {
+          public void write() {
+            writer.println(fieldDeclaration);
+            writer.println();
+          }
+        });
         getterBuilder.append(String.format("\nif (%s == null) {\n", field))
             .append(creationStatements).append("\n")
             .append(String.format("    %s = result;\n", field))
@@ -197,7 +221,11 @@ class GinjectorFragmentOutputter {
         break;
 
       case NO_SCOPE:
-        sourceWriteUtil.writeBindingContextJavadoc(writer, bindingContext, key);
+        pendingWrites.add(new PendingWrite() {
+          public void write() {
+            sourceWriteUtil.writeBindingContextJavadoc(writer, bindingContext, key);
+          }
+        });
 
         getterBuilder.append(creationStatements).append("\n").append("return result;\n");
         break;
@@ -210,12 +238,68 @@ class GinjectorFragmentOutputter {
         fragmentPackageName.toString(), getterBuilder.build()));
   }
 
-  void outputMethod(InjectorMethod method) {
+  /**
+   * Writes a field holding the shared instance of the given module, and a
+   * getter that creates the instance when it is first needed.  Provider
+   * methods of the module that are written to this fragment are invoked on
+   * that instance.  Does nothing if the fragment already holds an instance of
+   * the module.
+   */
+  void writeModuleInstanceGetter(Class<?> moduleType) {
+    if (!moduleInstanceTypes.add(moduleType)) {
+      return;
+    }
+
+    String typeName;
     try {
-      sourceWriteUtil.writeMethod(method, writer, injectorWriteContext);
+      typeName = ReflectUtil.getSourceName(moduleType);
     } catch (NoSourceNameException e) {
-      errorManager.logError(e.getMessage(), e);
+      errorManager.logError("Error trying to write the module instance getter for [%s]", e,
+          moduleType);
+      return;
     }
+
+    String field = nameGenerator.getModuleInstanceFieldName(moduleType);
+    String getter = nameGenerator.getModuleInstanceGetterMethodName(moduleType);
+
+    final String fieldDeclaration = "private " + typeName + " " + field + " = null;";
+    pendingWrites.add(new PendingWrite() {
+      public void write() {
+        writer.println(fieldDeclaration);
+        writer.println();
+      }
+    });
+
+    outputMethod(SourceSnippets.asMethod(false, String.format("private %s %s()", typeName, getter),
+        fragmentPackageName.toString(), new SourceSnippetBuilder()
+            .append(String.format("if (%s == null) {\n", field))
+            .append(String.format("    %s = new %s();\n", field, typeName))
+            .append("}\n")
+            .append(String.format("return %s;\n", field))
+            .build()));
+  }
+
+  void outputMethod(final InjectorMethod method) {
+    pendingWrites.add(new PendingWrite() {
+      public void write() {
+        try {
+          sourceWriteUtil.writeMethod(method, writer, injectorWriteContext);
+        } catch (NoSourceNameException e) {
+          errorManager.logError(e.getMessage(), e);
+        }
+      }
+    });
+  }
+
+  /**
+   * Writes the source of all queued fields and methods.  Only touches this
+   * fragment's own source writer, so fragments can be rendered concurrently.
+   */
+  void render() {
+    for (PendingWrite pendingWrite : pendingWrites) {
+      pendingWrite.write();
+    }
+    pendingWrites.clear();
   }
 
   /**
@@ -236,6 +320,7 @@ class GinjectorFragmentOutputter {
     }
 
     committed = true;
+    render();
 
     // Write the field where the enclosing injector is stored.
     writer.beginJavaDocComment();
@@ -277,6 +362,13 @@ class GinjectorFragmentOutputter {
     }
   }
 
+  /**
+   * Code queued to be written when the fragment is rendered.
+   */
+  private interface PendingWrite {
+    void write();
+  }
+
   interface Factory {
     GinjectorFragmentOutputter create(
         GinjectorBindings bindings,
@@ -28,6 +28,7 @@ import com.google.gwt.inject.rebind.util.GuiceUtil;
 import com.google.gwt.inject.rebind.util.MemberCollector;
 import com.google.gwt.inject.rebind.util.NameGenerator;
 import com.google.gwt.inject.rebind.util.PrettyPrinter;
+import com.google.gwt.inject.rebind.util.RebindTimings;
 import com.google.gwt.inject.rebind.util.SourceWriteUtil;
 import com.google.gwt.user.rebind.ClassSourceFileComposerFactory;
 import com.google.gwt.user.rebind.SourceWriter;
@@ -65,6 +66,7 @@ public class GinjectorImplOutputter {
   private final TreeLogger logger;
   private final ReachabilityAnalyzer reachabilityAnalyzer;
   private final SourceWriteUtil.Factory sourceWriteUtilFactory;
+  private final RebindTimings timings;
 
   /**
    * Collector that gathers methods from an injector interface and its
@@ -80,7 +82,8 @@ public class GinjectorImplOutputter {
       GeneratorContext ctx, FragmentPackageName.Factory fragmentPackageNameFactory,
       GinjectorNameGenerator ginjectorNameGenerator, final GuiceUtil guiceUtil,
       TreeLogger logger, Provider<MemberCollector> collectorProvider,
-      ReachabilityAnalyzer reachabilityAnalyzer, SourceWriteUtil.Factory sourceWriteUtilFactory) {
+      ReachabilityAnalyzer reachabilityAnalyzer, SourceWriteUtil.Factory sourceWriteUtilFactory,
+      RebindTimings timings) {
     this.bindingsOutputter = bindingsOutputter;
     this.ctx = ctx;
     this.fragmentPackageNameFactory = fragmentPackageNameFactory;
@@ -89,6 +92,7 @@ public class GinjectorImplOutputter {
     this.logger = logger;
     this.reachabilityAnalyzer = reachabilityAnalyzer;
     this.sourceWriteUtilFactory = sourceWriteUtilFactory;
+    this.timings = timings;
 
     constructorInjectCollector = collectorProvider.get();
     constructorInjectCollector.setMethodFilter(new MemberCollector.MethodFilter() {
@@ -112,12 +116,18 @@ public class GinjectorImplOutputter {
    */
   public void write(String packageName, String implClassName, PrintWriter printWriter,
       GinjectorBindings rootBindings) throws UnableToCompleteException {
+    // Analyze reachability up front, so that it is timed separately.
+    reachabilityAnalyzer.analyze();
+
+    long start = timings.start();
+    bindingsOutputter.assignNames(rootBindings);
     writeInjectorHierarchy(rootBindings);
 
     TypeLiteral<?> ginjectorInterface = rootBindings.getGinjectorInterface();
     if (ginjectorInterface != null) {
       writeInterface(ginjectorInterface, packageName, implClassName, printWriter, rootBindings);
     }
+    timings.stop(RebindTimings.Phase.OUTPUT, start);
   }
 
   private void writeInjectorHierarchy(GinjectorBindings bindings) throws UnableToCompleteException {
@@ -19,15 +19,18 @@ import com.google.gwt.core.ext.TreeLogger;
 import com.google.gwt.inject.rebind.GinScope;
 import com.google.gwt.inject.rebind.GinjectorBindings;
 import com.google.gwt.inject.rebind.RootBindings;
+import com.google.gwt.inject.rebind.binding.AsyncProviderBinding;
 import com.google.gwt.inject.rebind.binding.Binding;
 import com.google.gwt.inject.rebind.binding.Dependency;
 import com.google.gwt.inject.rebind.binding.ExposedChildBinding;
 import com.google.gwt.inject.rebind.binding.ParentBinding;
 import com.google.gwt.inject.rebind.reflect.FieldLiteral;
 import com.google.gwt.inject.rebind.reflect.MethodLiteral;
+import com.google.gwt.inject.rebind.util.GinProperties;
 import com.google.gwt.inject.rebind.util.GuiceUtil;
 import com.google.gwt.inject.rebind.util.MemberCollector;
 import com.google.gwt.inject.rebind.util.PrettyPrinter;
+import com.google.gwt.inject.rebind.util.RebindTimings;
 import com.google.inject.Inject;
 import com.google.inject.Key;
 import com.google.inject.Provider;
@@ -37,8 +40,12 @@ import com.google.inject.spi.InjectionPoint;
 import java.lang.reflect.Field;
 import java.lang.reflect.Member;
 import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -51,32 +58,71 @@ import java.util.Set;
  * preferable to relying entirely on GWT's reachability analysis, which is
  * (understandably) imperfect and sometimes makes different judgements as we
  * restructure the generated code files.
+ *
+ * <p>If {@link GinProperties#SPLIT_POINT_FRAGMENTS} is enabled, the analysis
+ * also determines which bindings are only reachable through the
+ * {@code GWT.runAsync()} split points of {@code AsyncProvider}s, so that they
+ * can be written to fragments of their own.  Bindings are grouped by the set
+ * of split points they are reachable from; bindings that are reachable without
+ * passing a split point belong to no group.
  */
 final class ReachabilityAnalyzer {
 
   private Set<Binding> reachable = null;
   private Map<GinjectorBindings, Set<TypeLiteral<?>>> reachableMemberInjects = null;
 
+  /**
+   * The target of each {@code AsyncProvider} binding that was reached, if
+   * split points are analyzed.
+   */
+  private Map<Binding, TraceStep> splitPointTargets = null;
+
+  /**
+   * The split points each binding that is not initially reachable can be
+   * reached from.
+   */
+  private Map<Binding, Set<Binding>> splitPointsByBinding = null;
+
+  /**
+   * The split point group of each binding that belongs to a group.
+   */
+  private Map<Binding, Integer> splitPointGroups = null;
+
   private final GuiceUtil guiceUtil;
   private final TreeLogger logger;
   private final MemberCollector memberCollector;
   private final GinjectorBindings rootBindings;
+  private final RebindTimings timings;
+  private final boolean analyzeSplitPoints;
 
   @Inject
   ReachabilityAnalyzer(
       GuiceUtil guiceUtil,
       Provider<MemberCollector> memberCollectorProvider,
       @RootBindings GinjectorBindings rootBindings,
-      TreeLogger logger) {
+      TreeLogger logger,
+      RebindTimings timings,
+      GinProperties properties) {
 
     this.guiceUtil = guiceUtil;
     this.logger = logger;
     this.memberCollector = memberCollectorProvider.get();
     this.rootBindings = rootBindings;
+    this.timings = timings;
+    this.analyzeSplitPoints = properties.isEnabled(GinProperties.SPLIT_POINT_FRAGMENTS);
 
     this.memberCollector.setMethodFilter(MemberCollector.ALL_METHOD_FILTER);
   }
 
+  /**
+   * Runs the reachability analysis, unless it already ran.
+   */
+  void analyze() {
+    if (reachable == null) {
+      computeReachable();
+    }
+  }
+
   /**
    * Tests whether the given binding is reachable from a true root.
    *
@@ -112,10 +158,28 @@ final class ReachabilityAnalyzer {
     return getReachableMemberInjects(bindings).contains(type);
   }
 
+  /**
+   * Returns the split point group of the given binding, or {@code 0} if it
+   * belongs to no group.  Groups are numbered from {@code 1} in the order in
+   * which their first binding was reached.
+   */
+  int getSplitPointGroup(Binding binding) {
+    if (reachable == null) {
+      computeReachable();
+    }
+
+    Integer group = splitPointGroups.get(binding);
+    return group == null ? 0 : group;
+  }
+
   private void computeReachable() {
     reachable = new LinkedHashSet<Binding>();
     reachableMemberInjects = new LinkedHashMap<GinjectorBindings, Set<TypeLiteral<?>>>();
+    splitPointTargets = new LinkedHashMap<Binding, TraceStep>();
+    splitPointsByBinding = new LinkedHashMap<Binding, Set<Binding>>();
+    splitPointGroups = new LinkedHashMap<Binding, Integer>();
 
+    long start = timings.start();
     logger.log(TreeLogger.DEBUG, "Begin reachability analysis");
 
     // Note on implementation: for simplicity, we use a Binding as the node of
@@ -128,8 +192,10 @@ final class ReachabilityAnalyzer {
     traceGinjectorMethods();
     traceEagerSingletons();
     traceStaticInjections();
+    traceSplitPoints();
 
     logger.log(TreeLogger.DEBUG, "End reachability analysis");
+    timings.stop(RebindTimings.Phase.REACHABILITY, start);
   }
 
   /**
@@ -236,28 +302,111 @@ final class ReachabilityAnalyzer {
     }
   }
 
+  /**
+   * Traces out the bindings behind each split point that was reached, and
+   * groups the bindings that were not reachable otherwise by the split points
+   * they are reachable from.  Split points reached behind another split point
+   * are traced as well.
+   */
+  private void traceSplitPoints() {
+    if (!analyzeSplitPoints) {
+      return;
+    }
+
+    Set<Binding> initiallyReachable = new LinkedHashSet<Binding>(reachable);
+    List<Binding> splitPoints = new ArrayList<Binding>(splitPointTargets.keySet());
+    for (int i = 0; i < splitPoints.size(); i++) {
+      Binding splitPoint = splitPoints.get(i);
+      TraceStep target = splitPointTargets.get(splitPoint);
+      PrettyPrinter.log(logger, TreeLogger.DEBUG, "SPLIT POINT %s -> %s:%s",
+          splitPoint, target.bindings, target.key);
+
+      int knownSplitPoints = splitPointTargets.size();
+      doTraceKey(target, new LinkedHashSet<Binding>(), initiallyReachable, splitPoint);
+
+      // Queue the split points that were reached for the first time.
+      splitPoints.addAll(new ArrayList<Binding>(splitPointTargets.keySet())
+          .subList(knownSplitPoints, splitPointTargets.size()));
+    }
+
+    Map<Set<Binding>, Integer> groups = new LinkedHashMap<Set<Binding>, Integer>();
+    for (Map.Entry<Binding, Set<Binding>> entry : splitPointsByBinding.entrySet()) {
+      Integer group = groups.get(entry.getValue());
+      if (group == null) {
+        group = groups.size() + 1;
+        groups.put(entry.getValue(), group);
+      }
+      splitPointGroups.put(entry.getKey(), group);
+    }
+  }
+
   /**
    * Marks the binding of the given key in the given {@link GinjectorBindings}
    * as reachable, and traces out its dependencies.
    */
   private void traceKey(Key<?> key, GinjectorBindings bindings) {
-    Binding binding = bindings.getBinding(key);
-    // Make sure the binding is present: optional bindings might be missing.
-    if (binding != null) {
-      if (!reachable.add(binding)) {
-        // The binding was already marked as reachable.
-        return;
+    doTraceKey(new TraceStep(key, bindings), reachable, null, null);
+  }
+
+  /**
+   * Traces out the bindings reachable from the given step.
+   *
+   * <p>Bindings are traced depth-first in the same order as a recursive
+   * traversal would, but with an explicit stack, so that long dependency
+   * chains don't overflow the thread's stack.
+   *
+   * @param visited the bindings that were traced before, to which the traced
+   *     bindings are added
+   * @param excluded bindings that are not traced, or {@code null}
+   * @param splitPoint the split point that is traced through, or {@code null}
+   *     when tracing from a root
+   */
+  private void doTraceKey(TraceStep start, Set<Binding> visited, Set<Binding> excluded,
+      Binding splitPoint) {
+    Deque<TraceStep> steps = new ArrayDeque<TraceStep>();
+    steps.push(start);
+
+    List<TraceStep> successors = new ArrayList<TraceStep>();
+    while (!steps.isEmpty()) {
+      TraceStep step = steps.pop();
+      Binding binding = step.bindings.getBinding(step.key);
+
+      // Make sure the binding is present: optional bindings might be missing.
+      // Bindings that were already visited were traced before.
+      if (binding == null || (excluded != null && excluded.contains(binding))
+          || !visited.add(binding)) {
+        continue;
+      }
+
+      if (splitPoint != null) {
+        reachable.add(binding);
+        Set<Binding> splitPoints = splitPointsByBinding.get(binding);
+        if (splitPoints == null) {
+          splitPoints = new LinkedHashSet<Binding>();
+          splitPointsByBinding.put(binding, splitPoints);
+        }
+        splitPoints.add(splitPoint);
       }
 
-      getReachableMemberInjects(bindings).addAll(binding.getMemberInjectRequests());
+      getReachableMemberInjects(step.bindings).addAll(binding.getMemberInjectRequests());
 
+      successors.clear();
       for (Dependency dependency : binding.getDependencies()) {
-        if (dependency.getSource().equals(key)) {
+        if (dependency.getSource().equals(step.key)) {
           Key<?> target = dependency.getTarget();
 
+          // The target of an AsyncProvider is only created behind its split
+          // point, so it is traced separately.
+          if (analyzeSplitPoints && binding instanceof AsyncProviderBinding) {
+            if (!splitPointTargets.containsKey(binding)) {
+              splitPointTargets.put(binding, new TraceStep(target, step.bindings));
+            }
+            continue;
+          }
+
           PrettyPrinter.log(logger, TreeLogger.DEBUG, "%s:%s -> %s:%s [%s]",
-              bindings, key, bindings, dependency.getTarget(), binding);
-          traceKey(target, bindings);
+              step.bindings, step.key, step.bindings, target, binding);
+          successors.add(new TraceStep(target, step.bindings));
         }
       }
 
@@ -267,13 +416,18 @@ final class ReachabilityAnalyzer {
       if (binding instanceof ParentBinding) {
         ParentBinding parentBinding = (ParentBinding) binding;
         PrettyPrinter.log(logger, TreeLogger.DEBUG, "%s:%s -> %s:%s [inherited]",
-            bindings, key, parentBinding.getParentBindings(), key);
-        traceKey(key, parentBinding.getParentBindings());
+            step.bindings, step.key, parentBinding.getParentBindings(), step.key);
+        successors.add(new TraceStep(step.key, parentBinding.getParentBindings()));
       } else if (binding instanceof ExposedChildBinding) {
         ExposedChildBinding exposedChildBinding = (ExposedChildBinding) binding;
         PrettyPrinter.log(logger, TreeLogger.DEBUG, "%s:%s -> %s:%s [exposed]",
-            bindings, key, exposedChildBinding.getChildBindings(), key);
-        traceKey(key, exposedChildBinding.getChildBindings());
+            step.bindings, step.key, exposedChildBinding.getChildBindings(), step.key);
+        successors.add(new TraceStep(step.key, exposedChildBinding.getChildBindings()));
+      }
+
+      // Push in reverse, so that the first successor is traced first.
+      for (int i = successors.size() - 1; i >= 0; i--) {
+        steps.push(successors.get(i));
       }
     }
   }
@@ -287,4 +441,17 @@ final class ReachabilityAnalyzer {
 
     return result;
   }
+
+  /**
+   * A key to trace in the given {@link GinjectorBindings}.
+   */
+  private static final class TraceStep {
+    private final Key<?> key;
+    private final GinjectorBindings bindings;
+
+    TraceStep(Key<?> key, GinjectorBindings bindings) {
+      this.key = key;
+      this.bindings = bindings;
+    }
+  }
 }
@@ -24,6 +24,7 @@ import com.google.gwt.inject.rebind.binding.Dependency;
 import com.google.gwt.inject.rebind.binding.ParentBinding;
 import com.google.gwt.inject.rebind.resolution.DependencyExplorer.DependencyExplorerOutput;
 import com.google.gwt.inject.rebind.util.PrettyPrinter;
+import com.google.gwt.inject.rebind.util.RebindTimings;
 import com.google.inject.Inject;
 import com.google.inject.Key;
 import com.google.inject.assistedinject.Assisted;
@@ -53,14 +54,17 @@ class BindingInstaller {
   private final BindingPositioner positions;
   private final BindingFactory bindingFactory;
   private final TreeLogger logger;
+  private final RebindTimings timings;
 
   @Inject
   BindingInstaller(
       BindingPositioner.Factory positionsFactory,
       BindingFactory bindingFactory,
+      RebindTimings timings,
       @Assisted TreeLogger logger) {
     this.positions = positionsFactory.create(logger);
     this.bindingFactory = bindingFactory;
+    this.timings = timings;
     this.logger = logger;
   }
   
@@ -71,16 +75,23 @@ class BindingInstaller {
    *     for the current ginjector.
    */
   public void installBindings(DependencyExplorerOutput output) {
+    long start = timings.start();
     positions.position(output);
+    start = timings.stop(RebindTimings.Phase.POSITIONING, start);
     
     // Install each implicit binding in the correct position
+    int implicitBindings = 0;
     for (Map.Entry<Key<?>, Binding> entry : output.getImplicitBindings()) {
       installBinding(output.getGraph(), entry.getKey(), entry.getValue());
+      implicitBindings++;
     }
     
     // Make sure that each of the dependencies needed directly from the origin are available
     GinjectorBindings origin = output.getGraph().getOrigin();
     inheritBindingsForDeps(origin, origin.getDependencies());
+
+    timings.stop(RebindTimings.Phase.INSTALLATION, start);
+    timings.add(RebindTimings.Counter.IMPLICIT_BINDINGS, implicitBindings);
   }
   
   /**
@@ -18,7 +18,6 @@ package com.google.gwt.inject.rebind.resolution;
 import com.google.gwt.core.ext.TreeLogger;
 import com.google.gwt.inject.rebind.GinjectorBindings;
 import com.google.gwt.inject.rebind.binding.Binding;
-import com.google.gwt.inject.rebind.binding.Dependency;
 import com.google.gwt.inject.rebind.binding.ExposedChildBinding;
 import com.google.gwt.inject.rebind.resolution.DependencyExplorer.DependencyExplorerOutput;
 import com.google.gwt.inject.rebind.util.Preconditions;
@@ -27,6 +26,7 @@ import com.google.inject.Inject;
 import com.google.inject.Key;
 import com.google.inject.assistedinject.Assisted;
 
+import java.util.BitSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
@@ -79,12 +79,6 @@ class BindingPositioner {
 
   private final TreeLogger logger;
   
-  /**
-   * The keys that still need to be positioned.  We use a LinkedHashSet so that we visit keys in the
-   * order they were added, but disallow a key be queued multiple times.
-   */
-  private final LinkedHashSet<Key<?>> workqueue = new LinkedHashSet<Key<?>>();
-  
   /**
    * Map containing the current (and eventually correct) positions for each key.
    */
@@ -115,7 +109,6 @@ class BindingPositioner {
     this.output = output;
 
     computeInitialPositions();
-    workqueue.addAll(output.getImplicitlyBoundKeys());
     calculateExactPositions();
   }
  
@@ -233,41 +226,87 @@ class BindingPositioner {
    * Iterates on the position equation, updating each binding in the queue and re-queueing nodes
    * that depend on any node we move.  This will always terminate, since we only re-queue when we
    * make a change, and there are a finite number of entries in the injector hierarchy.
+   *
+   * <p>The iteration works on the node ids of the dependency graph, and copies the final positions
+   * back into {@link #positions} when it is done.
    */
   private void calculateExactPositions() {
-    while (!workqueue.isEmpty()) {
-      Key<?> key = workqueue.iterator().next();
-      workqueue.remove(key);
+    DependencyGraph graph = output.getGraph();
+    int nodeCount = graph.getNodeCount();
+
+    GinjectorBindings[] nodePositions = new GinjectorBindings[nodeCount];
+    for (int node = 0; node < nodeCount; node++) {
+      nodePositions[node] = positions.get(graph.getKey(node));
+    }
+
+    // The nodes that still need to be positioned, as a circular queue.  We visit nodes in the order
+    // they were added, but disallow a node be queued multiple times, so the queue never holds more
+    // than nodeCount entries.
+    int[] workqueue = new int[nodeCount];
+    BitSet queued = new BitSet(nodeCount);
+    int head = 0;
+    int size = 0;
+    for (Key<?> key : output.getImplicitlyBoundKeys()) {
+      int node = graph.getNodeId(key);
+      if (node >= 0 && !queued.get(node)) {
+        queued.set(node);
+        workqueue[(head + size++) % nodeCount] = node;
+      }
+    }
+
+    BitSet updated = new BitSet(nodeCount);
+    while (size > 0) {
+      int node = workqueue[head];
+      head = (head + 1) % nodeCount;
+      size--;
+      queued.clear(node);
       
-      Set<GinjectorBindings> injectors = getSourceGinjectors(key);
-      injectors.add(positions.get(key));
+      Set<GinjectorBindings> injectors = getSourceGinjectors(graph, node, nodePositions);
+      injectors.add(nodePositions[node]);
       GinjectorBindings newPosition = lowest(injectors);
       
-      GinjectorBindings oldPosition = positions.put(key, newPosition);
+      GinjectorBindings oldPosition = nodePositions[node];
+      nodePositions[node] = newPosition;
+      updated.set(node);
       if (oldPosition != newPosition) {
         PrettyPrinter.log(logger, TreeLogger.DEBUG,
             "Moved the highest visible position of %s from %s to %s, the lowest injector of %s.",
-            key, oldPosition, newPosition, injectors);
+            graph.getKey(node), oldPosition, newPosition, injectors);
 
         // We don't care if GINJECTOR is present, as its Ginjector will resolve to "null", which
         // will never be reached on the path from the origin up to the root, therefore it won't
         // actually constrain anything.
-        for (Dependency dependency : output.getGraph().getDependenciesTargeting(key)) {
+        for (int i = graph.getIncomingStart(node); i < graph.getIncomingEnd(node); i++) {
+          int edge = graph.getIncomingEdge(i);
+          if (graph.isRemoved(edge)) {
+            continue;
+          }
+          int source = graph.getEdgeSource(edge);
           PrettyPrinter.log(logger, TreeLogger.DEBUG, "Re-enqueuing %s due to %s",
-              dependency.getSource(), dependency);
-          workqueue.add(dependency.getSource());
+              graph.getKey(source), graph.getDependency(edge));
+          if (!queued.get(source)) {
+            queued.set(source);
+            workqueue[(head + size++) % nodeCount] = source;
+          }
         }
       }
     }
+
+    for (int node = updated.nextSetBit(0); node >= 0; node = updated.nextSetBit(node + 1)) {
+      positions.put(graph.getKey(node), nodePositions[node]);
+    }
   }
   
   /**
    * Returns the injectors where the dependencies for node are currently placed.
    */
-  private Set<GinjectorBindings> getSourceGinjectors(Key<?> key) {
+  private Set<GinjectorBindings> getSourceGinjectors(DependencyGraph graph, int node,
+      GinjectorBindings[] nodePositions) {
     Set<GinjectorBindings> sourceInjectors = new LinkedHashSet<GinjectorBindings>();
-    for (Dependency dep : output.getGraph().getDependenciesOf(key)) {
-      sourceInjectors.add(positions.get(dep.getTarget()));
+    for (int edge = graph.getOutgoingStart(node); edge < graph.getOutgoingEnd(node); edge++) {
+      if (!graph.isRemoved(edge)) {
+        sourceInjectors.add(nodePositions[graph.getEdgeTarget(edge)]);
+      }
     }
     return sourceInjectors;
   }
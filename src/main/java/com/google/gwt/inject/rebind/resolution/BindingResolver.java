@@ -21,6 +21,7 @@ import com.google.gwt.inject.rebind.binding.ParentBinding;
 import com.google.gwt.inject.rebind.resolution.DependencyExplorer.DependencyExplorerOutput;
 import com.google.gwt.inject.rebind.resolution.UnresolvedBindingValidator.InvalidKeys;
 import com.google.gwt.inject.rebind.util.PrettyPrinter;
+import com.google.gwt.inject.rebind.util.RebindTimings;
 import com.google.inject.Inject;
 
 /**
@@ -47,16 +48,19 @@ public class BindingResolver {
   private final UnresolvedBindingValidator.Factory validatorFactory;
   private final BindingInstaller.Factory installerFactory;
   private final TreeLogger logger;
+  private final RebindTimings timings;
   
   @Inject
   public BindingResolver(DependencyExplorer.Factory explorerFactory,
       UnresolvedBindingValidator.Factory validatorFactory,
       BindingInstaller.Factory installerFactory,
-      TreeLogger logger) {
+      TreeLogger logger,
+      RebindTimings timings) {
     this.explorerFactory = explorerFactory;
     this.validatorFactory = validatorFactory;
     this.installerFactory = installerFactory;
     this.logger = logger;
+    this.timings = timings;
   }
   
   public void resolveBindings(GinjectorBindings origin) {
@@ -66,12 +70,19 @@ public class BindingResolver {
     // Use providers so that the instances are cleaned up after this method.  This ensures that even
     // though BindingResolver may be held on to (eg, {@link GinjectorBindings}, we won't leak
     // memory used for temporary storage during resolution.
+    long start = timings.start();
     DependencyExplorerOutput output = explorerFactory.create(branch).explore(origin);
+    start = timings.stop(RebindTimings.Phase.DEPENDENCY_EXPLORATION, start);
     
     UnresolvedBindingValidator validator = validatorFactory.create(branch);
     InvalidKeys invalidKeys = validator.getInvalidKeys(output);
-    if (validator.validate(output, invalidKeys)) {
+    boolean valid = validator.validate(output, invalidKeys);
+    if (valid) {
       validator.pruneInvalidOptional(output, invalidKeys);
+    }
+    timings.stop(RebindTimings.Phase.VALIDATION, start);
+
+    if (valid) {
       installerFactory.create(branch).installBindings(output);
     }
   }
@@ -27,8 +27,11 @@ import com.google.inject.Inject;
 import com.google.inject.Key;
 import com.google.inject.assistedinject.Assisted;
 
+import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
@@ -47,11 +50,14 @@ public class DependencyExplorer {
   private final Set<Key<?>> visited = new LinkedHashSet<Key<?>>();
   
   private final ImplicitBindingCreator bindingCreator;
+
+  private final ImplicitBindingPrefetcher prefetcher;
   
   @Inject
   public DependencyExplorer(ImplicitBindingCreator.Factory bindingCreatorFactory,
-      @Assisted TreeLogger logger) {
+      ImplicitBindingPrefetcher prefetcher, @Assisted TreeLogger logger) {
     this.bindingCreator = bindingCreatorFactory.create(logger);
+    this.prefetcher = prefetcher;
     this.logger = logger;
   }
   
@@ -92,40 +98,92 @@ public class DependencyExplorer {
     return output;
   }
  
-  private void visit(Key<?> key, DependencyGraph.Builder builder, 
+  /**
+   * Visits the given key and, if it needs an implicit binding, the targets of
+   * the binding's dependencies, depth-first.  Implicit bindings are recorded
+   * after all their dependencies (i.e., in post-order).  The search uses an
+   * explicit stack, so that long dependency chains don't overflow the thread's
+   * stack.
+   */
+  private void visit(Key<?> key, DependencyGraph.Builder builder,
       DependencyExplorerOutput output, GinjectorBindings origin) {
-    if (visited.add(key)) {
-      GinjectorBindings accessibleSource = locateHighestAccessibleSource(key, origin);
-      if (accessibleSource != null) {
-        PrettyPrinter.log(logger, TreeLogger.DEBUG, "Using binding of %s in %s.", key,
-            accessibleSource);
-        output.preExistingBindings.put(key, accessibleSource);
-      } else {
-        try {
-          Binding binding = bindingCreator.create(key);
-          PrettyPrinter.log(logger, TreeLogger.DEBUG, "Implicitly bound %s in %s using %s.", key,
-              origin, binding);
-          
-          for (Dependency edge : binding.getDependencies()) {
-            PrettyPrinter.log(logger, TreeLogger.DEBUG, "Following %s", edge);
-            builder.addEdge(edge);
-            visit(edge.getTarget(), builder, output, origin);
+    Deque<Frame> frames = new ArrayDeque<Frame>();
+    try {
+      Frame root = enter(key, output, origin);
+      if (root != null) {
+        frames.push(root);
+      }
+
+      while (!frames.isEmpty()) {
+        Frame frame = frames.peek();
+        if (frame.edges.hasNext()) {
+          Dependency edge = frame.edges.next();
+          PrettyPrinter.log(logger, TreeLogger.DEBUG, "Following %s", edge);
+          builder.addEdge(edge);
+
+          Frame next = enter(edge.getTarget(), output, origin);
+          if (next != null) {
+            frames.push(next);
           }
-          
+        } else {
           // Do this *after* visiting all dependencies so that that the ordering is post-order
-          output.implicitBindings.put(key, binding);
-        } catch (BindingCreationException e) {
-          PrettyPrinter.log(logger, TreeLogger.DEBUG, "Implicit binding failed for %s: %s", key,
-              e.getMessage());
-          output.bindingErrors.put(key, e.getMessage());
-        } catch (RuntimeException e) {
-          logger.log(Type.ERROR, "Exception while visiting " + key);
-          throw e;
+          frames.pop();
+          output.implicitBindings.put(frame.key, frame.binding);
         }
       }
+    } catch (RuntimeException e) {
+      for (Frame frame : frames) {
+        logger.log(Type.ERROR, "Exception while visiting " + frame.key);
+      }
+      throw e;
     }
   }
-  
+
+  /**
+   * Visits the given key, unless it was visited before.  Returns the frame
+   * through which the dependencies of the key's implicit binding are visited,
+   * or {@code null} if there is nothing more to visit, because the key was
+   * visited before, is already bound or its implicit binding failed.
+   */
+  private Frame enter(Key<?> key, DependencyExplorerOutput output, GinjectorBindings origin) {
+    if (!visited.add(key)) {
+      return null;
+    }
+
+    GinjectorBindings accessibleSource = locateHighestAccessibleSource(key, origin);
+    if (accessibleSource != null) {
+      PrettyPrinter.log(logger, TreeLogger.DEBUG, "Using binding of %s in %s.", key,
+          accessibleSource);
+      output.preExistingBindings.put(key, accessibleSource);
+      return null;
+    }
+
+    try {
+      Binding binding = createBinding(key, origin);
+      PrettyPrinter.log(logger, TreeLogger.DEBUG, "Implicitly bound %s in %s using %s.", key,
+          origin, binding);
+      return new Frame(key, binding);
+    } catch (BindingCreationException e) {
+      PrettyPrinter.log(logger, TreeLogger.DEBUG, "Implicit binding failed for %s: %s", key,
+          e.getMessage());
+      output.bindingErrors.put(key, e.getMessage());
+      return null;
+    } catch (RuntimeException e) {
+      logger.log(Type.ERROR, "Exception while visiting " + key);
+      throw e;
+    }
+  }
+
+  /**
+   * Creates the implicit binding for the given key, unless it has been
+   * created ahead of time by the {@link ImplicitBindingPrefetcher}.
+   */
+  private Binding createBinding(Key<?> key, GinjectorBindings origin)
+      throws BindingCreationException {
+    Binding binding = prefetcher.take(origin, key);
+    return binding != null ? binding : bindingCreator.create(key);
+  }
+
   /**
    * Find the highest binding in the Ginjector tree that could be used to supply the given key.
    * 
@@ -156,6 +214,22 @@ public class DependencyExplorer {
     return source;
   }
   
+  /**
+   * A key on the stack of the depth-first search, along with its implicit
+   * binding and the dependencies that remain to be followed from it.
+   */
+  private static final class Frame {
+    private final Key<?> key;
+    private final Binding binding;
+    private final Iterator<Dependency> edges;
+
+    Frame(Key<?> key, Binding binding) {
+      this.key = key;
+      this.binding = binding;
+      this.edges = binding.getDependencies().iterator();
+    }
+  }
+
   /**
    * Class that packages up all the output of exploring the unresolved dependencies for a Ginjector.
    * This contains the {@link DependencyGraph} itself, as well as additional information about the
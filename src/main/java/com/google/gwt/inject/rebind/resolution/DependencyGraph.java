@@ -18,13 +18,15 @@ package com.google.gwt.inject.rebind.resolution;
 import com.google.gwt.inject.rebind.GinjectorBindings;
 import com.google.gwt.inject.rebind.binding.Binding;
 import com.google.gwt.inject.rebind.binding.Dependency;
-import com.google.gwt.inject.rebind.util.Preconditions;
 import com.google.inject.Key;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.LinkedHashMap;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -51,30 +53,151 @@ import java.util.Set;
  * that do not already exist and for which we cannot create an implicit binding.
  * </li>
  * </ul>
+ *
+ * <p>Once built, the graph is frozen into an indexed form: every key is
+ * interned to an int node id, and the edges are stored in compressed sparse
+ * row arrays, both by source and by target, with bitsets for the lazy and
+ * optional flags.  The traversals in this package work on node and edge ids
+ * directly rather than hashing keys; the {@link Key}-based methods are
+ * provided for everybody else.  The only mutation a graph supports is removing
+ * edges through a {@link GraphPruner}.
  */
 public class DependencyGraph {
 
+  private final GinjectorBindings origin;
+
   /**
-   * For each key, this stores the set of {@link Dependency}s that have the key as their source.
+   * Maps every key in the graph to its node id.
    */
-  private final Map<Key<?>, Set<Dependency>> dependenciesOf;
+  private final Map<Key<?>, Integer> nodeIds;
 
   /**
-   * For each key, this stores the set of {@link Dependency}s that have the key as their target.
+   * The key for each node id.  Keys that are the target of some dependency are
+   * numbered first, in the order they were first seen as a target, so that
+   * {@link #getAllKeys} can walk a prefix of the node ids.
    */
-  private final Map<Key<?>, Set<Dependency>> dependenciesTargeting;
+  private final Key<?>[] keys;
 
-  private final GinjectorBindings origin;
+  /**
+   * The number of nodes that are the target of at least one dependency when the
+   * graph was built.
+   */
+  private final int targetNodeCount;
+
+  /**
+   * The dependencies of the graph, indexed by edge id.  Edges are sorted by
+   * their source node, so that the outgoing edges of node {@code n} are the ids
+   * from {@code outgoingStart[n]} (inclusive) to {@code outgoingStart[n + 1]}
+   * (exclusive).  Edges with the same source keep the order they were added in.
+   */
+  private final Dependency[] dependencies;
+  private final int[] edgeSources;
+  private final int[] edgeTargets;
+  private final int[] outgoingStart;
 
-  private DependencyGraph(GinjectorBindings origin, Map<Key<?>, Set<Dependency>> dependenciesOf,
-      Map<Key<?>, Set<Dependency>> dependenciesTargeting) {
+  /**
+   * The ids of the edges targeting node {@code n} are stored in
+   * {@code incomingEdges}, from {@code incomingStart[n]} (inclusive) to
+   * {@code incomingStart[n + 1]} (exclusive).
+   */
+  private final int[] incomingStart;
+  private final int[] incomingEdges;
+
+  private final BitSet lazyEdges;
+  private final BitSet optionalEdges;
+
+  /**
+   * Edges that have been removed by a {@link GraphPruner}.
+   */
+  private final BitSet removedEdges;
+
+  /**
+   * For each node, the number of edges targeting it that have not been removed.
+   */
+  private final int[] liveIncomingCounts;
+
+  /**
+   * The number of nodes that are still the target of some edge.
+   */
+  private int liveTargetCount;
+
+  private DependencyGraph(GinjectorBindings origin, Collection<Dependency> edges) {
     this.origin = origin;
-    this.dependenciesOf = dependenciesOf;
-    this.dependenciesTargeting = dependenciesTargeting;
+
+    nodeIds = new HashMap<Key<?>, Integer>();
+    List<Key<?>> keyList = new ArrayList<Key<?>>();
+    for (Dependency edge : edges) {
+      intern(edge.getTarget(), keyList);
+    }
+    targetNodeCount = keyList.size();
+    for (Dependency edge : edges) {
+      intern(edge.getSource(), keyList);
+    }
+    keys = keyList.toArray(new Key<?>[keyList.size()]);
+
+    int nodeCount = keys.length;
+    int edgeCount = edges.size();
+    int[] sources = new int[edgeCount];
+    int[] targets = new int[edgeCount];
+    outgoingStart = new int[nodeCount + 1];
+    incomingStart = new int[nodeCount + 1];
+    int index = 0;
+    for (Dependency edge : edges) {
+      sources[index] = nodeIds.get(edge.getSource());
+      targets[index] = nodeIds.get(edge.getTarget());
+      outgoingStart[sources[index] + 1]++;
+      incomingStart[targets[index] + 1]++;
+      index++;
+    }
+    for (int node = 0; node < nodeCount; node++) {
+      outgoingStart[node + 1] += outgoingStart[node];
+      incomingStart[node + 1] += incomingStart[node];
+    }
+
+    // Place each edge at the next free slot of its source's row; since we walk the edges in
+    // insertion order, each row keeps that order.
+    dependencies = new Dependency[edgeCount];
+    edgeSources = new int[edgeCount];
+    edgeTargets = new int[edgeCount];
+    incomingEdges = new int[edgeCount];
+    lazyEdges = new BitSet(edgeCount);
+    optionalEdges = new BitSet(edgeCount);
+    int[] nextOutgoing = new int[nodeCount];
+    int[] nextIncoming = new int[nodeCount];
+    System.arraycopy(outgoingStart, 0, nextOutgoing, 0, nodeCount);
+    System.arraycopy(incomingStart, 0, nextIncoming, 0, nodeCount);
+    index = 0;
+    for (Dependency edge : edges) {
+      int edgeId = nextOutgoing[sources[index]]++;
+      dependencies[edgeId] = edge;
+      edgeSources[edgeId] = sources[index];
+      edgeTargets[edgeId] = targets[index];
+      lazyEdges.set(edgeId, edge.isLazy());
+      optionalEdges.set(edgeId, edge.isOptional());
+      incomingEdges[nextIncoming[targets[index]]++] = edgeId;
+      index++;
+    }
+
+    removedEdges = new BitSet(edgeCount);
+    liveIncomingCounts = new int[nodeCount];
+    for (int node = 0; node < nodeCount; node++) {
+      liveIncomingCounts[node] = incomingStart[node + 1] - incomingStart[node];
+    }
+    liveTargetCount = targetNodeCount;
   }
 
+  private void intern(Key<?> key, List<Key<?>> keyList) {
+    if (!nodeIds.containsKey(key)) {
+      nodeIds.put(key, keyList.size());
+      keyList.add(key);
+    }
+  }
+
+  /**
+   * Returns the number of keys in the graph, see {@link #getAllKeys}.
+   */
   public int size() {
-    return dependenciesTargeting.size();
+    return liveTargetCount;
   }
 
   public GinjectorBindings getOrigin() {
@@ -82,33 +205,153 @@ public class DependencyGraph {
   }
   
   public Collection<Dependency> getDependenciesOf(Key<?> key) {
-    Set<Dependency> dependencySet = dependenciesOf.get(key);
-    return dependencySet == null ? Collections.<Dependency>emptyList() 
-        : Collections.unmodifiableCollection(dependencySet);
+    int node = getNodeId(key);
+    if (node < 0) {
+      return Collections.emptyList();
+    }
+    List<Dependency> result = new ArrayList<Dependency>();
+    for (int edge = getOutgoingStart(node); edge < getOutgoingEnd(node); edge++) {
+      if (!isRemoved(edge)) {
+        result.add(dependencies[edge]);
+      }
+    }
+    return Collections.unmodifiableList(result);
   }
 
   public Collection<Dependency> getDependenciesTargeting(Key<?> key) {
-    Collection<Dependency> dependencySet = dependenciesTargeting.get(key);
-    return dependencySet == null ? Collections.<Dependency>emptyList() 
-        : Collections.unmodifiableCollection(dependencySet);
+    int node = getNodeId(key);
+    if (node < 0) {
+      return Collections.emptyList();
+    }
+    List<Dependency> result = new ArrayList<Dependency>();
+    for (int i = getIncomingStart(node); i < getIncomingEnd(node); i++) {
+      int edge = getIncomingEdge(i);
+      if (!isRemoved(edge)) {
+        result.add(dependencies[edge]);
+      }
+    }
+    return Collections.unmodifiableList(result);
   }
   
   /**
    * Returns all the keys that appear in the Dependency Graph, other than the "common root", 
    * {@link Dependency#GINJECTOR}.
+   *
+   * <p>Only keys that are still the target of some dependency are returned:
+   * a key removed by a {@link GraphPruner} is no longer part of the graph,
+   * and neither is a key whose only dependents were removed.
    */
   public Iterable<Key<?>> getAllKeys() {
     // All keys in the graph should be reachable from the Ginjector, which means they must appear as
-    // the target of some dependency.  Thus, the keyset covers all nodes.
-    return dependenciesTargeting.keySet();
+    // the target of some dependency.  Thus, the target nodes cover all keys.
+    List<Key<?>> result = new ArrayList<Key<?>>(liveTargetCount);
+    for (int node = 0; node < targetNodeCount; node++) {
+      if (isTarget(node)) {
+        result.add(keys[node]);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the number of node ids in the graph.  Node ids are numbered from
+   * zero, and the nodes that are the target of some dependency come first.
+   */
+  int getNodeCount() {
+    return keys.length;
+  }
+
+  /**
+   * Returns the node id of the given key, or -1 if the key is not in the graph.
+   */
+  int getNodeId(Key<?> key) {
+    Integer node = nodeIds.get(key);
+    return node == null ? -1 : node;
+  }
+
+  Key<?> getKey(int node) {
+    return keys[node];
+  }
+
+  /**
+   * Returns true if the node is still the target of some dependency.
+   */
+  boolean isTarget(int node) {
+    return liveIncomingCounts[node] > 0;
+  }
+
+  /**
+   * Returns the first id of the edges with the given source node.
+   */
+  int getOutgoingStart(int node) {
+    return outgoingStart[node];
+  }
+
+  /**
+   * Returns one past the last id of the edges with the given source node.
+   */
+  int getOutgoingEnd(int node) {
+    return outgoingStart[node + 1];
+  }
+
+  /**
+   * Returns the first index, for use with {@link #getIncomingEdge}, of the
+   * edges with the given target node.
+   */
+  int getIncomingStart(int node) {
+    return incomingStart[node];
+  }
+
+  /**
+   * Returns one past the last index of the edges with the given target node.
+   */
+  int getIncomingEnd(int node) {
+    return incomingStart[node + 1];
+  }
+
+  int getIncomingEdge(int index) {
+    return incomingEdges[index];
+  }
+
+  int getEdgeSource(int edge) {
+    return edgeSources[edge];
+  }
+
+  int getEdgeTarget(int edge) {
+    return edgeTargets[edge];
+  }
+
+  boolean isLazy(int edge) {
+    return lazyEdges.get(edge);
+  }
+
+  boolean isOptional(int edge) {
+    return optionalEdges.get(edge);
+  }
+
+  boolean isRemoved(int edge) {
+    return removedEdges.get(edge);
+  }
+
+  Dependency getDependency(int edge) {
+    return dependencies[edge];
+  }
+
+  private void removeEdge(int edge) {
+    if (removedEdges.get(edge)) {
+      return;
+    }
+    removedEdges.set(edge);
+    if (--liveIncomingCounts[edgeTargets[edge]] == 0) {
+      liveTargetCount--;
+    }
   }
 
   /**
    * 
    */
   public static class Builder {
-    private final Map<Key<?>, Set<Dependency>> dependenciesOf;
-    private final Map<Key<?>, Set<Dependency>> dependenciesTargeting;
+    private final Set<Dependency> edges;
     private final GinjectorBindings origin;
 
     /**
@@ -118,30 +361,17 @@ public class DependencyGraph {
      */
     public Builder(GinjectorBindings origin) {
       this.origin = origin;
-      // Use linked hash maps so that error messages (and tests) are stable
-      this.dependenciesOf = new LinkedHashMap<Key<?>, Set<Dependency>>();
-      this.dependenciesTargeting = new LinkedHashMap<Key<?>, Set<Dependency>>();
+      // Use a linked hash set so that error messages (and tests) are stable
+      this.edges = new LinkedHashSet<Dependency>();
     }
    
     public Builder addEdge(Dependency dependency) {
-      addTo(dependency.getSource(), dependency, dependenciesOf);
-      addTo(dependency.getTarget(), dependency, dependenciesTargeting);
+      edges.add(dependency);
       return this;
     }
 
-    private void addTo(
-        Key<?> key, Dependency dependency, Map<Key<?>, Set<Dependency>> dependencies) {
-      Set<Dependency> dependencySet = dependencies.get(key);
-      if (dependencySet == null) {
-        // Use LinkedHashSet so that error messages (and tests) are stable
-        dependencySet = new LinkedHashSet<Dependency>();
-        dependencies.put(key, dependencySet);
-      }
-      dependencySet.add(dependency);
-    }
-
     public DependencyGraph build() {
-      return new DependencyGraph(origin, dependenciesOf, dependenciesTargeting);
+      return new DependencyGraph(origin, edges);
     }
   }
 
@@ -164,32 +394,23 @@ public class DependencyGraph {
 
     /**
      * Removes the given key, all its incoming edges, and all its outgoing edges, from the graph.
+     * Targets of the outgoing edges that aren't targeted by any other edge leave the graph too.
      */
     public GraphPruner remove(Key<?> key) {
-      for (Dependency dependency : source.getDependenciesOf(key)) {
-        removeFrom(dependency.getTarget(), dependency, source.dependenciesTargeting);
+      int node = source.getNodeId(key);
+      if (node < 0) {
+        return this;
       }
-      
-      for (Dependency dependency : source.getDependenciesTargeting(key)) {
-        removeFrom(dependency.getSource(), dependency, source.dependenciesOf);
+
+      for (int edge = source.getOutgoingStart(node); edge < source.getOutgoingEnd(node); edge++) {
+        source.removeEdge(edge);
       }
-      
-      return this;
-    }
-    
-    private void removeFrom(Key<?> key, Dependency dependency, 
-        Map<Key<?>, Set<Dependency>> dependencies) {
-      Set<Dependency> dependencySet = dependencies.get(key);
-      Preconditions.checkNotNull(dependencySet,
-          "Expected dependency set to be present for dependency %s", key);
-      if (!dependencySet.remove(dependency)) {
-        throw new IllegalStateException(String.format(
-            "Expected %s to be present in the dependency set", dependency));
+
+      for (int i = source.getIncomingStart(node); i < source.getIncomingEnd(node); i++) {
+        source.removeEdge(source.getIncomingEdge(i));
       }
       
-      if (dependencySet.isEmpty()) {
-        dependencies.remove(key);
-      }
+      return this;
     }
 
     public DependencyGraph update() {
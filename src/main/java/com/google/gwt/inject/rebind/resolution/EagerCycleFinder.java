@@ -21,12 +21,10 @@ import com.google.inject.Inject;
 import com.google.inject.Key;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
-import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 
 /**
  * Searches for "eager" cycles in the dependency graph.  These are cycles that do not pass through
@@ -41,18 +39,35 @@ import java.util.Set;
  * <p>See {@link BindingResolver} for how this fits into the overall algorithm for resolution.
  */
 public class EagerCycleFinder {
+
+  /**
+   * Marks nodes in {@link #visitedEdge} that were used in the initial call to visit.
+   */
+  private static final int ROOT = -1;
+
+  /**
+   * Marks nodes in {@link #visitedEdge} that have not been visited yet.
+   */
+  private static final int UNVISITED = -2;
   
   /**
-   * For each key that has been visited, this maps to the eager edge that was followed to reach the
-   * node, or null if it was used in the initial call to visit.
+   * For each node that has been visited, this holds the id of the eager edge that was followed to
+   * reach the node, or {@link #ROOT} if it was used in the initial call to visit.
    */
-  private Map<Key<?>, Dependency> visitedEdge;
+  private int[] visitedEdge;
   
   /**
    * Nodes that are active in the current DFS.  Revisiting any of these nodes indicates an eager
    * cycle, and should be reported as a problem.
    */
-  private Set<Key<?>> dfsStack = new LinkedHashSet<Key<?>>();
+  private BitSet dfsStack;
+
+  /**
+   * The explicit stack of the current DFS: the node at each depth, and the id of the next edge to
+   * follow from it.
+   */
+  private int[] stackNodes;
+  private int[] stackEdges;
   
   private final ErrorManager errorManager;
 
@@ -72,51 +87,86 @@ public class EagerCycleFinder {
   public boolean findAndReportCycles(DependencyGraph graph) {
     this.graph = graph;
     cycleDetected = false;
-    visitedEdge = new LinkedHashMap<Key<?>, Dependency>(graph.size());
+    int nodeCount = graph.getNodeCount();
+    visitedEdge = new int[nodeCount];
+    Arrays.fill(visitedEdge, UNVISITED);
+    dfsStack = new BitSet(nodeCount);
+    stackNodes = new int[nodeCount];
+    stackEdges = new int[nodeCount];
     
-    for (Key<?> key : graph.getAllKeys()) {
-      visit(key, null);
+    for (int node = 0; node < nodeCount; node++) {
+      if (graph.isTarget(node)) {
+        visit(node);
+      }
     }
 
     return cycleDetected;
   }
-  
-  private void visit(Key<?> key, Dependency edge) {
-    // If we loop back to a key that is "active" in the current DFS, we have found an eager cycle.
-    if (!dfsStack.add(key)) {
-      reportCycle(edge);
+
+  /**
+   * Runs a depth-first search from the given node, following eager edges.  The
+   * search uses an explicit stack, so that long dependency chains don't
+   * overflow the thread's stack.
+   */
+  private void visit(int root) {
+    // Nodes already discovered by an earlier search can't lead to new cycles.
+    if (visitedEdge[root] != UNVISITED) {
       return;
     }
-    
-    // If this is a first time an edge to the target has been visited, we're "discovering" it.
-    // We need to recursively walk over the dependencies.
-    if (!visitedEdge.containsKey(key)) {
-      visitedEdge.put(key, edge);
-      for (Dependency nextEdge : graph.getDependenciesOf(key)) {
-        if (!nextEdge.isLazy()) {
-          visit(nextEdge.getTarget(), nextEdge); // Recursively visit eager edges in the current DFS
-        }
+
+    visitedEdge[root] = ROOT;
+    int depth = push(root, 0);
+
+    while (depth > 0) {
+      int node = stackNodes[depth - 1];
+      int edge = stackEdges[depth - 1];
+      if (edge == graph.getOutgoingEnd(node)) {
+        depth--;
+        dfsStack.clear(node);
+        continue;
+      }
+
+      stackEdges[depth - 1]++;
+      if (graph.isRemoved(edge) || graph.isLazy(edge)) {
+        continue;
+      }
+
+      int target = graph.getEdgeTarget(edge);
+      if (dfsStack.get(target)) {
+        // We looped back to a node that is "active" in the current DFS, so we
+        // have found an eager cycle.
+        reportCycle(edge);
+      } else if (visitedEdge[target] == UNVISITED) {
+        // This is the first time an edge to the target has been visited, so
+        // we're "discovering" it and need to walk over its dependencies.
+        visitedEdge[target] = edge;
+        depth = push(target, depth);
       }
     }
-    
-    dfsStack.remove(key);
   }
 
-  private List<Dependency> describeCycle(Dependency cycleEdge) {
+  private int push(int node, int depth) {
+    dfsStack.set(node);
+    stackNodes[depth] = node;
+    stackEdges[depth] = graph.getOutgoingStart(node);
+    return depth + 1;
+  }
+
+  private List<Dependency> describeCycle(int cycleEdge) {
     List<Dependency> cycle = new ArrayList<Dependency>();
-    cycle.add(cycleEdge);
+    cycle.add(graph.getDependency(cycleEdge));
     
-    Key<?> curr = cycleEdge.getSource();
-    while (!curr.equals(cycleEdge.getTarget())) {
-      Dependency edge = visitedEdge.get(curr);
-      cycle.add(edge);
-      curr = edge.getSource();
+    int curr = graph.getEdgeSource(cycleEdge);
+    while (curr != graph.getEdgeTarget(cycleEdge)) {
+      int edge = visitedEdge[curr];
+      cycle.add(graph.getDependency(edge));
+      curr = graph.getEdgeSource(edge);
     }
     Collections.reverse(cycle);
     return cycle;
   }
   
-  private void reportCycle(Dependency cycleEdge) {
+  private void reportCycle(int cycleEdge) {
     cycleDetected = true;
     
     // Get the edges in the cycle
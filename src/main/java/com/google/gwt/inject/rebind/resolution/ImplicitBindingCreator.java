@@ -18,6 +18,8 @@ package com.google.gwt.inject.rebind.resolution;
 import com.google.gwt.core.ext.GeneratorContext;
 import com.google.gwt.core.ext.TreeLogger;
 import com.google.gwt.inject.client.AsyncProvider;
+import com.google.gwt.inject.client.PrefetchableAsyncProvider;
+import com.google.gwt.inject.rebind.binding.AsyncProviderBinding;
 import com.google.gwt.inject.rebind.binding.BindClassBinding;
 import com.google.gwt.inject.rebind.binding.BindConstantBinding;
 import com.google.gwt.inject.rebind.binding.BindProviderBinding;
@@ -99,7 +101,7 @@ public class ImplicitBindingCreator {
 
     // 4b. AsyncProvider injections.
     if (isAsyncProviderKey(key)) {
-      return bindingFactory.getAsyncProviderBinding(key);
+      return createAsyncProviderBinding(key);
     }
 
     // 5. Convert constants.
@@ -140,6 +142,20 @@ public class ImplicitBindingCreator {
     return createImplicitBindingForClass(type);
   }
 
+  private Binding createAsyncProviderBinding(Key<?> key) throws BindingCreationException {
+    AsyncProviderBinding binding = bindingFactory.getAsyncProviderBinding(key);
+    Class<?> group = binding.getGroup();
+    if (group != null) {
+      try {
+        AsyncProviderBinding.getGroupPackageName(group);
+      } catch (IllegalArgumentException e) {
+        throw new BindingCreationException(
+            "The async group %s of '%s' must be visible from its own package", group, key);
+      }
+    }
+    return binding;
+  }
+
   private Binding createImplicitBindingForClass(TypeLiteral<?> type)
       throws BindingCreationException {
     // Either call the @Inject constructor or use GWT.create
@@ -262,7 +278,8 @@ public class ImplicitBindingCreator {
   private boolean isAsyncProviderKey(Key<?> key) {
     Type keyType = key.getTypeLiteral().getType();
     return keyType instanceof ParameterizedType &&
-    ((ParameterizedType) keyType).getRawType() == AsyncProvider.class;
+    (((ParameterizedType) keyType).getRawType() == AsyncProvider.class
+        || ((ParameterizedType) keyType).getRawType() == PrefetchableAsyncProvider.class);
   }
 
   private MethodLiteral<?, Constructor<?>> getInjectConstructor(TypeLiteral<?> type)
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind.resolution;
+
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.inject.rebind.GinjectorBindings;
+import com.google.gwt.inject.rebind.binding.Binding;
+import com.google.gwt.inject.rebind.binding.Dependency;
+import com.google.gwt.inject.rebind.resolution.ImplicitBindingCreator.BindingCreationException;
+import com.google.gwt.inject.rebind.util.PrettyPrinter;
+import com.google.inject.Inject;
+import com.google.inject.Key;
+import com.google.inject.Singleton;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Speculatively creates the implicit bindings of all ginjectors in a hierarchy
+ * concurrently, one task per ginjector.
+ *
+ * <p>Resolution itself has to stay sequential: resolving a child may install
+ * bindings into its parents, which changes what its siblings need to create.
+ * Creating an implicit binding, which involves most of the reflection work, is
+ * independent of that though. Each task therefore explores the dependencies of
+ * its ginjector as they are before resolution and creates the implicit bindings
+ * found. {@link DependencyExplorer} then takes these bindings instead of
+ * creating them again, and ignores the ones it doesn't need. Since creating an
+ * implicit binding only depends on its key, the outcome of resolution (and thus
+ * the generated code) is the same as without prefetching.
+ *
+ * <p>Bindings are kept per ginjector, so that no binding instance ends up in
+ * more than one ginjector.
+ */
+@Singleton
+public class ImplicitBindingPrefetcher {
+
+  private final ImplicitBindingCreator.Factory bindingCreatorFactory;
+
+  private final TreeLogger logger;
+
+  /**
+   * Prefetched results for each ginjector. Results are either the created
+   * {@link Binding} or the {@link BindingCreationException} thrown while
+   * creating it.
+   */
+  private final Map<GinjectorBindings, Map<Key<?>, Object>> prefetched =
+      new IdentityHashMap<GinjectorBindings, Map<Key<?>, Object>>();
+
+  @Inject
+  public ImplicitBindingPrefetcher(ImplicitBindingCreator.Factory bindingCreatorFactory,
+      TreeLogger logger) {
+    this.bindingCreatorFactory = bindingCreatorFactory;
+    this.logger = logger;
+  }
+
+  /**
+   * Creates the implicit bindings for the passed ginjector and all its
+   * descendants concurrently, and blocks until they are available.
+   */
+  public void prefetch(GinjectorBindings root) {
+    List<GinjectorBindings> ginjectors = new ArrayList<GinjectorBindings>();
+    collectGinjectors(root, ginjectors);
+    if (ginjectors.size() < 2) {
+      return;
+    }
+
+    List<Callable<Map<Key<?>, Object>>> tasks = new ArrayList<Callable<Map<Key<?>, Object>>>();
+    for (final GinjectorBindings ginjector : ginjectors) {
+      tasks.add(new Callable<Map<Key<?>, Object>>() {
+        public Map<Key<?>, Object> call() {
+          return explore(ginjector);
+        }
+      });
+    }
+
+    try {
+      List<Future<Map<Key<?>, Object>>> results = ForkJoinPool.commonPool().invokeAll(tasks);
+      for (int i = 0; i < ginjectors.size(); i++) {
+        try {
+          prefetched.put(ginjectors.get(i), results.get(i).get());
+        } catch (ExecutionException e) {
+          // Resolution will create the missing bindings itself.
+          logger.log(TreeLogger.DEBUG, PrettyPrinter.format(
+              "Unable to prefetch implicit bindings for %s", ginjectors.get(i)), e.getCause());
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      logger.log(TreeLogger.DEBUG, "Interrupted while prefetching implicit bindings", e);
+    }
+  }
+
+  /**
+   * Returns the binding prefetched for the given key in the given ginjector,
+   * or {@code null} if none was prefetched. A binding is only returned once.
+   *
+   * @throws BindingCreationException if creating the binding failed
+   */
+  public Binding take(GinjectorBindings ginjector, Key<?> key) throws BindingCreationException {
+    Map<Key<?>, Object> results = prefetched.get(ginjector);
+    Object result = results == null ? null : results.remove(key);
+    if (result instanceof BindingCreationException) {
+      throw (BindingCreationException) result;
+    }
+    return (Binding) result;
+  }
+
+  /**
+   * Discards all prefetched bindings.
+   */
+  public void clear() {
+    prefetched.clear();
+  }
+
+  private void collectGinjectors(GinjectorBindings ginjector, List<GinjectorBindings> ginjectors) {
+    ginjectors.add(ginjector);
+    for (GinjectorBindings child : ginjector.getChildren()) {
+      collectGinjectors(child, ginjectors);
+    }
+  }
+
+  /**
+   * Creates the implicit bindings for everything the given ginjector depends
+   * on and that isn't available in its hierarchy yet. Mirrors the exploration
+   * in {@link DependencyExplorer}. Only reads the ginjector hierarchy.
+   */
+  private Map<Key<?>, Object> explore(GinjectorBindings origin) {
+    // Binding creation doesn't log anything of interest, and tree loggers
+    // aren't necessarily thread-safe.
+    ImplicitBindingCreator bindingCreator = bindingCreatorFactory.create(TreeLogger.NULL);
+    Map<Key<?>, Object> results = new LinkedHashMap<Key<?>, Object>();
+    Set<Key<?>> visited = new HashSet<Key<?>>();
+    Deque<Key<?>> pending = new ArrayDeque<Key<?>>();
+    for (Dependency edge : origin.getDependencies()) {
+      pending.push(edge.getTarget());
+    }
+
+    while (!pending.isEmpty()) {
+      Key<?> key = pending.pop();
+      if (!visited.add(key) || isAvailable(key, origin)) {
+        continue;
+      }
+
+      try {
+        Binding binding = bindingCreator.create(key);
+        results.put(key, binding);
+        for (Dependency edge : binding.getDependencies()) {
+          pending.push(edge.getTarget());
+        }
+      } catch (BindingCreationException e) {
+        results.put(key, e);
+      } catch (RuntimeException e) {
+        // Leave it to resolution to report the problem.
+      } catch (LinkageError e) {
+        // Leave it to resolution to report the problem.
+      }
+    }
+    return results;
+  }
+
+  /**
+   * Returns {@code true} if the key is (or will be) bound somewhere in the
+   * hierarchy of the origin, see
+   * {@code DependencyExplorer#locateHighestAccessibleSource}.
+   */
+  private boolean isAvailable(Key<?> key, GinjectorBindings origin) {
+    if (!origin.isBound(key) && origin.isPinned(key)) {
+      return false;
+    }
+
+    for (GinjectorBindings iter = origin; iter != null; iter = iter.getParent()) {
+      if (iter.isBound(key) || iter.isPinned(key)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
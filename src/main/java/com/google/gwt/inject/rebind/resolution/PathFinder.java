@@ -20,14 +20,12 @@ import com.google.gwt.inject.rebind.util.Preconditions;
 import com.google.inject.Key;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
-import java.util.Queue;
 
 /**
  * Finds the shortest path from the edges in the root set to any of one or more destination keys.
@@ -36,24 +34,34 @@ import java.util.Queue;
  * why a given error/cycle was reachable from the Ginjector.
  */
 public class PathFinder {
-  
+
+  /**
+   * Marks nodes in {@link #visitedEdge} that have not been discovered yet.
+   */
+  private static final int UNVISITED = -2;
+
+  /**
+   * Marks nodes in {@link #visitedEdge} that were one of the destinations.
+   */
+  private static final int DESTINATION = -1;
+
   private DependencyGraph graph;
   private Collection<Key<?>> destinations = new LinkedHashSet<Key<?>>();
   private Collection<Key<?>> roots = new LinkedHashSet<Key<?>>();
   private boolean onlyRequiredEdges;
 
   /**
-   * For every key that is discovered during the Breadth-first search, this points to the edge that
-   * discovered it.  We don't need to revisit(or requeue) any keys that are already defined here,
-   * because any new edge leading to back to the given key will at best be longer than the current
-   * path.
+   * For every node that is discovered during the Breadth-first search, this holds the id of the
+   * edge that discovered it.  We don't need to revisit(or requeue) any nodes that are already
+   * discovered, because any new edge leading to back to the given node will at best be longer than
+   * the current path.
    */
-  private Map<Key<?>, Dependency> visited;
+  private int[] visitedEdge;
   
   /**
-   * The nodes remaining to visit.
+   * The nodes remaining to visit, in order.  Every node is queued at most once.
    */
-  private Queue<Key<?>> workQueue;
+  private int[] workQueue;
 
   public PathFinder() { }
   
@@ -101,33 +109,52 @@ public class PathFinder {
     Preconditions.checkState(!destinations.isEmpty(),
         "Must call addDestinations(Key<?>...) before findShortestPath");
     
-    visited = new LinkedHashMap<Key<?>, Dependency>();
-    workQueue = new LinkedList<Key<?>>();
-    
-    // Populate the workqueue with our initial destination keys.  If any of them are in the root
-    // set, we can return early.
+    // If any of the destinations are in the root set, we can return early.
     for (Key<?> key : destinations) {
-      visited.put(key, null);
       if (roots.contains(key)) {
-        return getPathFor(key);
+        return new ArrayList<Dependency>();
+      }
+    }
+
+    int nodeCount = graph.getNodeCount();
+    BitSet rootNodes = new BitSet(nodeCount);
+    for (Key<?> key : roots) {
+      int node = graph.getNodeId(key);
+      if (node >= 0) {
+        rootNodes.set(node);
+      }
+    }
+
+    visitedEdge = new int[nodeCount];
+    Arrays.fill(visitedEdge, UNVISITED);
+    workQueue = new int[nodeCount];
+    int head = 0;
+    int tail = 0;
+    
+    // Populate the workqueue with our initial destination nodes.
+    for (Key<?> key : destinations) {
+      int node = graph.getNodeId(key);
+      if (node >= 0 && visitedEdge[node] == UNVISITED) {
+        visitedEdge[node] = DESTINATION;
+        workQueue[tail++] = node;
       }
-      workQueue.add(key);
     }
     
     // Perform a BFS looking for a path back to a root edge
-    while (!workQueue.isEmpty()) {
-      Key<?> key = workQueue.remove();
+    while (head < tail) {
+      int node = workQueue[head++];
       
-      for (Dependency edge : graph.getDependenciesTargeting(key)) {
+      for (int i = graph.getIncomingStart(node); i < graph.getIncomingEnd(node); i++) {
+        int edge = graph.getIncomingEdge(i);
         if (isEdgeUsable(edge)) {
-          Key<?> sourceKey = edge.getSource();
-          if (!visited.containsKey(sourceKey)) {
-            workQueue.add(sourceKey);
-            visited.put(sourceKey, edge);
+          int sourceNode = graph.getEdgeSource(edge);
+          if (visitedEdge[sourceNode] == UNVISITED) {
+            workQueue[tail++] = sourceNode;
+            visitedEdge[sourceNode] = edge;
           
             // Check for early termination
-            if (roots.contains(sourceKey)) {
-              return getPathFor(sourceKey);
+            if (rootNodes.get(sourceNode)) {
+              return getPathFor(sourceNode);
             }
           }
         }
@@ -139,14 +166,14 @@ public class PathFinder {
     return null;
   }
   
-  private List<Dependency> getPathFor(Key<?> rootKey) {
+  private List<Dependency> getPathFor(int rootNode) {
     List<Dependency> result = new ArrayList<Dependency>();
     
     // Now, add the edges from the BFS path
-    Dependency edge = visited.get(rootKey);
-    while (edge != null) {
-      result.add(edge);
-      edge = visited.get(edge.getTarget());
+    int edge = visitedEdge[rootNode];
+    while (edge >= 0) {
+      result.add(graph.getDependency(edge));
+      edge = visitedEdge[graph.getEdgeTarget(edge)];
     }
     return result;
   }
@@ -154,7 +181,7 @@ public class PathFinder {
   /**
    * Returns true if the given edge meets our criteria for use, false otherwise.
    */
-  private boolean isEdgeUsable(Dependency edge) {
-    return !edge.isOptional() || !onlyRequiredEdges;
+  private boolean isEdgeUsable(int edge) {
+    return !graph.isRemoved(edge) && (!graph.isOptional(edge) || !onlyRequiredEdges);
   }
 }
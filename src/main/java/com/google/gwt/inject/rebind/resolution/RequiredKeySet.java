@@ -18,6 +18,7 @@ package com.google.gwt.inject.rebind.resolution;
 import com.google.gwt.inject.rebind.binding.Dependency;
 import com.google.inject.Key;
 
+import java.util.BitSet;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
@@ -28,7 +29,16 @@ import java.util.Set;
  */
 public class RequiredKeySet {
   
-  private Set<Key<?>> requiredKeys;
+  /**
+   * The required nodes of the graph, by node id.
+   */
+  private BitSet requiredNodes;
+
+  /**
+   * Required keys that the origin depends on but that are not part of the graph.
+   */
+  private Set<Key<?>> requiredKeysOutsideGraph;
+
   private final DependencyGraph graph;
   
   public RequiredKeySet(DependencyGraph graph) {
@@ -36,33 +46,43 @@ public class RequiredKeySet {
   }
   
   public boolean isRequired(Key<?> key) {
-    if (requiredKeys == null) {
+    if (requiredNodes == null) {
       computeRequiredKeys();
     }
-    return requiredKeys.contains(key);
+    int node = graph.getNodeId(key);
+    return node >= 0 ? requiredNodes.get(node) : requiredKeysOutsideGraph.contains(key);
   }
   
   private void computeRequiredKeys() {
-    requiredKeys = new LinkedHashSet<Key<?>>(graph.size());
-    
-    Set<Key<?>> newKeys = new LinkedHashSet<Key<?>>();
-    addRequiredKeysFor(graph.getOrigin().getDependencies(), newKeys);
-    
-    while (!newKeys.isEmpty()) {
-      requiredKeys.addAll(newKeys);
-      Set<Key<?>> discoveredKeys = new LinkedHashSet<Key<?>>();
-      for (Key<?> key : newKeys) {
-        addRequiredKeysFor(graph.getDependenciesOf(key), discoveredKeys);
+    requiredNodes = new BitSet(graph.getNodeCount());
+    requiredKeysOutsideGraph = new LinkedHashSet<Key<?>>();
+
+    // Breadth-first search over the required edges, starting from the origin's dependencies.
+    int[] workQueue = new int[graph.getNodeCount()];
+    int head = 0;
+    int tail = 0;
+    for (Dependency edge : graph.getOrigin().getDependencies()) {
+      if (!edge.isOptional()) {
+        int node = graph.getNodeId(edge.getTarget());
+        if (node < 0) {
+          requiredKeysOutsideGraph.add(edge.getTarget());
+        } else if (!requiredNodes.get(node)) {
+          requiredNodes.set(node);
+          workQueue[tail++] = node;
+        }
       }
-      newKeys = discoveredKeys;
-      newKeys.removeAll(requiredKeys);
     }
-  }
-  
-  private void addRequiredKeysFor(Iterable<Dependency> edges, Set<Key<?>> discoveredKeys) {
-    for (Dependency edge : edges) {
-      if (!edge.isOptional()) {
-        discoveredKeys.add(edge.getTarget());
+    
+    while (head < tail) {
+      int node = workQueue[head++];
+      for (int edge = graph.getOutgoingStart(node); edge < graph.getOutgoingEnd(node); edge++) {
+        if (!graph.isRemoved(edge) && !graph.isOptional(edge)) {
+          int target = graph.getEdgeTarget(edge);
+          if (!requiredNodes.get(target)) {
+            requiredNodes.set(target);
+            workQueue[tail++] = target;
+          }
+        }
       }
     }
   }
@@ -38,5 +38,8 @@ public class ResolutionModule extends PrivateModule {
 
     bind(BindingResolver.class);
     expose(BindingResolver.class);
+
+    bind(ImplicitBindingPrefetcher.class);
+    expose(ImplicitBindingPrefetcher.class);
   }
 }
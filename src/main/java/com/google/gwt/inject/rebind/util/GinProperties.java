@@ -0,0 +1,114 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind.util;
+
+import com.google.gwt.core.ext.BadPropertyValueException;
+import com.google.gwt.core.ext.GeneratorContext;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Provides access to the configuration properties that tune Gin's generator.
+ * Properties are read through the generator context, so that the values
+ * consulted are taken into account when the generated ginjector is reused.
+ */
+@Singleton
+public class GinProperties {
+
+  /**
+   * Configuration property that enables exploring the bindings of all
+   * ginjectors in the hierarchy concurrently when set to {@code true}.
+   */
+  public static final String PARALLEL_RESOLUTION = "gin.parallelResolution";
+
+  /**
+   * Configuration property that enables rendering the source of injector
+   * fragments concurrently when set to {@code true}.
+   */
+  public static final String PARALLEL_OUTPUT = "gin.parallelOutput";
+
+  /**
+   * Configuration property that makes generated member names spell out the
+   * complete key they belong to when set to {@code true}.
+   */
+  public static final String VERBOSE_NAMES = "gin.verboseNames";
+
+  /**
+   * Configuration property that, when set to {@code true}, logs the time spent
+   * in each phase of generating a ginjector at {@code INFO} level and writes it
+   * as a JSON file to the compiler's extra directory.
+   */
+  public static final String TIMING_REPORT = "gin.timingReport";
+
+  /**
+   * Multi-valued configuration property listing the types that are scoped as
+   * singletons when they are bound to {@code GWT.create()} without a scope.
+   * The value {@code true} stands for {@code ClientBundle}, {@code Messages}
+   * and {@code Constants}; see
+   * {@link com.google.gwt.inject.rebind.ImplicitSingletonTypes}.
+   */
+  public static final String IMPLICIT_SINGLETON_TYPES = "gin.implicitSingletonTypes";
+
+  /**
+   * Configuration property that, when set to {@code true}, writes the getters
+   * of bindings that are only reachable through {@code AsyncProvider} split
+   * points to separate fragments, one per package and group of split points.
+   */
+  public static final String SPLIT_POINT_FRAGMENTS = "gin.splitPointFragments";
+
+  private final GeneratorContext context;
+
+  @Inject
+  public GinProperties(GeneratorContext context) {
+    this.context = context;
+  }
+
+  /**
+   * Returns the values of the given configuration property, or an empty list
+   * if the property is not defined.
+   */
+  public List<String> getValues(String propertyName) {
+    List<String> values;
+    try {
+      values = context.getPropertyOracle().getConfigurationProperty(propertyName).getValues();
+    } catch (BadPropertyValueException e) {
+      // Thrown when the configuration property is not defined.
+      return Collections.emptyList();
+    }
+
+    // Properties that were defined but never set have a null value.
+    List<String> result = new ArrayList<String>(values.size());
+    for (String value : values) {
+      if (value != null) {
+        result.add(value);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns {@code true} if the given configuration property is set to
+   * {@code true}.
+   */
+  public boolean isEnabled(String propertyName) {
+    List<String> values = getValues(propertyName);
+    return values.size() == 1 && Boolean.parseBoolean(values.get(0));
+  }
+}
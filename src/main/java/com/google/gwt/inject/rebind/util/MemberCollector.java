@@ -22,9 +22,7 @@ import com.google.gwt.inject.rebind.reflect.MethodLiteral;
 import com.google.inject.Inject;
 import com.google.inject.TypeLiteral;
 
-import java.lang.reflect.Field;
 import java.lang.reflect.Method;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -41,8 +39,12 @@ import java.util.TreeSet;
  * correctly, i.e. it returns the method defined the closest to the provided
  * type.
  * <p>Note:  The collector uses internal caching and can be called with the same
- * arguments repeatedly without repeated performance costs.
- * <p>This class is not thread-safe.
+ * arguments repeatedly without repeated performance costs.  The members
+ * declared by each type are looked up only once per generator run, through the
+ * {@link TypeMemberIndex} shared by all collectors.
+ * <p>Members are collected while holding the collector's lock, so that a
+ * collector can be shared by concurrent resolution tasks (see
+ * {@link com.google.gwt.inject.rebind.resolution.ImplicitBindingPrefetcher}).
  */
 public class MemberCollector {
 
@@ -76,13 +78,27 @@ public class MemberCollector {
     boolean accept(FieldLiteral<?> field);
   }
 
+  /**
+   * Filter used during the collection of members to skip the members declared
+   * by a type altogether, without reflecting on them.  Only types whose
+   * members would all be rejected by the method and field filters may be
+   * skipped, so that the collected members don't change.
+   *
+   * <p>A filter decides from outside reflection, e.g. from the type oracle,
+   * see {@link TypeOracleInjectionFilter}.  It avoids loading the types in the
+   * signatures of skipped members, but not the filtered type itself.
+   */
+  public interface TypeFilter {
+    boolean accept(Class<?> type);
+  }
+
   /**
    * Comparator which detects methods that are override-equal.
    *
    * The comparator assumes that both classes have been investigated for java
    * specification compliance.
    */
-  private static final Comparator<MethodLiteral<?, Method>> METHOD_COMPARATOR =
+  static final Comparator<MethodLiteral<?, Method>> METHOD_COMPARATOR =
       new Comparator<MethodLiteral<?, Method>>() {
         public int compare(MethodLiteral<?, Method> m1, MethodLiteral<?, Method> m2) {
           if (m1 == m2) {
@@ -134,16 +150,6 @@ public class MemberCollector {
         }
       };
 
-  /**
-   * Comparator which compares fields by their name.
-   */
-  private static final Comparator<FieldLiteral<?>> FIELD_COMPARATOR =
-      new Comparator<FieldLiteral<?>>() {
-        public int compare(FieldLiteral<?> f1, FieldLiteral<?> f2) {
-          return f1.getName().compareTo(f2.getName());
-        }
-      };
-
   /**
    * Internal method cache: Type name -> Method Set.
    */
@@ -158,6 +164,11 @@ public class MemberCollector {
 
   private final TreeLogger logger;
 
+  /**
+   * Declared members of all types, shared with the other collectors.
+   */
+  private final TypeMemberIndex memberIndex;
+
   /**
    * Method filter that this collector operates with.
    */
@@ -168,15 +179,25 @@ public class MemberCollector {
    */
   private FieldFilter fieldFilter;
 
+  /**
+   * Type filter that this collector operates with.
+   */
+  private TypeFilter typeFilter;
+
   /**
    * Locking status.  The collector is locked once it started to accumulate
    * members.  No filters can be set on the collector after it has been locked.
    */
   private boolean locked;
 
-  @Inject
   public MemberCollector(TreeLogger logger) {
+    this(logger, new TypeMemberIndex());
+  }
+
+  @Inject
+  public MemberCollector(TreeLogger logger, TypeMemberIndex memberIndex) {
     this.logger = logger;
+    this.memberIndex = memberIndex;
     this.locked = false;
   }
 
@@ -188,7 +209,7 @@ public class MemberCollector {
    * @throws IllegalStateException if the filter is set after members have been
    *    requested
    */
-  public void setMethodFilter(MethodFilter filter) throws IllegalStateException {
+  public synchronized void setMethodFilter(MethodFilter filter) throws IllegalStateException {
     assertNotLocked();
     this.methodFilter = filter;
   }
@@ -201,11 +222,24 @@ public class MemberCollector {
    * @throws IllegalStateException if the filter is set after members have been
    *    requested
    */
-  public void setFieldFilter(FieldFilter filter) throws IllegalStateException {
+  public synchronized void setFieldFilter(FieldFilter filter) throws IllegalStateException {
     assertNotLocked();
     this.fieldFilter = filter;
   }
 
+  /**
+   * Sets this collector's type filter.  This method can only be called before
+   * members are requested.
+   *
+   * @param filter new type filter for this collector
+   * @throws IllegalStateException if the filter is set after members have been
+   *    requested
+   */
+  public synchronized void setTypeFilter(TypeFilter filter) throws IllegalStateException {
+    assertNotLocked();
+    this.typeFilter = filter;
+  }
+
   private void assertNotLocked() {
     if (locked) {
       String msg = "A filter can only be set on this collector before members are requested!";
@@ -222,7 +256,7 @@ public class MemberCollector {
    * @param typeLiteral type for which methods are collected
    * @return all methods for the given type
    */
-  public Collection<MethodLiteral<?, Method>> getMethods(TypeLiteral<?> typeLiteral) {
+  public synchronized Collection<MethodLiteral<?, Method>> getMethods(TypeLiteral<?> typeLiteral) {
     collect(typeLiteral);
     return Collections.unmodifiableCollection(methodMultiMap.get(typeLiteral));
   }
@@ -235,7 +269,7 @@ public class MemberCollector {
    * @param typeLiteral type for which fields are collected
    * @return all fields for the given type
    */
-  public Collection<FieldLiteral<?>> getFields(TypeLiteral<?> typeLiteral) {
+  public synchronized Collection<FieldLiteral<?>> getFields(TypeLiteral<?> typeLiteral) {
     collect(typeLiteral);
     return Collections.unmodifiableCollection(fieldMultiMap.get(typeLiteral));
   }
@@ -259,13 +293,15 @@ public class MemberCollector {
   private void accumulateMembers(TypeLiteral<?> typeLiteral,
       Set<MethodLiteral<?, Method>> methodAccu, Set<FieldLiteral<?>> fieldAccu) {
 
+    boolean inspectMembers = typeFilter == null || typeFilter.accept(typeLiteral.getRawType());
+
     if (methodFilter != null) {
       if (methodMultiMap.containsKey(typeLiteral)) {
         for (MethodLiteral<?, Method> method : methodMultiMap.get(typeLiteral)) {
           methodAccu.add(method);
         }
-      } else {
-        for (MethodLiteral<?, Method> method : getTypeMethods(typeLiteral)) {
+      } else if (inspectMembers) {
+        for (MethodLiteral<?, Method> method : memberIndex.getDeclaredMethods(typeLiteral)) {
           if (methodFilter.accept(method)) {
             methodAccu.add(method);
             logger.log(TreeLogger.TRACE, String.format("Found method: %s", method));
@@ -281,8 +317,8 @@ public class MemberCollector {
         for (FieldLiteral<?> field : fieldMultiMap.get(typeLiteral)) {
           fieldAccu.add(field);
         }
-      } else {
-        for (FieldLiteral<?> field : getTypeFields(typeLiteral)) {
+      } else if (inspectMembers) {
+        for (FieldLiteral<?> field : memberIndex.getDeclaredFields(typeLiteral)) {
           if (fieldFilter.accept(field)) {
             fieldAccu.add(field);
             logger.log(TreeLogger.TRACE, String.format("Found field: %s", field));
@@ -303,23 +339,4 @@ public class MemberCollector {
       accumulateMembers(typeLiteral.getSupertype(ancestor), methodAccu, fieldAccu);
     }
   }
-
-  private <T> Iterable<MethodLiteral<T, Method>> getTypeMethods(TypeLiteral<T> typeLiteral) {
-    List<MethodLiteral<T, Method>> methods = new ArrayList<MethodLiteral<T, Method>>();
-    for (Method method : typeLiteral.getRawType().getDeclaredMethods()) {
-      methods.add(MethodLiteral.get(method, typeLiteral));
-    }
-    Collections.sort(methods, METHOD_COMPARATOR);
-    return methods;
-  }
-  
-  private <T> Iterable<FieldLiteral<T>> getTypeFields(TypeLiteral<T> typeLiteral) {
-    List<FieldLiteral<T>> fields = new ArrayList<FieldLiteral<T>>();
-    for (Field field : typeLiteral.getRawType().getDeclaredFields()) {
-      fields.add(FieldLiteral.get(field, typeLiteral));
-    }
-    Collections.sort(fields, FIELD_COMPARATOR);
-    return fields;
-  }
 }
-
@@ -16,9 +16,11 @@
 package com.google.gwt.inject.rebind.util;
 
 import com.google.gwt.inject.rebind.output.FragmentPackageName;
+import com.google.inject.Inject;
 import com.google.inject.Key;
 import com.google.inject.TypeLiteral;
 
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
@@ -27,9 +29,24 @@ import java.util.Set;
 /**
  * Helper to generate various names for members of a {@code Ginjector}
  * implementation.
+ *
+ * <p>Names are handed out under the generator's lock, so that fragments can be
+ * rendered concurrently.  Which name a key gets still depends on the order of
+ * requests, so all names are assigned before rendering starts.
+ *
+ * <p>By default, names derived from keys are compact: a readable stem built
+ * from the simple names of the key's type and binding annotation, followed by
+ * a hash of the full key.  Setting {@link GinProperties#VERBOSE_NAMES} restores
+ * names that spell out the complete key, which can help when debugging the
+ * generated code.
  */
 public class NameGenerator {
 
+  /**
+   * Maximum length of the readable part of a compact name.
+   */
+  private static final int MAX_STEM_LENGTH = 40;
+
   private class CacheKey {
     private final String prefix;
     private final Key<?> key;
@@ -64,6 +81,28 @@ public class NameGenerator {
    */
   private final Set<String> methodNames = new LinkedHashSet<String>();
 
+  /**
+   * Map from base names to the next suffix index that might be free for them.
+   * All smaller indexes are known to be taken.
+   */
+  private final Map<String, Integer> nextSuffixIndexes = new HashMap<String, Integer>();
+
+  private final boolean verbose;
+
+  public NameGenerator() {
+    this(false);
+  }
+
+  @Inject
+  public NameGenerator(GinProperties properties) {
+    this(properties.isEnabled(GinProperties.VERBOSE_NAMES));
+  }
+
+  // Visible for testing.
+  NameGenerator(boolean verbose) {
+    this.verbose = verbose;
+  }
+
   /**
    * Returns the name of an assisted injection helper method.
    */
@@ -71,6 +110,22 @@ public class NameGenerator {
     return mangle("assistedInject_" + methodName, factoryKey);
   }
 
+  /**
+   * Returns the name of the method that enters the shared split point of the
+   * given {@link com.google.gwt.inject.client.AsyncGroup}.
+   */
+  public String getAsyncGroupLoaderMethodName(Class<?> group) {
+    return mangle("loadAsyncGroup_", Key.get(group));
+  }
+
+  /**
+   * Returns the name of the method that serves the requests made to the given
+   * grouped {@code AsyncProvider} key once the code of its group is loaded.
+   */
+  public String getAsyncGroupMemberMethodName(Key<?> providerKey) {
+    return mangle("asyncGroupLoaded_", providerKey);
+  }
+
   /**
    * Returns the name of a getter for a child injector.
    */
@@ -82,7 +137,8 @@ public class NameGenerator {
    * Returnst he name of a getter for an injector fragment.
    */
   public String getFragmentGetterMethodName(FragmentPackageName fragmentPackageName) {
-    return "getFragment_" + fragmentPackageName.toString().replace(".", "_");
+    return "getFragment_" + fragmentPackageName.toString().replace(".", "_")
+        + getSplitPointGroupSuffix(fragmentPackageName);
   }
 
   /**
@@ -113,7 +169,7 @@ public class NameGenerator {
     // a file (e.g., ~256 characters).  However, it means that other parts of
     // Gin must reference the fragment using its canonical class name, to avoid
     // ambiguity.
-    return injectorClassName + "_fragment";
+    return injectorClassName + "_fragment" + getSplitPointGroupSuffix(fragmentPackageName);
   }
 
   /**
@@ -129,7 +185,17 @@ public class NameGenerator {
    * Computes the field name of a single fragment of an injector.
    */
   public String getFragmentFieldName(FragmentPackageName fragmentPackageName) {
-    return convertToValidMemberName("fieldFragment_" + fragmentPackageName);
+    return convertToValidMemberName("fieldFragment_" + fragmentPackageName
+        + getSplitPointGroupSuffix(fragmentPackageName));
+  }
+
+  /**
+   * Returns the suffix that distinguishes the names of a split point fragment
+   * from those of the main fragment of its package.
+   */
+  private String getSplitPointGroupSuffix(FragmentPackageName fragmentPackageName) {
+    int splitPointGroup = fragmentPackageName.getSplitPointGroup();
+    return splitPointGroup == 0 ? "" : "_split" + splitPointGroup;
   }
 
   /**
@@ -148,6 +214,22 @@ public class NameGenerator {
     return "getGinjectorInterface";
   }
 
+  /**
+   * Returns the name of the getter for the shared instance of the given module,
+   * on which the module's provider methods are invoked.
+   */
+  public String getModuleInstanceGetterMethodName(Class<?> moduleType) {
+    return mangle("getModule_", Key.get(moduleType));
+  }
+
+  /**
+   * Returns the name of the field holding the shared instance of the given
+   * module.
+   */
+  public String getModuleInstanceFieldName(Class<?> moduleType) {
+    return mangle("module_", Key.get(moduleType));
+  }
+
   /**
    * Returns the type's member inject method name.  The method with that name
    * can be called with a single parameter to inject members of that parameter.
@@ -176,14 +258,39 @@ public class NameGenerator {
    * @param base base on which method name gets created
    * @return valid method name
    */
-  public String createMethodName(String base) {
-    while (methodNames.contains(base)) {
+  public synchronized String createMethodName(String base) {
+    if (methodNames.add(base)) {
+      return base;
+    }
+
+    Integer nextIndex = nextSuffixIndexes.get(base);
+    int index = nextIndex == null ? 1 : nextIndex;
+    String name = appendSuffix(base, index);
+    while (methodNames.contains(name)) {
+      index++;
+      name = appendSuffix(base, index);
+    }
 
-      // TODO(schmitt):  Make more efficient for repeated calls with same base?
-      base += "_";
+    nextSuffixIndexes.put(base, index + 1);
+    methodNames.add(name);
+    return name;
+  }
+
+  /**
+   * Appends the {@code index}th disambiguating suffix to {@code base}.  Verbose
+   * names use one underscore per index, as Gin always did, compact names a
+   * number.
+   */
+  private String appendSuffix(String base, int index) {
+    StringBuilder sb = new StringBuilder(base).append('_');
+    if (verbose) {
+      for (int i = 1; i < index; i++) {
+        sb.append('_');
+      }
+    } else {
+      sb.append(index);
     }
-    methodNames.add(base);
-    return base;
+    return sb.toString();
   }
 
   /**
@@ -191,30 +298,60 @@ public class NameGenerator {
    *
    * @param name name to be reserved
    */
-  public void markAsUsed(String name) throws IllegalArgumentException {
+  public synchronized void markAsUsed(String name) throws IllegalArgumentException {
     methodNames.add(name);
   }
 
-  private String mangle(String prefix, Key<?> key) {
+  private synchronized String mangle(String prefix, Key<?> key) {
     CacheKey cacheKey = new CacheKey(prefix, key);
     String cached = methodKeyCache.get(cacheKey);
     if (cached != null) {
       return cached;
     }
 
-    // TODO(bstoler): This algorithm is kinda crazy because the annotation
-    // values are of unbounded length. One option
-    // is to use mangled(type) + mangled(annotation type) + counter, where
-    // counter is used just to distinguish different annotation values.
-    String name = prefix + key.toString();
-    name = convertToValidMemberName(name);
-    
+    String name;
+    if (verbose) {
+      name = convertToValidMemberName(prefix + key.toString());
+    } else {
+      name = prefix + getCompactStem(key) + "_" + Integer.toHexString(key.toString().hashCode());
+    }
+
     name = createMethodName(name);
 
     methodKeyCache.put(cacheKey, name);
     return name;
   }
 
+  /**
+   * Returns the readable part of a compact name for the given key, e.g.
+   * {@code Map_Named} for {@code @Named("foo") Map<String, Integer>}.  Keys
+   * that differ in type arguments, enclosing classes or annotation values share
+   * a stem and are told apart by the hash that follows it.
+   */
+  private String getCompactStem(Key<?> key) {
+    StringBuilder stem = new StringBuilder(getSimpleName(key.getTypeLiteral().getRawType()));
+    if (key.getAnnotationType() != null) {
+      stem.append('_').append(getSimpleName(key.getAnnotationType()));
+    }
+
+    String result = convertToValidMemberName(stem.toString());
+    if (result.length() > MAX_STEM_LENGTH) {
+      result = result.substring(0, MAX_STEM_LENGTH);
+    }
+    return result;
+  }
+
+  private static String getSimpleName(Class<?> type) {
+    String simpleName = type.getSimpleName();
+    if (simpleName.length() > 0) {
+      return simpleName;
+    }
+
+    // Anonymous classes.
+    String name = type.getName();
+    return name.substring(name.lastIndexOf('.') + 1);
+  }
+
   public String convertToValidMemberName(String name) {
     name = name.replaceAll("\\s+", "_");
     name = name.replaceAll("[^\\p{Alnum}_]", "\\$");
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind.util;
+
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.inject.Singleton;
+
+import java.util.Locale;
+
+/**
+ * Collects the time spent in each phase of generating a ginjector, along with
+ * counts describing the size of the ginjector, so that they can be reported
+ * once the ginjector has been generated.
+ *
+ * <p>Phases are timed by calling {@link #start} before and {@link #stop} after
+ * them.  A phase that runs several times (e.g. once per injector in the
+ * hierarchy) accumulates its time and the number of runs.  Phases don't
+ * overlap, so their times add up to the time spent in the generator.
+ *
+ * <p>All methods may be called concurrently.
+ */
+@Singleton
+public class RebindTimings {
+
+  /**
+   * The timed phases, in the order in which they run.
+   */
+  public enum Phase {
+    MODULE_INSTANTIATION("moduleInstantiation"),
+    ELEMENT_VISITING("elementVisiting"),
+    DEPENDENCY_EXPLORATION("dependencyExploration"),
+    VALIDATION("validation"),
+    POSITIONING("positioning"),
+    INSTALLATION("installation"),
+    REACHABILITY("reachability"),
+    OUTPUT("output");
+
+    private final String label;
+
+    Phase(String label) {
+      this.label = label;
+    }
+
+    public String getLabel() {
+      return label;
+    }
+  }
+
+  /**
+   * The counted quantities.
+   */
+  public enum Counter {
+    KEYS("keys"),
+    IMPLICIT_BINDINGS("implicitBindings"),
+    FRAGMENTS("fragments"),
+    METHODS("methods"),
+    SOURCE_BYTES("sourceBytes");
+
+    private final String label;
+
+    Counter(String label) {
+      this.label = label;
+    }
+
+    public String getLabel() {
+      return label;
+    }
+  }
+
+  private final long[] phaseNanos = new long[Phase.values().length];
+  private final int[] phaseRuns = new int[Phase.values().length];
+  private final long[] counts = new long[Counter.values().length];
+
+  /**
+   * Returns a timestamp to be passed to {@link #stop} at the end of a phase.
+   */
+  public long start() {
+    return System.nanoTime();
+  }
+
+  /**
+   * Records a run of the given phase that started at {@code start}.
+   *
+   * @return the current timestamp, which can be used as the start of the
+   *     phase that immediately follows
+   */
+  public long stop(Phase phase, long start) {
+    long now = System.nanoTime();
+    synchronized (this) {
+      phaseNanos[phase.ordinal()] += now - start;
+      phaseRuns[phase.ordinal()]++;
+    }
+    return now;
+  }
+
+  /**
+   * Adds {@code amount} to the given counter.
+   */
+  public synchronized void add(Counter counter, long amount) {
+    counts[counter.ordinal()] += amount;
+  }
+
+  public synchronized long getNanos(Phase phase) {
+    return phaseNanos[phase.ordinal()];
+  }
+
+  public synchronized int getRuns(Phase phase) {
+    return phaseRuns[phase.ordinal()];
+  }
+
+  public synchronized long getCount(Counter counter) {
+    return counts[counter.ordinal()];
+  }
+
+  /**
+   * Logs the collected timings and counts for the given ginjector.
+   */
+  public synchronized void log(TreeLogger logger, TreeLogger.Type type, String ginjectorName) {
+    if (!logger.isLoggable(type)) {
+      return;
+    }
+
+    long totalNanos = 0;
+    for (long nanos : phaseNanos) {
+      totalNanos += nanos;
+    }
+
+    TreeLogger branch = logger.branch(type, String.format(Locale.ROOT,
+        "Generated %s in %.1f ms", ginjectorName, toMillis(totalNanos)));
+    for (Phase phase : Phase.values()) {
+      branch.log(type, String.format(Locale.ROOT, "%s: %.1f ms (%d runs)", phase.getLabel(),
+          toMillis(getNanos(phase)), getRuns(phase)));
+    }
+    for (Counter counter : Counter.values()) {
+      branch.log(type, counter.getLabel() + ": " + getCount(counter));
+    }
+  }
+
+  /**
+   * Returns the collected timings and counts for the given ginjector as a JSON
+   * object.
+   */
+  public synchronized String toJson(String ginjectorName) {
+    StringBuilder json = new StringBuilder();
+    json.append("{\n  \"ginjector\": \"").append(escapeJson(ginjectorName)).append("\",\n");
+
+    json.append("  \"phases\": {");
+    String separator = "\n";
+    for (Phase phase : Phase.values()) {
+      json.append(separator).append(String.format(Locale.ROOT,
+          "    \"%s\": {\"millis\": %.3f, \"runs\": %d}", phase.getLabel(),
+          toMillis(getNanos(phase)), getRuns(phase)));
+      separator = ",\n";
+    }
+    json.append("\n  },\n");
+
+    json.append("  \"counts\": {");
+    separator = "\n";
+    for (Counter counter : Counter.values()) {
+      json.append(separator).append("    \"").append(counter.getLabel()).append("\": ")
+          .append(getCount(counter));
+      separator = ",\n";
+    }
+    json.append("\n  }\n}\n");
+    return json.toString();
+  }
+
+  private static double toMillis(long nanos) {
+    return nanos / 1000000.0;
+  }
+
+  private static String escapeJson(String value) {
+    StringBuilder escaped = new StringBuilder();
+    for (char c : value.toCharArray()) {
+      if (c == '"' || c == '\\') {
+        escaped.append('\\').append(c);
+      } else if (c < 0x20) {
+        escaped.append(String.format("\\u%04x", (int) c));
+      } else {
+        escaped.append(c);
+      }
+    }
+    return escaped.toString();
+  }
+}
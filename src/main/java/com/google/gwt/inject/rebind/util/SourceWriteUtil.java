@@ -45,14 +45,17 @@ public class SourceWriteUtil {
   private final MemberCollector memberCollector;
   private final MethodCallUtil methodCallUtil;
   private final BindingIndex bindingIndex;
+  private final RebindTimings timings;
 
   @Inject
   protected SourceWriteUtil(GuiceUtil guiceUtil, @Injectable MemberCollector memberCollector,
-      MethodCallUtil methodCallUtil, @Assisted BindingIndex bindingIndex) {
+      MethodCallUtil methodCallUtil, RebindTimings timings,
+      @Assisted BindingIndex bindingIndex) {
     this.guiceUtil = guiceUtil;
     this.memberCollector = memberCollector;
     this.methodCallUtil = methodCallUtil;
     this.bindingIndex = bindingIndex;
+    this.timings = timings;
   }
 
   /**
@@ -264,6 +267,7 @@ public class SourceWriteUtil {
     writer.outdent();
     writer.println("}");
     writer.println();
+    timings.add(RebindTimings.Counter.METHODS, 1);
   }
 
   /**
@@ -281,6 +285,7 @@ public class SourceWriteUtil {
     writer.outdent();
     writer.println("}-*/;");
     writer.println();
+    timings.add(RebindTimings.Counter.METHODS, 1);
   }
 
   /**
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind.util;
+
+import com.google.gwt.inject.rebind.reflect.FieldLiteral;
+import com.google.gwt.inject.rebind.reflect.MethodLiteral;
+import com.google.inject.Singleton;
+import com.google.inject.TypeLiteral;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of the members declared by types, shared by all
+ * {@link MemberCollector}s of a generator run.  The declared members of each
+ * type are reflected upon and sorted only once, collectors apply their filters
+ * to the immutable lists returned from here.
+ */
+@Singleton
+public class TypeMemberIndex {
+
+  /**
+   * Comparator which compares fields by their name.
+   */
+  private static final Comparator<FieldLiteral<?>> FIELD_COMPARATOR =
+      new Comparator<FieldLiteral<?>>() {
+        public int compare(FieldLiteral<?> f1, FieldLiteral<?> f2) {
+          return f1.getName().compareTo(f2.getName());
+        }
+      };
+
+  private final Map<TypeLiteral<?>, List<MethodLiteral<?, Method>>> methods =
+      new HashMap<TypeLiteral<?>, List<MethodLiteral<?, Method>>>();
+
+  private final Map<TypeLiteral<?>, List<FieldLiteral<?>>> fields =
+      new HashMap<TypeLiteral<?>, List<FieldLiteral<?>>>();
+
+  /**
+   * Returns the methods declared by the given type, sorted by
+   * {@link MemberCollector#METHOD_COMPARATOR}.
+   */
+  public synchronized List<MethodLiteral<?, Method>> getDeclaredMethods(
+      TypeLiteral<?> typeLiteral) {
+    List<MethodLiteral<?, Method>> typeMethods = methods.get(typeLiteral);
+    if (typeMethods == null) {
+      typeMethods = new ArrayList<MethodLiteral<?, Method>>();
+      for (Method method : typeLiteral.getRawType().getDeclaredMethods()) {
+        typeMethods.add(MethodLiteral.get(method, typeLiteral));
+      }
+      Collections.sort(typeMethods, MemberCollector.METHOD_COMPARATOR);
+      typeMethods = Collections.unmodifiableList(typeMethods);
+      methods.put(typeLiteral, typeMethods);
+    }
+    return typeMethods;
+  }
+
+  /**
+   * Returns the fields declared by the given type, sorted by name.
+   */
+  public synchronized List<FieldLiteral<?>> getDeclaredFields(TypeLiteral<?> typeLiteral) {
+    List<FieldLiteral<?>> typeFields = fields.get(typeLiteral);
+    if (typeFields == null) {
+      typeFields = new ArrayList<FieldLiteral<?>>();
+      for (Field field : typeLiteral.getRawType().getDeclaredFields()) {
+        typeFields.add(FieldLiteral.get(field, typeLiteral));
+      }
+      Collections.sort(typeFields, FIELD_COMPARATOR);
+      typeFields = Collections.unmodifiableList(typeFields);
+      fields.put(typeLiteral, typeFields);
+    }
+    return typeFields;
+  }
+}
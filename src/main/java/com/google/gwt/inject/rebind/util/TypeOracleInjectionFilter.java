@@ -0,0 +1,87 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind.util;
+
+import com.google.gwt.core.ext.typeinfo.HasAnnotations;
+import com.google.gwt.core.ext.typeinfo.JClassType;
+import com.google.gwt.core.ext.typeinfo.JField;
+import com.google.gwt.core.ext.typeinfo.JMethod;
+import com.google.gwt.core.ext.typeinfo.TypeOracle;
+import com.google.inject.Inject;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * Type filter that looks up a type's members in GWT's {@link TypeOracle} and
+ * rejects the type if none of them is annotated with {@code @Inject}, so that
+ * its members don't need to be reflected upon.
+ *
+ * <p>Reflecting on the members of a class loads all types that appear in the
+ * signatures of its methods and fields, most of which are never injected.
+ * Types that are unknown to the type oracle (i.e. not part of the GWT client
+ * code) are always accepted.
+ *
+ * <p>This is the only introspection Gin does through the type oracle.  The
+ * filtered type itself is still a loaded class, and the members of accepted
+ * types, their annotations and their generic types are still looked up
+ * through reflection, see {@link MemberCollector}, {@link GuiceUtil} and
+ * {@link com.google.gwt.inject.rebind.reflect.ReflectUtil}.
+ */
+public class TypeOracleInjectionFilter implements MemberCollector.TypeFilter {
+
+  private final TypeOracle typeOracle;
+
+  public TypeOracleInjectionFilter(TypeOracle typeOracle) {
+    this.typeOracle = typeOracle;
+  }
+
+  public boolean accept(Class<?> type) {
+    String sourceName = type.getCanonicalName();
+    JClassType classType = sourceName == null ? null : typeOracle.findType(sourceName);
+    if (classType == null) {
+      return true;
+    }
+
+    for (JMethod method : classType.getMethods()) {
+      if (hasInject(method)) {
+        return true;
+      }
+    }
+
+    for (JField field : classType.getFields()) {
+      if (hasInject(field)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns {@code true} if the passed member has an inject annotation, see
+   * {@link GuiceUtil#hasInject}.  Annotations are compared by name since the
+   * type oracle may have loaded them through a different class loader.
+   */
+  private static boolean hasInject(HasAnnotations member) {
+    for (Annotation annotation : member.getAnnotations()) {
+      String name = annotation.annotationType().getName();
+      if (name.equals(Inject.class.getName())
+          || name.equals(javax.inject.Inject.class.getName())) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -15,9 +15,11 @@
  */
 package com.google.gwt.inject.client.implicit;
 
+import com.google.gwt.inject.client.AsyncGroup;
 import com.google.gwt.inject.client.AsyncProvider;
 import com.google.gwt.inject.client.Ginjector;
 import com.google.gwt.inject.client.NoGinModules;
+import com.google.gwt.inject.client.PrefetchableAsyncProvider;
 
 @NoGinModules
 public interface AsyncProviderGinjector extends Ginjector {
@@ -27,4 +29,11 @@ public interface AsyncProviderGinjector extends Ginjector {
   FooAsync getFooAsync();
   
   AsyncProvider<FooAsync> getFooAsyncAsyncProvider();
+
+  PrefetchableAsyncProvider<FooAsync> getPrefetchableFooAsyncProvider();
+
+  AsyncProvider<Dialog> getDialogAsyncProvider();
+
+  @AsyncGroup(Dialog.Group.class)
+  AsyncProvider<Bar> getGroupedBarAsyncProvider();
 }
@@ -18,6 +18,7 @@ package com.google.gwt.inject.client.implicit;
 
 import com.google.gwt.core.client.GWT;
 import com.google.gwt.inject.client.AsyncProvider;
+import com.google.gwt.inject.client.PrefetchableAsyncProvider;
 import com.google.gwt.junit.client.GWTTestCase;
 import com.google.gwt.user.client.rpc.AsyncCallback;
 
@@ -126,6 +127,83 @@ public class AsyncProviderTest extends GWTTestCase {
     });
   }
 
+  public void testAsyncProviderConcurrentRequests() {
+    AsyncProvider<FooAsync> fooAsyncAsyncProvider = injector.getFooAsyncAsyncProvider();
+    final FooAsync[] results = new FooAsync[2];
+    delayTestFinish(500);
+
+    // Both requests are made before the code is loaded, and each of them gets
+    // its own instance.
+    for (int i = 0; i < results.length; i++) {
+      final int index = i;
+      fooAsyncAsyncProvider.get(new AbstractAsyncCallback<FooAsync>() {
+
+        public void onSuccess(FooAsync result) {
+          assertNotNull(result);
+          results[index] = result;
+          if (results[0] != null && results[1] != null) {
+            assertNotSame(results[0], results[1]);
+            finishTest();
+          }
+        }
+      });
+    }
+  }
+
+  public void testPrefetchableAsyncProvider() {
+    final PrefetchableAsyncProvider<FooAsync> fooAsyncAsyncProvider =
+        injector.getPrefetchableFooAsyncProvider();
+    assertNotNull(fooAsyncAsyncProvider);
+    fooAsyncAsyncProvider.prefetch();
+    fooAsyncAsyncProvider.prefetch();
+    delayTestFinish(500);
+    fooAsyncAsyncProvider.get(new AbstractAsyncCallback<FooAsync>() {
+
+      public void onSuccess(FooAsync result) {
+        assertNotNull(result);
+        finishTest();
+      }
+    });
+  }
+
+  public void testAsyncGroup() {
+    AsyncProvider<Dialog> dialogAsyncProvider = injector.getDialogAsyncProvider();
+    AsyncProvider<Bar> barAsyncProvider = injector.getGroupedBarAsyncProvider();
+    final Object[] results = new Object[3];
+    delayTestFinish(500);
+
+    // All members of the group are served by the same split point.
+    for (int i = 0; i < 2; i++) {
+      final int index = i;
+      dialogAsyncProvider.get(new AbstractAsyncCallback<Dialog>() {
+
+        public void onSuccess(Dialog result) {
+          assertNotNull(result);
+          results[index] = result;
+          finishIfDone(results);
+        }
+      });
+    }
+    barAsyncProvider.get(new AbstractAsyncCallback<Bar>() {
+
+      public void onSuccess(Bar result) {
+        assertSame(BarProvider.INSTANCE, result);
+        results[2] = result;
+        finishIfDone(results);
+      }
+    });
+  }
+
+  private void finishIfDone(Object[] results) {
+    for (Object result : results) {
+      if (result == null) {
+        return;
+      }
+    }
+    assertNotSame(results[0], results[1]);
+    finishTest();
+  }
+
   @Override
   public String getModuleName() {
     return "com.google.gwt.inject.InjectTest";
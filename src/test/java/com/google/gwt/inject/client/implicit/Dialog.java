@@ -13,32 +13,16 @@
  * License for the specific language governing permissions and limitations under
  * the License.
  */
-package com.google.gwt.inject.client.multibindings;
+package com.google.gwt.inject.client.implicit;
 
-import com.google.inject.Inject;
-import com.google.inject.Provider;
+import com.google.gwt.inject.client.AsyncGroup;
 
-/**
- * Represents a runtime binding information for map bindings.
- *
- * @param <K> type of map key
- * @param <V> type of map value
- */
-class MapEntry<K, V> {
-  private final K key;
-  private final Provider<V> valueProvider;
-
-  @Inject
-  MapEntry(@Internal K key, @Internal Provider<V> valueProvider) {
-    this.key = key;
-    this.valueProvider = valueProvider;
-  }
-
-  public K getKey() {
-    return key;
-  }
+@AsyncGroup(Dialog.Group.class)
+public class Dialog {
 
-  public Provider<V> getValueProvider() {
-    return valueProvider;
+  /**
+   * Names the split point shared by the dialogs.
+   */
+  public interface Group {
   }
 }
@@ -22,6 +22,8 @@ import com.google.gwt.inject.client.AbstractGinModule;
 import com.google.gwt.inject.client.GinModules;
 import com.google.gwt.inject.client.Ginjector;
 import com.google.gwt.inject.client.multibindings.TestTypes.AboutPlaceProvider;
+import com.google.gwt.inject.client.multibindings.TestTypes.Color;
+import com.google.gwt.inject.client.multibindings.TestTypes.CountingX;
 import com.google.gwt.inject.client.multibindings.TestTypes.HomePlaceProvider;
 import com.google.gwt.inject.client.multibindings.TestTypes.Place;
 import com.google.gwt.inject.client.multibindings.TestTypes.ProviderForXImpl2;
@@ -182,6 +184,104 @@ public class GinMapBinderTest extends GWTTestCase {
     assertTrue(map.get(new Place("about")) instanceof XImpl2);
   }
 
+  public static class GinModuleWithOnlyScopedX extends AbstractGinModule {
+    @Override
+    protected void configure() {
+      GinMapBinder<String, X> mapBinder = newMapBinder(binder(), String.class, X.class);
+      mapBinder.addBinding("1").to(XImpl1.class).in(Singleton.class);
+      mapBinder.addBinding("2").to(XImpl2.class).in(Singleton.class);
+    }
+  }
+
+  @GinModules(GinModuleWithOnlyScopedX.class)
+  public interface MapGinjectorWithOnlyScopedValues extends Ginjector {
+    Map<String, X> getMap();
+  }
+
+  public void testInject_sameMapTwiceWithOnlyScopedValues() throws Exception {
+    MapGinjectorWithOnlyScopedValues injector = GWT.create(MapGinjectorWithOnlyScopedValues.class);
+    Map<String, X> map = injector.getMap();
+    assertEquals(2, map.size());
+
+    // Maps of constant keys and singletons don't change, so they are shared.
+    assertSame(map, injector.getMap());
+  }
+
+  public static class GinModuleWithValuesCreatedOnLookup extends AbstractGinModule {
+    @Override
+    protected void configure() {
+      GinMapBinder<String, X> stringMapBinder = newMapBinder(binder(), String.class, X.class)
+          .createValuesOnLookup();
+      stringMapBinder.addBinding("1").to(CountingX.class);
+      stringMapBinder.addBinding("2").to(XImpl2.class);
+      stringMapBinder.addBinding("3").to(CountingX.class);
+
+      GinMapBinder<Color, X> enumMapBinder = newMapBinder(binder(), Color.class, X.class)
+          .createValuesOnLookup();
+      enumMapBinder.addBinding(Color.BLUE).to(CountingX.class);
+      enumMapBinder.addBinding(Color.RED).to(XImpl1.class);
+    }
+  }
+
+  @GinModules(GinModuleWithValuesCreatedOnLookup.class)
+  public interface MapGinjectorWithValuesCreatedOnLookup extends Ginjector {
+    Map<String, X> getMap();
+    Map<Color, X> getEnumMap();
+    Map<String, Provider<X>> getProviderMap();
+  }
+
+  public void testInject_valuesCreatedOnLookup() throws Exception {
+    MapGinjectorWithValuesCreatedOnLookup injector =
+        GWT.create(MapGinjectorWithValuesCreatedOnLookup.class);
+    CountingX.instances = 0;
+
+    Map<String, X> map = injector.getMap();
+    assertEquals(3, map.size());
+    assertEquals(0, CountingX.instances);
+
+    X x3 = map.get("3");
+    assertTrue(x3 instanceof CountingX);
+    assertEquals(1, CountingX.instances);
+    assertSame(x3, map.get("3"));
+    assertEquals(1, CountingX.instances);
+
+    assertTrue(map.containsKey("1"));
+    assertFalse(map.containsKey("4"));
+    assertNull(map.get("4"));
+    assertNull(map.get(1));
+    assertEquals(1, CountingX.instances);
+
+    Iterator<Map.Entry<String, X>> iterator = map.entrySet().iterator();
+    assertEquals("1", iterator.next().getKey());
+    assertTrue(iterator.next().getValue() instanceof XImpl2);
+    assertSame(x3, iterator.next().getValue());
+    assertFalse(iterator.hasNext());
+    assertEquals(2, CountingX.instances);
+
+    try {
+      map.put("4", new XImpl1());
+      fail("Expected UnsupportedOperationException.");
+    } catch (UnsupportedOperationException expected) {
+      // Expected.
+    }
+
+    assertTrue(injector.getProviderMap().get("2").get() instanceof XImpl2);
+  }
+
+  public void testInject_enumValuesCreatedOnLookup() throws Exception {
+    MapGinjectorWithValuesCreatedOnLookup injector =
+        GWT.create(MapGinjectorWithValuesCreatedOnLookup.class);
+    CountingX.instances = 0;
+
+    Map<Color, X> map = injector.getEnumMap();
+    assertEquals(2, map.size());
+    assertTrue(map.get(Color.RED) instanceof XImpl1);
+    assertNull(map.get(Color.GREEN));
+    assertEquals(0, CountingX.instances);
+    assertTrue(map.get(Color.BLUE) instanceof CountingX);
+    assertEquals(1, CountingX.instances);
+  }
+
   public static class GinModuleWithDuplicateBinding extends AbstractGinModule {
     @Override
     protected void configure() {
@@ -143,6 +143,30 @@ public class GinMultibinderTest extends GWTTestCase {
     assertSame(iterator1.next(), iterator2.next());
   }
 
+  public static class GinModuleWithOnlyScopedX extends AbstractGinModule {
+    @Override
+    protected void configure() {
+      GinMultibinder<X> setBinder = newSetBinder(binder(), X.class);
+      setBinder.addBinding().to(XImpl1.class).in(Singleton.class);
+      setBinder.addBinding().to(XImpl2.class).in(Singleton.class);
+    }
+  }
+
+  @GinModules(GinModuleWithOnlyScopedX.class)
+  public interface SetGinjectorWithOnlyScopedElements extends Ginjector {
+    Set<X> getSet();
+  }
+
+  public void testInject_sameSetTwiceWithOnlyScopedElements() throws Exception {
+    SetGinjectorWithOnlyScopedElements injector =
+        GWT.create(SetGinjectorWithOnlyScopedElements.class);
+    Set<X> set = injector.getSet();
+    assertEquals(2, set.size());
+
+    // Sets of singletons don't change, so they are shared.
+    assertSame(set, injector.getSet());
+  }
+
   public static class GinModuleWithRegularBind extends AbstractGinModule {
     @Override
     protected void configure() {
@@ -42,6 +42,16 @@ class TestTypes {
     }
   }
 
+  static class CountingX implements X {
+    static int instances;
+
+    CountingX() {
+      instances++;
+    }
+  }
+
+  enum Color { RED, GREEN, BLUE }
+
   static class ProviderForXImpl2 implements Provider<XImpl2> {
     @Override public XImpl2 get() {
       return new XImpl2();
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.client.privateasync;
+
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.inject.client.AbstractGinModule;
+import com.google.gwt.inject.client.AsyncGroup;
+import com.google.gwt.inject.client.AsyncProvider;
+import com.google.gwt.inject.client.GinModules;
+import com.google.gwt.inject.client.Ginjector;
+import com.google.gwt.inject.client.PrefetchableAsyncProvider;
+import com.google.gwt.inject.client.PrivateGinModule;
+import com.google.gwt.junit.client.GWTTestCase;
+import com.google.gwt.user.client.rpc.AsyncCallback;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import com.google.inject.name.Names;
+
+public class PrivateAsyncTest extends GWTTestCase {
+
+  @GinModules(AppModule.class)
+  public interface AppGinjector extends Ginjector {
+    Shell getShell();
+
+    AsyncProvider<Editor> getEditorProvider();
+
+    PrefetchableAsyncProvider<Editor> getPrefetchableEditorProvider();
+  }
+
+  public void testExposedKeyThroughAsyncProvider() {
+    AppGinjector ginjector = GWT.create(AppGinjector.class);
+    delayTestFinish(500);
+    ginjector.getEditorProvider().get(new AbstractAsyncCallback<Editor>() {
+      public void onSuccess(Editor editor) {
+        assertEquals("app", editor.title);
+        assertNotNull(editor.document);
+        finishTest();
+      }
+    });
+  }
+
+  public void testAsyncProvidersAreShared() {
+    AppGinjector ginjector = GWT.create(AppGinjector.class);
+    assertSame(ginjector.getEditorProvider(), ginjector.getShell().editorProvider);
+  }
+
+  public void testPrivateSingletonIsShared() {
+    AppGinjector ginjector = GWT.create(AppGinjector.class);
+    final PrefetchableAsyncProvider<Editor> editorProvider =
+        ginjector.getPrefetchableEditorProvider();
+    editorProvider.prefetch();
+    delayTestFinish(500);
+    editorProvider.get(new AbstractAsyncCallback<Editor>() {
+      public void onSuccess(final Editor editor1) {
+        editorProvider.get(new AbstractAsyncCallback<Editor>() {
+          public void onSuccess(Editor editor2) {
+            assertNotSame(editor1, editor2);
+            assertSame(editor1.document, editor2.document);
+            finishTest();
+          }
+        });
+      }
+    });
+  }
+
+  @Override
+  public String getModuleName() {
+    return "com.google.gwt.inject.InjectTest";
+  }
+
+  static class AppModule extends AbstractGinModule {
+    @Override
+    protected void configure() {
+      bindConstant().annotatedWith(Names.named("title")).to("app");
+      install(new EditorModule());
+    }
+  }
+
+  @AsyncGroup(EditorModule.class)
+  static class EditorModule extends PrivateGinModule {
+    @Override
+    protected void configure() {
+      bind(Document.class).in(Singleton.class);
+      bind(Editor.class);
+      expose(Editor.class);
+    }
+  }
+
+  public static class Shell {
+    private final AsyncProvider<Editor> editorProvider;
+
+    @Inject
+    public Shell(AsyncProvider<Editor> editorProvider) {
+      this.editorProvider = editorProvider;
+    }
+  }
+
+  public static class Editor {
+    private final String title;
+    private final Document document;
+
+    @Inject
+    public Editor(@Named("title") String title, Document document) {
+      this.title = title;
+      this.document = document;
+    }
+  }
+
+  public static class Document {
+  }
+
+  private abstract class AbstractAsyncCallback<T> implements AsyncCallback<T> {
+    public void onFailure(Throwable caught) {
+      fail("Should not happen");
+    }
+  }
+}
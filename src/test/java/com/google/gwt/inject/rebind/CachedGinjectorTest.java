@@ -0,0 +1,233 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind;
+
+import com.google.gwt.core.ext.BadPropertyValueException;
+import com.google.gwt.core.ext.ConfigurationProperty;
+import com.google.gwt.core.ext.GeneratorContext;
+import com.google.gwt.core.ext.PropertyOracle;
+import com.google.gwt.core.ext.SelectionProperty;
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.dev.javac.CompiledClass;
+import com.google.gwt.dev.javac.testing.GeneratorContextBuilder;
+import com.google.gwt.dev.javac.testing.JavaSource;
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+public class CachedGinjectorTest extends TestCase {
+
+  private static final String SIMPLE = "com.google.gwt.inject.rebind.types.Simple";
+  private static final String GENERATED = "com.google.gwt.inject.rebind.types.Generated";
+  private static final List<String> MODULES = Arrays.asList("com.example.MyModule");
+
+  private File cacheDirectory;
+
+  @Override
+  protected void setUp() throws IOException {
+    cacheDirectory = File.createTempFile("gin-cache", "");
+    assertTrue(cacheDirectory.delete());
+  }
+
+  @Override
+  protected void tearDown() {
+    File[] files = cacheDirectory.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        file.delete();
+      }
+    }
+    cacheDirectory.delete();
+  }
+
+  public void testRecordingContext() {
+    RecordingGeneratorContext context = new RecordingGeneratorContext(createContext(""));
+
+    PrintWriter writer =
+        context.tryCreate(TreeLogger.NULL, "com.google.gwt.inject.rebind.types", "Generated");
+    writer.println("package com.google.gwt.inject.rebind.types;");
+    writer.println("public class Generated {}");
+    context.commit(TreeLogger.NULL, writer);
+    context.checkRebindRuleAvailable(SIMPLE);
+
+    assertEquals(
+        Collections.singletonMap(GENERATED,
+            "package com.google.gwt.inject.rebind.types;\npublic class Generated {}\n"),
+        context.getCommittedSources());
+    assertEquals(Collections.singletonMap(SIMPLE, false), context.getRebindRuleChecks());
+  }
+
+  public void testMatch() {
+    GeneratorContext context = createContext("");
+    CachedGinjector cachedGinjector = createCachedGinjector(context);
+
+    assertNull(cachedGinjector.findMismatch(1L, MODULES, getClassFiles(context), context));
+  }
+
+  public void testMismatch() {
+    GeneratorContext context = createContext("");
+    CachedGinjector cachedGinjector = createCachedGinjector(context);
+    Map<String, CompiledClass> classFiles = getClassFiles(context);
+
+    assertNotNull(cachedGinjector.findMismatch(2L, MODULES, classFiles, context));
+    assertNotNull(cachedGinjector.findMismatch(1L, Arrays.asList("com.example.OtherModule"),
+        classFiles, context));
+
+    GeneratorContext changedContext = createContext("void b() {}");
+    assertNotNull(cachedGinjector.findMismatch(1L, MODULES, getClassFiles(changedContext),
+        changedContext));
+  }
+
+  public void testPersistentRoundTrip() {
+    GeneratorContext context = createContext("");
+    PersistentGinjectorCache cache = new PersistentGinjectorCache(cacheDirectory);
+
+    assertTrue(cache.load(TreeLogger.NULL, SIMPLE).isEmpty());
+
+    cache.store(TreeLogger.NULL, SIMPLE, createCachedGinjector(context));
+    List<CachedGinjector> outputs = cache.load(TreeLogger.NULL, SIMPLE);
+    assertEquals(1, outputs.size());
+    CachedGinjector restored = outputs.get(0);
+
+    assertEquals(GENERATED, restored.getResultTypeName());
+    assertNull(restored.findMismatch(1L, MODULES, getClassFiles(context), context));
+
+    // Replaying creates the generated type.
+    restored.replay(TreeLogger.NULL, context);
+    assertNull(context.tryCreate(TreeLogger.NULL, "com.google.gwt.inject.rebind.types",
+        "Generated"));
+  }
+
+  public void testPersistentOutputsPerProperties() {
+    GeneratorContext context = createContext("");
+    PersistentGinjectorCache cache = new PersistentGinjectorCache(cacheDirectory);
+
+    cache.store(TreeLogger.NULL, SIMPLE,
+        createCachedGinjector(context, "com.example.A", createProperties("a")));
+    cache.store(TreeLogger.NULL, SIMPLE,
+        createCachedGinjector(context, "com.example.B", createProperties("b")));
+    assertEquals(Arrays.asList("com.example.A", "com.example.B"),
+        getResultTypeNames(cache.load(TreeLogger.NULL, SIMPLE)));
+
+    // Outputs for the same property values replace each other.
+    cache.store(TreeLogger.NULL, SIMPLE,
+        createCachedGinjector(context, "com.example.C", createProperties("a")));
+    assertEquals(Arrays.asList("com.example.B", "com.example.C"),
+        getResultTypeNames(cache.load(TreeLogger.NULL, SIMPLE)));
+  }
+
+  public void testPersistentCacheRejectsUnexpectedClasses() throws IOException {
+    assertTrue(cacheDirectory.mkdirs());
+    File file = new File(cacheDirectory, SIMPLE + ".ginjector");
+    ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(file));
+    try {
+      out.writeObject(new ArrayList<Object>(Arrays.asList(new Marker())));
+    } finally {
+      out.close();
+    }
+
+    PersistentGinjectorCache cache = new PersistentGinjectorCache(cacheDirectory);
+    assertTrue(cache.load(TreeLogger.NULL, SIMPLE).isEmpty());
+    assertFalse(Marker.deserialized);
+  }
+
+  private List<String> getResultTypeNames(List<CachedGinjector> outputs) {
+    List<String> names = new ArrayList<String>();
+    for (CachedGinjector output : outputs) {
+      names.add(output.getResultTypeName());
+    }
+    return names;
+  }
+
+  /**
+   * Returns the properties recorded when consulting the given undefined
+   * configuration property.
+   */
+  private ConsultedProperties createProperties(String propertyName) {
+    ConsultedProperties properties = new ConsultedProperties();
+    PropertyOracle oracle = properties.createRecordingOracle(new PropertyOracle() {
+      public ConfigurationProperty getConfigurationProperty(String name)
+          throws BadPropertyValueException {
+        throw new BadPropertyValueException(name);
+      }
+
+      public SelectionProperty getSelectionProperty(TreeLogger logger, String name)
+          throws BadPropertyValueException {
+        throw new BadPropertyValueException(name);
+      }
+    });
+    try {
+      oracle.getConfigurationProperty(propertyName);
+      fail("Expected BadPropertyValueException");
+    } catch (BadPropertyValueException e) {
+      // Expected.
+    }
+    return properties;
+  }
+
+  private CachedGinjector createCachedGinjector(GeneratorContext context) {
+    return createCachedGinjector(context, GENERATED, new ConsultedProperties());
+  }
+
+  private CachedGinjector createCachedGinjector(GeneratorContext context, String resultTypeName,
+      ConsultedProperties properties) {
+    return new CachedGinjector(1L, resultTypeName, MODULES,
+        GinjectorFingerprint.create(Arrays.asList(SIMPLE), getClassFiles(context)),
+        Collections.singletonMap(SIMPLE, false), properties,
+        Collections.singletonMap(GENERATED,
+            "package com.google.gwt.inject.rebind.types; public class Generated {}"));
+  }
+
+  private Map<String, CompiledClass> getClassFiles(GeneratorContext context) {
+    return new GinBridgeClassLoader(context, new HashSet<String>())
+        .getClassFileMap();
+  }
+
+  private GeneratorContext createContext(final String simpleMembers) {
+    return GeneratorContextBuilder.newCoreBasedBuilder()
+        .add(new JavaSource(SIMPLE) {
+          public String getSource() {
+            return "package com.google.gwt.inject.rebind.types;"
+                + "public class Simple {" + simpleMembers + "}";
+          }
+        })
+        .buildGeneratorContext();
+  }
+
+  /**
+   * Serializable class that records whether it was ever deserialized.
+   */
+  private static class Marker implements Serializable {
+    static boolean deserialized = false;
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+      deserialized = true;
+      in.defaultReadObject();
+    }
+  }
+}
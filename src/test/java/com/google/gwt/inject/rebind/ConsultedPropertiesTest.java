@@ -0,0 +1,124 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind;
+
+import com.google.gwt.core.ext.BadPropertyValueException;
+import com.google.gwt.core.ext.ConfigurationProperty;
+import com.google.gwt.core.ext.DefaultConfigurationProperty;
+import com.google.gwt.core.ext.DefaultSelectionProperty;
+import com.google.gwt.core.ext.PropertyOracle;
+import com.google.gwt.core.ext.SelectionProperty;
+import com.google.gwt.core.ext.TreeLogger;
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+public class ConsultedPropertiesTest extends TestCase {
+
+  public void testUnchanged() throws BadPropertyValueException {
+    ConsultedProperties properties = new ConsultedProperties();
+    consult(properties.createRecordingOracle(createOracle("a", "b")));
+
+    assertNull(properties.findChangedProperty(createOracle("a", "b")));
+  }
+
+  public void testChangedConfigurationProperty() throws BadPropertyValueException {
+    ConsultedProperties properties = new ConsultedProperties();
+    consult(properties.createRecordingOracle(createOracle("a", "b")));
+
+    assertEquals("config", properties.findChangedProperty(createOracle("c", "b")));
+  }
+
+  public void testChangedSelectionProperty() throws BadPropertyValueException {
+    ConsultedProperties properties = new ConsultedProperties();
+    consult(properties.createRecordingOracle(createOracle("a", "b")));
+
+    assertEquals("user.agent", properties.findChangedProperty(createOracle("a", "c")));
+  }
+
+  public void testUndefinedProperty() {
+    ConsultedProperties properties = new ConsultedProperties();
+    PropertyOracle oracle = properties.createRecordingOracle(createOracle("a", "b"));
+    try {
+      oracle.getConfigurationProperty("undefined");
+      fail("Expected BadPropertyValueException");
+    } catch (BadPropertyValueException e) {
+      // Expected.
+    }
+
+    assertNull(properties.findChangedProperty(createOracle("c", "c")));
+
+    Map<String, String> configurationValues = new HashMap<String, String>();
+    configurationValues.put("undefined", "value");
+    assertEquals("undefined",
+        properties.findChangedProperty(new FakePropertyOracle(configurationValues, "a")));
+  }
+
+  public void testEquality() throws BadPropertyValueException {
+    ConsultedProperties properties = new ConsultedProperties();
+    consult(properties.createRecordingOracle(createOracle("a", "b")));
+    ConsultedProperties sameProperties = new ConsultedProperties();
+    consult(sameProperties.createRecordingOracle(createOracle("a", "b")));
+    ConsultedProperties otherProperties = new ConsultedProperties();
+    consult(otherProperties.createRecordingOracle(createOracle("a", "c")));
+
+    assertEquals(properties, sameProperties);
+    assertEquals(properties.hashCode(), sameProperties.hashCode());
+    assertFalse(properties.equals(otherProperties));
+  }
+
+  private void consult(PropertyOracle oracle) throws BadPropertyValueException {
+    oracle.getConfigurationProperty("config");
+    oracle.getSelectionProperty(TreeLogger.NULL, "user.agent");
+  }
+
+  private PropertyOracle createOracle(String configurationValue, String userAgent) {
+    Map<String, String> configurationValues = new HashMap<String, String>();
+    configurationValues.put("config", configurationValue);
+    return new FakePropertyOracle(configurationValues, userAgent);
+  }
+
+  private static class FakePropertyOracle implements PropertyOracle {
+    private final Map<String, String> configurationValues;
+    private final String userAgent;
+
+    FakePropertyOracle(Map<String, String> configurationValues, String userAgent) {
+      this.configurationValues = configurationValues;
+      this.userAgent = userAgent;
+    }
+
+    public ConfigurationProperty getConfigurationProperty(String propertyName)
+        throws BadPropertyValueException {
+      if (!configurationValues.containsKey(propertyName)) {
+        throw new BadPropertyValueException(propertyName);
+      }
+      return new DefaultConfigurationProperty(propertyName,
+          Arrays.asList(configurationValues.get(propertyName)));
+    }
+
+    public SelectionProperty getSelectionProperty(TreeLogger logger, String propertyName)
+        throws BadPropertyValueException {
+      if (!"user.agent".equals(propertyName)) {
+        throw new BadPropertyValueException(propertyName);
+      }
+      return new DefaultSelectionProperty(userAgent, userAgent, propertyName,
+          new TreeSet<String>(Arrays.asList(userAgent)));
+    }
+  }
+}
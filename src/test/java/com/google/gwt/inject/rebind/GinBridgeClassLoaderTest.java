@@ -24,6 +24,7 @@ import com.google.gwt.dev.util.log.PrintWriterTreeLogger;
 import junit.framework.TestCase;
 
 import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.util.Collections;
 import java.util.HashSet;
 
@@ -35,11 +36,11 @@ public class GinBridgeClassLoaderTest extends TestCase {
         GeneratorContextBuilder.newEmptyBuilder().add(createSimple()).buildGeneratorContext();
 
     GinBridgeClassLoader gwtLoader =
-        new GinBridgeClassLoader(context, createLogger(), new HashSet<String>());
+        new GinBridgeClassLoader(context, new HashSet<String>());
 
     assertClassVersion(gwtLoader, "a", "b", "com.google.gwt.inject.rebind.types.Simple");
 
-    GinBridgeClassLoader javaLoader = new GinBridgeClassLoader(context, createLogger(),
+    GinBridgeClassLoader javaLoader = new GinBridgeClassLoader(context,
         Collections.singleton("com.google.gwt.inject.rebind.types"));
 
     assertClassVersion(javaLoader, "b", "a", "com.google.gwt.inject.rebind.types.Simple");
@@ -49,7 +50,7 @@ public class GinBridgeClassLoaderTest extends TestCase {
     GeneratorContext context =
         GeneratorContextBuilder.newEmptyBuilder().add(createSimple()).buildGeneratorContext();
 
-    GinBridgeClassLoader loader = new GinBridgeClassLoader(context, createLogger(),
+    GinBridgeClassLoader loader = new GinBridgeClassLoader(context,
         Collections.singleton("com.google.gwt.inject.rebind.types."));
 
     assertClassVersion(loader, "b", "a", "com.google.gwt.inject.rebind.types.Simple");
@@ -60,11 +61,80 @@ public class GinBridgeClassLoaderTest extends TestCase {
         GeneratorContextBuilder.newEmptyBuilder().add(createFakeString()).buildGeneratorContext();
 
     GinBridgeClassLoader loader =
-        new GinBridgeClassLoader(context, createLogger(), new HashSet<String>());
+        new GinBridgeClassLoader(context, new HashSet<String>());
 
     assertTrue(loader.loadClass("java.lang.String").getMethods().length > 0);
   }
 
+  public void testSharedLoader() throws ClassNotFoundException {
+    GeneratorContext context =
+        GeneratorContextBuilder.newEmptyBuilder().add(createSimple()).buildGeneratorContext();
+
+    GinBridgeClassLoader loader = GinBridgeClassLoader.getShared(context,
+        Collections.singleton("com.google.gwt.inject.rebind.other"));
+    assertSame(loader, GinBridgeClassLoader.getShared(context,
+        Collections.singleton("com.google.gwt.inject.rebind.other.")));
+    assertSame(loader.loadClass("com.google.gwt.inject.rebind.types.Simple"),
+        GinBridgeClassLoader.getShared(context,
+            Collections.singleton("com.google.gwt.inject.rebind.other"))
+            .loadClass("com.google.gwt.inject.rebind.types.Simple"));
+
+    assertNotSame(loader,
+        GinBridgeClassLoader.getShared(context, new HashSet<String>()));
+  }
+
+  public void testSharedLoaderWarnsRunLogger() throws ClassNotFoundException {
+    GeneratorContext context =
+        GeneratorContextBuilder.newEmptyBuilder().add(createSimple()).buildGeneratorContext();
+    GinBridgeClassLoader loader = GinBridgeClassLoader.getShared(context, new HashSet<String>());
+
+    StringWriter runLog = new StringWriter();
+    GinBridgeClassLoader.setRunLogger(createLogger(runLog));
+    try {
+      loader.loadClass(GinBridgeClassLoaderTest.class.getName());
+    } finally {
+      GinBridgeClassLoader.setRunLogger(null);
+    }
+    assertTrue(runLog.toString().contains(GinBridgeClassLoaderTest.class.getName()));
+
+    // Without a run logger, warnings are dropped.
+    String warnings = runLog.toString();
+    loader.loadClass(ObjectGraph.class.getName());
+    assertEquals(warnings, runLog.toString());
+  }
+
+  public void testSharedLoaderReleasedForNewCompilationState() {
+    GeneratorContext context =
+        GeneratorContextBuilder.newEmptyBuilder().add(createSimple()).buildGeneratorContext();
+    GinBridgeClassLoader loader =
+        GinBridgeClassLoader.getShared(context, new HashSet<String>());
+
+    GeneratorContext newContext =
+        GeneratorContextBuilder.newEmptyBuilder().add(createSimple()).buildGeneratorContext();
+    assertNotSame(loader,
+        GinBridgeClassLoader.getShared(newContext, new HashSet<String>()));
+    assertNotSame(loader,
+        GinBridgeClassLoader.getShared(context, new HashSet<String>()));
+  }
+
+  public void testSharedLoaderReleasesOldCompilationState() throws Exception {
+    GeneratorContext context =
+        GeneratorContextBuilder.newEmptyBuilder().add(createSimple()).buildGeneratorContext();
+    GinBridgeClassLoader loader =
+        GinBridgeClassLoader.getShared(context, new HashSet<String>());
+    loader.loadClass("com.google.gwt.inject.rebind.types.Simple");
+    assertFalse(ObjectGraph.isReachable(context, loader));
+
+    GinBridgeClassLoader newLoader = GinBridgeClassLoader.getShared(
+        GeneratorContextBuilder.newEmptyBuilder().add(createSimple()).buildGeneratorContext(),
+        new HashSet<String>());
+
+    Object[] roots = ObjectGraph.getStaticFieldValues(GinBridgeClassLoader.class).toArray();
+    assertTrue(ObjectGraph.isReachable(newLoader, roots));
+    assertFalse(ObjectGraph.isReachable(loader, roots));
+    assertFalse(ObjectGraph.isReachable(context, roots));
+  }
+
   private JavaSource createFakeString() {
     return new JavaSource("java.lang.String") {
       public String getSource() {
@@ -98,9 +168,9 @@ public class GinBridgeClassLoaderTest extends TestCase {
     };
   }
 
-  private static TreeLogger createLogger() {
-    PrintWriterTreeLogger logger = new PrintWriterTreeLogger(new PrintWriter(System.err, true));
-    logger.setMaxDetail(TreeLogger.ERROR);
+  private static TreeLogger createLogger(StringWriter log) {
+    PrintWriterTreeLogger logger = new PrintWriterTreeLogger(new PrintWriter(log, true));
+    logger.setMaxDetail(TreeLogger.WARN);
     return logger;
   }
 }
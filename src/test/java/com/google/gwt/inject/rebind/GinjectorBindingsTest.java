@@ -22,10 +22,12 @@ import static org.easymock.EasyMock.replay;
 import static org.easymock.EasyMock.verify;
 
 import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.inject.client.AsyncProvider;
 import com.google.gwt.inject.client.Ginjector;
 import com.google.gwt.inject.rebind.binding.BindingFactory;
 import com.google.gwt.inject.rebind.binding.BindingFactoryImpl;
 import com.google.gwt.inject.rebind.binding.Context;
+import com.google.gwt.inject.rebind.binding.Dependency;
 import com.google.gwt.inject.rebind.resolution.BindingResolver;
 import com.google.gwt.inject.rebind.util.GuiceUtil;
 import com.google.gwt.inject.rebind.util.MemberCollector;
@@ -33,10 +35,17 @@ import com.google.gwt.inject.rebind.util.MethodCallUtil;
 import com.google.gwt.inject.rebind.util.NameGenerator;
 import com.google.inject.Key;
 import com.google.inject.Provider;
+import com.google.inject.TypeLiteral;
+import com.google.inject.name.Names;
 import junit.framework.TestCase;
 import org.easymock.EasyMock;
 import org.easymock.IMocksControl;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
 
 public class GinjectorBindingsTest extends TestCase {
 
@@ -52,6 +61,7 @@ public class GinjectorBindingsTest extends TestCase {
   private MemberCollector collector;
   private ErrorManager errorManager;
   private BindingResolver bindingResolver;
+  private ImplicitSingletonTypes implicitSingletonTypes;
 
   private MethodCallUtil methodCallUtil;
 
@@ -77,6 +87,8 @@ public class GinjectorBindingsTest extends TestCase {
     bindingResolver = control.createMock("bindingResolver", BindingResolver.class);
 
     methodCallUtil = control.createMock("methodCallUtil", MethodCallUtil.class);
+    implicitSingletonTypes =
+        new ImplicitSingletonTypes(Collections.singleton(Bundle.class.getName()));
 
     bindingFactory = new BindingFactoryImpl(
         errorManager, guiceUtil, DummyInjectorInterface.class, methodCallUtil);
@@ -318,6 +330,108 @@ public class GinjectorBindingsTest extends TestCase {
     assertTrue(toplevelBindings.hasStaticInjectionRequestInSubtree());
   }
 
+  public void testDetermineScope_implicitProvidersAreSingletons() throws Exception {
+    GinjectorBindings bindings = createBindings();
+
+    expectFinalize(bindings);
+
+    replay();
+
+    Key<?> providerKey = new Key<Provider<Long>>() {};
+    Key<?> asyncProviderKey = new Key<AsyncProvider<Long>>() {};
+    Key<?> unscopedKey = Key.get(GinjectorBindingsTest.class);
+    bindings.addBinding(providerKey, bindingFactory.getImplicitProviderBinding(providerKey));
+    bindings.addBinding(asyncProviderKey,
+        bindingFactory.getAsyncProviderBinding(asyncProviderKey));
+    bindings.addBinding(unscopedKey,
+        bindingFactory.getBindClassBinding(unscopedKey, Key.get(Long.class), context));
+
+    finalize(bindings);
+
+    assertEquals(GinScope.SINGLETON, bindings.determineScope(providerKey));
+    assertEquals(GinScope.SINGLETON, bindings.determineScope(asyncProviderKey));
+    assertEquals(GinScope.NO_SCOPE, bindings.determineScope(unscopedKey));
+  }
+
+  public void testDetermineScope_implicitSingletonTypes() throws Exception {
+    GinjectorBindings bindings = createBindings();
+
+    Key<?> bundleKey = Key.get(SubBundle.class);
+    Key<?> otherKey = Key.get(Unrelated.class);
+    expect(guiceUtil.getMemberInjectionDependencies(bundleKey, bundleKey.getTypeLiteral()))
+        .andReturn(Collections.<Dependency>emptySet());
+    expect(guiceUtil.getMemberInjectionDependencies(otherKey, otherKey.getTypeLiteral()))
+        .andReturn(Collections.<Dependency>emptySet());
+    expectFinalize(bindings);
+
+    replay();
+
+    bindings.addBinding(bundleKey,
+        bindingFactory.getCallGwtDotCreateBinding(bundleKey.getTypeLiteral()));
+    bindings.addBinding(otherKey,
+        bindingFactory.getCallGwtDotCreateBinding(otherKey.getTypeLiteral()));
+
+    finalize(bindings);
+
+    assertEquals(GinScope.SINGLETON, bindings.determineScope(bundleKey));
+    assertEquals(GinScope.NO_SCOPE, bindings.determineScope(otherKey));
+  }
+
+  public void testDetermineScope_multibindingsWithConstantContributions() throws Exception {
+    GinjectorBindings bindings = createBindings();
+
+    expectFinalize(bindings);
+
+    replay();
+
+    Context source = Context.forText("multibindings");
+    Key<String> constantKey = Key.get(String.class, Names.named("constant"));
+    Key<CharSequence> singletonKey = Key.get(CharSequence.class, Names.named("singleton"));
+    Key<CharSequence> unscopedKey = Key.get(CharSequence.class, Names.named("unscoped"));
+    bindings.addBinding(constantKey,
+        bindingFactory.getBindConstantBinding(constantKey, "constant", source));
+    bindings.addBinding(singletonKey,
+        bindingFactory.getBindClassBinding(constantKey, singletonKey, source));
+    bindings.addBinding(unscopedKey,
+        bindingFactory.getBindClassBinding(Key.get(String.class), unscopedKey, source));
+    bindings.putScope(unscopedKey, GinScope.NO_SCOPE);
+
+    // Linked to unbound keys, so only their scopes make them constant.
+    Key<CharSequence> scopedKey = Key.get(CharSequence.class, Names.named("scoped"));
+    Key<CharSequence> eagerKey = Key.get(CharSequence.class, Names.named("eager"));
+    bindings.addBinding(scopedKey,
+        bindingFactory.getBindClassBinding(Key.get(StringBuilder.class), scopedKey, source));
+    bindings.putScope(scopedKey, GinScope.SINGLETON);
+    bindings.addBinding(eagerKey,
+        bindingFactory.getBindClassBinding(Key.get(StringBuffer.class), eagerKey, source));
+    bindings.putScope(eagerKey, GinScope.EAGER_SINGLETON);
+
+    Key<?> constantSetKey = new Key<Set<CharSequence>>(Names.named("constant")) {};
+    Key<?> unscopedSetKey = new Key<Set<CharSequence>>(Names.named("unscoped")) {};
+    Key<?> scopedSetKey = new Key<Set<CharSequence>>(Names.named("scoped")) {};
+    Key<?> mixedSetKey = new Key<Set<CharSequence>>(Names.named("mixed")) {};
+    Key<?> mapKey = new Key<Map<String, CharSequence>>() {};
+    bindings.addBinding(constantSetKey, bindingFactory.getMultibindingSetBinding(constantSetKey,
+        Arrays.<Key<?>>asList(constantKey, singletonKey), false, source));
+    bindings.addBinding(unscopedSetKey, bindingFactory.getMultibindingSetBinding(unscopedSetKey,
+        Arrays.<Key<?>>asList(constantKey, unscopedKey), false, source));
+    bindings.addBinding(scopedSetKey, bindingFactory.getMultibindingSetBinding(scopedSetKey,
+        Arrays.<Key<?>>asList(scopedKey, eagerKey), false, source));
+    bindings.addBinding(mixedSetKey, bindingFactory.getMultibindingSetBinding(mixedSetKey,
+        Arrays.<Key<?>>asList(scopedKey, eagerKey, unscopedKey), false, source));
+    bindings.addBinding(mapKey, bindingFactory.getMultibindingMapBinding(mapKey,
+        Collections.<Key<?>, Key<?>>singletonMap(constantKey, singletonKey), false, false, false,
+        source));
+
+    finalize(bindings);
+
+    assertEquals(GinScope.SINGLETON, bindings.determineScope(constantSetKey));
+    assertEquals(GinScope.NO_SCOPE, bindings.determineScope(unscopedSetKey));
+    assertEquals(GinScope.SINGLETON, bindings.determineScope(scopedSetKey));
+    assertEquals(GinScope.NO_SCOPE, bindings.determineScope(mixedSetKey));
+    assertEquals(GinScope.SINGLETON, bindings.determineScope(mapKey));
+  }
+
   private GinjectorBindings createBindings() {
     collector.setMethodFilter(EasyMock.<MemberCollector.MethodFilter>anyObject());
 
@@ -325,7 +439,7 @@ public class GinjectorBindingsTest extends TestCase {
 
     GinjectorBindings result = new GinjectorBindings(
         nameGenerator, logger, guiceUtil, DummyInjectorInterface.class, ginjectorBindingsProvider,
-        collector, errorManager, bindingResolver);
+        collector, errorManager, bindingResolver, implicitSingletonTypes);
 
     verifyAndReset();
 
@@ -351,4 +465,13 @@ public class GinjectorBindingsTest extends TestCase {
 
   private interface DummyInjectorInterface extends Ginjector {
   }
+
+  interface Bundle {
+  }
+
+  interface SubBundle extends Bundle {
+  }
+
+  interface Unrelated {
+  }
 }
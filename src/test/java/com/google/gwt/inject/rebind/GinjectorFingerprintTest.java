@@ -0,0 +1,95 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind;
+
+import com.google.gwt.core.ext.GeneratorContext;
+import com.google.gwt.dev.javac.CompiledClass;
+import com.google.gwt.dev.javac.testing.GeneratorContextBuilder;
+import com.google.gwt.dev.javac.testing.JavaSource;
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+public class GinjectorFingerprintTest extends TestCase {
+
+  private static final String SIMPLE = "com.google.gwt.inject.rebind.types.Simple";
+  private static final String OTHER = "com.google.gwt.inject.rebind.types.Other";
+  private static final List<String> TYPES = Arrays.asList(SIMPLE, OTHER, "java.util.List");
+
+  public void testUnchanged() {
+    GinjectorFingerprint fingerprint =
+        GinjectorFingerprint.create(TYPES, getClassFiles("void b() {}", ""));
+
+    assertNull(fingerprint.findChangedType(getClassFiles("void b() {}", "")));
+  }
+
+  public void testChangedType() {
+    GinjectorFingerprint fingerprint =
+        GinjectorFingerprint.create(TYPES, getClassFiles("void b() {}", ""));
+
+    assertEquals(SIMPLE, fingerprint.findChangedType(getClassFiles("void c() {}", "")));
+  }
+
+  public void testChangedNestedType() {
+    GinjectorFingerprint fingerprint =
+        GinjectorFingerprint.create(TYPES, getClassFiles("", "static class Inner {}"));
+
+    assertEquals(SIMPLE,
+        fingerprint.findChangedType(getClassFiles("", "static class Inner { int i; }")));
+  }
+
+  public void testUnrelatedChange() {
+    GinjectorFingerprint fingerprint = GinjectorFingerprint.create(
+        Arrays.asList(OTHER), getClassFiles("void b() {}", ""));
+
+    assertNull(fingerprint.findChangedType(getClassFiles("void c() {}", "")));
+  }
+
+  public void testClientDataRoundTrip() {
+    Map<String, CompiledClass> classFiles = getClassFiles("void b() {}", "");
+    GinjectorFingerprint fingerprint = GinjectorFingerprint.create(TYPES, classFiles);
+
+    GinjectorFingerprint restored =
+        GinjectorFingerprint.fromClientData(fingerprint.toClientData());
+
+    assertEquals(fingerprint, restored);
+    assertNull(restored.findChangedType(classFiles));
+    assertNull(GinjectorFingerprint.fromClientData("foo"));
+  }
+
+  private Map<String, CompiledClass> getClassFiles(String simpleMembers, String simpleNested) {
+    GeneratorContext context = GeneratorContextBuilder.newCoreBasedBuilder()
+        .add(createSource(SIMPLE, simpleMembers + simpleNested))
+        .add(createSource(OTHER, ""))
+        .buildGeneratorContext();
+    return new GinBridgeClassLoader(context, new HashSet<String>())
+        .getClassFileMap();
+  }
+
+  private JavaSource createSource(final String name, final String body) {
+    return new JavaSource(name) {
+      public String getSource() {
+        return "package com.google.gwt.inject.rebind.types;"
+            + "public class " + name.substring(name.lastIndexOf('.') + 1) + " {"
+            + body
+            + "}";
+      }
+    };
+  }
+}
@@ -16,8 +16,43 @@
 
 package com.google.gwt.inject.rebind;
 
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.dev.util.log.PrintWriterTreeLogger;
+import com.google.gwt.inject.client.AbstractGinModule;
+import com.google.gwt.inject.client.AsyncGroup;
+import com.google.gwt.inject.client.AsyncProvider;
+import com.google.gwt.inject.client.GinModules;
+import com.google.gwt.inject.client.Ginjector;
+import com.google.gwt.inject.client.PrivateGinModule;
+import com.google.gwt.inject.client.SimpleObject;
+import com.google.gwt.inject.client.constructor.AnimalGinjector;
+import com.google.gwt.inject.client.privateasync.PrivateAsyncTest;
+import com.google.gwt.inject.rebind.util.GinProperties;
+import com.google.inject.Inject;
+import com.google.inject.Provides;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import com.google.inject.name.Names;
+
 import junit.framework.TestCase;
 
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.annotation.processing.Filer;
+import javax.lang.model.element.Element;
+import javax.tools.FileObject;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+
 public class GinjectorGeneratorTest extends TestCase {
 
   static boolean initializedA = false;
@@ -54,6 +89,175 @@ public class GinjectorGeneratorTest extends TestCase {
     assertFalse(initializedB);
   }
 
+  public void testReleasesStateAfterGeneration() throws Exception {
+    PrintWriterTreeLogger logger = new PrintWriterTreeLogger(new PrintWriter(new StringWriter()));
+    ProcessorGeneratorContext context =
+        new ProcessorGeneratorContext(new DiscardingFiler(), new HashMap<String, String>(), null);
+    ginjectorGenerator.generateStandalone(logger, context, AnimalGinjector.class.getName(),
+        getClass().getClassLoader());
+
+    // The logger and the context are referenced by all state of the
+    // generation, e.g. the bindings and the injector used internally.
+    List<Object> roots = new ArrayList<Object>();
+    roots.add(ginjectorGenerator);
+    roots.addAll(ObjectGraph.getStaticFieldValues(GinjectorGenerator.class));
+    roots.addAll(ObjectGraph.getStaticFieldValues(GinBridgeClassLoader.class));
+    assertFalse(ObjectGraph.isReachable(logger, roots.toArray()));
+    assertFalse(ObjectGraph.isReachable(context, roots.toArray()));
+  }
+
+  public void testParallelOutputMatchesSerialOutput() throws Exception {
+    Map<String, String> serialSources = generateHierarchy(false);
+    assertTrue(serialSources.size() > 1);
+
+    // Rendering order varies between runs, so try a few.
+    for (int i = 0; i < 5; i++) {
+      assertEquals(serialSources, generateHierarchy(true));
+    }
+  }
+
+  private Map<String, String> generateHierarchy(boolean parallelOutput) throws Exception {
+    Map<String, String> options = new HashMap<String, String>();
+    options.put(GinProperties.PARALLEL_OUTPUT, String.valueOf(parallelOutput));
+    options.put(GinProperties.SPLIT_POINT_FRAGMENTS, "true");
+
+    RecordingFiler filer = new RecordingFiler();
+    ProcessorGeneratorContext context = new ProcessorGeneratorContext(filer, options, null);
+    ginjectorGenerator.generateStandalone(
+        new PrintWriterTreeLogger(new PrintWriter(new StringWriter())), context,
+        HierarchyGinjector.class.getName(), getClass().getClassLoader());
+    assertTrue(context.writeOutput(TreeLogger.NULL));
+    return filer.getSources();
+  }
+
+  /**
+   * Filer that discards all sources written through it.
+   */
+  private static class DiscardingFiler implements Filer {
+    public JavaFileObject createSourceFile(CharSequence name, Element... originatingElements) {
+      URI uri = URI.create("string:///" + name.toString().replace('.', '/') + ".java");
+      return new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+        @Override
+        public Writer openWriter() {
+          return new StringWriter();
+        }
+      };
+    }
+
+    public JavaFileObject createClassFile(CharSequence name, Element... originatingElements) {
+      throw new UnsupportedOperationException();
+    }
+
+    public FileObject createResource(JavaFileManager.Location location, CharSequence pkg,
+        CharSequence relativeName, Element... originatingElements) {
+      throw new UnsupportedOperationException();
+    }
+
+    public FileObject getResource(JavaFileManager.Location location, CharSequence pkg,
+        CharSequence relativeName) {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  /**
+   * Filer that records the sources written through it.
+   */
+  private static class RecordingFiler extends DiscardingFiler {
+    private final Map<String, StringWriter> writers = new TreeMap<String, StringWriter>();
+
+    @Override
+    public JavaFileObject createSourceFile(CharSequence name, Element... originatingElements) {
+      final StringWriter writer = new StringWriter();
+      writers.put(name.toString(), writer);
+      URI uri = URI.create("string:///" + name.toString().replace('.', '/') + ".java");
+      return new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+        @Override
+        public Writer openWriter() {
+          return writer;
+        }
+      };
+    }
+
+    Map<String, String> getSources() {
+      Map<String, String> sources = new TreeMap<String, String>();
+      for (Map.Entry<String, StringWriter> entry : writers.entrySet()) {
+        sources.put(entry.getKey(), entry.getValue().toString());
+      }
+      return sources;
+    }
+  }
+
+  @GinModules(HierarchyModule.class)
+  public interface HierarchyGinjector extends Ginjector {
+    AsyncProvider<Editor> getEditorProvider();
+
+    AsyncProvider<Viewer> getViewerProvider();
+
+    Toolbar getToolbar();
+
+    @Named("greeting") String getGreeting();
+
+    PrivateAsyncTest.Editor getOtherEditor();
+  }
+
+  public static class HierarchyModule extends AbstractGinModule {
+    @Override
+    protected void configure() {
+      bindConstant().annotatedWith(Names.named("title")).to("app");
+      install(new ToolsModule());
+    }
+
+    @Provides
+    @Named("greeting")
+    String provideGreeting(@Named("title") String title) {
+      return "Hello " + title;
+    }
+  }
+
+  public static class ToolsModule extends PrivateGinModule {
+    @Override
+    protected void configure() {
+      bind(Document.class).in(Singleton.class);
+      install(new PaletteModule());
+      expose(Toolbar.class);
+      expose(Palette.class);
+    }
+
+    @Provides
+    Toolbar provideToolbar(Document document, SimpleObject simpleObject) {
+      return new Toolbar();
+    }
+  }
+
+  public static class PaletteModule extends PrivateGinModule {
+    @Override
+    protected void configure() {
+      bind(Palette.class);
+      expose(Palette.class);
+    }
+  }
+
+  public static class Screens {}
+
+  public static class Document {}
+
+  public static class Toolbar {}
+
+  public static class Palette {
+    @Inject @Named("title") String title;
+  }
+
+  @AsyncGroup(Screens.class)
+  public static class Editor {
+    @Inject Toolbar toolbar;
+  }
+
+  @AsyncGroup(Screens.class)
+  public static class Viewer {
+    @Inject
+    public Viewer(Palette palette, SimpleObject simpleObject) {}
+  }
+
   static class Nested {
     static class DoublyNested {}
   }
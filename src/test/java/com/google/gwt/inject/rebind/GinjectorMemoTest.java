@@ -0,0 +1,99 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind;
+
+import com.google.gwt.core.ext.GeneratorContext;
+import com.google.gwt.dev.javac.CompiledClass;
+import com.google.gwt.dev.javac.testing.GeneratorContextBuilder;
+import com.google.gwt.dev.javac.testing.JavaSource;
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+public class GinjectorMemoTest extends TestCase {
+
+  private static final String SIMPLE = "com.google.gwt.inject.rebind.types.Simple";
+  private static final String GINJECTOR = "com.google.gwt.inject.rebind.types.MyGinjector";
+  private static final List<String> MODULES = Arrays.asList("com.example.MyModule");
+
+  private GinjectorMemo memo;
+  private GeneratorContext context;
+  private Map<String, CompiledClass> classFiles;
+
+  @Override
+  protected void setUp() {
+    memo = new GinjectorMemo();
+    context = createContext();
+    classFiles = new GinBridgeClassLoader(context, new HashSet<String>())
+        .getClassFileMap();
+  }
+
+  public void testFind() {
+    CachedGinjector output = createOutput(SIMPLE);
+    memo.put(GINJECTOR, output, context);
+
+    assertSame(output, memo.find(GINJECTOR, 1L, MODULES, classFiles, context));
+    assertNull(memo.find(SIMPLE, 1L, MODULES, classFiles, context));
+    assertNull(memo.find(GINJECTOR, 2L, MODULES, classFiles, context));
+  }
+
+  public void testPutReplacesSameProperties() {
+    memo.put(GINJECTOR, createOutput("com.example.Old"), context);
+    CachedGinjector output = createOutput(SIMPLE);
+    memo.put(GINJECTOR, output, context);
+
+    assertSame(output, memo.find(GINJECTOR, 1L, MODULES, classFiles, context));
+  }
+
+  public void testClear() {
+    memo.put(GINJECTOR, createOutput(SIMPLE), context);
+    memo.clear();
+
+    assertNull(memo.find(GINJECTOR, 1L, MODULES, classFiles, context));
+  }
+
+  public void testEvictsForNewCompilationState() {
+    memo.put(GINJECTOR, createOutput(SIMPLE), context);
+
+    GeneratorContext newContext = createContext();
+    Map<String, CompiledClass> newClassFiles =
+        new GinBridgeClassLoader(newContext, new HashSet<String>())
+            .getClassFileMap();
+    assertNull(memo.find(GINJECTOR, 1L, MODULES, newClassFiles, newContext));
+    assertNull(memo.find(GINJECTOR, 1L, MODULES, classFiles, context));
+  }
+
+  private static GeneratorContext createContext() {
+    return GeneratorContextBuilder.newCoreBasedBuilder()
+        .add(new JavaSource(SIMPLE) {
+          public String getSource() {
+            return "package com.google.gwt.inject.rebind.types; public class Simple {}";
+          }
+        })
+        .buildGeneratorContext();
+  }
+
+  private CachedGinjector createOutput(String resultTypeName) {
+    return new CachedGinjector(1L, resultTypeName, MODULES,
+        GinjectorFingerprint.create(Arrays.asList(SIMPLE), classFiles),
+        Collections.<String, Boolean>emptyMap(), new ConsultedProperties(),
+        Collections.<String, String>emptyMap());
+  }
+}
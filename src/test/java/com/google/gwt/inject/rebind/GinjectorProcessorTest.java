@@ -0,0 +1,79 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind;
+
+import com.google.gwt.inject.client.constructor.AnimalGinjector;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.ToolProvider;
+
+public class GinjectorProcessorTest extends TestCase {
+
+  private File outputDirectory;
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    outputDirectory = File.createTempFile("gin-processor", "");
+    assertTrue(outputDirectory.delete());
+    assertTrue(outputDirectory.mkdir());
+  }
+
+  @Override
+  protected void tearDown() throws Exception {
+    delete(outputDirectory);
+    super.tearDown();
+  }
+
+  public void testGeneratesGinjector() throws IOException {
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+    JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics,
+        Arrays.asList("-proc:only", "-classpath", System.getProperty("java.class.path"),
+            "-s", outputDirectory.getPath()),
+        Collections.singleton(AnimalGinjector.class.getName()), null);
+    task.setProcessors(Collections.singleton(new GinjectorProcessor()));
+
+    assertTrue(diagnostics.getDiagnostics().toString(), task.call());
+
+    File source = new File(outputDirectory, "com/google/gwt/inject/client/constructor/"
+        + "com_google_gwt_inject_client_constructor_AnimalGinjectorImpl.java");
+    assertTrue(source.isFile());
+    String content = new String(Files.readAllBytes(source.toPath()), StandardCharsets.UTF_8);
+    assertTrue(content.contains("public com.google.gwt.inject.client.constructor.Dog getDog()"));
+  }
+
+  private static void delete(File file) {
+    File[] children = file.listFiles();
+    if (children != null) {
+      for (File child : children) {
+        delete(child);
+      }
+    }
+    file.delete();
+  }
+}
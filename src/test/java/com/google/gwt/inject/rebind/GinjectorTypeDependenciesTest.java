@@ -0,0 +1,90 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind;
+
+import com.google.gwt.inject.rebind.binding.Dependency;
+import com.google.inject.AbstractModule;
+import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
+import com.google.inject.name.Named;
+import com.google.inject.name.Names;
+import com.google.inject.spi.Elements;
+import junit.framework.TestCase;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class GinjectorTypeDependenciesTest extends TestCase {
+
+  public void testKeyTypes() {
+    GinjectorTypeDependencies dependencies = new GinjectorTypeDependencies();
+    dependencies.addKey(
+        Key.get(new TypeLiteral<Map<String, List<Foo[]>>>() {}, Names.named("foo")));
+
+    Set<String> typeNames = dependencies.getTypeNames();
+    assertTrue(typeNames.contains(Map.class.getName()));
+    assertTrue(typeNames.contains(String.class.getName()));
+    assertTrue(typeNames.contains(List.class.getName()));
+    assertTrue(typeNames.contains(Foo.class.getName()));
+    assertTrue(typeNames.contains(Named.class.getName()));
+  }
+
+  public void testSupertypes() {
+    GinjectorTypeDependencies dependencies = new GinjectorTypeDependencies();
+    dependencies.addClass(Foo.class);
+
+    Set<String> typeNames = dependencies.getTypeNames();
+    assertTrue(typeNames.contains(FooBase.class.getName()));
+    assertTrue(typeNames.contains(Serializable.class.getName()));
+    assertTrue(typeNames.contains(Object.class.getName()));
+  }
+
+  public void testPrimitivesIgnored() {
+    GinjectorTypeDependencies dependencies = new GinjectorTypeDependencies();
+    dependencies.addClass(int[].class);
+
+    assertTrue(dependencies.getTypeNames().isEmpty());
+  }
+
+  public void testElementSources() {
+    GinjectorTypeDependencies dependencies = new GinjectorTypeDependencies();
+    dependencies.addElementSources(Elements.getElements(new FooModule()));
+
+    assertTrue(dependencies.getTypeNames().contains(FooModule.class.getName()));
+  }
+
+  public void testDependencies() {
+    GinjectorTypeDependencies dependencies = new GinjectorTypeDependencies();
+    dependencies.addDependencies(Collections.singletonList(
+        new Dependency(Dependency.GINJECTOR, Key.get(Foo.class), "test")));
+
+    assertTrue(dependencies.getTypeNames().contains(Foo.class.getName()));
+  }
+
+  static class FooBase implements Serializable {}
+
+  static class Foo extends FooBase {}
+
+  static class FooModule extends AbstractModule {
+    @Override
+    protected void configure() {
+      bind(FooBase.class).to(Foo.class);
+    }
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind;
+
+import com.google.gwt.i18n.client.Constants;
+import com.google.gwt.i18n.client.Messages;
+import com.google.gwt.resources.client.ClientBundle;
+
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class ImplicitSingletonTypesTest extends TestCase {
+
+  public void testDisabledByDefault() {
+    ImplicitSingletonTypes types = new ImplicitSingletonTypes(Collections.<String>emptyList());
+
+    assertFalse(types.isImplicitSingleton(MyBundle.class));
+    assertFalse(types.isImplicitSingleton(MyMessages.class));
+  }
+
+  public void testStandardTypes() {
+    ImplicitSingletonTypes types = new ImplicitSingletonTypes(Arrays.asList("true"));
+
+    assertTrue(types.isImplicitSingleton(MyBundle.class));
+    assertTrue(types.isImplicitSingleton(MyMessages.class));
+    assertTrue(types.isImplicitSingleton(MyConstants.class));
+    assertFalse(types.isImplicitSingleton(MyStateless.class));
+    assertFalse(types.isImplicitSingleton(Object.class));
+  }
+
+  public void testListedTypes() {
+    ImplicitSingletonTypes types = new ImplicitSingletonTypes(
+        Arrays.asList(" " + Stateless.class.getCanonicalName() + " ", "false", ""));
+
+    assertTrue(types.isImplicitSingleton(Stateless.class));
+    assertTrue(types.isImplicitSingleton(MyStateless.class));
+    assertTrue(types.isImplicitSingleton(MyStatelessImpl.class));
+    assertFalse(types.isImplicitSingleton(MyBundle.class));
+  }
+
+  interface MyBundle extends ClientBundle {
+  }
+
+  interface MyMessages extends Messages {
+  }
+
+  interface MyConstants extends Constants {
+  }
+
+  interface Stateless {
+  }
+
+  interface MyStateless extends Stateless {
+  }
+
+  static class MyStatelessImpl implements MyStateless {
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind;
+
+import com.google.gwt.inject.client.AbstractGinModule;
+import com.google.gwt.inject.client.multibindings.GinMapBinder;
+import com.google.gwt.inject.client.multibindings.GinMultibinder;
+import com.google.gwt.inject.client.multibindings.MultibindingModule;
+import com.google.gwt.inject.rebind.adapter.GinModuleAdapter;
+import com.google.inject.Key;
+import com.google.inject.spi.Element;
+import com.google.inject.spi.Elements;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+public class MultibindingElementsTest extends TestCase {
+
+  public void testElementKeysDoNotDependOnEarlierGinjectors() {
+    MultibindingModule.resetElementIds();
+    List<Key<?>> first = getBoundKeys();
+    MultibindingModule.resetElementIds();
+    List<Key<?>> second = getBoundKeys();
+
+    assertEquals(first, second);
+  }
+
+  public void testElementKeysAreUnique() {
+    MultibindingModule.resetElementIds();
+    List<Key<?>> keys = getBoundKeys();
+
+    // Two elements, plus a constant key and a value for each map entry.
+    assertEquals(6, keys.size());
+    assertEquals(keys.size(), new LinkedHashSet<Key<?>>(keys).size());
+  }
+
+  private static List<Key<?>> getBoundKeys() {
+    List<Key<?>> keys = new ArrayList<Key<?>>();
+    for (Element element : Elements.getElements(new GinModuleAdapter(new ColorsModule()))) {
+      if (element instanceof com.google.inject.Binding<?>) {
+        keys.add(((com.google.inject.Binding<?>) element).getKey());
+      }
+    }
+    return keys;
+  }
+
+  static class ColorsModule extends AbstractGinModule {
+    @Override
+    protected void configure() {
+      GinMultibinder<CharSequence> colors =
+          GinMultibinder.newSetBinder(binder(), CharSequence.class);
+      colors.addBinding().to(StringBuilder.class);
+      colors.addBinding().to(StringBuffer.class);
+
+      GinMapBinder<String, CharSequence> codes =
+          GinMapBinder.newMapBinder(binder(), String.class, CharSequence.class);
+      codes.addBinding("red").to(StringBuilder.class);
+      codes.addBinding("green").to(StringBuffer.class);
+    }
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind;
+
+import java.lang.ref.Reference;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Walks the objects that are strongly reachable from some roots through their
+ * fields, so that tests can check that state is released without depending on
+ * the garbage collector.
+ *
+ * <p>Classes (and thereby static fields) are not followed, pass their values
+ * as roots instead.  References are followed through everything but their
+ * referents.  Collections and maps whose fields aren't accessible, e.g. those
+ * of the JDK, are followed through their elements, keys and values.
+ */
+final class ObjectGraph {
+
+  private ObjectGraph() {
+  }
+
+  /**
+   * Returns true if {@code target} is strongly reachable from any of the
+   * passed roots.
+   */
+  static boolean isReachable(Object target, Object... roots) {
+    Map<Object, Boolean> visited = new IdentityHashMap<Object, Boolean>();
+    List<Object> pending = new ArrayList<Object>();
+    for (Object root : roots) {
+      pending.add(root);
+    }
+
+    while (!pending.isEmpty()) {
+      Object object = pending.remove(pending.size() - 1);
+      if (object == null || object instanceof Class || visited.put(object, true) != null) {
+        continue;
+      }
+      if (object == target) {
+        return true;
+      }
+      addReferents(object, pending);
+    }
+    return false;
+  }
+
+  /**
+   * Returns the values of the static fields of the passed class.
+   */
+  static List<Object> getStaticFieldValues(Class<?> type) {
+    List<Object> values = new ArrayList<Object>();
+    for (Field field : type.getDeclaredFields()) {
+      if (Modifier.isStatic(field.getModifiers()) && !field.getType().isPrimitive()) {
+        field.setAccessible(true);
+        values.add(get(field, null));
+      }
+    }
+    return values;
+  }
+
+  private static void addReferents(Object object, List<Object> pending) {
+    Class<?> type = object.getClass();
+    if (type.isArray()) {
+      if (!type.getComponentType().isPrimitive()) {
+        for (int i = 0; i < Array.getLength(object); i++) {
+          pending.add(Array.get(object, i));
+        }
+      }
+      return;
+    }
+
+    boolean accessible = true;
+    for (Class<?> declaring = type; declaring != null; declaring = declaring.getSuperclass()) {
+      if (declaring == Reference.class) {
+        // Only the referent is weakly reachable, but all fields of Reference
+        // are internal.
+        break;
+      }
+      for (Field field : declaring.getDeclaredFields()) {
+        if (Modifier.isStatic(field.getModifiers()) || field.getType().isPrimitive()) {
+          continue;
+        }
+        try {
+          field.setAccessible(true);
+        } catch (RuntimeException e) {
+          // Not open to reflection, e.g. the internals of JDK classes.
+          accessible = false;
+          continue;
+        }
+        pending.add(get(field, object));
+      }
+    }
+
+    if (!accessible) {
+      if (object instanceof Collection) {
+        pending.addAll((Collection<?>) object);
+      } else if (object instanceof Map) {
+        pending.addAll(((Map<?, ?>) object).keySet());
+        pending.addAll(((Map<?, ?>) object).values());
+      }
+    }
+  }
+
+  private static Object get(Field field, Object object) {
+    try {
+      return field.get(object);
+    } catch (IllegalAccessException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
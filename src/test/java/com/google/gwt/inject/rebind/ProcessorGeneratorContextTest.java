@@ -0,0 +1,151 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.gwt.inject.rebind;
+
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.core.ext.UnableToCompleteException;
+import com.google.gwt.core.ext.linker.GeneratedResource;
+import com.google.gwt.dev.util.log.PrintWriterTreeLogger;
+
+import junit.framework.TestCase;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.net.URI;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.annotation.processing.Filer;
+import javax.lang.model.element.Element;
+import javax.tools.FileObject;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardLocation;
+
+public class ProcessorGeneratorContextTest extends TestCase {
+
+  private RecordingFiler filer;
+  private ProcessorGeneratorContext context;
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    filer = new RecordingFiler();
+    context = new ProcessorGeneratorContext(filer, Collections.<String, String>emptyMap(), null);
+  }
+
+  public void testOutputWrittenAfterGeneration() throws Exception {
+    PrintWriter pw = context.tryCreate(TreeLogger.NULL, "com.example", "Generated");
+    assertNotNull(pw);
+    pw.print("class Generated {}");
+    context.commit(TreeLogger.NULL, pw);
+
+    OutputStream os = context.tryCreateResource(TreeLogger.NULL, "com/example/data.txt");
+    assertNotNull(os);
+    os.write(new byte[] {1, 2, 3});
+    GeneratedResource resource = context.commitResource(TreeLogger.NULL, os);
+    assertEquals("com/example/data.txt", resource.getPartialPath());
+
+    assertTrue(filer.sources.isEmpty());
+    assertTrue(filer.resources.isEmpty());
+
+    assertTrue(context.writeOutput(TreeLogger.NULL));
+
+    assertEquals("class Generated {}", filer.sources.get("com.example.Generated").toString());
+    assertEquals(3, filer.resources.get("com/example/data.txt").size());
+  }
+
+  public void testOutputDroppedIfRebindRuleConsulted() throws Exception {
+    PrintWriter pw = context.tryCreate(TreeLogger.NULL, "com.example", "Generated");
+    context.commit(TreeLogger.NULL, pw);
+    assertTrue(context.checkRebindRuleAvailable("com.example.Service"));
+
+    StringWriter log = new StringWriter();
+    assertFalse(context.writeOutput(new PrintWriterTreeLogger(new PrintWriter(log))));
+
+    assertTrue(filer.sources.isEmpty());
+    assertTrue(log.toString().contains("com.example.Service"));
+  }
+
+  public void testTypeCreatedOnlyOnce() {
+    assertNotNull(context.tryCreate(TreeLogger.NULL, "com.example", "Generated"));
+    assertNull(context.tryCreate(TreeLogger.NULL, "com.example", "Generated"));
+  }
+
+  public void testResourceCreatedOnlyOnce() throws Exception {
+    assertNotNull(context.tryCreateResource(TreeLogger.NULL, "data.txt"));
+    assertNull(context.tryCreateResource(TreeLogger.NULL, "data.txt"));
+  }
+
+  public void testCommitUnknownResource() {
+    try {
+      context.commitResource(TreeLogger.NULL, new ByteArrayOutputStream());
+      fail("Expected UnableToCompleteException");
+    } catch (UnableToCompleteException expected) {
+      // Expected.
+    }
+  }
+
+  /**
+   * Filer that records the sources and resources written through it.
+   */
+  private static class RecordingFiler implements Filer {
+    private final Map<String, StringWriter> sources = new TreeMap<String, StringWriter>();
+    private final Map<String, ByteArrayOutputStream> resources =
+        new TreeMap<String, ByteArrayOutputStream>();
+
+    public JavaFileObject createSourceFile(CharSequence name, Element... originatingElements) {
+      final StringWriter writer = new StringWriter();
+      sources.put(name.toString(), writer);
+      URI uri = URI.create("string:///" + name.toString().replace('.', '/') + ".java");
+      return new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+        @Override
+        public Writer openWriter() {
+          return writer;
+        }
+      };
+    }
+
+    public JavaFileObject createClassFile(CharSequence name, Element... originatingElements) {
+      throw new UnsupportedOperationException();
+    }
+
+    public FileObject createResource(JavaFileManager.Location location, CharSequence pkg,
+        CharSequence relativeName, Element... originatingElements) {
+      assertEquals(StandardLocation.CLASS_OUTPUT, location);
+      final ByteArrayOutputStream out = new ByteArrayOutputStream();
+      resources.put(relativeName.toString(), out);
+      URI uri = URI.create("string:///" + relativeName);
+      return new SimpleJavaFileObject(uri, JavaFileObject.Kind.OTHER) {
+        @Override
+        public OutputStream openOutputStream() {
+          return out;
+        }
+      };
+    }
+
+    public FileObject getResource(JavaFileManager.Location location, CharSequence pkg,
+        CharSequence relativeName) {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
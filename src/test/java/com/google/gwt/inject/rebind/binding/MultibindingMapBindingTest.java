@@ -0,0 +1,160 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind.binding;
+
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+
+import com.google.gwt.inject.rebind.util.InjectorMethod;
+import com.google.gwt.inject.rebind.util.InjectorWriteContext;
+import com.google.inject.Key;
+import com.google.inject.Provider;
+import com.google.inject.TypeLiteral;
+import com.google.inject.name.Names;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class MultibindingMapBindingTest extends TestCase {
+
+  private static final String SOURCE = "dummy";
+  private static final Context CONTEXT = Context.forText(SOURCE);
+
+  private static final Key<Map<String, Integer>> MAP_KEY =
+      Key.get(new TypeLiteral<Map<String, Integer>>() {}, Names.named("map"));
+  private static final Key<String> ENTRY_KEY = Key.get(String.class, Names.named("key"));
+  private static final Key<Integer> VALUE_KEY = Key.get(Integer.class, Names.named("value"));
+  private static final Key<Provider<Integer>> VALUE_PROVIDER_KEY =
+      Key.get(new TypeLiteral<Provider<Integer>>() {}, Names.named("value"));
+
+  public void testRelatedKeys() {
+    assertEquals(Key.get(new TypeLiteral<Map<String, Provider<Integer>>>() {}, Names.named("map")),
+        MultibindingMapBinding.getProviderMapKey(MAP_KEY));
+    assertEquals(Key.get(new TypeLiteral<Map<String, Set<Integer>>>() {}, Names.named("map")),
+        MultibindingMapBinding.getMultimapKey(MAP_KEY));
+    assertEquals(
+        Key.get(new TypeLiteral<Map<String, Set<Provider<Integer>>>>() {}, Names.named("map")),
+        MultibindingMapBinding.getProviderMultimapKey(MAP_KEY));
+  }
+
+  public void testDependencies() {
+    MultibindingMapBinding binding = new MultibindingMapBinding(MAP_KEY,
+        Collections.<Key<?>, Key<?>>singletonMap(ENTRY_KEY, VALUE_KEY), false, false, false,
+        CONTEXT);
+
+    assertEquals(3, binding.getDependencies().size());
+    assertTrue(binding.getDependencies().contains(
+        new Dependency(Dependency.GINJECTOR, MAP_KEY, SOURCE)));
+    assertTrue(binding.getDependencies().contains(new Dependency(MAP_KEY, ENTRY_KEY, SOURCE)));
+    assertTrue(binding.getDependencies().contains(new Dependency(MAP_KEY, VALUE_KEY, SOURCE)));
+  }
+
+  public void testDependencies_providerValues() {
+    Key<?> providerMapKey = MultibindingMapBinding.getProviderMapKey(MAP_KEY);
+    MultibindingMapBinding binding = new MultibindingMapBinding(providerMapKey,
+        Collections.<Key<?>, Key<?>>singletonMap(ENTRY_KEY, VALUE_KEY), true, false, false,
+        CONTEXT);
+
+    assertEquals(3, binding.getDependencies().size());
+    assertTrue(binding.getDependencies().contains(
+        new Dependency(providerMapKey, VALUE_PROVIDER_KEY, SOURCE)));
+  }
+
+  public void testCreationStatements() throws Exception {
+    MultibindingMapBinding binding = new MultibindingMapBinding(MAP_KEY,
+        Collections.<Key<?>, Key<?>>singletonMap(ENTRY_KEY, VALUE_KEY), false, false, false,
+        CONTEXT);
+
+    assertCreationStatements(binding, VALUE_KEY,
+        "java.util.Map<java.lang.String, java.lang.Integer> result = "
+        + "new java.util.LinkedHashMap<java.lang.String, java.lang.Integer>();\n"
+        + "com.google.gwt.inject.client.multibindings.Multibindings.putEntry("
+        + "result, getKey(), getValue(), false);\n"
+        + "result = java.util.Collections.unmodifiableMap(result);");
+  }
+
+  public void testCreationStatements_providerMultimap() throws Exception {
+    MultibindingMapBinding binding = new MultibindingMapBinding(
+        MultibindingMapBinding.getProviderMultimapKey(MAP_KEY),
+        Collections.<Key<?>, Key<?>>singletonMap(ENTRY_KEY, VALUE_KEY), true, true, true,
+        CONTEXT);
+
+    assertCreationStatements(binding, VALUE_PROVIDER_KEY,
+        "java.util.Map<java.lang.String, java.util.Set<com.google.inject.Provider"
+        + "<java.lang.Integer>>> result = new java.util.LinkedHashMap<java.lang.String, "
+        + "java.util.Set<com.google.inject.Provider<java.lang.Integer>>>();\n"
+        + "com.google.gwt.inject.client.multibindings.Multibindings.putMultimapEntry("
+        + "result, getKey(), getValue());\n"
+        + "result = com.google.gwt.inject.client.multibindings.Multibindings"
+        + ".unmodifiableMultimap(result);");
+  }
+
+  public void testCreationStatements_constantKeys() throws Exception {
+    MultibindingMapBinding binding = new MultibindingMapBinding(MAP_KEY,
+        Collections.<Key<?>, Key<?>>singletonMap(ENTRY_KEY, VALUE_KEY),
+        Collections.singletonList("key"), false, CONTEXT);
+
+    assertCreationStatements(binding, VALUE_KEY,
+        "java.util.Map<java.lang.String, java.lang.Integer> result = "
+        + "new com.google.gwt.inject.client.multibindings.ConstantKeyMap"
+        + "<java.lang.String, java.lang.Integer>(1) { \n"
+        + "  protected int indexOf(Object key) { \n"
+        + "    if (!(key instanceof java.lang.String)) {\n"
+        + "      return -1;\n"
+        + "    }\n"
+        + "    switch ((java.lang.String) key) {\n"
+        + "      case \"key\": return 0;\n"
+        + "      default: return -1;\n"
+        + "    }\n"
+        + "  }\n"
+        + "  protected java.lang.String keyAt(int index) { \n"
+        + "    switch (index) {\n"
+        + "      case 0: return getKey();\n"
+        + "      default: throw new IndexOutOfBoundsException();\n"
+        + "    }\n"
+        + "  }\n"
+        + "  protected java.lang.Integer create(int index) { \n"
+        + "    switch (index) {\n"
+        + "      case 0: return getValue();\n"
+        + "      default: throw new IndexOutOfBoundsException();\n"
+        + "    }\n"
+        + "  }\n"
+        + "};");
+  }
+
+  private void assertCreationStatements(Binding binding, Key<?> valueGetterKey,
+      String expectedStatements) throws Exception {
+    InjectorWriteContext writeContextMock = createMock(InjectorWriteContext.class);
+    expect(writeContextMock.callGetter(ENTRY_KEY)).andReturn("getKey()");
+    expect(writeContextMock.callGetter(valueGetterKey)).andReturn("getValue()");
+    replay(writeContextMock);
+
+    List<InjectorMethod> methods = new ArrayList<InjectorMethod>();
+    String actualStatements =
+        binding.getCreationStatements(null, methods).getSource(writeContextMock);
+
+    assertEquals(expectedStatements, actualStatements);
+    assertEquals(0, methods.size());
+
+    verify(writeContextMock);
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind.binding;
+
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+
+import com.google.gwt.inject.rebind.util.InjectorMethod;
+import com.google.gwt.inject.rebind.util.InjectorWriteContext;
+import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
+import com.google.inject.name.Names;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+public class MultibindingSetBindingTest extends TestCase {
+
+  private static final String SOURCE = "dummy";
+  private static final Context CONTEXT = Context.forText(SOURCE);
+
+  private static final Key<Set<String>> SET_KEY = Key.get(new TypeLiteral<Set<String>>() {});
+  private static final Key<String> FIRST_KEY = Key.get(String.class, Names.named("first"));
+  private static final Key<String> SECOND_KEY = Key.get(String.class, Names.named("second"));
+
+  public void testDependencies() {
+    MultibindingSetBinding binding = new MultibindingSetBinding(
+        SET_KEY, Arrays.<Key<?>>asList(FIRST_KEY, SECOND_KEY), false, CONTEXT);
+
+    assertEquals(3, binding.getDependencies().size());
+    assertTrue(binding.getDependencies().contains(
+        new Dependency(Dependency.GINJECTOR, SET_KEY, SOURCE)));
+    assertTrue(binding.getDependencies().contains(new Dependency(SET_KEY, FIRST_KEY, SOURCE)));
+    assertTrue(binding.getDependencies().contains(new Dependency(SET_KEY, SECOND_KEY, SOURCE)));
+  }
+
+  public void testCreationStatements() throws Exception {
+    MultibindingSetBinding binding = new MultibindingSetBinding(
+        SET_KEY, Arrays.<Key<?>>asList(FIRST_KEY, SECOND_KEY), true, CONTEXT);
+
+    InjectorWriteContext writeContextMock = createMock(InjectorWriteContext.class);
+    expect(writeContextMock.callGetter(FIRST_KEY)).andReturn("getFirst()");
+    expect(writeContextMock.callGetter(SECOND_KEY)).andReturn("getSecond()");
+    replay(writeContextMock);
+
+    List<InjectorMethod> methods = new ArrayList<InjectorMethod>();
+    String actualStatements =
+        binding.getCreationStatements(null, methods).getSource(writeContextMock);
+
+    assertEquals(
+        "java.util.Set<java.lang.String> result = new java.util.LinkedHashSet<java.lang.String>();\n"
+        + "com.google.gwt.inject.client.multibindings.Multibindings.addElement("
+        + "result, getFirst(), true);\n"
+        + "com.google.gwt.inject.client.multibindings.Multibindings.addElement("
+        + "result, getSecond(), true);\n"
+        + "result = java.util.Collections.unmodifiableSet(result);",
+        actualStatements);
+    assertEquals(0, methods.size());
+
+    verify(writeContextMock);
+  }
+}
@@ -67,6 +67,22 @@ public class ProviderMethodBindingTest extends TestCase {
     assertTrue(hasErrors());
   }
 
+  public void testStaticMethodOnModuleWithNonDefaultConstructor() throws NoSuchMethodException {
+    ProviderMethodBinding binding = createProviderMethodBinding(
+        new ModuleWithNonDefaultConstructor(0),
+        ModuleWithNonDefaultConstructor.class.getMethod("provideStaticInt"));
+
+    assertFalse(hasErrors());
+    assertNull(binding.getModuleInstanceType());
+  }
+
+  public void testModuleInstanceType() throws NoSuchMethodException {
+    ProviderMethodBinding binding = createProviderMethodBinding(new ModuleWithNoConstructor(),
+        ModuleWithNoConstructor.class.getMethod("provideInt"));
+
+    assertEquals(ModuleWithNoConstructor.class, binding.getModuleInstanceType());
+  }
+
   private ProviderMethodBinding createProviderMethodBinding(Object instance, Method method) {
     // Ew, but the constructor of ProviderMethod is private, and this is a
     // simple way to create a custom one.
@@ -137,5 +153,9 @@ public class ProviderMethodBindingTest extends TestCase {
     public int provideInt() {
       return 0;
     }
+
+    public static int provideStaticInt() {
+      return 0;
+    }
   }
 }
@@ -144,8 +144,8 @@ public class GinjectorBindingsOutputterTest extends TestCase {
     replay();
 
     GinjectorBindingsOutputter outputter = new GinjectorBindingsOutputter(ctx,
-        null, fragmentOutputterFactory, new TestFragmentPackageNameFactory(), null,
-        TreeLogger.NULL, methodCallUtil, null, null);
+        null, fragmentOutputterFactory, new TestFragmentPackageNameFactory(), null, null,
+        TreeLogger.NULL, methodCallUtil, null, null, null, null);
     GinjectorBindingsOutputter.FragmentMap fragments =
         new GinjectorBindingsOutputter.FragmentMap(bindings, ginjectorPackageName,
             ginjectorClassName, fragmentOutputterFactory);
@@ -159,6 +159,27 @@ public class GinjectorBindingsOutputterTest extends TestCase {
     assertEquals(superClass, fieldCapture.getValue().getDeclaringType());
   }
 
+  public void testSplitPointFragmentNames() {
+    FragmentPackageName packageName = new FragmentPackageName(null, "com.example");
+    FragmentPackageName splitPackageName = packageName.forSplitPointGroup(2);
+
+    assertEquals("com.example", splitPackageName.toString());
+    assertEquals(2, splitPackageName.getSplitPointGroup());
+    assertFalse(packageName.equals(splitPackageName));
+    assertEquals(packageName, splitPackageName.forSplitPointGroup(0));
+
+    NameGenerator nameGenerator = new NameGenerator();
+    assertEquals("Injector_fragment", nameGenerator.getFragmentClassName("Injector", packageName));
+    assertEquals("Injector_fragment_split2",
+        nameGenerator.getFragmentClassName("Injector", splitPackageName));
+    assertEquals("com.example.Injector_fragment_split2",
+        nameGenerator.getFragmentCanonicalClassName("Injector", splitPackageName));
+    assertEquals("getFragment_com_example_split2",
+        nameGenerator.getFragmentGetterMethodName(splitPackageName));
+    assertFalse(nameGenerator.getFragmentFieldName(packageName)
+        .equals(nameGenerator.getFragmentFieldName(splitPackageName)));
+  }
+
   private static class TestFragmentPackageNameFactory implements FragmentPackageName.Factory {
     public FragmentPackageName create(String packageName) {
       return new FragmentPackageName(Ginjector.class, packageName);
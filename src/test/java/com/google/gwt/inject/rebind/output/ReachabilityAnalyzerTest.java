@@ -0,0 +1,234 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.gwt.inject.rebind.output;
+
+import static org.easymock.EasyMock.anyObject;
+import static org.easymock.EasyMock.expect;
+
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.inject.client.AsyncProvider;
+import com.google.gwt.inject.client.Ginjector;
+import com.google.gwt.inject.rebind.GinScope;
+import com.google.gwt.inject.rebind.GinjectorBindings;
+import com.google.gwt.inject.rebind.binding.AsyncProviderBinding;
+import com.google.gwt.inject.rebind.binding.Binding;
+import com.google.gwt.inject.rebind.binding.Dependency;
+import com.google.gwt.inject.rebind.util.GinProperties;
+import com.google.gwt.inject.rebind.util.GuiceUtil;
+import com.google.gwt.inject.rebind.util.MemberCollector;
+import com.google.gwt.inject.rebind.util.RebindTimings;
+import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
+import com.google.inject.util.Providers;
+import junit.framework.TestCase;
+import org.easymock.EasyMock;
+import org.easymock.IMocksControl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests how {@link ReachabilityAnalyzer} and {@link FragmentPartitioner}
+ * place the bindings that {@code AsyncProvider}s lead to.
+ */
+public class ReachabilityAnalyzerTest extends TestCase {
+
+  private static final String PACKAGE_NAME = "com.google.gwt.inject.rebind.output";
+
+  private static final FragmentPackageName MAIN_FRAGMENT =
+      new FragmentPackageName(Ginjector.class, PACKAGE_NAME);
+
+  private static final Key<AsyncProvider<Editor>> ASYNC_EDITOR_KEY =
+      Key.get(new TypeLiteral<AsyncProvider<Editor>>() {});
+  private static final Key<AsyncProvider<Viewer>> ASYNC_VIEWER_KEY =
+      Key.get(new TypeLiteral<AsyncProvider<Viewer>>() {});
+  private static final Key<Editor> EDITOR_KEY = Key.get(Editor.class);
+  private static final Key<Viewer> VIEWER_KEY = Key.get(Viewer.class);
+  private static final Key<Document> DOCUMENT_KEY = Key.get(Document.class);
+
+  private IMocksControl control;
+  private Map<Key<?>, Binding> bindings;
+
+  public void setUp() throws Exception {
+    super.setUp();
+
+    control = EasyMock.createControl();
+    bindings = new LinkedHashMap<Key<?>, Binding>();
+  }
+
+  // A binding that is only reachable through an AsyncProvider is written to
+  // the split point fragment of its package.
+  public void testAsyncProviderOnly() {
+    Binding asyncEditor = createAsyncProviderBinding("asyncEditor", ASYNC_EDITOR_KEY, EDITOR_KEY);
+    Binding editor = createBinding("editor", EDITOR_KEY, DOCUMENT_KEY);
+    Binding document = createBinding("document", DOCUMENT_KEY);
+    GinjectorBindings rootBindings = createRootBindings(EditorGinjector.class);
+
+    control.replay();
+
+    ReachabilityAnalyzer analyzer = createAnalyzer(rootBindings);
+    FragmentPartitioner partitioner = createPartitioner(analyzer);
+
+    assertTrue(analyzer.isReachable(asyncEditor));
+    assertTrue(analyzer.isReachable(editor));
+    assertTrue(analyzer.isReachable(document));
+
+    assertEquals(MAIN_FRAGMENT, partitioner.getFragmentPackageName(asyncEditor));
+    assertEquals(MAIN_FRAGMENT.forSplitPointGroup(1), partitioner.getFragmentPackageName(editor));
+    assertEquals(MAIN_FRAGMENT.forSplitPointGroup(1),
+        partitioner.getFragmentPackageName(document));
+
+    control.verify();
+  }
+
+  // A binding that is reachable both directly and through an AsyncProvider
+  // stays in the main fragment.
+  public void testAsyncProviderAndDirect() {
+    Binding asyncEditor = createAsyncProviderBinding("asyncEditor", ASYNC_EDITOR_KEY, EDITOR_KEY);
+    Binding editor = createBinding("editor", EDITOR_KEY, DOCUMENT_KEY);
+    Binding document = createBinding("document", DOCUMENT_KEY);
+    GinjectorBindings rootBindings = createRootBindings(EditorAndDocumentGinjector.class);
+
+    control.replay();
+
+    ReachabilityAnalyzer analyzer = createAnalyzer(rootBindings);
+    FragmentPartitioner partitioner = createPartitioner(analyzer);
+
+    assertEquals(MAIN_FRAGMENT, partitioner.getFragmentPackageName(asyncEditor));
+    assertEquals(MAIN_FRAGMENT.forSplitPointGroup(1), partitioner.getFragmentPackageName(editor));
+    assertEquals(MAIN_FRAGMENT, partitioner.getFragmentPackageName(document));
+
+    control.verify();
+  }
+
+  // A dependency shared by two AsyncProviders belongs to a split point group
+  // of its own, separate from those of the bindings only one of them needs.
+  public void testAsyncProvidersSharingDependency() {
+    Binding asyncEditor = createAsyncProviderBinding("asyncEditor", ASYNC_EDITOR_KEY, EDITOR_KEY);
+    Binding asyncViewer = createAsyncProviderBinding("asyncViewer", ASYNC_VIEWER_KEY, VIEWER_KEY);
+    Binding editor = createBinding("editor", EDITOR_KEY, DOCUMENT_KEY);
+    Binding viewer = createBinding("viewer", VIEWER_KEY, DOCUMENT_KEY);
+    Binding document = createBinding("document", DOCUMENT_KEY);
+    GinjectorBindings rootBindings = createRootBindings(EditorAndViewerGinjector.class);
+
+    control.replay();
+
+    ReachabilityAnalyzer analyzer = createAnalyzer(rootBindings);
+
+    assertEquals(0, analyzer.getSplitPointGroup(asyncEditor));
+    assertEquals(0, analyzer.getSplitPointGroup(asyncViewer));
+
+    int editorGroup = analyzer.getSplitPointGroup(editor);
+    int viewerGroup = analyzer.getSplitPointGroup(viewer);
+    int documentGroup = analyzer.getSplitPointGroup(document);
+    assertTrue(editorGroup > 0);
+    assertTrue(viewerGroup > 0);
+    assertTrue(documentGroup > 0);
+    assertFalse(editorGroup == viewerGroup);
+    assertFalse(documentGroup == editorGroup);
+    assertFalse(documentGroup == viewerGroup);
+
+    assertEquals(MAIN_FRAGMENT.forSplitPointGroup(documentGroup),
+        createPartitioner(analyzer).getFragmentPackageName(document));
+
+    control.verify();
+  }
+
+  private ReachabilityAnalyzer createAnalyzer(GinjectorBindings rootBindings) {
+    MemberCollector memberCollector = new MemberCollector(TreeLogger.NULL);
+    GinProperties properties = new GinProperties(null) {
+      @Override
+      public boolean isEnabled(String propertyName) {
+        return GinProperties.SPLIT_POINT_FRAGMENTS.equals(propertyName);
+      }
+    };
+    return new ReachabilityAnalyzer(new GuiceUtil(memberCollector),
+        Providers.of(memberCollector), rootBindings, TreeLogger.NULL, new RebindTimings(),
+        properties);
+  }
+
+  private FragmentPartitioner createPartitioner(ReachabilityAnalyzer analyzer) {
+    return new FragmentPartitioner(new FragmentPackageName.Factory() {
+      public FragmentPackageName create(String packageName) {
+        return new FragmentPackageName(Ginjector.class, packageName);
+      }
+    }, analyzer);
+  }
+
+  private GinjectorBindings createRootBindings(Class<? extends Ginjector> ginjectorInterface) {
+    GinjectorBindings rootBindings = control.createMock("rootBindings", GinjectorBindings.class);
+    expect(rootBindings.getGinjectorInterface())
+        .andStubReturn((TypeLiteral) TypeLiteral.get(ginjectorInterface));
+    expect(rootBindings.getBindings()).andStubReturn(bindings.entrySet());
+    for (Map.Entry<Key<?>, Binding> entry : bindings.entrySet()) {
+      expect(rootBindings.getBinding(entry.getKey())).andStubReturn(entry.getValue());
+    }
+    expect(rootBindings.determineScope((Key<?>) anyObject())).andStubReturn(GinScope.NO_SCOPE);
+    expect(rootBindings.getChildren())
+        .andStubReturn(Collections.<GinjectorBindings>emptyList());
+    expect(rootBindings.getStaticInjectionRequests())
+        .andStubReturn(Collections.<Class<?>>emptyList());
+    return rootBindings;
+  }
+
+  private Binding createBinding(String name, Key<?> key, Key<?>... targets) {
+    List<Dependency> dependencies = new ArrayList<Dependency>();
+    for (Key<?> target : targets) {
+      dependencies.add(new Dependency(key, target, "test"));
+    }
+    return addBinding(key, control.createMock(name, Binding.class), dependencies);
+  }
+
+  private Binding createAsyncProviderBinding(String name, Key<?> key, Key<?> target) {
+    return addBinding(key, control.createMock(name, AsyncProviderBinding.class),
+        Collections.singletonList(new Dependency(key, target, false, true, "test")));
+  }
+
+  private Binding addBinding(Key<?> key, Binding binding, List<Dependency> dependencies) {
+    expect(binding.getDependencies()).andStubReturn(dependencies);
+    expect(binding.getMemberInjectRequests())
+        .andStubReturn(Collections.<TypeLiteral<?>>emptyList());
+    expect(binding.getGetterMethodPackage()).andStubReturn(PACKAGE_NAME);
+    bindings.put(key, binding);
+    return binding;
+  }
+
+  public interface EditorGinjector extends Ginjector {
+    AsyncProvider<Editor> getEditor();
+  }
+
+  public interface EditorAndDocumentGinjector extends Ginjector {
+    AsyncProvider<Editor> getEditor();
+
+    Document getDocument();
+  }
+
+  public interface EditorAndViewerGinjector extends Ginjector {
+    AsyncProvider<Editor> getEditor();
+
+    AsyncProvider<Viewer> getViewer();
+  }
+
+  public static class Editor {}
+
+  public static class Viewer {}
+
+  public static class Document {}
+}
@@ -32,6 +32,7 @@ import com.google.gwt.inject.rebind.binding.Context;
 import com.google.gwt.inject.rebind.binding.Dependency;
 import com.google.gwt.inject.rebind.binding.ParentBinding;
 import com.google.gwt.inject.rebind.resolution.DependencyExplorer.DependencyExplorerOutput;
+import com.google.gwt.inject.rebind.util.RebindTimings;
 import com.google.inject.Key;
 import junit.framework.TestCase;
 import org.easymock.EasyMock;
@@ -77,7 +78,8 @@ public class BindingInstallerTest extends TestCase {
 
     expect(positionsFactory.create(treeLogger)).andStubReturn(positions);
     control.replay();
-    installer = new BindingInstaller(positionsFactory, bindingFactory, treeLogger);
+    installer = new BindingInstaller(positionsFactory, bindingFactory, new RebindTimings(),
+        treeLogger);
     control.verify();
     control.reset();
 
@@ -40,6 +40,7 @@ import com.google.gwt.inject.rebind.binding.Dependency;
 import com.google.gwt.inject.rebind.binding.ExposedChildBinding;
 import com.google.gwt.inject.rebind.binding.ParentBinding;
 import com.google.gwt.inject.rebind.resolution.ImplicitBindingCreator.BindingCreationException;
+import com.google.gwt.inject.rebind.util.RebindTimings;
 import com.google.inject.Key;
 import junit.framework.TestCase;
 import org.easymock.Capture;
@@ -104,11 +105,13 @@ public class BindingResolverTest extends TestCase {
             return bindingCreator;
           }
         };
+    final ImplicitBindingPrefetcher prefetcher =
+        new ImplicitBindingPrefetcher(bindingCreatorFactory, treeLogger);
     DependencyExplorer.Factory dependencyExplorerFactory =
         new DependencyExplorer.Factory() {
           @Override
           public DependencyExplorer create(TreeLogger logger) {
-            return new DependencyExplorer(bindingCreatorFactory, logger);
+            return new DependencyExplorer(bindingCreatorFactory, prefetcher, logger);
           }
         };
     UnresolvedBindingValidator.Factory unresolvedBindingValidatorFactory =
@@ -130,7 +133,8 @@ public class BindingResolverTest extends TestCase {
         new BindingInstaller.Factory() {
           @Override
           public BindingInstaller create(TreeLogger logger) {
-            return new BindingInstaller(bindingPositionerFactory, bindingFactory, logger);
+            return new BindingInstaller(bindingPositionerFactory, bindingFactory,
+                new RebindTimings(), logger);
           }
         };
 
@@ -138,7 +142,8 @@ public class BindingResolverTest extends TestCase {
         dependencyExplorerFactory,
         unresolvedBindingValidatorFactory,
         bindingInstallerFactory,
-        treeLogger);
+        treeLogger,
+        new RebindTimings());
   }
   
   private GinjectorBindings createInjectorNode(String name) {
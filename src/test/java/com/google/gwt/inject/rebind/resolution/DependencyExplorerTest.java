@@ -60,7 +60,8 @@ public class DependencyExplorerTest extends TestCase {
 
     bindingCreator = control.createMock(ImplicitBindingCreator.class);
     origin = control.createMock("origin", GinjectorBindings.class);
-    dependencyExplorer = new DependencyExplorer(bindingCreatorFactory, treeLogger);
+    dependencyExplorer = new DependencyExplorer(bindingCreatorFactory,
+        new ImplicitBindingPrefetcher(bindingCreatorFactory, treeLogger), treeLogger);
     binding = control.createMock("binding", Binding.class);
     childBinding = control.createMock(ExposedChildBinding.class);
   }
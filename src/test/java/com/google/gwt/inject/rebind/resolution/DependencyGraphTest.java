@@ -0,0 +1,150 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind.resolution;
+
+import static com.google.gwt.inject.rebind.resolution.TestUtils.bar;
+import static com.google.gwt.inject.rebind.resolution.TestUtils.baz;
+import static com.google.gwt.inject.rebind.resolution.TestUtils.foo;
+
+import com.google.gwt.inject.rebind.GinjectorBindings;
+import com.google.gwt.inject.rebind.binding.Dependency;
+import com.google.inject.Key;
+
+import junit.framework.TestCase;
+
+import org.easymock.EasyMock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class DependencyGraphTest extends TestCase {
+
+  private static final String SOURCE = "dummy";
+
+  private static final Dependency DEP_GIN_FOO = new Dependency(Dependency.GINJECTOR, foo(), SOURCE);
+  private static final Dependency DEP_FOO_BAR = new Dependency(foo(), bar(), SOURCE);
+  private static final Dependency DEP_FOO_BAZ = new Dependency(foo(), baz(), SOURCE);
+  private static final Dependency DEP_BAR_BAZ = new Dependency(bar(), baz(), SOURCE);
+  private static final Dependency DEP_BAR_BAZ_LAZY =
+      new Dependency(bar(), baz(), false, true, SOURCE);
+
+  private GinjectorBindings origin;
+
+  @Override
+  protected void setUp() throws Exception {
+    origin = EasyMock.createMock(GinjectorBindings.class);
+  }
+
+  public void testEdgesKeepInsertionOrder() throws Exception {
+    DependencyGraph graph = new DependencyGraph.Builder(origin)
+        .addEdge(DEP_BAR_BAZ)
+        .addEdge(DEP_FOO_BAZ)
+        .addEdge(DEP_GIN_FOO)
+        .addEdge(DEP_FOO_BAR)
+        .addEdge(DEP_BAR_BAZ_LAZY)
+        .build();
+
+    assertEquals(Arrays.asList(DEP_FOO_BAZ, DEP_FOO_BAR), graph.getDependenciesOf(foo()));
+    assertEquals(Arrays.asList(DEP_BAR_BAZ, DEP_BAR_BAZ_LAZY), graph.getDependenciesOf(bar()));
+    assertEquals(Arrays.asList(DEP_BAR_BAZ, DEP_FOO_BAZ, DEP_BAR_BAZ_LAZY),
+        graph.getDependenciesTargeting(baz()));
+    assertEquals(Arrays.<Key<?>>asList(baz(), foo(), bar()), keys(graph));
+    assertEquals(3, graph.size());
+  }
+
+  public void testDuplicateEdgesAreMerged() throws Exception {
+    Dependency otherContext = new Dependency(foo(), bar(), "other");
+    DependencyGraph graph = new DependencyGraph.Builder(origin)
+        .addEdge(DEP_FOO_BAR)
+        .addEdge(otherContext)
+        .build();
+
+    assertEquals(1, graph.getDependenciesOf(foo()).size());
+    assertSame(DEP_FOO_BAR, graph.getDependenciesOf(foo()).iterator().next());
+  }
+
+  public void testUnknownKey() throws Exception {
+    DependencyGraph graph = new DependencyGraph.Builder(origin).addEdge(DEP_FOO_BAR).build();
+
+    assertEquals(-1, graph.getNodeId(baz()));
+    assertTrue(graph.getDependenciesOf(baz()).isEmpty());
+    assertTrue(graph.getDependenciesTargeting(baz()).isEmpty());
+  }
+
+  public void testEdgeFlags() throws Exception {
+    Dependency optional = new Dependency(foo(), baz(), true, false, SOURCE);
+    DependencyGraph graph = new DependencyGraph.Builder(origin)
+        .addEdge(optional)
+        .addEdge(DEP_BAR_BAZ_LAZY)
+        .build();
+
+    int fooNode = graph.getNodeId(foo());
+    int fooEdge = graph.getOutgoingStart(fooNode);
+    assertEquals(fooEdge + 1, graph.getOutgoingEnd(fooNode));
+    assertSame(optional, graph.getDependency(fooEdge));
+    assertEquals(graph.getNodeId(baz()), graph.getEdgeTarget(fooEdge));
+    assertTrue(graph.isOptional(fooEdge));
+    assertFalse(graph.isLazy(fooEdge));
+
+    int barEdge = graph.getOutgoingStart(graph.getNodeId(bar()));
+    assertFalse(graph.isOptional(barEdge));
+    assertTrue(graph.isLazy(barEdge));
+  }
+
+  public void testPrune() throws Exception {
+    DependencyGraph graph = new DependencyGraph.Builder(origin)
+        .addEdge(DEP_GIN_FOO)
+        .addEdge(DEP_FOO_BAR)
+        .addEdge(DEP_FOO_BAZ)
+        .addEdge(DEP_BAR_BAZ)
+        .build();
+
+    new DependencyGraph.GraphPruner(graph).remove(bar()).remove(bar()).update();
+
+    assertEquals(Arrays.asList(DEP_FOO_BAZ), graph.getDependenciesOf(foo()));
+    assertTrue(graph.getDependenciesOf(bar()).isEmpty());
+    assertEquals(Arrays.asList(DEP_FOO_BAZ), graph.getDependenciesTargeting(baz()));
+    assertEquals(Arrays.<Key<?>>asList(foo(), baz()), keys(graph));
+    assertEquals(2, graph.size());
+  }
+
+  public void testPrunedKeysLeaveTheGraph() throws Exception {
+    DependencyGraph graph = new DependencyGraph.Builder(origin)
+        .addEdge(DEP_GIN_FOO)
+        .addEdge(DEP_FOO_BAR)
+        .addEdge(DEP_BAR_BAZ)
+        .build();
+    assertEquals(3, graph.size());
+
+    new DependencyGraph.GraphPruner(graph).remove(bar()).update();
+
+    // baz was only targeted by bar, so it goes away with it.
+    assertEquals(Arrays.<Key<?>>asList(foo()), keys(graph));
+    assertEquals(1, graph.size());
+    assertTrue(graph.getDependenciesTargeting(bar()).isEmpty());
+    assertTrue(graph.getDependenciesTargeting(baz()).isEmpty());
+    assertTrue(graph.getDependenciesOf(foo()).isEmpty());
+  }
+
+  private List<Key<?>> keys(DependencyGraph graph) {
+    List<Key<?>> keys = new ArrayList<Key<?>>();
+    for (Key<?> key : graph.getAllKeys()) {
+      keys.add(key);
+    }
+    return keys;
+  }
+}
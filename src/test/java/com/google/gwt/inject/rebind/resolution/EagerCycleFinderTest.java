@@ -26,6 +26,7 @@ import com.google.gwt.inject.rebind.GinjectorBindings;
 import com.google.gwt.inject.rebind.binding.Dependency;
 import com.google.gwt.inject.rebind.util.PrettyPrinter;
 import com.google.inject.Key;
+import com.google.inject.name.Names;
 
 import junit.framework.TestCase;
 
@@ -230,6 +231,36 @@ public class EagerCycleFinderTest extends TestCase {
     control.verify();
   }
 
+  public void testLongChainWithoutCycle() throws Exception {
+    List<Key<?>> chain = longChain();
+    expect(origin.getDependencies()).andStubReturn(TestUtils.dependencyList(
+        new Dependency(Dependency.GINJECTOR, chain.get(0), SOURCE)));
+    control.replay();
+    DependencyGraph.Builder builder = new DependencyGraph.Builder(origin)
+        .addEdge(new Dependency(Dependency.GINJECTOR, chain.get(0), SOURCE));
+    for (int i = 1; i < chain.size(); i++) {
+      builder.addEdge(new Dependency(chain.get(i - 1), chain.get(i), SOURCE));
+    }
+    assertFalse(eagerCycleFinder.findAndReportCycles(builder.build()));
+    control.verify();
+  }
+
+  public void testLongChainWithCycle() throws Exception {
+    List<Key<?>> chain = longChain();
+    errorManager.logError(isA(String.class), isA(Object.class), isA(Object.class));
+    expect(origin.getDependencies()).andStubReturn(TestUtils.dependencyList(
+        new Dependency(Dependency.GINJECTOR, chain.get(0), SOURCE)));
+    control.replay();
+    DependencyGraph.Builder builder = new DependencyGraph.Builder(origin)
+        .addEdge(new Dependency(Dependency.GINJECTOR, chain.get(0), SOURCE));
+    for (int i = 1; i < chain.size(); i++) {
+      builder.addEdge(new Dependency(chain.get(i - 1), chain.get(i), SOURCE));
+    }
+    builder.addEdge(new Dependency(chain.get(chain.size() - 1), chain.get(0), SOURCE));
+    assertTrue(eagerCycleFinder.findAndReportCycles(builder.build()));
+    control.verify();
+  }
+
   public void testRootCycleAt_keyNotPresent() {
     assertDependencyListEquals(
         EagerCycleFinder.rootCycleAt(
@@ -278,6 +309,15 @@ public class EagerCycleFinderTest extends TestCase {
         DEP_BAZ_FOO, DEP_FOO_BAR, DEP_BAR_BAZ);
   }
 
+  // Deep enough that a recursive search would overflow the default thread stack.
+  private List<Key<?>> longChain() {
+    List<Key<?>> chain = new ArrayList<Key<?>>();
+    for (int i = 0; i < 50000; i++) {
+      chain.add(Key.get(String.class, Names.named("chain" + i)));
+    }
+    return chain;
+  }
+
   private List<Dependency> dependencyList(Dependency... expected) {
     return Arrays.asList(expected);
   }
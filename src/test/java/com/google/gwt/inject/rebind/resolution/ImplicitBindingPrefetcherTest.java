@@ -0,0 +1,145 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind.resolution;
+
+import static com.google.gwt.inject.rebind.resolution.TestUtils.bar;
+import static com.google.gwt.inject.rebind.resolution.TestUtils.baz;
+import static com.google.gwt.inject.rebind.resolution.TestUtils.foo;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.isA;
+
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.inject.rebind.GinjectorBindings;
+import com.google.gwt.inject.rebind.binding.Binding;
+import com.google.gwt.inject.rebind.binding.Dependency;
+import com.google.gwt.inject.rebind.resolution.ImplicitBindingCreator.BindingCreationException;
+import com.google.inject.Key;
+
+import junit.framework.TestCase;
+
+import org.easymock.EasyMock;
+import org.easymock.IMocksControl;
+
+import java.util.Collections;
+
+public class ImplicitBindingPrefetcherTest extends TestCase {
+
+  private IMocksControl control;
+  private ImplicitBindingCreator bindingCreator;
+  private GinjectorBindings root;
+  private GinjectorBindings child;
+  private ImplicitBindingPrefetcher prefetcher;
+
+  @Override
+  protected void setUp() throws Exception {
+    control = EasyMock.createControl();
+    bindingCreator = control.createMock("bindingCreator", ImplicitBindingCreator.class);
+    root = control.createMock("root", GinjectorBindings.class);
+    child = control.createMock("child", GinjectorBindings.class);
+
+    expect(root.getParent()).andStubReturn(null);
+    expect(root.getChildren()).andStubReturn(Collections.singletonList(child));
+    expect(child.getParent()).andStubReturn(root);
+    expect(child.getChildren()).andStubReturn(Collections.<GinjectorBindings>emptyList());
+    expect(root.isBound(isA(Key.class))).andStubReturn(false);
+    expect(root.isPinned(isA(Key.class))).andStubReturn(false);
+    expect(child.isBound(isA(Key.class))).andStubReturn(false);
+    expect(child.isPinned(isA(Key.class))).andStubReturn(false);
+
+    prefetcher = new ImplicitBindingPrefetcher(new ImplicitBindingCreator.Factory() {
+      public ImplicitBindingCreator create(TreeLogger logger) {
+        return bindingCreator;
+      }
+    }, TreeLogger.NULL);
+  }
+
+  public void testPrefetch() throws Exception {
+    Binding fooBinding = control.createMock("fooBinding", Binding.class);
+    Binding barBinding = control.createMock("barBinding", Binding.class);
+    expect(root.getDependencies()).andStubReturn(Collections.<Dependency>emptyList());
+    expect(child.getDependencies()).andStubReturn(
+        Collections.singletonList(new Dependency(Dependency.GINJECTOR, foo(), "test")));
+    expect(bindingCreator.create(foo())).andReturn(fooBinding);
+    expect(fooBinding.getDependencies()).andReturn(
+        Collections.singletonList(new Dependency(foo(), bar(), "test")));
+    expect(bindingCreator.create(bar())).andReturn(barBinding);
+    expect(barBinding.getDependencies()).andReturn(Collections.<Dependency>emptyList());
+    control.replay();
+
+    prefetcher.prefetch(root);
+
+    assertSame(fooBinding, prefetcher.take(child, foo()));
+    assertSame(barBinding, prefetcher.take(child, bar()));
+    assertNull(prefetcher.take(child, foo()));
+    assertNull(prefetcher.take(root, foo()));
+    control.verify();
+  }
+
+  public void testPrefetchSkipsAvailableKeys() throws Exception {
+    control.reset();
+    expect(root.getParent()).andStubReturn(null);
+    expect(root.getChildren()).andStubReturn(Collections.singletonList(child));
+    expect(root.getDependencies()).andStubReturn(Collections.<Dependency>emptyList());
+    expect(root.isBound(baz())).andStubReturn(true);
+    expect(child.getParent()).andStubReturn(root);
+    expect(child.getChildren()).andStubReturn(Collections.<GinjectorBindings>emptyList());
+    expect(child.getDependencies()).andStubReturn(
+        Collections.singletonList(new Dependency(Dependency.GINJECTOR, baz(), "test")));
+    expect(child.isBound(baz())).andStubReturn(false);
+    expect(child.isPinned(baz())).andStubReturn(false);
+    control.replay();
+
+    prefetcher.prefetch(root);
+
+    assertNull(prefetcher.take(child, baz()));
+    control.verify();
+  }
+
+  public void testPrefetchFailure() throws Exception {
+    BindingCreationException exception = new BindingCreationException("failure");
+    expect(root.getDependencies()).andStubReturn(
+        Collections.singletonList(new Dependency(Dependency.GINJECTOR, foo(), "test")));
+    expect(child.getDependencies()).andStubReturn(Collections.<Dependency>emptyList());
+    expect(bindingCreator.create(foo())).andThrow(exception);
+    control.replay();
+
+    prefetcher.prefetch(root);
+
+    try {
+      prefetcher.take(root, foo());
+      fail("Expected BindingCreationException");
+    } catch (BindingCreationException e) {
+      assertSame(exception, e);
+    }
+    control.verify();
+  }
+
+  public void testClear() throws Exception {
+    Binding fooBinding = control.createMock("fooBinding", Binding.class);
+    expect(root.getDependencies()).andStubReturn(
+        Collections.singletonList(new Dependency(Dependency.GINJECTOR, foo(), "test")));
+    expect(child.getDependencies()).andStubReturn(Collections.<Dependency>emptyList());
+    expect(bindingCreator.create(foo())).andReturn(fooBinding);
+    expect(fooBinding.getDependencies()).andReturn(Collections.<Dependency>emptyList());
+    control.replay();
+
+    prefetcher.prefetch(root);
+    prefetcher.clear();
+
+    assertNull(prefetcher.take(root, foo()));
+    control.verify();
+  }
+}
@@ -171,6 +171,57 @@ public class MemberCollectorTest extends TestCase {
     }
   }
 
+  public void testTypeFilter() {
+    MemberCollector collector = createAllCollector();
+    collector.setTypeFilter(new MemberCollector.TypeFilter() {
+      public boolean accept(Class<?> type) {
+        return type != SuperClass.class;
+      }
+    });
+
+    TypeLiteral<SubClass> type = TypeLiteral.get(SubClass.class);
+    Collection<MethodLiteral<?, Method>> methods = collector.getMethods(type);
+    Collection<FieldLiteral<?>> fields = collector.getFields(type);
+
+    assertEquals(3, fields.size());
+    for (FieldLiteral<?> field : fields) {
+      assertEquals(SubClass.class, field.getRawDeclaringType());
+    }
+
+    assertFalse(methods.isEmpty());
+    for (MethodLiteral<?, Method> method : methods) {
+      assertFalse(method.getRawDeclaringType().equals(SuperClass.class));
+    }
+  }
+
+  public void testSharedMemberIndex() {
+    TypeMemberIndex memberIndex = new TypeMemberIndex();
+    MemberCollector allCollector = new MemberCollector(TreeLogger.NULL, memberIndex);
+    allCollector.setMethodFilter(MemberCollector.ALL_METHOD_FILTER);
+    MemberCollector publicCollector = new MemberCollector(TreeLogger.NULL, memberIndex);
+    publicCollector.setMethodFilter(new MemberCollector.MethodFilter() {
+      public boolean accept(MethodLiteral<?, Method> method) {
+        return method.isPublic();
+      }
+    });
+
+    TypeLiteral<SubClass> type = TypeLiteral.get(SubClass.class);
+    Collection<MethodLiteral<?, Method>> allMethods = allCollector.getMethods(type);
+    for (MethodLiteral<?, Method> method : publicCollector.getMethods(type)) {
+      assertTrue(containsSame(allMethods, method));
+    }
+    assertSame(memberIndex.getDeclaredMethods(type), memberIndex.getDeclaredMethods(type));
+  }
+
+  private static boolean containsSame(Collection<?> collection, Object element) {
+    for (Object candidate : collection) {
+      if (candidate == element) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   // Collect everything but "java.lang.Object" members (they can throw our
   // counts off and should not matter for Guice injection in production code).
   private static boolean isObject(MemberLiteral<?, ?> member) {
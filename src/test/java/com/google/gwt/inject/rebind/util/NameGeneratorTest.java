@@ -16,12 +16,18 @@
 package com.google.gwt.inject.rebind.util;
 
 import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
+import com.google.inject.name.Names;
 
 import junit.framework.TestCase;
 
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 public class NameGeneratorTest extends TestCase {
 
-  // TODO(schmitt):  Test mangle.
   // TODO(schmitt):  Test name translation.
 
   public void testRepeatedCalls() {
@@ -65,4 +71,64 @@ public class NameGeneratorTest extends TestCase {
     assertFalse(getStringGetter.equals(getStringField));
     assertEquals(getStringGetter, nameGenerator.getGetterMethodName(key));
   }
+
+  public void testCompactNames() {
+    NameGenerator nameGenerator = new NameGenerator();
+    Key<?> key = Key.get(new TypeLiteral<Map<String, List<Integer>>>() {},
+        Names.named("a rather long annotation value that should not end up in the name"));
+    String getter = nameGenerator.getGetterMethodName(key);
+
+    assertTrue(getter, getter.startsWith("get_Map_Named_"));
+    assertTrue(getter, getter.length() < 40);
+    assertEquals(nameGenerator.convertToValidMemberName(getter), getter);
+
+    // Names are stable across generators.
+    assertEquals(getter, new NameGenerator().getGetterMethodName(key));
+  }
+
+  public void testCompactNamesDistinguishKeys() {
+    NameGenerator nameGenerator = new NameGenerator();
+    String first = nameGenerator.getGetterMethodName(Key.get(String.class, Names.named("first")));
+    String second = nameGenerator.getGetterMethodName(Key.get(String.class, Names.named("second")));
+    assertTrue(first, first.startsWith("get_String_Named_"));
+    assertTrue(second, second.startsWith("get_String_Named_"));
+    assertFalse(first.equals(second));
+  }
+
+  public void testVerboseNames() {
+    NameGenerator nameGenerator = new NameGenerator(true);
+    Key<?> key = Key.get(String.class);
+    assertEquals(nameGenerator.convertToValidMemberName("get_" + key),
+        nameGenerator.getGetterMethodName(key));
+  }
+
+  public void testCreateMethodNameSuffixes() {
+    NameGenerator nameGenerator = new NameGenerator();
+    nameGenerator.markAsUsed("foo_2");
+    assertEquals("foo", nameGenerator.createMethodName("foo"));
+    assertEquals("foo_1", nameGenerator.createMethodName("foo"));
+    assertEquals("foo_3", nameGenerator.createMethodName("foo"));
+    assertEquals("foo_4", nameGenerator.createMethodName("foo"));
+  }
+
+  public void testCreateMethodNameVerboseSuffixes() {
+    NameGenerator nameGenerator = new NameGenerator(true);
+    nameGenerator.markAsUsed("foo__");
+    assertEquals("foo", nameGenerator.createMethodName("foo"));
+    assertEquals("foo_", nameGenerator.createMethodName("foo"));
+    assertEquals("foo___", nameGenerator.createMethodName("foo"));
+
+    // Names handed out for other bases are skipped as well.
+    assertEquals("foo____", nameGenerator.createMethodName("foo____"));
+    assertEquals("foo_____", nameGenerator.createMethodName("foo"));
+  }
+
+  public void testCreateMethodNameManyCollisions() {
+    NameGenerator nameGenerator = new NameGenerator();
+    Set<String> names = new HashSet<String>();
+    for (int i = 0; i < 1000; i++) {
+      assertTrue(names.add(nameGenerator.createMethodName("foo")));
+    }
+    assertEquals("foo_1000", nameGenerator.createMethodName("foo"));
+  }
 }
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind.util;
+
+import com.google.gwt.inject.rebind.util.RebindTimings.Counter;
+import com.google.gwt.inject.rebind.util.RebindTimings.Phase;
+
+import junit.framework.TestCase;
+
+public class RebindTimingsTest extends TestCase {
+
+  public void testPhases() {
+    RebindTimings timings = new RebindTimings();
+    long start = timings.start();
+    long next = timings.stop(Phase.DEPENDENCY_EXPLORATION, start);
+    timings.stop(Phase.VALIDATION, next);
+    timings.stop(Phase.DEPENDENCY_EXPLORATION, timings.start());
+
+    assertEquals(2, timings.getRuns(Phase.DEPENDENCY_EXPLORATION));
+    assertEquals(1, timings.getRuns(Phase.VALIDATION));
+    assertEquals(0, timings.getRuns(Phase.OUTPUT));
+    assertEquals(0, timings.getNanos(Phase.OUTPUT));
+    assertTrue(timings.getNanos(Phase.DEPENDENCY_EXPLORATION) >= next - start);
+  }
+
+  public void testCounters() {
+    RebindTimings timings = new RebindTimings();
+    timings.add(Counter.METHODS, 1);
+    timings.add(Counter.METHODS, 1);
+    timings.add(Counter.SOURCE_BYTES, 1024);
+
+    assertEquals(2, timings.getCount(Counter.METHODS));
+    assertEquals(1024, timings.getCount(Counter.SOURCE_BYTES));
+    assertEquals(0, timings.getCount(Counter.KEYS));
+  }
+
+  public void testToJson() {
+    RebindTimings timings = new RebindTimings();
+    timings.add(Counter.KEYS, 42);
+    timings.stop(Phase.OUTPUT, timings.start());
+
+    String json = timings.toJson("com.example.My\"Ginjector");
+    assertTrue(json, json.contains("\"ginjector\": \"com.example.My\\\"Ginjector\""));
+    assertTrue(json, json.contains("\"keys\": 42"));
+    assertTrue(json, json.contains("\"output\": {\"millis\": "));
+    assertTrue(json, json.contains("\"runs\": 1}"));
+    for (Phase phase : Phase.values()) {
+      assertTrue(json, json.contains("\"" + phase.getLabel() + "\""));
+    }
+    for (Counter counter : Counter.values()) {
+      assertTrue(json, json.contains("\"" + counter.getLabel() + "\""));
+    }
+  }
+}
@@ -67,7 +67,7 @@ public class SourceWriteUtilTest extends TestCase {
     GuiceUtil guiceUtil = new GuiceUtil(createInjectableCollector());
     MethodCallUtil methodCallUtil = new MethodCallUtil();
     sourceWriteUtil = new SourceWriteUtil(guiceUtil, createInjectableCollector(), methodCallUtil,
-        bindingIndex);
+        new RebindTimings(), bindingIndex);
   }
 
   // TODO(schmitt): same collector as in the guice module, centralize.
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.inject.rebind.util;
+
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+
+import com.google.gwt.core.ext.typeinfo.JClassType;
+import com.google.gwt.core.ext.typeinfo.JField;
+import com.google.gwt.core.ext.typeinfo.JMethod;
+import com.google.gwt.core.ext.typeinfo.TypeOracle;
+import com.google.gwt.inject.rebind.util.types.SuperClass;
+import com.google.inject.Inject;
+
+import junit.framework.TestCase;
+
+import java.lang.annotation.Annotation;
+
+public class TypeOracleInjectionFilterTest extends TestCase {
+
+  private static final String TYPE_NAME = "com.google.gwt.inject.rebind.util.types.SuperClass";
+
+  private TypeOracle typeOracle;
+  private JClassType classType;
+  private TypeOracleInjectionFilter filter;
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    typeOracle = createMock(TypeOracle.class);
+    classType = createMock(JClassType.class);
+    filter = new TypeOracleInjectionFilter(typeOracle);
+  }
+
+  public void testAcceptsUnknownType() {
+    expect(typeOracle.findType(TYPE_NAME)).andReturn(null);
+    replay(typeOracle);
+
+    assertTrue(filter.accept(SuperClass.class));
+    verify(typeOracle);
+  }
+
+  public void testRejectsTypeWithoutInjectableMembers() throws Exception {
+    JMethod method = createMock(JMethod.class);
+    expect(method.getAnnotations()).andReturn(getAnnotations("deprecatedMember"));
+    JField field = createMock(JField.class);
+    expect(field.getAnnotations()).andReturn(new Annotation[0]);
+    expectMembers(new JMethod[] {method}, new JField[] {field});
+    replay(typeOracle, classType, method, field);
+
+    assertFalse(filter.accept(SuperClass.class));
+    verify(typeOracle, classType, method, field);
+  }
+
+  public void testAcceptsTypeWithInjectedMethod() throws Exception {
+    JMethod method = createMock(JMethod.class);
+    expect(method.getAnnotations()).andReturn(getAnnotations("guiceInjectedMember"));
+    expect(typeOracle.findType(TYPE_NAME)).andReturn(classType);
+    expect(classType.getMethods()).andReturn(new JMethod[] {method});
+    replay(typeOracle, classType, method);
+
+    assertTrue(filter.accept(SuperClass.class));
+    verify(typeOracle, classType, method);
+  }
+
+  public void testAcceptsTypeWithInjectedField() throws Exception {
+    JField field = createMock(JField.class);
+    expect(field.getAnnotations()).andReturn(getAnnotations("jsr330InjectedMember"));
+    expectMembers(new JMethod[0], new JField[] {field});
+    replay(typeOracle, classType, field);
+
+    assertTrue(filter.accept(SuperClass.class));
+    verify(typeOracle, classType, field);
+  }
+
+  private void expectMembers(JMethod[] methods, JField[] fields) {
+    expect(typeOracle.findType(TYPE_NAME)).andReturn(classType);
+    expect(classType.getMethods()).andReturn(methods);
+    expect(classType.getFields()).andReturn(fields);
+  }
+
+  private static Annotation[] getAnnotations(String fieldName) throws Exception {
+    return Annotated.class.getDeclaredField(fieldName).getAnnotations();
+  }
+
+  private static class Annotated {
+    @Deprecated Object deprecatedMember;
+    @Inject Object guiceInjectedMember;
+    @javax.inject.Inject Object jsr330InjectedMember;
+  }
+}